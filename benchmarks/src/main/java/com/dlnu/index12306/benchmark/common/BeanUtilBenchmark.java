@@ -0,0 +1,87 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dlnu.index12306.benchmark.common;
+
+import com.dlnu.index12306.biz.ticketservice.remote.dto.TicketOrderPassengerDetailRespDTO;
+import com.dlnu.index12306.biz.ticketservice.service.handler.ticket.dto.TrainPurchaseTicketRespDTO;
+import com.dlnu.index12306.framework.starter.common.toolkit.BeanUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 对象属性复制基准测试，模拟取消订单时将订单乘车人明细转换为购票结果用于解锁座位
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BeanUtilBenchmark {
+
+    /**
+     * 订单乘车人数量
+     */
+    @Param({"1", "5"})
+    private int passengerCount;
+
+    private List<TicketOrderPassengerDetailRespDTO> passengerDetails;
+
+    @Setup
+    public void setUp() {
+        passengerDetails = new ArrayList<>(passengerCount);
+        for (int i = 0; i < passengerCount; i++) {
+            passengerDetails.add(TicketOrderPassengerDetailRespDTO.builder()
+                    .userId(1683025552364568576L)
+                    .username("admin")
+                    .seatType(2)
+                    .carriageNumber("03")
+                    .seatNumber("0" + (i + 1) + "A")
+                    .realName("乘车人" + i)
+                    .idType(0)
+                    .idCard("11010119900307" + String.format("%04d", i))
+                    .ticketType(0)
+                    .amount(62_400)
+                    .status(0)
+                    .build());
+        }
+    }
+
+    @Benchmark
+    public TrainPurchaseTicketRespDTO convertOne() {
+        return BeanUtil.convert(passengerDetails.get(0), TrainPurchaseTicketRespDTO.class);
+    }
+
+    @Benchmark
+    public List<TrainPurchaseTicketRespDTO> convertList() {
+        return BeanUtil.convert(passengerDetails, TrainPurchaseTicketRespDTO.class);
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dlnu.index12306.benchmark.designpattern;
+
+import com.dlnu.index12306.biz.ticketservice.common.enums.CanalExecuteStrategyMarkEnum;
+import com.dlnu.index12306.biz.ticketservice.common.enums.VehicleSeatTypeEnum;
+import com.dlnu.index12306.biz.ticketservice.common.enums.VehicleTypeEnum;
+import com.dlnu.index12306.framework.starter.bases.ApplicationContextHolder;
+import com.dlnu.index12306.framework.starter.bases.init.ApplicationInitializingEvent;
+import com.dlnu.index12306.framework.starter.designpattern.strategy.AbstractExecuteStrategy;
+import com.dlnu.index12306.framework.starter.designpattern.strategy.AbstractStrategyChoose;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.support.GenericApplicationContext;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 策略选择器基准测试，按购票服务实际注册的策略构造容器
+ * 包含每种列车类型与座位类型组合的选座策略，以及 Canal binlog 同步策略（订单表为分表范匹配）
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AbstractStrategyChooseBenchmark {
+
+    private static final String PURCHASE_MARK = VehicleTypeEnum.HIGH_SPEED_RAIN.getName() + VehicleSeatTypeEnum.SECOND_CLASS.getName();
+    private static final String SHARDING_ORDER_TABLE = "t_order_7";
+
+    private GenericApplicationContext applicationContext;
+    private AbstractStrategyChoose abstractStrategyChoose;
+    private final Object requestParam = new Object();
+
+    @Setup
+    public void setUp() {
+        applicationContext = new GenericApplicationContext();
+        applicationContext.registerBean(ApplicationContextHolder.class);
+        Arrays.stream(VehicleTypeEnum.values())
+                .filter(each -> each.getSeatTypes() != null)
+                .forEach(vehicleType -> vehicleType.getSeatTypes().forEach(seatType -> {
+                    String mark = vehicleType.getName() + VehicleSeatTypeEnum.findNameByCode(seatType);
+                    applicationContext.registerBean(mark, AbstractExecuteStrategy.class, () -> new FixedMarkStrategy(mark, null));
+                }));
+        Arrays.stream(CanalExecuteStrategyMarkEnum.values()).forEach(each -> applicationContext.registerBean(
+                each.getActualTable(), AbstractExecuteStrategy.class, () -> new FixedMarkStrategy(each.getActualTable(), each.getPatternMatchTable())));
+        applicationContext.refresh();
+        abstractStrategyChoose = new AbstractStrategyChoose();
+        abstractStrategyChoose.onApplicationEvent(new ApplicationInitializingEvent(applicationContext));
+    }
+
+    @TearDown
+    public void tearDown() {
+        applicationContext.close();
+    }
+
+    @Benchmark
+    public Object chooseAndExecuteResp() {
+        return abstractStrategyChoose.chooseAndExecuteResp(PURCHASE_MARK, requestParam);
+    }
+
+    @Benchmark
+    public AbstractExecuteStrategy choosePatternMatch() {
+        return abstractStrategyChoose.choose(SHARDING_ORDER_TABLE, true);
+    }
+
+    private record FixedMarkStrategy(String mark, String patternMatchMark) implements AbstractExecuteStrategy<Object, Object> {
+
+        @Override
+        public Object executeResp(Object requestParam) {
+            return Objects.hashCode(requestParam);
+        }
+    }
+}
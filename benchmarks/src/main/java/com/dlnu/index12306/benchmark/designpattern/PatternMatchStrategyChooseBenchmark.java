@@ -0,0 +1,112 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dlnu.index12306.benchmark.designpattern;
+
+import com.dlnu.index12306.benchmark.designpattern.legacy.UncompiledPatternStrategyChoose;
+import com.dlnu.index12306.framework.starter.bases.ApplicationContextHolder;
+import com.dlnu.index12306.framework.starter.bases.init.ApplicationInitializingEvent;
+import com.dlnu.index12306.framework.starter.designpattern.strategy.AbstractExecuteStrategy;
+import com.dlnu.index12306.framework.starter.designpattern.strategy.AbstractStrategyChoose;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.support.GenericApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 策略选择器范匹配分发基准测试，模拟 Canal binlog 消费按分表表名选择策略
+ * 每个策略匹配一组分表 t_table_{n}_{0..15}，对比每次编译正则与预编译加结果缓存的分发开销
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PatternMatchStrategyChooseBenchmark {
+
+    private static final int SHARDING_TABLE_COUNT = 16;
+
+    /**
+     * 注册的范匹配策略数量
+     */
+    @Param({"10", "100"})
+    private int strategyCount;
+
+    private GenericApplicationContext applicationContext;
+    private AbstractStrategyChoose abstractStrategyChoose;
+    private List<AbstractExecuteStrategy> strategies;
+    private String[] marks;
+    private int cursor;
+
+    @Setup
+    public void setUp() {
+        applicationContext = new GenericApplicationContext();
+        applicationContext.registerBean(ApplicationContextHolder.class);
+        strategies = new ArrayList<>(strategyCount);
+        for (int i = 0; i < strategyCount; i++) {
+            AbstractExecuteStrategy strategy = new PatternStrategy("t_table_" + i, "^t_table_" + i + "_([0-9]|1[0-5])$");
+            strategies.add(strategy);
+            applicationContext.registerBean("t_table_" + i, AbstractExecuteStrategy.class, () -> strategy);
+        }
+        applicationContext.refresh();
+        abstractStrategyChoose = new AbstractStrategyChoose();
+        abstractStrategyChoose.onApplicationEvent(new ApplicationInitializingEvent(applicationContext));
+        // binlog 消息覆盖全部分表，后半段策略的表名需要遍历更多正则
+        marks = new String[strategyCount * SHARDING_TABLE_COUNT];
+        for (int i = 0; i < marks.length; i++) {
+            marks[i] = "t_table_" + (i / SHARDING_TABLE_COUNT) + "_" + (i % SHARDING_TABLE_COUNT);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        applicationContext.close();
+    }
+
+    @Benchmark
+    public AbstractExecuteStrategy uncompiledPatternChoose() {
+        return UncompiledPatternStrategyChoose.choose(strategies, nextMark());
+    }
+
+    @Benchmark
+    public AbstractExecuteStrategy precompiledPatternChoose() {
+        return abstractStrategyChoose.choose(nextMark(), true);
+    }
+
+    private String nextMark() {
+        String mark = marks[cursor];
+        cursor = cursor + 1 == marks.length ? 0 : cursor + 1;
+        return mark;
+    }
+
+    private record PatternStrategy(String mark, String patternMatchMark) implements AbstractExecuteStrategy<Object, Object> {
+    }
+}
@@ -0,0 +1,39 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dlnu.index12306.benchmark.designpattern.legacy;
+
+import com.dlnu.index12306.framework.starter.convention.exception.ServiceException;
+import com.dlnu.index12306.framework.starter.designpattern.strategy.AbstractExecuteStrategy;
+import org.springframework.util.StringUtils;
+
+import java.util.Collection;
+import java.util.regex.Pattern;
+
+/**
+ * 每次分发都重新编译正则的范匹配逻辑，保留预编译之前的 AbstractStrategyChoose#choose 逻辑作为基准测试对照组
+ */
+public class UncompiledPatternStrategyChoose {
+
+    public static AbstractExecuteStrategy choose(Collection<AbstractExecuteStrategy> strategies, String mark) {
+        return strategies.stream()
+                .filter(each -> StringUtils.hasText(each.patternMatchMark()))
+                .filter(each -> Pattern.compile(each.patternMatchMark()).matcher(mark).matches())
+                .findFirst()
+                .orElseThrow(() -> new ServiceException("策略未定义"));
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dlnu.index12306.benchmark.distributedid;
+
+import com.dlnu.index12306.benchmark.distributedid.legacy.SynchronizedOrderIdGenerator;
+import com.dlnu.index12306.benchmark.distributedid.legacy.SynchronizedSnowflake;
+import com.dlnu.index12306.biz.orderservice.service.orderid.DistributedIdGenerator;
+import com.dlnu.index12306.framework.starter.distributedid.core.snowflake.Snowflake;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 分布式 ID 生成器吞吐基准测试，对比 synchronized 实现与 CAS 实现在 1、8、32 线程下的表现
+ * 批量接口模拟一笔订单包含 5 名乘车人时一次性获取全部明细 ID
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public abstract class IdGeneratorBenchmark {
+
+    private static final int ORDER_ITEM_COUNT = 5;
+
+    private final SynchronizedSnowflake synchronizedSnowflake = new SynchronizedSnowflake(1L, 1L);
+    private final Snowflake snowflake = new Snowflake(1L, 1L);
+    private final SynchronizedOrderIdGenerator synchronizedOrderIdGenerator = new SynchronizedOrderIdGenerator(1L);
+    private final DistributedIdGenerator orderIdGenerator = new DistributedIdGenerator(1L);
+
+    @Benchmark
+    public long synchronizedSnowflakeNextId() {
+        return synchronizedSnowflake.nextId();
+    }
+
+    @Benchmark
+    public long snowflakeNextId() {
+        return snowflake.nextId();
+    }
+
+    @Benchmark
+    public void synchronizedSnowflakeOrderItemIds(Blackhole blackhole) {
+        for (int i = 0; i < ORDER_ITEM_COUNT; i++) {
+            blackhole.consume(synchronizedSnowflake.nextId());
+        }
+    }
+
+    @Benchmark
+    public long[] snowflakeOrderItemIds() {
+        return snowflake.nextIds(ORDER_ITEM_COUNT);
+    }
+
+    @Benchmark
+    public long synchronizedOrderIdGenerateId() {
+        return synchronizedOrderIdGenerator.generateId();
+    }
+
+    @Benchmark
+    public long orderIdGenerateId() {
+        return orderIdGenerator.generateId();
+    }
+
+    @Threads(1)
+    public static class SingleThread extends IdGeneratorBenchmark {
+    }
+
+    @Threads(8)
+    public static class EightThreads extends IdGeneratorBenchmark {
+    }
+
+    @Threads(32)
+    public static class ThirtyTwoThreads extends IdGeneratorBenchmark {
+    }
+}
@@ -0,0 +1,61 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dlnu.index12306.benchmark.distributedid.legacy;
+
+/**
+ * 基于 synchronized、7 位序列号的订单号生成器，保留订单服务 DistributedIdGenerator 改造前的逻辑作为基准测试对照组
+ */
+public class SynchronizedOrderIdGenerator {
+
+    private static final long EPOCH = 1609459200000L;
+    private static final int NODE_BITS = 5;
+    private static final int SEQUENCE_BITS = 7;
+
+    private final long nodeID;
+    private long lastTimestamp = -1L;
+    private long sequence = 0L;
+
+    public SynchronizedOrderIdGenerator(long nodeID) {
+        this.nodeID = nodeID;
+    }
+
+    public synchronized long generateId() {
+        long timestamp = System.currentTimeMillis() - EPOCH;
+        if (timestamp < lastTimestamp) {
+            throw new RuntimeException("Clock moved backwards. Refusing to generate ID.");
+        }
+        if (timestamp == lastTimestamp) {
+            sequence = (sequence + 1) & ((1 << SEQUENCE_BITS) - 1);
+            if (sequence == 0) {
+                timestamp = tilNextMillis(lastTimestamp);
+            }
+        } else {
+            sequence = 0L;
+        }
+        lastTimestamp = timestamp;
+        return (timestamp << (NODE_BITS + SEQUENCE_BITS)) | (nodeID << SEQUENCE_BITS) | sequence;
+    }
+
+    private long tilNextMillis(long lastTimestamp) {
+        long timestamp = System.currentTimeMillis() - EPOCH;
+        while (timestamp <= lastTimestamp) {
+            timestamp = System.currentTimeMillis() - EPOCH;
+        }
+        return timestamp;
+    }
+}
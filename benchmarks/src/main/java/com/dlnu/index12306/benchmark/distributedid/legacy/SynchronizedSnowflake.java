@@ -0,0 +1,79 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dlnu.index12306.benchmark.distributedid.legacy;
+
+import cn.hutool.core.util.StrUtil;
+
+/**
+ * 基于 synchronized 的雪花算法实现，保留改造为 CAS 之前的 Snowflake#nextId 逻辑作为基准测试对照组
+ */
+public class SynchronizedSnowflake {
+
+    private static final long WORKER_ID_BITS = 5L;
+    private static final long DATA_CENTER_ID_BITS = 5L;
+    private static final long SEQUENCE_BITS = 12L;
+    private static final long WORKER_ID_SHIFT = SEQUENCE_BITS;
+    private static final long DATA_CENTER_ID_SHIFT = SEQUENCE_BITS + WORKER_ID_BITS;
+    private static final long TIMESTAMP_LEFT_SHIFT = SEQUENCE_BITS + WORKER_ID_BITS + DATA_CENTER_ID_BITS;
+    private static final long SEQUENCE_MASK = ~(-1L << SEQUENCE_BITS);
+    private static final long TWEPOCH = 1288834974657L;
+    private static final long TIME_OFFSET = 2000L;
+
+    private final long workerId;
+    private final long dataCenterId;
+    private long sequence = 0L;
+    private long lastTimestamp = -1L;
+
+    public SynchronizedSnowflake(long workerId, long dataCenterId) {
+        this.workerId = workerId;
+        this.dataCenterId = dataCenterId;
+    }
+
+    public synchronized long nextId() {
+        long timestamp = System.currentTimeMillis();
+        if (timestamp < this.lastTimestamp) {
+            if (this.lastTimestamp - timestamp < TIME_OFFSET) {
+                timestamp = lastTimestamp;
+            } else {
+                throw new IllegalStateException(StrUtil.format("Clock moved backwards. Refusing to generate id for {}ms", lastTimestamp - timestamp));
+            }
+        }
+        if (timestamp == this.lastTimestamp) {
+            final long sequence = (this.sequence + 1) & SEQUENCE_MASK;
+            if (sequence == 0) {
+                timestamp = tilNextMillis(lastTimestamp);
+            }
+            this.sequence = sequence;
+        } else {
+            sequence = 0L;
+        }
+        lastTimestamp = timestamp;
+        return ((timestamp - TWEPOCH) << TIMESTAMP_LEFT_SHIFT) | (dataCenterId << DATA_CENTER_ID_SHIFT) | (workerId << WORKER_ID_SHIFT) | sequence;
+    }
+
+    private long tilNextMillis(long lastTimestamp) {
+        long timestamp = System.currentTimeMillis();
+        while (timestamp == lastTimestamp) {
+            timestamp = System.currentTimeMillis();
+        }
+        if (timestamp < lastTimestamp) {
+            throw new IllegalStateException(StrUtil.format("Clock moved backwards. Refusing to generate id for {}ms", lastTimestamp - timestamp));
+        }
+        return timestamp;
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dlnu.index12306.benchmark.idempotent;
+
+import com.dlnu.index12306.benchmark.idempotent.legacy.UncachedSpELUtil;
+import com.dlnu.index12306.framework.starter.idempotent.toolkit.SpELUtil;
+import org.apache.rocketmq.common.message.MessageExt;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 幂等注解 SpEL key 解析基准测试，对比每次重新解析与缓存编译后表达式的单次调用开销
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SpELParseKeyBenchmark {
+
+    /**
+     * 0：MQ 消费者幂等 key，1：不含 SpEL 标识的字面量 key
+     */
+    @Param({"0", "1"})
+    private int keyType;
+
+    private String spEl;
+
+    private Method method;
+
+    private Object[] args;
+
+    @Setup
+    public void setUp() throws NoSuchMethodException {
+        spEl = keyType == 0 ? "#message.getKeys()+'_'+#message.hashCode()" : "index12306-ticket-service:purchase_tickets";
+        method = SpELParseKeyBenchmark.class.getDeclaredMethod("onMessage", MessageExt.class);
+        MessageExt message = new MessageExt();
+        message.setKeys("1685436457123456789");
+        args = new Object[]{message};
+    }
+
+    @Benchmark
+    public Object uncachedParseKey() {
+        return UncachedSpELUtil.parseKey(spEl, method, args);
+    }
+
+    @Benchmark
+    public Object cachedCompiledParseKey() {
+        return SpELUtil.parseKey(spEl, method, args);
+    }
+
+    /**
+     * 模拟 MQ 消费者方法签名，仅用于提供参数名
+     */
+    @SuppressWarnings("unused")
+    private void onMessage(MessageExt message) {
+    }
+}
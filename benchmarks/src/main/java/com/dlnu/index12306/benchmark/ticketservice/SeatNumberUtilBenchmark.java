@@ -0,0 +1,66 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dlnu.index12306.benchmark.ticketservice;
+
+import com.dlnu.index12306.biz.ticketservice.toolkit.SeatNumberUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+import static com.dlnu.index12306.benchmark.ticketservice.TicketBenchmarkFixtures.SECOND_CLASS_COLUMNS;
+import static com.dlnu.index12306.benchmark.ticketservice.TicketBenchmarkFixtures.SECOND_CLASS_ROWS;
+
+/**
+ * 座位号转换基准测试，按选座处理器的拼接方式生成整节二等座车厢的座位号
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SeatNumberUtilBenchmark {
+
+    private static final int SECOND_CLASS_SEAT_TYPE = 2;
+
+    @Benchmark
+    public String convert() {
+        return SeatNumberUtil.convert(SECOND_CLASS_SEAT_TYPE, SECOND_CLASS_COLUMNS);
+    }
+
+    @Benchmark
+    public void convertCarriage(Blackhole blackhole) {
+        for (int i = 0; i < SECOND_CLASS_ROWS; i++) {
+            for (int j = 0; j < SECOND_CLASS_COLUMNS; j++) {
+                String seatNumber = i < 9
+                        ? "0" + (i + 1) + SeatNumberUtil.convert(SECOND_CLASS_SEAT_TYPE, j + 1)
+                        : "" + (i + 1) + SeatNumberUtil.convert(SECOND_CLASS_SEAT_TYPE, j + 1);
+                blackhole.consume(seatNumber);
+            }
+        }
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dlnu.index12306.benchmark.ticketservice;
+
+import cn.hutool.core.lang.Pair;
+import com.dlnu.index12306.biz.ticketservice.service.handler.ticket.select.SeatSelection;
+import com.dlnu.index12306.biz.ticketservice.toolkit.CarriageVacantSeatCalculateUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.TimeUnit;
+
+import static com.dlnu.index12306.benchmark.ticketservice.TicketBenchmarkFixtures.SECOND_CLASS_COLUMNS;
+import static com.dlnu.index12306.benchmark.ticketservice.TicketBenchmarkFixtures.SECOND_CLASS_ROWS;
+
+/**
+ * 车厢选座基准测试，覆盖相邻选座、非相邻选座以及空余座位统计
+ * 车厢为 18 排 5 座的复兴号二等座，按不同售出比例随机占座
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SeatSelectionBenchmark {
+
+    /**
+     * 车厢已售比例
+     */
+    @Param({"0.3", "0.7", "0.95"})
+    private double soldRatio;
+
+    /**
+     * 同一订单乘车人数量
+     */
+    @Param({"1", "3", "5"})
+    private int passengerCount;
+
+    private int[][] seatLayout;
+
+    @Setup
+    public void setUp() {
+        seatLayout = TicketBenchmarkFixtures.secondClassCarriage(soldRatio, 12306L);
+    }
+
+    @Benchmark
+    public int[][] adjacent() {
+        return SeatSelection.adjacent(passengerCount, seatLayout);
+    }
+
+    @Benchmark
+    public int[][] nonAdjacent() {
+        return SeatSelection.nonAdjacent(passengerCount, seatLayout);
+    }
+
+    @Benchmark
+    public PriorityQueue<List<Pair<Integer, Integer>>> buildCarriageVacantSeatList() {
+        return CarriageVacantSeatCalculateUtil.buildCarriageVacantSeatList(seatLayout, SECOND_CLASS_ROWS, SECOND_CLASS_COLUMNS);
+    }
+
+    @Benchmark
+    public List<Pair<Integer, Integer>> buildCarriageVacantSeatList2() {
+        return CarriageVacantSeatCalculateUtil.buildCarriageVacantSeatList2(seatLayout, SECOND_CLASS_ROWS, SECOND_CLASS_COLUMNS);
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dlnu.index12306.benchmark.ticketservice;
+
+import com.dlnu.index12306.biz.ticketservice.service.handler.ticket.select.SeatSelection;
+import com.dlnu.index12306.biz.ticketservice.service.handler.ticket.select.SeatTypeFanIn;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Future;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 多座位类型选座结果汇聚基准测试，对比调用线程顺序执行、线程池 + allOf 汇聚以及原有 submit + parallelStream 汇聚
+ * 每种座位类型在 70% 已售的二等座车厢中为 2 名乘车人选座，线程池参数与选座动态线程池一致
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SeatTypeFanInBenchmark {
+
+    private static final int PASSENGERS_PER_SEAT_TYPE = 2;
+
+    /**
+     * 同一订单的座位类型数量
+     */
+    @Param({"1", "2", "3"})
+    private int seatTypeCount;
+
+    private Map<Integer, int[][]> seatTypeMap;
+    private ThreadPoolExecutor executor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        seatTypeMap = new LinkedHashMap<>();
+        for (int i = 0; i < seatTypeCount; i++) {
+            seatTypeMap.put(i, TicketBenchmarkFixtures.secondClassCarriage(0.7, 12306L + i));
+        }
+        executor = new ThreadPoolExecutor(24, 36, 60, TimeUnit.MINUTES, new SynchronousQueue<>(), new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Benchmark
+    public List<int[]> inline() {
+        return SeatTypeFanIn.execute(seatTypeMap, SeatTypeFanInBenchmark::select, executor, Integer.MAX_VALUE, seatTypeCount * PASSENGERS_PER_SEAT_TYPE);
+    }
+
+    @Benchmark
+    public List<int[]> allOf() {
+        return SeatTypeFanIn.execute(seatTypeMap, SeatTypeFanInBenchmark::select, executor, 2, seatTypeCount * PASSENGERS_PER_SEAT_TYPE);
+    }
+
+    @Benchmark
+    public List<int[]> submitParallelStream() {
+        List<int[]> actualResult = new CopyOnWriteArrayList<>();
+        if (seatTypeMap.size() > 1) {
+            List<Future<List<int[]>>> futureResult = new ArrayList<>();
+            seatTypeMap.forEach((seatType, seatLayout) -> futureResult.add(executor.submit(() -> select(seatType, seatLayout))));
+            futureResult.parallelStream().forEach(each -> {
+                try {
+                    actualResult.addAll(each.get());
+                } catch (Exception ex) {
+                    throw new IllegalStateException(ex);
+                }
+            });
+        } else {
+            seatTypeMap.forEach((seatType, seatLayout) -> actualResult.addAll(select(seatType, seatLayout)));
+        }
+        return actualResult;
+    }
+
+    private static List<int[]> select(Integer seatType, int[][] seatLayout) {
+        return List.of(SeatSelection.adjacent(PASSENGERS_PER_SEAT_TYPE, seatLayout));
+    }
+}
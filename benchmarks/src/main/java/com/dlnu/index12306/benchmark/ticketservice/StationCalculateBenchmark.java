@@ -0,0 +1,75 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dlnu.index12306.benchmark.ticketservice;
+
+import com.dlnu.index12306.biz.ticketservice.dto.domain.RouteDTO;
+import com.dlnu.index12306.biz.ticketservice.toolkit.StationCalculateUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 站点路线计算基准测试，基于 30 站列车计算途经路线与需要扣减余票的路线
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StationCalculateBenchmark {
+
+    /**
+     * 乘车区间站点下标：南京南-镇江南 相邻两站、济南西-杭州东 跨越大半程、北京南-宁波 始发到终点
+     */
+    @Param({"15-16", "5-26", "0-29"})
+    private String segment;
+
+    private List<String> stations;
+    private String startStation;
+    private String endStation;
+
+    @Setup
+    public void setUp() {
+        stations = TicketBenchmarkFixtures.STATIONS;
+        String[] split = segment.split("-");
+        startStation = stations.get(Integer.parseInt(split[0]));
+        endStation = stations.get(Integer.parseInt(split[1]));
+    }
+
+    @Benchmark
+    public List<RouteDTO> throughStation() {
+        return StationCalculateUtil.throughStation(stations, startStation, endStation);
+    }
+
+    @Benchmark
+    public List<RouteDTO> takeoutStation() {
+        return StationCalculateUtil.takeoutStation(stations, startStation, endStation);
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dlnu.index12306.benchmark.ticketservice;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * 购票链路基准测试公共数据，按复兴号实际编组构造车厢座位与沿途站点
+ */
+public final class TicketBenchmarkFixtures {
+
+    /**
+     * 复兴号二等座车厢 18 排
+     */
+    public static final int SECOND_CLASS_ROWS = 18;
+
+    /**
+     * 复兴号二等座每排 5 座：A B C D F
+     */
+    public static final int SECOND_CLASS_COLUMNS = 5;
+
+    /**
+     * 京沪高铁北京南至上海虹桥，并延伸至宁波，共 30 站
+     */
+    public static final List<String> STATIONS = List.of(
+            "北京南", "廊坊", "天津南", "沧州西", "德州东", "济南西", "泰安", "曲阜东", "滕州东", "枣庄",
+            "徐州东", "宿州东", "蚌埠南", "定远", "滁州", "南京南", "镇江南", "丹阳北", "常州北", "无锡东",
+            "苏州北", "昆山南", "上海虹桥", "嘉兴南", "桐乡", "海宁西", "杭州东", "绍兴北", "余姚北", "宁波");
+
+    private TicketBenchmarkFixtures() {
+    }
+
+    /**
+     * 构造二等座车厢座位布局，按售出比例随机标记已售座位，固定随机种子保证各次运行数据一致
+     *
+     * @param soldRatio 已售比例
+     * @param seed      随机种子
+     * @return 座位布局 0 为可售 1 为已售
+     */
+    public static int[][] secondClassCarriage(double soldRatio, long seed) {
+        int[][] seatLayout = new int[SECOND_CLASS_ROWS][SECOND_CLASS_COLUMNS];
+        List<Integer> seatIndexes = new ArrayList<>(SECOND_CLASS_ROWS * SECOND_CLASS_COLUMNS);
+        for (int i = 0; i < SECOND_CLASS_ROWS * SECOND_CLASS_COLUMNS; i++) {
+            seatIndexes.add(i);
+        }
+        Collections.shuffle(seatIndexes, new Random(seed));
+        int soldCount = (int) Math.round(seatIndexes.size() * soldRatio);
+        for (int i = 0; i < soldCount; i++) {
+            int seatIndex = seatIndexes.get(i);
+            seatLayout[seatIndex / SECOND_CLASS_COLUMNS][seatIndex % SECOND_CLASS_COLUMNS] = 1;
+        }
+        return seatLayout;
+    }
+}
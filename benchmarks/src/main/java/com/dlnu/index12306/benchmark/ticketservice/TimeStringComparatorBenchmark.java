@@ -0,0 +1,76 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dlnu.index12306.benchmark.ticketservice;
+
+import com.dlnu.index12306.biz.ticketservice.dto.domain.TicketListDTO;
+import com.dlnu.index12306.biz.ticketservice.toolkit.TimeStringComparator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 车次列表按出发时间排序的基准测试，模拟一次车票查询返回的车次数量
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TimeStringComparatorBenchmark {
+
+    /**
+     * 查询结果中的车次数量
+     */
+    @Param({"20", "100"})
+    private int ticketCount;
+
+    private List<TicketListDTO> ticketList;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(12306L);
+        ticketList = new ArrayList<>(ticketCount);
+        for (int i = 0; i < ticketCount; i++) {
+            // 高铁运营时段 06:00 ~ 22:59
+            String departureTime = String.format("%02d:%02d", 6 + random.nextInt(17), random.nextInt(60));
+            ticketList.add(TicketListDTO.builder()
+                    .trainNumber("G" + (i + 1))
+                    .departureTime(departureTime)
+                    .build());
+        }
+    }
+
+    @Benchmark
+    public List<TicketListDTO> sortByDepartureTime() {
+        return ticketList.stream().sorted(new TimeStringComparator()).toList();
+    }
+}
@@ -0,0 +1,162 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dlnu.index12306.benchmark.ticketservice;
+
+import cn.hutool.core.util.StrUtil;
+import com.alibaba.fastjson2.JSON;
+import com.alibaba.fastjson2.JSONArray;
+import com.alibaba.fastjson2.JSONObject;
+import com.dlnu.index12306.biz.ticketservice.dto.domain.RouteDTO;
+import com.dlnu.index12306.biz.ticketservice.service.handler.ticket.dto.TokenResultDTO;
+import com.dlnu.index12306.biz.ticketservice.service.handler.ticket.tokenbucket.TokenBucketScriptArgs;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.scripting.support.ResourceScriptSource;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 列车车票余量令牌桶 Lua 脚本基准测试，对比 JSON 参数协议与位置参数协议在不同扣减路线数量下的脚本耗时
+ * 需要可访问的 Redis，通过 -Dredis.host、-Dredis.port、-Dredis.password 指定
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TokenBucketLuaScriptBenchmark {
+
+    private static final String TOKEN_BUCKET_HASH_KEY = "index12306-ticket-service:benchmark:ticket_availability_token_bucket";
+    private static final String LUA_JSON_PROTOCOL_PATH = "lua/legacy/ticket_availability_token_bucket_json.lua";
+    private static final String LUA_ARGV_PROTOCOL_PATH = "lua/ticket_availability_token_bucket.lua";
+
+    /**
+     * 购票需要扣减的路线数量
+     */
+    @Param({"1", "5", "20"})
+    private int routeCount;
+
+    private LettuceConnectionFactory connectionFactory;
+    private StringRedisTemplate stringRedisTemplate;
+    private DefaultRedisScript<String> jsonProtocolScript;
+    private DefaultRedisScript<Long> argvProtocolScript;
+    private List<RouteDTO> takeoutRoutes;
+    private String departure;
+    private String arrival;
+
+    /**
+     * 模拟一名一等座乘客和两名二等座乘客
+     */
+    private final SortedMap<Integer, Long> seatTypeCountMap = new TreeMap<>(Map.of(1, 1L, 2, 2L));
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        RedisStandaloneConfiguration configuration = new RedisStandaloneConfiguration(
+                System.getProperty("redis.host", "127.0.0.1"),
+                Integer.getInteger("redis.port", 6379));
+        String password = System.getProperty("redis.password");
+        if (StrUtil.isNotBlank(password)) {
+            configuration.setPassword(password);
+        }
+        connectionFactory = new LettuceConnectionFactory(configuration);
+        connectionFactory.afterPropertiesSet();
+        stringRedisTemplate = new StringRedisTemplate(connectionFactory);
+        jsonProtocolScript = buildScript(LUA_JSON_PROTOCOL_PATH, String.class);
+        argvProtocolScript = buildScript(LUA_ARGV_PROTOCOL_PATH, Long.class);
+        takeoutRoutes = new ArrayList<>(routeCount);
+        for (int i = 0; i < routeCount; i++) {
+            takeoutRoutes.add(new RouteDTO("站点" + i, "站点" + (i + 1)));
+        }
+        departure = takeoutRoutes.get(0).getStartStation();
+        arrival = takeoutRoutes.get(0).getEndStation();
+    }
+
+    @Setup(Level.Iteration)
+    public void resetTokenBucket() {
+        // 令牌数量足够大，保证每次调用都会走完整的扣减流程
+        Map<String, String> tokenMap = new HashMap<>();
+        for (RouteDTO each : takeoutRoutes) {
+            seatTypeCountMap.keySet().forEach(seatType -> tokenMap.put(
+                    StrUtil.join(StrUtil.UNDERLINE, each.getStartStation(), each.getEndStation(), seatType), String.valueOf(Integer.MAX_VALUE)));
+        }
+        stringRedisTemplate.delete(TOKEN_BUCKET_HASH_KEY);
+        stringRedisTemplate.opsForHash().putAll(TOKEN_BUCKET_HASH_KEY, tokenMap);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        stringRedisTemplate.delete(TOKEN_BUCKET_HASH_KEY);
+        connectionFactory.destroy();
+    }
+
+    @Benchmark
+    public TokenResultDTO jsonProtocol() {
+        JSONArray seatTypeCountArray = seatTypeCountMap.entrySet().stream()
+                .map(entry -> {
+                    JSONObject jsonObject = new JSONObject();
+                    jsonObject.put("seatType", String.valueOf(entry.getKey()));
+                    jsonObject.put("count", String.valueOf(entry.getValue()));
+                    return jsonObject;
+                })
+                .collect(JSONArray::new, JSONArray::add, JSONArray::addAll);
+        String resultStr = stringRedisTemplate.execute(jsonProtocolScript,
+                List.of(TOKEN_BUCKET_HASH_KEY, StrUtil.join(StrUtil.UNDERLINE, departure, arrival)),
+                JSON.toJSONString(seatTypeCountArray),
+                JSON.toJSONString(takeoutRoutes));
+        return JSON.parseObject(resultStr, TokenResultDTO.class);
+    }
+
+    @Benchmark
+    public TokenResultDTO argvProtocol() {
+        Long tokenIsNullMask = stringRedisTemplate.execute(argvProtocolScript,
+                Collections.singletonList(TOKEN_BUCKET_HASH_KEY),
+                TokenBucketScriptArgs.takeTokenArgs(seatTypeCountMap, departure, arrival, takeoutRoutes));
+        return TokenBucketScriptArgs.parseTakeTokenResult(tokenIsNullMask, seatTypeCountMap);
+    }
+
+    private static <T> DefaultRedisScript<T> buildScript(String path, Class<T> resultType) {
+        DefaultRedisScript<T> redisScript = new DefaultRedisScript<>();
+        redisScript.setScriptSource(new ResourceScriptSource(new ClassPathResource(path)));
+        redisScript.setResultType(resultType);
+        return redisScript;
+    }
+}
@@ -17,6 +17,7 @@
 
 package com.dlnu.index12306.framework.starter.cache;
 
+import com.dlnu.index12306.framework.starter.cache.core.BatchCacheLoader;
 import com.dlnu.index12306.framework.starter.cache.core.CacheGetFilter;
 import com.dlnu.index12306.framework.starter.cache.core.CacheGetIfAbsent;
 import com.dlnu.index12306.framework.starter.cache.core.CacheLoader;
@@ -24,6 +25,8 @@ import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import org.redisson.api.RBloomFilter;
 
+import java.util.Collection;
+import java.util.Map;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -91,6 +94,22 @@ public interface DistributedCache extends Cache {
     <T> T safeGet(@NotBlank String key, Class<T> clazz, CacheLoader<T> cacheLoader, long timeout, TimeUnit timeUnit,
                   RBloomFilter<String> bloomFilter, CacheGetFilter<String> cacheCheckFilter, CacheGetIfAbsent<String> cacheGetIfAbsent);
 
+    /**
+     * 批量获取缓存，通过一次管道请求完成，不存在的 key 不会出现在返回结果中
+     */
+    <T> Map<String, T> multiGet(@NotNull Collection<String> keys, Class<T> clazz);
+
+    /**
+     * 批量获取缓存，未命中的 keys 合并为一次 {@link BatchCacheLoader} 调用加载，并通过一次管道请求写回缓存
+     */
+    <T> Map<String, T> multiSafeGet(@NotNull Collection<String> keys, Class<T> clazz, BatchCacheLoader<T> cacheLoader, long timeout, TimeUnit timeUnit);
+
+    /**
+     * 批量获取缓存，未命中且布隆过滤器中存在的 keys 在分布式锁内二次判定后合并加载，加载成功的 keys 加入布隆过滤器
+     */
+    <T> Map<String, T> multiSafeGet(@NotNull Collection<String> keys, Class<T> clazz, BatchCacheLoader<T> cacheLoader, long timeout, TimeUnit timeUnit,
+                                    RBloomFilter<String> bloomFilter);
+
     /**
      * 放入缓存，自定义超时时间
      */
@@ -101,6 +120,11 @@ public interface DistributedCache extends Cache {
      */
     void put(@NotBlank String key, Object value, long timeout, TimeUnit timeUnit);
 
+    /**
+     * 批量放入缓存，自定义超时时间，通过一次管道请求完成
+     */
+    void multiPut(@NotNull Map<String, ?> keyValues, long timeout, TimeUnit timeUnit);
+
     /**
      * 放入缓存，自定义超时时间
      * 通过此方式防止程序中可能出现的：缓存穿透、缓存击穿以及缓存雪崩场景，需要客户端传递布隆过滤器，适用于被外部直接调用的接口
@@ -0,0 +1,84 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dlnu.index12306.framework.starter.cache;
+
+import com.dlnu.index12306.framework.starter.cache.core.CacheLoader;
+import lombok.RequiredArgsConstructor;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * 未开启多级缓存时的降级实现，不使用本地缓存，所有操作直接交给分布式缓存或 {@link CacheLoader}
+ */
+@RequiredArgsConstructor
+public class DistributedOnlyMultistageCache implements MultistageCache {
+
+    private final DistributedCache distributedCache;
+
+    @Override
+    public <T> T get(String key, Class<T> clazz) {
+        return distributedCache.get(key, clazz);
+    }
+
+    @Override
+    public <T> T get(String key, CacheLoader<T> cacheLoader) {
+        return cacheLoader.load();
+    }
+
+    @Override
+    public <T> Map<String, T> getAll(Collection<String> keys, Function<Collection<String>, Map<String, T>> cacheLoader) {
+        return cacheLoader.apply(keys);
+    }
+
+    @Override
+    public void put(String key, Object value) {
+        distributedCache.put(key, value);
+    }
+
+    @Override
+    public Boolean putIfAllAbsent(Collection<String> keys) {
+        return distributedCache.putIfAllAbsent(keys);
+    }
+
+    @Override
+    public Boolean delete(String key) {
+        return distributedCache.delete(key);
+    }
+
+    @Override
+    public Long delete(Collection<String> keys) {
+        return distributedCache.delete(keys);
+    }
+
+    @Override
+    public Boolean hasKey(String key) {
+        return distributedCache.hasKey(key);
+    }
+
+    @Override
+    public Object getInstance() {
+        return distributedCache.getInstance();
+    }
+
+    @Override
+    public void invalidate(String key) {
+        // 没有本地缓存，无需删除
+    }
+}
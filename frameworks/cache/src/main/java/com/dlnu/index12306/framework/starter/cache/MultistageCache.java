@@ -17,8 +17,33 @@
 
 package com.dlnu.index12306.framework.starter.cache;
 
+import com.dlnu.index12306.framework.starter.cache.core.CacheLoader;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.function.Function;
+
 /**
  * 多级缓存
+ * 一级为进程内本地缓存，保存反序列化后的对象；二级为分布式缓存
  */
 public interface MultistageCache extends Cache {
+
+    /**
+     * 获取缓存，本地缓存不存在时调用 {@link CacheLoader} 加载并放入本地缓存
+     * 一般由 {@link CacheLoader} 从分布式缓存中读取并完成反序列化，返回对象会被多个线程共享，调用方不允许修改
+     */
+    <T> T get(@NotBlank String key, CacheLoader<T> cacheLoader);
+
+    /**
+     * 批量获取缓存，本地缓存不存在的 keys 一次性交给 cacheLoader 加载并放入本地缓存
+     */
+    <T> Map<String, T> getAll(@NotNull Collection<String> keys, Function<Collection<String>, Map<String, T>> cacheLoader);
+
+    /**
+     * 删除本地缓存，并通知其它实例删除本地缓存，不会删除分布式缓存
+     */
+    void invalidate(@NotBlank String key);
 }
@@ -0,0 +1,196 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dlnu.index12306.framework.starter.cache;
+
+import com.dlnu.index12306.framework.starter.cache.config.MultistageCacheProperties;
+import com.dlnu.index12306.framework.starter.cache.core.CacheLoader;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RTopic;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.StringCodec;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * 多级缓存之 Caffeine 本地缓存 + Redis 分布式缓存代理
+ * 本地缓存按 Key 前缀划分容量以及过期策略，写入或删除时通过 Redis 发布订阅通知其它实例删除本地缓存
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class MultistageCacheProxy implements MultistageCache, InitializingBean, DisposableBean {
+
+    private static final String MESSAGE_SEPARATOR = ":";
+
+    private final DistributedCache distributedCache;
+    private final RedissonClient redissonClient;
+    private final MultistageCacheProperties multistageCacheProperties;
+
+    /**
+     * 当前实例标识，用于忽略自己发出的删除通知
+     */
+    private final String instanceId = UUID.randomUUID().toString().replace("-", "");
+
+    /**
+     * 按前缀长度倒序排列的本地缓存策略，保证优先匹配最长前缀
+     */
+    private final List<Map.Entry<String, Cache<String, Object>>> prefixLocalCaches = new ArrayList<>();
+
+    private Cache<String, Object> defaultLocalCache;
+    private RTopic invalidateTopic;
+    private int listenerId;
+
+    @Override
+    public void afterPropertiesSet() {
+        defaultLocalCache = Caffeine.newBuilder()
+                .maximumSize(multistageCacheProperties.getMaximumSize())
+                .expireAfterWrite(multistageCacheProperties.getExpireAfterWrite(), multistageCacheProperties.getTimeUnit())
+                .build();
+        multistageCacheProperties.getPolicies().stream()
+                .sorted(Comparator.comparingInt((MultistageCacheProperties.Policy each) -> each.getKeyPrefix().length()).reversed())
+                .forEach(each -> prefixLocalCaches.add(Map.entry(each.getKeyPrefix(), Caffeine.newBuilder()
+                        .maximumSize(each.getMaximumSize())
+                        .expireAfterWrite(each.getExpireAfterWrite(), each.getTimeUnit())
+                        .build())));
+        invalidateTopic = redissonClient.getTopic(multistageCacheProperties.getInvalidateTopic(), StringCodec.INSTANCE);
+        listenerId = invalidateTopic.addListener(String.class, (channel, message) -> {
+            int separatorIndex = message.indexOf(MESSAGE_SEPARATOR);
+            if (separatorIndex < 0 || Objects.equals(instanceId, message.substring(0, separatorIndex))) {
+                return;
+            }
+            String key = message.substring(separatorIndex + 1);
+            localCache(key).invalidate(key);
+        });
+    }
+
+    @Override
+    public void destroy() {
+        if (invalidateTopic != null) {
+            invalidateTopic.removeListener(listenerId);
+        }
+    }
+
+    @Override
+    public <T> T get(String key, Class<T> clazz) {
+        return (T) localCache(key).get(key, each -> distributedCache.get(each, clazz));
+    }
+
+    @Override
+    public <T> T get(String key, CacheLoader<T> cacheLoader) {
+        return (T) localCache(key).get(key, each -> cacheLoader.load());
+    }
+
+    @Override
+    public <T> Map<String, T> getAll(Collection<String> keys, Function<Collection<String>, Map<String, T>> cacheLoader) {
+        Map<String, T> result = new LinkedHashMap<>(keys.size());
+        List<String> missKeys = new ArrayList<>();
+        for (String each : keys) {
+            Object value = localCache(each).getIfPresent(each);
+            if (value != null) {
+                result.put(each, (T) value);
+            } else {
+                missKeys.add(each);
+            }
+        }
+        if (missKeys.isEmpty()) {
+            return result;
+        }
+        Map<String, T> loaded = cacheLoader.apply(missKeys);
+        if (loaded != null) {
+            loaded.forEach((key, value) -> {
+                if (value != null) {
+                    localCache(key).put(key, value);
+                    result.put(key, value);
+                }
+            });
+        }
+        return result;
+    }
+
+    @Override
+    public void put(String key, Object value) {
+        distributedCache.put(key, value);
+        localCache(key).put(key, value);
+        publishInvalidate(key);
+    }
+
+    @Override
+    public Boolean putIfAllAbsent(Collection<String> keys) {
+        return distributedCache.putIfAllAbsent(keys);
+    }
+
+    @Override
+    public Boolean delete(String key) {
+        Boolean result = distributedCache.delete(key);
+        invalidate(key);
+        return result;
+    }
+
+    @Override
+    public Long delete(Collection<String> keys) {
+        Long result = distributedCache.delete(keys);
+        keys.forEach(this::invalidate);
+        return result;
+    }
+
+    @Override
+    public Boolean hasKey(String key) {
+        return localCache(key).getIfPresent(key) != null || distributedCache.hasKey(key);
+    }
+
+    @Override
+    public Object getInstance() {
+        return distributedCache.getInstance();
+    }
+
+    @Override
+    public void invalidate(String key) {
+        localCache(key).invalidate(key);
+        publishInvalidate(key);
+    }
+
+    private void publishInvalidate(String key) {
+        try {
+            invalidateTopic.publish(instanceId + MESSAGE_SEPARATOR + key);
+        } catch (Throwable ex) {
+            // 通知失败时其它实例依赖本地缓存过期时间兜底
+            log.error("多级缓存发送本地缓存删除通知失败，Key：{}", key, ex);
+        }
+    }
+
+    private Cache<String, Object> localCache(String key) {
+        for (Map.Entry<String, Cache<String, Object>> each : prefixLocalCaches) {
+            if (key.startsWith(each.getKey())) {
+                return each.getValue();
+            }
+        }
+        return defaultLocalCache;
+    }
+}
@@ -20,47 +20,159 @@ package com.dlnu.index12306.framework.starter.cache;
 import com.alibaba.fastjson2.JSON;
 import com.dlnu.index12306.framework.starter.bases.Singleton;
 import com.dlnu.index12306.framework.starter.cache.config.RedisDistributedProperties;
+import com.dlnu.index12306.framework.starter.cache.core.BatchCacheLoader;
 import com.dlnu.index12306.framework.starter.cache.core.CacheGetFilter;
 import com.dlnu.index12306.framework.starter.cache.core.CacheGetIfAbsent;
 import com.dlnu.index12306.framework.starter.cache.core.CacheLoader;
+import com.dlnu.index12306.framework.starter.cache.core.CacheMetrics;
 import com.dlnu.index12306.framework.starter.cache.toolkit.CacheUtil;
 import com.dlnu.index12306.framework.starter.cache.toolkit.FastJson2Util;
 import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.redisson.api.RBloomFilter;
 import org.redisson.api.RLock;
 import org.redisson.api.RedissonClient;
+import org.springframework.beans.factory.DisposableBean;
 import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.SessionCallback;
 import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
 import org.springframework.data.redis.core.script.DefaultRedisScript;
 import org.springframework.scripting.support.ResourceScriptSource;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 /**
  * 分布式缓存之操作 Redis 模版代理
  * 底层通过 {@link RedissonClient}、{@link StringRedisTemplate} 完成外观接口行为
  */
+@Slf4j
 @RequiredArgsConstructor
-public class StringRedisTemplateProxy implements DistributedCache {
+public class StringRedisTemplateProxy implements DistributedCache, DisposableBean {
 
     private static final String LUA_PUT_IF_ALL_ABSENT_SCRIPT_PATH = "lua/putIfAllAbsent.lua";
     private static final String SAFE_GET_DISTRIBUTED_LOCK_KEY_PREFIX = "safe_get_distributed_lock_get:";
+    private static final String LOGICAL_EXPIRE_KEY_SUFFIX = ":logical_expire";
     private final StringRedisTemplate stringRedisTemplate;
     private final RedisDistributedProperties redisProperties;
     private final RedissonClient redissonClient;
+    private final CacheMetrics cacheMetrics;
+
+    /**
+     * 本实例内正在加载的缓存，保证相同 key 同一时间只有一个线程加载
+     */
+    private final Map<String, CompletableFuture<Object>> safeGetInFlightLoads = new ConcurrentHashMap<>();
+
+    /**
+     * 逻辑过期后异步刷新缓存的线程池，队列满时直接丢弃，下次读取时再次触发
+     */
+    private final ExecutorService safeGetRefreshExecutor = new ThreadPoolExecutor(
+            1,
+            2,
+            60,
+            TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(1024),
+            new ThreadFactoryBuilder().setNameFormat("safe-get-refresh-%d").setDaemon(true).build(),
+            new ThreadPoolExecutor.AbortPolicy());
 
     @Override
     public <T> T get(String key, Class<T> clazz) {
-        String value = stringRedisTemplate.opsForValue().get(key);
-        if (String.class.isAssignableFrom(clazz)) {
-            return (T) value;
+        T result = getValue(key, clazz);
+        cacheMetrics.recordGet(!CacheUtil.isNullOrBlank(result));
+        return result;
+    }
+
+    @Override
+    public <T> Map<String, T> multiGet(Collection<String> keys, Class<T> clazz) {
+        Map<String, T> result = multiGetValue(keys, clazz);
+        cacheMetrics.recordMultiGet(result.size(), keys.size() - result.size());
+        return result;
+    }
+
+    @Override
+    public <T> Map<String, T> multiSafeGet(Collection<String> keys, Class<T> clazz, BatchCacheLoader<T> cacheLoader, long timeout, TimeUnit timeUnit) {
+        return multiSafeGet(keys, clazz, cacheLoader, timeout, timeUnit, null);
+    }
+
+    @Override
+    public <T> Map<String, T> multiSafeGet(Collection<String> keys, Class<T> clazz, BatchCacheLoader<T> cacheLoader, long timeout, TimeUnit timeUnit,
+                                           RBloomFilter<String> bloomFilter) {
+        Map<String, T> result = multiGet(keys, clazz);
+        // 布隆过滤器中不存在的 key 直接视为空，不再访问数据库
+        List<String> missKeys = keys.stream()
+                .filter(each -> !result.containsKey(each))
+                .filter(each -> bloomFilter == null || bloomFilter.contains(each))
+                .sorted()
+                .toList();
+        if (missKeys.isEmpty()) {
+            return result;
+        }
+        // 与单个 key 的 safeGet 使用相同的分布式锁，key 有序保证多个批次之间加锁顺序一致
+        RLock[] locks = missKeys.stream()
+                .map(each -> redissonClient.getLock(SAFE_GET_DISTRIBUTED_LOCK_KEY_PREFIX + each))
+                .toArray(RLock[]::new);
+        RLock multiLock = redissonClient.getMultiLock(locks);
+        boolean locked;
+        try {
+            locked = multiLock.tryLock(redisProperties.getSafeGetWaitTimeout(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return result;
+        }
+        if (!locked) {
+            // 与单个 key 加载保持一致，等待超时后只返回已命中的缓存
+            log.warn("等待批量缓存加载分布式锁超时，Keys：{}", missKeys);
+            return result;
+        }
+        try {
+            // 双重判定，其它线程或实例可能已经加载完成
+            Map<String, T> lockedResult = multiGetValue(missKeys, clazz);
+            result.putAll(lockedResult);
+            List<String> loadKeys = missKeys.stream().filter(each -> !lockedResult.containsKey(each)).toList();
+            if (loadKeys.isEmpty()) {
+                return result;
+            }
+            long loadStartNanos = System.nanoTime();
+            Map<String, T> loaded = cacheLoader.load(loadKeys);
+            cacheMetrics.recordBatchLoad(loadStartNanos);
+            if (loaded == null || loaded.isEmpty()) {
+                return result;
+            }
+            Map<String, T> actualLoaded = new HashMap<>(loaded.size());
+            loaded.forEach((key, value) -> {
+                if (!CacheUtil.isNullOrBlank(value)) {
+                    actualLoaded.put(key, value);
+                }
+            });
+            multiPut(actualLoaded, timeout, timeUnit);
+            if (bloomFilter != null) {
+                actualLoaded.keySet().forEach(bloomFilter::add);
+            }
+            result.putAll(actualLoaded);
+            return result;
+        } finally {
+            multiLock.unlock();
         }
-        return JSON.parseObject(value, FastJson2Util.buildType(clazz));
     }
 
     @Override
@@ -82,12 +194,16 @@ public class StringRedisTemplateProxy implements DistributedCache {
 
     @Override
     public Boolean delete(String key) {
-        return stringRedisTemplate.delete(key);
+        // 逻辑过期时间随缓存值一起删除，避免重新写入后沿用旧的逻辑过期时间
+        Long deleted = stringRedisTemplate.delete(Lists.newArrayList(key, key + LOGICAL_EXPIRE_KEY_SUFFIX));
+        return deleted != null && deleted > 0;
     }
 
     @Override
     public Long delete(Collection<String> keys) {
-        return stringRedisTemplate.delete(keys);
+        Long result = stringRedisTemplate.delete(keys);
+        stringRedisTemplate.delete(keys.stream().map(each -> each + LOGICAL_EXPIRE_KEY_SUFFIX).toList());
+        return result;
     }
 
     @Override
@@ -143,27 +259,39 @@ public class StringRedisTemplateProxy implements DistributedCache {
     @Override
     public <T> T safeGet(String key, Class<T> clazz, CacheLoader<T> cacheLoader, long timeout, TimeUnit timeUnit,
                          RBloomFilter<String> bloomFilter, CacheGetFilter<String> cacheGetFilter, CacheGetIfAbsent<String> cacheGetIfAbsent) {
-        T result = get(key, clazz);
-        // 缓存结果不等于空或空字符串直接返回；通过函数判断是否返回空，为了适配布隆过滤器无法删除的场景；两者都不成立，判断布隆过滤器是否存在，不存在返回空
-        if (!CacheUtil.isNullOrBlank(result)
-                || Optional.ofNullable(cacheGetFilter).map(each -> each.filter(key)).orElse(false)
+        // 一次请求同时读取缓存值以及逻辑过期时间
+        List<String> values = stringRedisTemplate.opsForValue().multiGet(Lists.newArrayList(key, key + LOGICAL_EXPIRE_KEY_SUFFIX));
+        T result = values == null ? null : parseValue(values.get(0), clazz);
+        cacheMetrics.recordSafeGet(!CacheUtil.isNullOrBlank(result));
+        if (!CacheUtil.isNullOrBlank(result)) {
+            // 逻辑过期后依旧返回旧值，由后台线程刷新缓存
+            String logicalExpireTime = values.get(1);
+            if (logicalExpireTime != null && Long.parseLong(logicalExpireTime) < System.currentTimeMillis()) {
+                refreshAsync(key, cacheLoader, timeout, timeUnit, bloomFilter);
+            }
+            return result;
+        }
+        // 通过函数判断是否返回空，为了适配布隆过滤器无法删除的场景；两者都不成立，判断布隆过滤器是否存在，不存在返回空
+        if (Optional.ofNullable(cacheGetFilter).map(each -> each.filter(key)).orElse(false)
                 || Optional.ofNullable(bloomFilter).map(each -> !each.contains(key)).orElse(false)) {
             return result;
         }
-        RLock lock = redissonClient.getLock(SAFE_GET_DISTRIBUTED_LOCK_KEY_PREFIX + key);
-        lock.lock();
+        // 同一实例内相同 key 只有一个线程加载，其余线程有限时间等待加载结果
+        CompletableFuture<Object> loadFuture = new CompletableFuture<>();
+        CompletableFuture<Object> inFlightFuture = safeGetInFlightLoads.putIfAbsent(key, loadFuture);
+        if (inFlightFuture != null) {
+            return awaitInFlightLoad(key, clazz, inFlightFuture);
+        }
         try {
-            // 双重判定锁，减轻获得分布式锁后线程访问数据库压力
-            if (CacheUtil.isNullOrBlank(result = get(key, clazz))) {
-                // 如果访问 cacheLoader 加载数据为空，执行后置函数操作
-                if (CacheUtil.isNullOrBlank(result = loadAndSet(key, cacheLoader, timeout, timeUnit, true, bloomFilter))) {
-                    Optional.ofNullable(cacheGetIfAbsent).ifPresent(each -> each.execute(key));
-                }
-            }
+            result = loadWithDistributedLock(key, clazz, cacheLoader, timeout, timeUnit, bloomFilter, cacheGetIfAbsent);
+            loadFuture.complete(result);
+            return result;
+        } catch (Throwable ex) {
+            loadFuture.completeExceptionally(ex);
+            throw ex;
         } finally {
-            lock.unlock();
+            safeGetInFlightLoads.remove(key, loadFuture);
         }
-        return result;
     }
 
     @Override
@@ -173,8 +301,34 @@ public class StringRedisTemplateProxy implements DistributedCache {
 
     @Override
     public void put(String key, Object value, long timeout, TimeUnit timeUnit) {
-        String actual = value instanceof String ? (String) value : JSON.toJSONString(value);
-        stringRedisTemplate.opsForValue().set(key, actual, timeout, timeUnit);
+        // 直接写入的缓存值不参与逻辑过期，同时清理遗留的逻辑过期时间
+        stringRedisTemplate.executePipelined(new SessionCallback<Object>() {
+
+            @Override
+            public <K, V> Object execute(RedisOperations<K, V> operations) {
+                ValueOperations<String, String> valueOperations = (ValueOperations<String, String>) operations.opsForValue();
+                valueOperations.set(key, toValueString(value), timeout, timeUnit);
+                ((RedisOperations<String, String>) operations).delete(key + LOGICAL_EXPIRE_KEY_SUFFIX);
+                return null;
+            }
+        });
+    }
+
+    @Override
+    public void multiPut(Map<String, ?> keyValues, long timeout, TimeUnit timeUnit) {
+        if (keyValues.isEmpty()) {
+            return;
+        }
+        stringRedisTemplate.executePipelined(new SessionCallback<Object>() {
+
+            @Override
+            public <K, V> Object execute(RedisOperations<K, V> operations) {
+                ValueOperations<String, String> valueOperations = (ValueOperations<String, String>) operations.opsForValue();
+                keyValues.forEach((key, value) -> valueOperations.set(key, toValueString(value), timeout, timeUnit));
+                ((RedisOperations<String, String>) operations).delete(keyValues.keySet().stream().map(each -> each + LOGICAL_EXPIRE_KEY_SUFFIX).toList());
+                return null;
+            }
+        });
     }
 
     @Override
@@ -206,15 +360,158 @@ public class StringRedisTemplateProxy implements DistributedCache {
     }
 
     private <T> T loadAndSet(String key, CacheLoader<T> cacheLoader, long timeout, TimeUnit timeUnit, boolean safeFlag, RBloomFilter<String> bloomFilter) {
+        long loadStartNanos = System.nanoTime();
         T result = cacheLoader.load();
+        cacheMetrics.recordLoad(loadStartNanos);
         if (CacheUtil.isNullOrBlank(result)) {
             return result;
         }
         if (safeFlag) {
-            safePut(key, result, timeout, timeUnit, bloomFilter);
+            safePutWithLogicalExpire(key, result, timeout, timeUnit, bloomFilter);
         } else {
             put(key, result, timeout, timeUnit);
         }
         return result;
     }
+
+    @Override
+    public void destroy() {
+        safeGetRefreshExecutor.shutdown();
+    }
+
+    private <T> Map<String, T> multiGetValue(Collection<String> keys, Class<T> clazz) {
+        List<String> actualKeys = new ArrayList<>(keys);
+        Map<String, T> result = new LinkedHashMap<>(actualKeys.size());
+        if (actualKeys.isEmpty()) {
+            return result;
+        }
+        List<String> values = stringRedisTemplate.opsForValue().multiGet(actualKeys);
+        if (values == null) {
+            return result;
+        }
+        for (int i = 0; i < actualKeys.size(); i++) {
+            T value = parseValue(values.get(i), clazz);
+            if (!CacheUtil.isNullOrBlank(value)) {
+                result.put(actualKeys.get(i), value);
+            }
+        }
+        return result;
+    }
+
+    private <T> T getValue(String key, Class<T> clazz) {
+        String value = stringRedisTemplate.opsForValue().get(key);
+        return parseValue(value, clazz);
+    }
+
+    private <T> T parseValue(String value, Class<T> clazz) {
+        if (String.class.isAssignableFrom(clazz)) {
+            return (T) value;
+        }
+        return JSON.parseObject(value, FastJson2Util.buildType(clazz));
+    }
+
+    private String toValueString(Object value) {
+        return value instanceof String ? (String) value : JSON.toJSONString(value);
+    }
+
+    private <T> T loadWithDistributedLock(String key, Class<T> clazz, CacheLoader<T> cacheLoader, long timeout, TimeUnit timeUnit,
+                                          RBloomFilter<String> bloomFilter, CacheGetIfAbsent<String> cacheGetIfAbsent) {
+        T result;
+        RLock lock = redissonClient.getLock(SAFE_GET_DISTRIBUTED_LOCK_KEY_PREFIX + key);
+        boolean locked;
+        try {
+            locked = lock.tryLock(redisProperties.getSafeGetWaitTimeout(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return getValue(key, clazz);
+        }
+        if (!locked) {
+            // 其它实例加载时间过长，不再继续阻塞，返回当前缓存中的值，可能为空
+            log.warn("等待缓存加载分布式锁超时，Key：{}", key);
+            return getValue(key, clazz);
+        }
+        try {
+            // 双重判定锁，减轻获得分布式锁后线程访问数据库压力
+            if (CacheUtil.isNullOrBlank(result = getValue(key, clazz))) {
+                // 如果访问 cacheLoader 加载数据为空，执行后置函数操作
+                if (CacheUtil.isNullOrBlank(result = loadAndSet(key, cacheLoader, timeout, timeUnit, true, bloomFilter))) {
+                    Optional.ofNullable(cacheGetIfAbsent).ifPresent(each -> each.execute(key));
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+        return result;
+    }
+
+    private <T> T awaitInFlightLoad(String key, Class<T> clazz, CompletableFuture<Object> inFlightFuture) {
+        try {
+            Object result = inFlightFuture.get(redisProperties.getSafeGetWaitTimeout(), TimeUnit.MILLISECONDS);
+            // 后台刷新未获取到分布式锁时结果为空，重新读取缓存
+            return result != null ? (T) result : getValue(key, clazz);
+        } catch (TimeoutException ex) {
+            // 等待超时不再继续阻塞，返回当前缓存中的值，可能为空
+            log.warn("等待缓存加载超时，Key：{}", key);
+            return getValue(key, clazz);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return getValue(key, clazz);
+        } catch (ExecutionException ex) {
+            Throwable cause = ex.getCause();
+            throw cause instanceof RuntimeException ? (RuntimeException) cause : new IllegalStateException(cause);
+        }
+    }
+
+    private <T> void refreshAsync(String key, CacheLoader<T> cacheLoader, long timeout, TimeUnit timeUnit, RBloomFilter<String> bloomFilter) {
+        CompletableFuture<Object> refreshFuture = new CompletableFuture<>();
+        if (safeGetInFlightLoads.putIfAbsent(key, refreshFuture) != null) {
+            return;
+        }
+        cacheMetrics.recordLogicalExpiredRefresh();
+        try {
+            safeGetRefreshExecutor.execute(() -> {
+                // 集群内只需要一个实例刷新，获取不到分布式锁直接跳过
+                RLock lock = redissonClient.getLock(SAFE_GET_DISTRIBUTED_LOCK_KEY_PREFIX + key);
+                boolean locked = false;
+                try {
+                    if (locked = lock.tryLock()) {
+                        refreshFuture.complete(loadAndSet(key, cacheLoader, timeout, timeUnit, true, bloomFilter));
+                    }
+                } catch (Throwable ex) {
+                    log.error("异步刷新缓存失败，Key：{}", key, ex);
+                } finally {
+                    if (locked) {
+                        lock.unlock();
+                    }
+                    refreshFuture.complete(null);
+                    safeGetInFlightLoads.remove(key, refreshFuture);
+                }
+            });
+        } catch (RejectedExecutionException ex) {
+            safeGetInFlightLoads.remove(key, refreshFuture);
+        }
+    }
+
+    private void safePutWithLogicalExpire(String key, Object value, long timeout, TimeUnit timeUnit, RBloomFilter<String> bloomFilter) {
+        Double logicalExpireRatio = redisProperties.getLogicalExpireRatio();
+        if (logicalExpireRatio == null || logicalExpireRatio <= 0D || logicalExpireRatio >= 1D) {
+            safePut(key, value, timeout, timeUnit, bloomFilter);
+            return;
+        }
+        long logicalExpireTime = System.currentTimeMillis() + (long) (timeUnit.toMillis(timeout) * logicalExpireRatio);
+        // 缓存值与逻辑过期时间使用相同的物理过期时间，通过一次管道请求写入
+        stringRedisTemplate.executePipelined(new SessionCallback<Object>() {
+
+            @Override
+            public <K, V> Object execute(RedisOperations<K, V> operations) {
+                ValueOperations<String, String> valueOperations = (ValueOperations<String, String>) operations.opsForValue();
+                valueOperations.set(key, toValueString(value), timeout, timeUnit);
+                valueOperations.set(key + LOGICAL_EXPIRE_KEY_SUFFIX, String.valueOf(logicalExpireTime), timeout, timeUnit);
+                return null;
+            }
+        });
+        if (bloomFilter != null) {
+            bloomFilter.add(key);
+        }
+    }
 }
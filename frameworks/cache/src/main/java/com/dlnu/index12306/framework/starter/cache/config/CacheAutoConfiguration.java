@@ -17,11 +17,17 @@
 
 package com.dlnu.index12306.framework.starter.cache.config;
 
+import com.dlnu.index12306.framework.starter.cache.DistributedOnlyMultistageCache;
+import com.dlnu.index12306.framework.starter.cache.MultistageCacheProxy;
 import com.dlnu.index12306.framework.starter.cache.RedisKeySerializer;
 import com.dlnu.index12306.framework.starter.cache.StringRedisTemplateProxy;
+import com.dlnu.index12306.framework.starter.cache.core.CacheMetrics;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
 import lombok.AllArgsConstructor;
 import org.redisson.api.RBloomFilter;
 import org.redisson.api.RedissonClient;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
@@ -31,7 +37,7 @@ import org.springframework.data.redis.core.StringRedisTemplate;
  * 缓存配置自动装配
  */
 @AllArgsConstructor
-@EnableConfigurationProperties({RedisDistributedProperties.class, BloomFilterPenetrateProperties.class})
+@EnableConfigurationProperties({RedisDistributedProperties.class, BloomFilterPenetrateProperties.class, MultistageCacheProperties.class})
 public class CacheAutoConfiguration {
 
     private final RedisDistributedProperties redisDistributedProperties;
@@ -61,8 +67,31 @@ public class CacheAutoConfiguration {
     // 静态代理模式: Redis 客户端代理类增强
     public StringRedisTemplateProxy stringRedisTemplateProxy(RedisKeySerializer redisKeySerializer,
                                                              StringRedisTemplate stringRedisTemplate,
-                                                             RedissonClient redissonClient) {
+                                                             RedissonClient redissonClient,
+                                                             ObjectProvider<MeterRegistry> meterRegistry) {
         stringRedisTemplate.setKeySerializer(redisKeySerializer);
-        return new StringRedisTemplateProxy(stringRedisTemplate, redisDistributedProperties, redissonClient);
+        // 未引入 Actuator 时注册到全局注册表，不影响缓存功能
+        CacheMetrics cacheMetrics = new CacheMetrics(meterRegistry.getIfAvailable(() -> Metrics.globalRegistry));
+        return new StringRedisTemplateProxy(stringRedisTemplate, redisDistributedProperties, redissonClient, cacheMetrics);
+    }
+
+    /**
+     * 多级缓存，Caffeine 本地缓存 + Redis 分布式缓存
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = MultistageCacheProperties.PREFIX, name = "enabled", havingValue = "true")
+    public MultistageCacheProxy multistageCacheProxy(StringRedisTemplateProxy stringRedisTemplateProxy,
+                                                     RedissonClient redissonClient,
+                                                     MultistageCacheProperties multistageCacheProperties) {
+        return new MultistageCacheProxy(stringRedisTemplateProxy, redissonClient, multistageCacheProperties);
+    }
+
+    /**
+     * 未开启多级缓存时直接使用分布式缓存，依赖多级缓存的组件无需区分是否开启
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = MultistageCacheProperties.PREFIX, name = "enabled", havingValue = "false", matchIfMissing = true)
+    public DistributedOnlyMultistageCache distributedOnlyMultistageCache(StringRedisTemplateProxy stringRedisTemplateProxy) {
+        return new DistributedOnlyMultistageCache(stringRedisTemplateProxy);
     }
 }
@@ -0,0 +1,92 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dlnu.index12306.framework.starter.cache.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 多级缓存配置
+ */
+@Data
+@ConfigurationProperties(prefix = MultistageCacheProperties.PREFIX)
+public class MultistageCacheProperties {
+
+    public static final String PREFIX = "framework.cache.multistage";
+
+    /**
+     * 是否开启多级缓存
+     */
+    private Boolean enabled = false;
+
+    /**
+     * 跨实例删除本地缓存的 Redis 发布订阅频道
+     */
+    private String invalidateTopic = "index12306_multistage_cache_invalidate_topic";
+
+    /**
+     * 未匹配到 Key 前缀策略时本地缓存的最大数量
+     */
+    private Long maximumSize = 10000L;
+
+    /**
+     * 未匹配到 Key 前缀策略时本地缓存写入后的过期时间
+     */
+    private Long expireAfterWrite = 60L;
+
+    /**
+     * 未匹配到 Key 前缀策略时本地缓存过期时间单位
+     */
+    private TimeUnit timeUnit = TimeUnit.SECONDS;
+
+    /**
+     * 按 Key 前缀配置的本地缓存策略，存在多个匹配时使用最长的前缀
+     */
+    private List<Policy> policies = new ArrayList<>();
+
+    /**
+     * 本地缓存策略
+     */
+    @Data
+    public static class Policy {
+
+        /**
+         * Key 前缀
+         */
+        private String keyPrefix;
+
+        /**
+         * 本地缓存的最大数量
+         */
+        private Long maximumSize = 10000L;
+
+        /**
+         * 本地缓存写入后的过期时间
+         */
+        private Long expireAfterWrite = 60L;
+
+        /**
+         * 过期时间单位
+         */
+        private TimeUnit timeUnit = TimeUnit.SECONDS;
+    }
+}
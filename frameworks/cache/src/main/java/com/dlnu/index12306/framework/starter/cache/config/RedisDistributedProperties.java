@@ -50,4 +50,14 @@ public class RedisDistributedProperties {
      * 时间单位
      */
     private TimeUnit valueTimeUnit = TimeUnit.MILLISECONDS;
+
+    /**
+     * 同一实例内等待其它线程加载缓存的最长时间，单位毫秒
+     */
+    private Long safeGetWaitTimeout = 3000L;
+
+    /**
+     * 逻辑过期时间占缓存超时时间的比例，超过逻辑过期时间后返回旧值并异步刷新缓存，小于等于 0 或大于等于 1 时关闭
+     */
+    private Double logicalExpireRatio = 0.8D;
 }
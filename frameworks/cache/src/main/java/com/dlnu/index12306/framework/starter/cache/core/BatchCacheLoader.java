@@ -0,0 +1,33 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dlnu.index12306.framework.starter.cache.core;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * 批量缓存加载器
+ */
+@FunctionalInterface
+public interface BatchCacheLoader<T> {
+
+    /**
+     * 批量加载缓存，返回结果中不存在的 key 视为加载结果为空
+     */
+    Map<String, T> load(Collection<String> keys);
+}
@@ -0,0 +1,122 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dlnu.index12306.framework.starter.cache.core;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 分布式缓存指标，统计读取命中率以及缓存加载器耗时
+ * 所有指标在创建时注册完成，记录时不产生额外对象分配
+ */
+public final class CacheMetrics {
+
+    private static final String CACHE_GETS = "distributed.cache.gets";
+    private static final String CACHE_LOADS = "distributed.cache.loads";
+    private static final String CACHE_REFRESHES = "distributed.cache.refreshes";
+
+    private final Counter getHit;
+    private final Counter getMiss;
+    private final Counter multiGetHit;
+    private final Counter multiGetMiss;
+    private final Counter safeGetHit;
+    private final Counter safeGetMiss;
+    private final Counter logicalExpiredRefresh;
+    private final Timer loadTimer;
+    private final Timer batchLoadTimer;
+
+    public CacheMetrics(MeterRegistry meterRegistry) {
+        this.getHit = buildGetCounter(meterRegistry, "get", "hit");
+        this.getMiss = buildGetCounter(meterRegistry, "get", "miss");
+        this.multiGetHit = buildGetCounter(meterRegistry, "multiGet", "hit");
+        this.multiGetMiss = buildGetCounter(meterRegistry, "multiGet", "miss");
+        this.safeGetHit = buildGetCounter(meterRegistry, "safeGet", "hit");
+        this.safeGetMiss = buildGetCounter(meterRegistry, "safeGet", "miss");
+        this.logicalExpiredRefresh = Counter.builder(CACHE_REFRESHES)
+                .description("逻辑过期后触发异步刷新的次数")
+                .register(meterRegistry);
+        this.loadTimer = buildLoadTimer(meterRegistry, "single");
+        this.batchLoadTimer = buildLoadTimer(meterRegistry, "batch");
+    }
+
+    /**
+     * 记录 get 读取结果
+     */
+    public void recordGet(boolean hit) {
+        (hit ? getHit : getMiss).increment();
+    }
+
+    /**
+     * 记录 multiGet 命中与未命中数量
+     */
+    public void recordMultiGet(int hitCount, int missCount) {
+        multiGetHit.increment(hitCount);
+        multiGetMiss.increment(missCount);
+    }
+
+    /**
+     * 记录 safeGet 读取结果
+     */
+    public void recordSafeGet(boolean hit) {
+        (hit ? safeGetHit : safeGetMiss).increment();
+    }
+
+    /**
+     * 记录逻辑过期触发的异步刷新
+     */
+    public void recordLogicalExpiredRefresh() {
+        logicalExpiredRefresh.increment();
+    }
+
+    /**
+     * 记录单个缓存加载器耗时
+     *
+     * @param startNanos 加载开始时的 {@link System#nanoTime()}
+     */
+    public void recordLoad(long startNanos) {
+        loadTimer.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * 记录批量缓存加载器耗时
+     *
+     * @param startNanos 加载开始时的 {@link System#nanoTime()}
+     */
+    public void recordBatchLoad(long startNanos) {
+        batchLoadTimer.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    private static Counter buildGetCounter(MeterRegistry meterRegistry, String operation, String result) {
+        return Counter.builder(CACHE_GETS)
+                .description("分布式缓存读取次数")
+                .tag("operation", operation)
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    private static Timer buildLoadTimer(MeterRegistry meterRegistry, String type) {
+        return Timer.builder(CACHE_LOADS)
+                .description("缓存未命中时加载器耗时")
+                .tag("type", type)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+}
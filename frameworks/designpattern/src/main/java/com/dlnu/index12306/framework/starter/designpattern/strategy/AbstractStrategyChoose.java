@@ -24,8 +24,9 @@ import org.springframework.context.ApplicationListener;
 import org.springframework.util.StringUtils;
 
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Pattern;
 
 /**
@@ -38,6 +39,16 @@ public class AbstractStrategyChoose implements ApplicationListener<ApplicationIn
      */
     private final Map<String, AbstractExecuteStrategy> abstractExecuteStrategyMap = new HashMap<>();
 
+    /**
+     * 范匹配策略集合，注册时预编译正则
+     */
+    private volatile List<PatternMatchStrategy> patternMatchStrategies = List.of();
+
+    /**
+     * 范匹配结果缓存，相同 mark（例如分表表名）重复匹配时直接命中
+     */
+    private final Map<String, AbstractExecuteStrategy> patternMatchCache = new ConcurrentHashMap<>();
+
     /**
      * 根据 mark 查询具体策略
      *
@@ -46,15 +57,22 @@ public class AbstractStrategyChoose implements ApplicationListener<ApplicationIn
      * @return 实际执行策略
      */
     public AbstractExecuteStrategy choose(String mark, Boolean predicateFlag) {
-        if (predicateFlag != null && predicateFlag) {
-            return abstractExecuteStrategyMap.values().stream()
-                    .filter(each -> StringUtils.hasText(each.patternMatchMark()))
-                    .filter(each -> Pattern.compile(each.patternMatchMark()).matcher(mark).matches())
-                    .findFirst()
-                    .orElseThrow(() -> new ServiceException("策略未定义"));
+        AbstractExecuteStrategy executeStrategy = find(mark, predicateFlag);
+        if (executeStrategy == null) {
+            throw new ServiceException(predicateFlag != null && predicateFlag ? "策略未定义" : String.format("[%s] 策略未定义", mark));
         }
-        return Optional.ofNullable(abstractExecuteStrategyMap.get(mark))
-                .orElseThrow(() -> new ServiceException(String.format("[%s] 策略未定义", mark)));
+        return executeStrategy;
+    }
+
+    /**
+     * 判断 mark 是否存在对应策略，用于消费者跳过未注册策略的消息
+     *
+     * @param mark          策略标识
+     * @param predicateFlag 匹配范解析标识
+     * @return 是否存在对应策略
+     */
+    public boolean contains(String mark, Boolean predicateFlag) {
+        return find(mark, predicateFlag) != null;
     }
 
     /**
@@ -106,5 +124,32 @@ public class AbstractStrategyChoose implements ApplicationListener<ApplicationIn
             }
             abstractExecuteStrategyMap.put(bean.mark(), bean);
         });
+        patternMatchStrategies = abstractExecuteStrategyMap.values().stream()
+                .filter(each -> StringUtils.hasText(each.patternMatchMark()))
+                .map(each -> new PatternMatchStrategy(Pattern.compile(each.patternMatchMark()), each))
+                .toList();
+        patternMatchCache.clear();
+    }
+
+    private AbstractExecuteStrategy find(String mark, Boolean predicateFlag) {
+        if (predicateFlag != null && predicateFlag) {
+            AbstractExecuteStrategy cached = patternMatchCache.get(mark);
+            if (cached != null) {
+                return cached;
+            }
+            AbstractExecuteStrategy matched = patternMatchStrategies.stream()
+                    .filter(each -> each.pattern().matcher(mark).matches())
+                    .map(PatternMatchStrategy::strategy)
+                    .findFirst()
+                    .orElse(null);
+            if (matched != null) {
+                patternMatchCache.putIfAbsent(mark, matched);
+            }
+            return matched;
+        }
+        return abstractExecuteStrategyMap.get(mark);
+    }
+
+    private record PatternMatchStrategy(Pattern pattern, AbstractExecuteStrategy strategy) {
     }
 }
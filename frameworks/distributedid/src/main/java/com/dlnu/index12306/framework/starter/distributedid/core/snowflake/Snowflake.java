@@ -26,6 +26,7 @@ import com.dlnu.index12306.framework.starter.distributedid.core.IdGenerator;
 
 import java.io.Serializable;
 import java.util.Date;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Twitter的Snowflake 算法<br>
@@ -105,11 +106,10 @@ public class Snowflake implements Serializable, IdGenerator {
     private final long randomSequenceLimit;
 
     /**
-     * 自增序号，当高频模式下时，同一毫秒内生成N个ID，则这个序号在同一毫秒下，自增以避免ID重复。
+     * 上次生成 ID 的时间戳与自增序号，打包为 {@code (lastTimestamp << SEQUENCE_BITS) | sequence}<br>
+     * 通过 CAS 一次性推进两者，替代 synchronized，高并发下线程之间不再互相阻塞。
      */
-    private long sequence = 0L;
-
-    private long lastTimestamp = -1L;
+    private final AtomicLong lastTimestampAndSequence = new AtomicLong(0L);
 
     /**
      * 构造，使用自动生成的工作节点ID和数据中心ID
@@ -218,33 +218,61 @@ public class Snowflake implements Serializable, IdGenerator {
      *
      * @return ID
      */
-    public synchronized long nextId() {
-        long timestamp = genTime();
-        if (timestamp < this.lastTimestamp) {
-            if (this.lastTimestamp - timestamp < timeOffset) {
-                // 容忍指定的回拨，避免NTP校时造成的异常
-                timestamp = lastTimestamp;
+    public long nextId() {
+        while (true) {
+            long current = lastTimestampAndSequence.get();
+            long lastTimestamp = current >>> SEQUENCE_BITS;
+            long timestamp = currentTimestamp(lastTimestamp);
+            long sequence;
+            if (timestamp == lastTimestamp) {
+                sequence = (current & SEQUENCE_MASK) + 1;
+                if (sequence > SEQUENCE_MASK) {
+                    // 当前毫秒序号已用完，等待下一毫秒后重新竞争
+                    tilNextMillis(lastTimestamp);
+                    continue;
+                }
             } else {
-                // 如果服务器时间有问题(时钟后退) 报错。
-                throw new IllegalStateException(StrUtil.format("Clock moved backwards. Refusing to generate id for {}ms", lastTimestamp - timestamp));
+                sequence = initialSequence();
             }
-        }
-        if (timestamp == this.lastTimestamp) {
-            final long sequence = (this.sequence + 1) & SEQUENCE_MASK;
-            if (sequence == 0) {
-                timestamp = tilNextMillis(lastTimestamp);
+            if (lastTimestampAndSequence.compareAndSet(current, (timestamp << SEQUENCE_BITS) | sequence)) {
+                return composeId(timestamp, sequence);
             }
-            this.sequence = sequence;
-        } else {
-            // issue#I51EJY
-            if (randomSequenceLimit > 1) {
-                sequence = RandomUtil.randomLong(randomSequenceLimit);
+        }
+    }
+
+    /**
+     * 批量获取 ID，每次 CAS 预占当前毫秒内一段连续序号，数量超过当前毫秒剩余序号时顺延到下一毫秒
+     *
+     * @param n ID 数量
+     * @return 按生成顺序递增的 ID 数组
+     */
+    public long[] nextIds(int n) {
+        Assert.isTrue(n >= 0, "Id count must not be negative");
+        long[] ids = new long[n];
+        int filled = 0;
+        while (filled < n) {
+            long current = lastTimestampAndSequence.get();
+            long lastTimestamp = current >>> SEQUENCE_BITS;
+            long timestamp = currentTimestamp(lastTimestamp);
+            long firstSequence;
+            if (timestamp == lastTimestamp) {
+                firstSequence = (current & SEQUENCE_MASK) + 1;
+                if (firstSequence > SEQUENCE_MASK) {
+                    tilNextMillis(lastTimestamp);
+                    continue;
+                }
             } else {
-                sequence = 0L;
+                firstSequence = initialSequence();
+            }
+            int count = (int) Math.min(n - filled, SEQUENCE_MASK - firstSequence + 1);
+            long lastSequence = firstSequence + count - 1;
+            if (lastTimestampAndSequence.compareAndSet(current, (timestamp << SEQUENCE_BITS) | lastSequence)) {
+                for (long sequence = firstSequence; sequence <= lastSequence; sequence++) {
+                    ids[filled++] = composeId(timestamp, sequence);
+                }
             }
         }
-        lastTimestamp = timestamp;
-        return ((timestamp - twepoch) << TIMESTAMP_LEFT_SHIFT) | (dataCenterId << DATA_CENTER_ID_SHIFT) | (workerId << WORKER_ID_SHIFT) | sequence;
+        return ids;
     }
 
     /**
@@ -258,6 +286,46 @@ public class Snowflake implements Serializable, IdGenerator {
 
     // ------------------------------------------------------------------------------------------------------------------------------------ Private method start
 
+    /**
+     * 获取当前时间戳，容忍指定范围内的时钟回拨
+     *
+     * @param lastTimestamp 上次记录的时间
+     * @return 当前时间戳，回拨范围内返回上次记录的时间
+     */
+    private long currentTimestamp(long lastTimestamp) {
+        long timestamp = genTime();
+        if (timestamp < lastTimestamp) {
+            if (lastTimestamp - timestamp < timeOffset) {
+                // 容忍指定的回拨，避免NTP校时造成的异常
+                return lastTimestamp;
+            }
+            // 如果服务器时间有问题(时钟后退) 报错。
+            throw new IllegalStateException(StrUtil.format("Clock moved backwards. Refusing to generate id for {}ms", lastTimestamp - timestamp));
+        }
+        return timestamp;
+    }
+
+    /**
+     * 新毫秒内的起始序号
+     *
+     * @return 起始序号
+     */
+    private long initialSequence() {
+        // issue#I51EJY
+        return randomSequenceLimit > 1 ? RandomUtil.randomLong(randomSequenceLimit) : 0L;
+    }
+
+    /**
+     * 按位拼装 ID
+     *
+     * @param timestamp 时间戳
+     * @param sequence  序号
+     * @return ID
+     */
+    private long composeId(long timestamp, long sequence) {
+        return ((timestamp - twepoch) << TIMESTAMP_LEFT_SHIFT) | (dataCenterId << DATA_CENTER_ID_SHIFT) | (workerId << WORKER_ID_SHIFT) | sequence;
+    }
+
     /**
      * 循环等待下一个时间
      *
@@ -268,6 +336,7 @@ public class Snowflake implements Serializable, IdGenerator {
         long timestamp = genTime();
         // 循环直到操作系统时间戳变化
         while (timestamp == lastTimestamp) {
+            Thread.onSpinWait();
             timestamp = genTime();
         }
         if (timestamp < lastTimestamp) {
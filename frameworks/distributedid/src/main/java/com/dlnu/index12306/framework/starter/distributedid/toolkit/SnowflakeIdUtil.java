@@ -52,6 +52,13 @@ public final class SnowflakeIdUtil {
         return SNOWFLAKE.nextId();
     }
 
+    /**
+     * 批量获取雪花算法 ID，一次预占连续序号段
+     */
+    public static long[] nextIds(int n) {
+        return SNOWFLAKE.nextIds(n);
+    }
+
     /**
      * 获取雪花算法下一个字符串类型 ID
      */
@@ -22,8 +22,11 @@ import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
 import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.util.ClassUtils;
 
 import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * 幂等注解 AOP 拦截器
@@ -31,11 +34,24 @@ import java.lang.reflect.Method;
 @Aspect
 public final class IdempotentAspect {
 
+    /**
+     * 按目标类与方法缓存 @Idempotent 注解，避免每次调用都反射查找目标方法
+     */
+    private static final Map<MethodCacheKey, Idempotent> IDEMPOTENT_CACHE = new ConcurrentHashMap<>();
+
     // 获取目标方法上的 @Idempotent 注解
     public static Idempotent getIdempotent(ProceedingJoinPoint joinPoint) throws NoSuchMethodException {
         MethodSignature methodSignature = (MethodSignature) joinPoint.getSignature();
-        Method targetMethod = joinPoint.getTarget().getClass().getDeclaredMethod(methodSignature.getName(), methodSignature.getMethod().getParameterTypes());
-        return targetMethod.getAnnotation(Idempotent.class);  // 返回 @Idempotent 注解
+        MethodCacheKey cacheKey = new MethodCacheKey(joinPoint.getTarget().getClass(), methodSignature.getMethod());
+        Idempotent idempotent = IDEMPOTENT_CACHE.get(cacheKey);
+        if (idempotent == null) {
+            Method targetMethod = ClassUtils.getMostSpecificMethod(cacheKey.method(), cacheKey.targetClass());
+            idempotent = targetMethod.getAnnotation(Idempotent.class);
+            if (idempotent != null) {
+                IDEMPOTENT_CACHE.putIfAbsent(cacheKey, idempotent);
+            }
+        }
+        return idempotent;  // 返回 @Idempotent 注解
     }
 
     /**
@@ -74,4 +90,7 @@ public final class IdempotentAspect {
         }
         return resultObj;  // 返回方法执行结果
     }
+
+    private record MethodCacheKey(Class<?> targetClass, Method method) {
+    }
 }
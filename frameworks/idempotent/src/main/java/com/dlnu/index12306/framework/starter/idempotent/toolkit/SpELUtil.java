@@ -18,22 +18,41 @@
 package com.dlnu.index12306.framework.starter.idempotent.toolkit;
 
 import cn.hutool.core.util.ArrayUtil;
-import com.google.common.collect.Lists;
 import org.springframework.core.DefaultParameterNameDiscoverer;
+import org.springframework.core.ParameterNameDiscoverer;
 import org.springframework.expression.Expression;
-import org.springframework.expression.ExpressionParser;
+import org.springframework.expression.common.LiteralExpression;
+import org.springframework.expression.spel.SpelCompilerMode;
+import org.springframework.expression.spel.SpelEvaluationException;
+import org.springframework.expression.spel.SpelMessage;
+import org.springframework.expression.spel.SpelParserConfiguration;
 import org.springframework.expression.spel.standard.SpelExpressionParser;
 import org.springframework.expression.spel.support.StandardEvaluationContext;
 
 import java.lang.reflect.Method;
-import java.util.ArrayList;
-import java.util.Optional;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * SpEL 表达式解析工具
+ * 表达式与方法参数名按需解析后缓存，表达式以 {@link SpelCompilerMode#IMMEDIATE} 模式编译为字节码
  */
 public class SpELUtil {
 
+    private static final String[] SPEL_FLAGS = {"#", "T("};
+
+    private static final ParameterNameDiscoverer PARAMETER_NAME_DISCOVERER = new DefaultParameterNameDiscoverer();
+
+    private static final SpelExpressionParser COMPILED_PARSER = new SpelExpressionParser(
+            new SpelParserConfiguration(SpelCompilerMode.IMMEDIATE, SpELUtil.class.getClassLoader())
+    );
+
+    private static final SpelExpressionParser INTERPRETED_PARSER = new SpelExpressionParser();
+
+    private static final Map<String, Expression> EXPRESSION_CACHE = new ConcurrentHashMap<>();
+
+    private static final Map<Method, String[]> PARAMETER_NAMES_CACHE = new ConcurrentHashMap<>();
+
     /**
      * 校验并返回实际使用的 spEL 表达式
      *
@@ -41,12 +60,11 @@ public class SpELUtil {
      * @return 实际使用的 spEL 表达式
      */
     public static Object parseKey(String spEl, Method method, Object[] contextObj) {
-        ArrayList<String> spELFlag = Lists.newArrayList("#", "T(");
-        Optional<String> optional = spELFlag.stream().filter(spEl::contains).findFirst();
-        if (optional.isPresent()) {
-            return parse(spEl, method, contextObj);
+        Expression exp = EXPRESSION_CACHE.computeIfAbsent(spEl, SpELUtil::parseExpression);
+        if (exp instanceof LiteralExpression) {
+            return spEl;
         }
-        return spEl;
+        return evaluate(spEl, exp, method, contextObj);
     }
 
     /**
@@ -57,20 +75,49 @@ public class SpELUtil {
      * @return 解析的字符串值
      */
     public static Object parse(String spEl, Method method, Object[] contextObj) {
-        // 获取方法的参数名
-        DefaultParameterNameDiscoverer discoverer = new DefaultParameterNameDiscoverer();
-        // 将字符串形式的SpEL表达式转换为Expression对象
-        ExpressionParser parser = new SpelExpressionParser();
-        Expression exp = parser.parseExpression(spEl);
-        String[] params = discoverer.getParameterNames(method);
+        Expression exp = EXPRESSION_CACHE.get(spEl);
+        if (exp == null || exp instanceof LiteralExpression) {
+            // 不含 SpEL 标识的字符串按原逻辑仍作为表达式求值，不写入缓存
+            exp = COMPILED_PARSER.parseExpression(spEl);
+        }
+        return evaluate(spEl, exp, method, contextObj);
+    }
+
+    private static Expression parseExpression(String spEl) {
+        for (String each : SPEL_FLAGS) {
+            if (spEl.contains(each)) {
+                return COMPILED_PARSER.parseExpression(spEl);
+            }
+        }
+        return new LiteralExpression(spEl);
+    }
+
+    private static Object evaluate(String spEl, Expression exp, Method method, Object[] contextObj) {
         // SpEL 表达式求值的上下文。在这个上下文中，变量可以被定义，并且后续可以被SpEL表达式引用
         StandardEvaluationContext context = new StandardEvaluationContext();
+        // 获取方法的参数名
+        String[] params = PARAMETER_NAMES_CACHE.computeIfAbsent(method, SpELUtil::getParameterNames);
         if (ArrayUtil.isNotEmpty(params)) {
             for (int len = 0; len < params.length; len++) {
                 context.setVariable(params[len], contextObj[len]);
             }
         }
-        // 在给定的上下文中求解表达式
-        return exp.getValue(context);
+        try {
+            // 在给定的上下文中求解表达式
+            return exp.getValue(context);
+        } catch (SpelEvaluationException ex) {
+            if (ex.getMessageCode() != SpelMessage.EXCEPTION_RUNNING_COMPILED_EXPRESSION) {
+                throw ex;
+            }
+            // 编译后的表达式执行失败（例如变量实际类型发生变化），退化为解释执行并替换缓存
+            Expression interpreted = INTERPRETED_PARSER.parseExpression(spEl);
+            EXPRESSION_CACHE.put(spEl, interpreted);
+            return interpreted.getValue(context);
+        }
+    }
+
+    private static String[] getParameterNames(Method method) {
+        String[] params = PARAMETER_NAME_DISCOVERER.getParameterNames(method);
+        return params == null ? new String[0] : params;
     }
 }
@@ -0,0 +1,51 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dlnu.index12306.framework.starter.log.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * {@link com.dlnu.index12306.framework.starter.log.annotation.ILog} 日志打印配置
+ */
+@Data
+@ConfigurationProperties(prefix = ILogPrintProperties.PREFIX)
+public class ILogPrintProperties {
+
+    public static final String PREFIX = "framework.log";
+
+    /**
+     * 是否异步打印，开启后请求线程只采集参数引用，序列化与输出由后台线程完成
+     */
+    private Boolean async = false;
+
+    /**
+     * 异步打印缓冲区容量，缓冲区满时丢弃日志，不阻塞请求线程
+     */
+    private Integer bufferSize = 1024;
+
+    /**
+     * 单条日志序列化后的最大长度，超出部分截断，小于等于 0 表示不截断
+     */
+    private Integer maxPayloadLength = 4096;
+
+    /**
+     * 采样率，取值 0 ~ 1，1 表示全部打印
+     */
+    private Double sampleRate = 1D;
+}
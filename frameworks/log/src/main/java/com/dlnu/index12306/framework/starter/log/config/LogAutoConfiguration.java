@@ -18,19 +18,33 @@
 package com.dlnu.index12306.framework.starter.log.config;
 
 import com.dlnu.index12306.framework.starter.log.annotation.ILog;
+import com.dlnu.index12306.framework.starter.log.core.ILogAsyncPrinter;
 import com.dlnu.index12306.framework.starter.log.core.ILogPrintAspect;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 
 /**
  * 日志自动装配
  */
+@EnableConfigurationProperties(ILogPrintProperties.class)
 public class LogAutoConfiguration {
 
+    /**
+     * {@link ILog} 异步日志打印器
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = ILogPrintProperties.PREFIX, name = "async", havingValue = "true")
+    public ILogAsyncPrinter iLogAsyncPrinter(ILogPrintProperties iLogPrintProperties) {
+        return new ILogAsyncPrinter(iLogPrintProperties.getBufferSize(), iLogPrintProperties.getMaxPayloadLength());
+    }
+
     /**
      * {@link ILog} 日志打印 AOP 切面
      */
     @Bean
-    public ILogPrintAspect iLogPrintAspect() {
-        return new ILogPrintAspect();
+    public ILogPrintAspect iLogPrintAspect(ILogPrintProperties iLogPrintProperties, ObjectProvider<ILogAsyncPrinter> iLogAsyncPrinter) {
+        return new ILogPrintAspect(iLogPrintProperties, iLogAsyncPrinter.getIfAvailable());
     }
 }
@@ -0,0 +1,90 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dlnu.index12306.framework.starter.log.core;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * ILog 异步日志打印器
+ * 请求线程将日志事件放入有界环形缓冲区后立即返回，由单个后台线程完成序列化与输出；缓冲区满时丢弃并统计数量
+ */
+@Slf4j
+public class ILogAsyncPrinter implements DisposableBean {
+
+    private static final long SHUTDOWN_TIMEOUT_MILLIS = 3000L;
+
+    private final BlockingQueue<ILogPrintEvent> ringBuffer;
+    private final int maxPayloadLength;
+    private final AtomicLong droppedCount = new AtomicLong();
+    private final Thread printThread;
+    private volatile boolean running = true;
+
+    public ILogAsyncPrinter(int bufferSize, int maxPayloadLength) {
+        this.ringBuffer = new ArrayBlockingQueue<>(bufferSize);
+        this.maxPayloadLength = maxPayloadLength;
+        this.printThread = new Thread(this::printLoop, "ilog-async-printer");
+        this.printThread.setDaemon(true);
+        this.printThread.start();
+    }
+
+    /**
+     * 提交日志事件，不阻塞调用线程
+     *
+     * @param event 日志事件
+     */
+    public void submit(ILogPrintEvent event) {
+        if (!ringBuffer.offer(event)) {
+            droppedCount.incrementAndGet();
+        }
+    }
+
+    private void printLoop() {
+        while (running || !ringBuffer.isEmpty()) {
+            ILogPrintEvent event;
+            try {
+                event = ringBuffer.poll(1, TimeUnit.SECONDS);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            if (event != null) {
+                try {
+                    event.print(maxPayloadLength);
+                } catch (Throwable ex) {
+                    log.error("ILog 异步打印日志失败", ex);
+                }
+            }
+            if (droppedCount.get() > 0) {
+                log.warn("ILog 异步打印缓冲区已满，丢弃日志 {} 条", droppedCount.getAndSet(0));
+            }
+        }
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        // 停止接收后打印完缓冲区中剩余日志
+        running = false;
+        printThread.join(SHUTDOWN_TIMEOUT_MILLIS);
+    }
+}
@@ -17,31 +17,48 @@
 
 package com.dlnu.index12306.framework.starter.log.core;
 
-import cn.hutool.core.date.DateUtil;
 import cn.hutool.core.date.SystemClock;
-import com.alibaba.fastjson2.JSON;
 import com.dlnu.index12306.framework.starter.log.annotation.ILog;
+import com.dlnu.index12306.framework.starter.log.config.ILogPrintProperties;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
 import org.aspectj.lang.reflect.MethodSignature;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.util.ClassUtils;
 import org.springframework.web.context.request.RequestContextHolder;
 import org.springframework.web.context.request.ServletRequestAttributes;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.lang.reflect.Method;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
 
 /**
  * {@link ILog} 日志打印 AOP 切面
  */
 @Aspect
+@RequiredArgsConstructor
 public class ILogPrintAspect {
 
+    private final ILogPrintProperties iLogPrintProperties;
+
+    /**
+     * 异步打印器，未开启异步打印时为空
+     */
+    private final ILogAsyncPrinter iLogAsyncPrinter;
+
+    /**
+     * 方法元数据缓存，避免每次调用都反射查找目标方法与注解
+     */
+    private final Map<MethodCacheKey, ILogMethodMetadata> methodMetadataCache = new ConcurrentHashMap<>();
+
     /**
      * 打印类或方法上的 {@link ILog}
      */
@@ -49,32 +66,16 @@ public class ILogPrintAspect {
     public Object printMLog(ProceedingJoinPoint joinPoint) throws Throwable {
 
         long startTime = SystemClock.now();
-        // 获取方法签名
-        MethodSignature methodSignature = (MethodSignature) joinPoint.getSignature();
-        // 获取日志记录器
-        Logger log = LoggerFactory.getLogger(methodSignature.getDeclaringType());
-        String beginTime = DateUtil.now();
         Object result = null;
 
         try {
             // 执行相应方法
             result = joinPoint.proceed();
         } finally {
-            // 获取目标方法对象
-            Method targetMethod = joinPoint.getTarget().getClass().getDeclaredMethod(methodSignature.getName(), methodSignature.getMethod().getParameterTypes());
-
-            // 获取目标方法上的 ILog 注解，如果不存在，则获取目标类上的 ILog 注解
-            ILog logAnnotation = Optional.ofNullable(targetMethod.getAnnotation(ILog.class)).orElse(joinPoint.getTarget().getClass().getAnnotation(ILog.class));
-            if (logAnnotation != null) {
-                ILogPrintDTO logPrint = new ILogPrintDTO();
-                logPrint.setBeginTime(beginTime);
-                if (logAnnotation.input()) {
-                    logPrint.setInputParams(buildInput(joinPoint));
-                }
-                if (logAnnotation.output()) {
-                    logPrint.setOutputParams(result);
-                }
-                // 获取请求的方法类型和请求URI
+            ILogMethodMetadata metadata = getMethodMetadata(joinPoint);
+            ILog logAnnotation = metadata.logAnnotation();
+            if (logAnnotation != null && sampled()) {
+                // 获取请求的方法类型和请求URI，需在请求线程内获取
                 String methodType = "", requestURI = "";
                 try {
                     ServletRequestAttributes servletRequestAttributes = (ServletRequestAttributes) RequestContextHolder.getRequestAttributes();
@@ -84,14 +85,42 @@ public class ILogPrintAspect {
                 } catch (Exception ignored) {
                 }
 
-                // 打印日志信息
-                log.info("[{}] {}, executeTime: {}ms, info: {}", methodType, requestURI, SystemClock.now() - startTime, JSON.toJSONString(logPrint));
+                // 仅采集参数引用，序列化在打印时执行
+                ILogPrintEvent event = new ILogPrintEvent(
+                        metadata.logger(),
+                        startTime,
+                        SystemClock.now() - startTime,
+                        methodType,
+                        requestURI,
+                        logAnnotation.input() ? buildInput(joinPoint) : null,
+                        logAnnotation.output() ? result : null
+                );
+                if (iLogAsyncPrinter != null) {
+                    iLogAsyncPrinter.submit(event);
+                } else {
+                    event.print(iLogPrintProperties.getMaxPayloadLength());
+                }
             }
         }
 
         return result;
     }
 
+    private ILogMethodMetadata getMethodMetadata(ProceedingJoinPoint joinPoint) {
+        MethodSignature methodSignature = (MethodSignature) joinPoint.getSignature();
+        Class<?> targetClass = joinPoint.getTarget().getClass();
+        return methodMetadataCache.computeIfAbsent(new MethodCacheKey(targetClass, methodSignature.getMethod()), key -> {
+            // 获取目标方法上的 ILog 注解，如果不存在，则获取目标类上的 ILog 注解
+            Method targetMethod = ClassUtils.getMostSpecificMethod(key.method(), key.targetClass());
+            ILog logAnnotation = Optional.ofNullable(targetMethod.getAnnotation(ILog.class)).orElse(key.targetClass().getAnnotation(ILog.class));
+            return new ILogMethodMetadata(LoggerFactory.getLogger(methodSignature.getDeclaringType()), logAnnotation);
+        });
+    }
+
+    private boolean sampled() {
+        double sampleRate = iLogPrintProperties.getSampleRate();
+        return sampleRate >= 1D || ThreadLocalRandom.current().nextDouble() < sampleRate;
+    }
 
     private Object[] buildInput(ProceedingJoinPoint joinPoint) {
         // 获取方法的输入参数数组
@@ -124,4 +153,9 @@ public class ILogPrintAspect {
         return printArgs;
     }
 
+    private record MethodCacheKey(Class<?> targetClass, Method method) {
+    }
+
+    private record ILogMethodMetadata(Logger logger, ILog logAnnotation) {
+    }
 }
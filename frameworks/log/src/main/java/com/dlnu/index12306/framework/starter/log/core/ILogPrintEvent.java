@@ -0,0 +1,56 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dlnu.index12306.framework.starter.log.core;
+
+import cn.hutool.core.date.DateUtil;
+import com.alibaba.fastjson2.JSON;
+import org.slf4j.Logger;
+
+import java.util.Date;
+
+/**
+ * ILog 日志打印事件，请求线程只保存参数引用，序列化延迟到实际打印时执行
+ *
+ * @param logger       目标类日志记录器
+ * @param startTime    方法开始执行时间
+ * @param executeTime  方法执行耗时
+ * @param methodType   请求方法类型
+ * @param requestURI   请求 URI
+ * @param inputParams  请求入参
+ * @param outputParams 返回参数
+ */
+public record ILogPrintEvent(Logger logger, long startTime, long executeTime, String methodType, String requestURI,
+                             Object[] inputParams, Object outputParams) {
+
+    /**
+     * 序列化并打印日志
+     *
+     * @param maxPayloadLength 序列化后的最大长度，小于等于 0 表示不截断
+     */
+    public void print(int maxPayloadLength) {
+        ILogPrintDTO logPrint = new ILogPrintDTO();
+        logPrint.setBeginTime(DateUtil.formatDateTime(new Date(startTime)));
+        logPrint.setInputParams(inputParams);
+        logPrint.setOutputParams(outputParams);
+        String info = JSON.toJSONString(logPrint);
+        if (maxPayloadLength > 0 && info.length() > maxPayloadLength) {
+            info = info.substring(0, maxPayloadLength) + "...(truncated, length: " + info.length() + ")";
+        }
+        logger.info("[{}] {}, executeTime: {}ms, info: {}", methodType, requestURI, executeTime, info);
+    }
+}
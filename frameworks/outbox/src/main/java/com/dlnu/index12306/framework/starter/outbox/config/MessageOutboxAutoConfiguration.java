@@ -0,0 +1,72 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.dlnu.index12306.framework.starter.outbox.config;
+
+import com.dlnu.index12306.framework.starter.outbox.core.InProcessOutboxMessageSender;
+import com.dlnu.index12306.framework.starter.outbox.core.MessageOutboxRelay;
+import com.dlnu.index12306.framework.starter.outbox.core.OutboxMessageSender;
+import com.dlnu.index12306.framework.starter.outbox.core.RocketMQOutboxMessageSender;
+import com.dlnu.index12306.framework.starter.outbox.dao.mapper.MessageOutboxMapper;
+import org.apache.rocketmq.spring.core.RocketMQTemplate;
+import org.mybatis.spring.annotation.MapperScan;
+import org.redisson.api.RedissonClient;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+
+/**
+ * 本地消息表自动装配
+ * 逻辑表名为 t_message_outbox，引入的服务需在分片配置中将其映射到与业务数据同库的物理表，并开启定时任务
+ */
+@MapperScan("com.dlnu.index12306.framework.starter.outbox.dao.mapper")
+@EnableConfigurationProperties(MessageOutboxProperties.class)
+public class MessageOutboxAutoConfiguration {
+
+    /**
+     * 进程内投递组件，配置 index12306.outbox.sender.type=in-process 时启用
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "index12306.outbox.sender", name = "type", havingValue = "in-process")
+    public InProcessOutboxMessageSender inProcessOutboxMessageSender() {
+        return new InProcessOutboxMessageSender();
+    }
+
+    /**
+     * 默认基于 RocketMQ 投递，已存在其它投递组件时不再创建
+     */
+    @Bean
+    @ConditionalOnMissingBean(OutboxMessageSender.class)
+    public RocketMQOutboxMessageSender rocketMQOutboxMessageSender(RocketMQTemplate rocketMQTemplate) {
+        return new RocketMQOutboxMessageSender(rocketMQTemplate);
+    }
+
+    /**
+     * 本地消息表中继组件，分布式锁 Key 以应用名称区分
+     */
+    @Bean
+    public MessageOutboxRelay messageOutboxRelay(MessageOutboxMapper messageOutboxMapper,
+                                                 OutboxMessageSender outboxMessageSender,
+                                                 RedissonClient redissonClient,
+                                                 MessageOutboxProperties messageOutboxProperties,
+                                                 @Value("${spring.application.name}") String applicationName) {
+        return new MessageOutboxRelay(messageOutboxMapper, outboxMessageSender, redissonClient, messageOutboxProperties, applicationName);
+    }
+}
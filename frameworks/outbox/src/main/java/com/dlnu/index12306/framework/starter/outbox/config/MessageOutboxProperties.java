@@ -0,0 +1,62 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.dlnu.index12306.framework.starter.outbox.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * 本地消息表中继属性配置
+ */
+@Data
+@ConfigurationProperties(prefix = MessageOutboxProperties.PREFIX)
+public class MessageOutboxProperties {
+
+    public static final String PREFIX = "index12306.outbox.relay";
+
+    /**
+     * 单个批次投递的最大消息数量
+     */
+    private Integer batchSize = 100;
+
+    /**
+     * 事务提交后等待投递的内存队列容量，队列已满时由定时任务投递
+     */
+    private Integer queueCapacity = 10000;
+
+    /**
+     * 写入超过该时间仍未投递成功的消息由定时任务重新投递
+     */
+    private Integer retryDelaySeconds = 10;
+
+    /**
+     * 重新投递间隔按失败次数指数增长，最长不超过该时间
+     */
+    private Integer maxRetryDelaySeconds = 600;
+
+    /**
+     * 投递失败次数达到该值后标记为投递失败，不再自动投递
+     */
+    private Integer maxRetryCount = 16;
+
+    /**
+     * 已投递消息的保留时间
+     */
+    private Integer sentRetentionHours = 72;
+}
@@ -0,0 +1,63 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dlnu.index12306.framework.starter.outbox.core;
+
+import com.alibaba.fastjson2.JSON;
+import com.dlnu.index12306.framework.starter.outbox.dao.entity.MessageOutboxDO;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * 进程内本地消息表消息投递组件，不连接消息队列，投递的消息保存在内存中，用于测试以及本地调试
+ */
+@Slf4j
+public class InProcessOutboxMessageSender implements OutboxMessageSender {
+
+    private final Queue<MessageOutboxDO> sentMessages = new ConcurrentLinkedQueue<>();
+
+    @Override
+    public String serializePayload(Object payload) {
+        return payload instanceof String actualPayload ? actualPayload : JSON.toJSONString(payload);
+    }
+
+    @Override
+    public CompletableFuture<Boolean> send(MessageOutboxDO messageOutboxDO) {
+        sentMessages.offer(messageOutboxDO);
+        log.info("[{}] 进程内投递消息，消息Keys：{}", messageOutboxDO.getEventName(), messageOutboxDO.getMessageKeys());
+        return CompletableFuture.completedFuture(Boolean.TRUE);
+    }
+
+    /**
+     * 取出已投递的消息
+     *
+     * @return 按投递顺序排列的消息集合
+     */
+    public List<MessageOutboxDO> drainSentMessages() {
+        List<MessageOutboxDO> result = new ArrayList<>();
+        MessageOutboxDO each;
+        while ((each = sentMessages.poll()) != null) {
+            result.add(each);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,249 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dlnu.index12306.framework.starter.outbox.core;
+
+import cn.hutool.core.date.DateUtil;
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.core.conditions.update.LambdaUpdateWrapper;
+import com.baomidou.mybatisplus.core.toolkit.Wrappers;
+import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.dlnu.index12306.framework.starter.outbox.enums.MessageOutboxStatusEnum;
+import com.dlnu.index12306.framework.starter.outbox.dao.entity.MessageOutboxDO;
+import com.dlnu.index12306.framework.starter.outbox.dao.mapper.MessageOutboxMapper;
+import com.dlnu.index12306.framework.starter.common.threadpool.build.ThreadFactoryBuilder;
+import com.dlnu.index12306.framework.starter.outbox.config.MessageOutboxProperties;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.rocketmq.common.message.MessageConst;
+import org.redisson.api.RLock;
+import org.redisson.api.RedissonClient;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.messaging.Message;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 本地消息表中继组件
+ * 消息与业务数据在同一事务中写入本地消息表，事务提交后放入内存队列，由后台线程按批次异步投递；
+ * 内存队列已满、投递失败或进程退出遗留的消息由定时任务扫描后按指数退避重新投递，消息至少投递一次，消费者需保证幂等；
+ * 超过最大重试次数的消息标记为投递失败，已投递的消息超过保留时间后清理
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class MessageOutboxRelay implements InitializingBean, DisposableBean {
+
+    /**
+     * 本地消息表扫描重新投递分布式锁，保证集群内同一时间只有一个实例扫描
+     */
+    private static final String LOCK_OUTBOX_RELAY_SCAN = "%s:lock:outbox-relay-scan";
+
+    /**
+     * 本地消息表清理已投递消息分布式锁
+     */
+    private static final String LOCK_OUTBOX_RELAY_PURGE = "%s:lock:outbox-relay-purge";
+
+    private final MessageOutboxMapper messageOutboxMapper;
+    private final OutboxMessageSender outboxMessageSender;
+    private final RedissonClient redissonClient;
+    private final MessageOutboxProperties messageOutboxProperties;
+    private final String applicationName;
+
+    private BlockingQueue<MessageOutboxDO> pendingQueue;
+    private Thread relayThread;
+    private volatile boolean running = true;
+
+    @Override
+    public void afterPropertiesSet() {
+        pendingQueue = new ArrayBlockingQueue<>(messageOutboxProperties.getQueueCapacity());
+        relayThread = ThreadFactoryBuilder.builder().prefix("outbox-relay").daemon(true).build().newThread(this::relayLoop);
+        relayThread.start();
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        running = false;
+        relayThread.join(TimeUnit.SECONDS.toMillis(3));
+    }
+
+    /**
+     * 写入本地消息表，需在业务事务内调用，事务提交后异步投递
+     *
+     * @param messageOutboxDO 本地消息，需填充订单号、事件名称、主题、标签、发送超时时间以及延迟消息级别
+     * @param message         待投递消息
+     */
+    public void save(MessageOutboxDO messageOutboxDO, Message<?> message) {
+        messageOutboxDO.setMessageKeys(message.getHeaders().get(MessageConst.PROPERTY_KEYS, String.class));
+        messageOutboxDO.setPayload(outboxMessageSender.serializePayload(message.getPayload()));
+        messageOutboxDO.setDelayLevel(Optional.ofNullable(messageOutboxDO.getDelayLevel()).orElse(0));
+        messageOutboxDO.setStatus(MessageOutboxStatusEnum.PENDING.getStatus());
+        messageOutboxDO.setRetryCount(0);
+        messageOutboxDO.setNextRetryTime(DateUtil.offsetSecond(new Date(), messageOutboxProperties.getRetryDelaySeconds()));
+        messageOutboxMapper.insert(messageOutboxDO);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+
+                @Override
+                public void afterCommit() {
+                    dispatch(messageOutboxDO);
+                }
+            });
+        } else {
+            dispatch(messageOutboxDO);
+        }
+    }
+
+    /**
+     * 定时扫描到达重新投递时间的消息，覆盖所有分片，集群内同一时间只有一个实例扫描
+     */
+    @Scheduled(
+            initialDelayString = "${index12306.outbox.relay.scan-initial-delay-millis:30000}",
+            fixedDelayString = "${index12306.outbox.relay.scan-interval-millis:10000}"
+    )
+    public void scanPendingMessages() {
+        RLock lock = redissonClient.getLock(String.format(LOCK_OUTBOX_RELAY_SCAN, applicationName));
+        if (!lock.tryLock()) {
+            return;
+        }
+        try {
+            LambdaQueryWrapper<MessageOutboxDO> queryWrapper = Wrappers.lambdaQuery(MessageOutboxDO.class)
+                    .eq(MessageOutboxDO::getStatus, MessageOutboxStatusEnum.PENDING.getStatus())
+                    .le(MessageOutboxDO::getNextRetryTime, new Date())
+                    .orderByAsc(MessageOutboxDO::getNextRetryTime);
+            List<MessageOutboxDO> messageOutboxDOList = messageOutboxMapper.selectPage(new Page<>(1, messageOutboxProperties.getBatchSize(), false), queryWrapper).getRecords();
+            if (!messageOutboxDOList.isEmpty()) {
+                log.warn("本地消息表存在未投递的消息，重新投递数量：{}", messageOutboxDOList.size());
+                relay(messageOutboxDOList);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 定时清理超过保留时间的已投递消息
+     */
+    @Scheduled(
+            initialDelayString = "${index12306.outbox.relay.purge-initial-delay-millis:60000}",
+            fixedDelayString = "${index12306.outbox.relay.purge-interval-millis:3600000}"
+    )
+    public void purgeSentMessages() {
+        RLock lock = redissonClient.getLock(String.format(LOCK_OUTBOX_RELAY_PURGE, applicationName));
+        if (!lock.tryLock()) {
+            return;
+        }
+        try {
+            LambdaQueryWrapper<MessageOutboxDO> deleteWrapper = Wrappers.lambdaQuery(MessageOutboxDO.class)
+                    .eq(MessageOutboxDO::getStatus, MessageOutboxStatusEnum.SENT.getStatus())
+                    .lt(MessageOutboxDO::getUpdateTime, DateUtil.offsetHour(new Date(), -messageOutboxProperties.getSentRetentionHours()));
+            int deleted = messageOutboxMapper.delete(deleteWrapper);
+            if (deleted > 0) {
+                log.info("清理本地消息表已投递消息，清理数量：{}", deleted);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void dispatch(MessageOutboxDO messageOutboxDO) {
+        if (!pendingQueue.offer(messageOutboxDO)) {
+            log.warn("本地消息中继队列已满，消息等待定时任务投递，消息Keys：{}", messageOutboxDO.getMessageKeys());
+        }
+    }
+
+    private void relayLoop() {
+        while (running || !pendingQueue.isEmpty()) {
+            try {
+                MessageOutboxDO first = pendingQueue.poll(1, TimeUnit.SECONDS);
+                if (first == null) {
+                    continue;
+                }
+                List<MessageOutboxDO> batch = new ArrayList<>(messageOutboxProperties.getBatchSize());
+                batch.add(first);
+                pendingQueue.drainTo(batch, messageOutboxProperties.getBatchSize() - 1);
+                relay(batch);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Throwable ex) {
+                log.error("本地消息表中继投递异常", ex);
+            }
+        }
+    }
+
+    /**
+     * 批次内消息同时异步发送，全部返回后逐条更新投递状态
+     */
+    private void relay(List<MessageOutboxDO> batch) {
+        List<CompletableFuture<Boolean>> sendFutures = new ArrayList<>(batch.size());
+        for (MessageOutboxDO each : batch) {
+            CompletableFuture<Boolean> sendFuture;
+            try {
+                sendFuture = outboxMessageSender.send(each);
+            } catch (Throwable ex) {
+                sendFuture = CompletableFuture.failedFuture(ex);
+            }
+            sendFutures.add(sendFuture);
+        }
+        for (int i = 0; i < batch.size(); i++) {
+            MessageOutboxDO each = batch.get(i);
+            boolean sent = sendFutures.get(i).handle((result, ex) -> {
+                if (ex != null) {
+                    log.error("[{}] 消息发送失败，消息Keys：{}", each.getEventName(), each.getMessageKeys(), ex);
+                }
+                return Boolean.TRUE.equals(result);
+            }).join();
+            Date now = new Date();
+            LambdaUpdateWrapper<MessageOutboxDO> updateWrapper = Wrappers.lambdaUpdate(MessageOutboxDO.class)
+                    .eq(MessageOutboxDO::getId, each.getId())
+                    .eq(MessageOutboxDO::getOrderSn, each.getOrderSn())
+                    .set(MessageOutboxDO::getUpdateTime, now);
+            if (sent) {
+                updateWrapper.set(MessageOutboxDO::getStatus, MessageOutboxStatusEnum.SENT.getStatus());
+            } else {
+                int retryCount = Optional.ofNullable(each.getRetryCount()).orElse(0) + 1;
+                updateWrapper.set(MessageOutboxDO::getRetryCount, retryCount);
+                if (retryCount >= messageOutboxProperties.getMaxRetryCount()) {
+                    log.error("[{}] 消息投递失败次数达到上限，不再自动投递，消息Keys：{}", each.getEventName(), each.getMessageKeys());
+                    updateWrapper.set(MessageOutboxDO::getStatus, MessageOutboxStatusEnum.FAILED.getStatus());
+                } else {
+                    updateWrapper.set(MessageOutboxDO::getNextRetryTime, DateUtil.offsetSecond(now, nextRetryDelaySeconds(retryCount)));
+                }
+            }
+            messageOutboxMapper.update(null, updateWrapper);
+        }
+    }
+
+    /**
+     * 第 N 次投递失败后等待 retryDelaySeconds * 2^(N-1) 秒，最长不超过 maxRetryDelaySeconds
+     */
+    private int nextRetryDelaySeconds(int retryCount) {
+        long delaySeconds = (long) messageOutboxProperties.getRetryDelaySeconds() << Math.min(retryCount - 1, 20);
+        return (int) Math.min(delaySeconds, messageOutboxProperties.getMaxRetryDelaySeconds());
+    }
+}
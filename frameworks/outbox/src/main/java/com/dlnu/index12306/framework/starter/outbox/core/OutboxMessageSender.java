@@ -0,0 +1,44 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dlnu.index12306.framework.starter.outbox.core;
+
+import com.dlnu.index12306.framework.starter.outbox.dao.entity.MessageOutboxDO;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * 本地消息表消息投递组件，屏蔽具体的消息队列实现，测试时可替换为进程内的实现
+ */
+public interface OutboxMessageSender {
+
+    /**
+     * 将消息体序列化为投递时使用的字符串
+     *
+     * @param payload 消息体
+     * @return 序列化后的消息体
+     */
+    String serializePayload(Object payload);
+
+    /**
+     * 异步投递消息
+     *
+     * @param messageOutboxDO 本地消息
+     * @return 投递成功时返回 true
+     */
+    CompletableFuture<Boolean> send(MessageOutboxDO messageOutboxDO);
+}
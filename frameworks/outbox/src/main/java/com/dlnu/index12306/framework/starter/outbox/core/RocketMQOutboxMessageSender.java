@@ -0,0 +1,95 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dlnu.index12306.framework.starter.outbox.core;
+
+import cn.hutool.core.util.StrUtil;
+import com.alibaba.fastjson2.JSON;
+import com.dlnu.index12306.framework.starter.outbox.dao.entity.MessageOutboxDO;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.rocketmq.client.producer.SendCallback;
+import org.apache.rocketmq.client.producer.SendResult;
+import org.apache.rocketmq.client.producer.SendStatus;
+import org.apache.rocketmq.common.message.MessageConst;
+import org.apache.rocketmq.spring.core.RocketMQTemplate;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.support.MessageBuilder;
+
+import java.nio.charset.Charset;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * 基于 RocketMQ 的本地消息表消息投递组件
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class RocketMQOutboxMessageSender implements OutboxMessageSender {
+
+    private final RocketMQTemplate rocketMQTemplate;
+
+    @Override
+    public String serializePayload(Object payload) {
+        if (payload instanceof String actualPayload) {
+            return actualPayload;
+        }
+        // 与直接发送时使用相同的消息转换器，保证消费者反序列化结果一致
+        Message<?> message = rocketMQTemplate.getMessageConverter().toMessage(payload, null);
+        if (message == null) {
+            return JSON.toJSONString(payload);
+        }
+        return message.getPayload() instanceof byte[] bytes
+                ? new String(bytes, Charset.forName(rocketMQTemplate.getCharset()))
+                : message.getPayload().toString();
+    }
+
+    @Override
+    public CompletableFuture<Boolean> send(MessageOutboxDO messageOutboxDO) {
+        CompletableFuture<Boolean> future = new CompletableFuture<>();
+        StringBuilder destinationBuilder = StrUtil.builder().append(messageOutboxDO.getTopic());
+        if (StrUtil.isNotBlank(messageOutboxDO.getTag())) {
+            destinationBuilder.append(":").append(messageOutboxDO.getTag());
+        }
+        Message<String> message = MessageBuilder
+                .withPayload(messageOutboxDO.getPayload())
+                .setHeader(MessageConst.PROPERTY_KEYS, messageOutboxDO.getMessageKeys())
+                .setHeader(MessageConst.PROPERTY_TAGS, messageOutboxDO.getTag())
+                .build();
+        rocketMQTemplate.asyncSend(
+                destinationBuilder.toString(),
+                message,
+                new SendCallback() {
+
+                    @Override
+                    public void onSuccess(SendResult sendResult) {
+                        log.info("[{}] 消息发送结果：{}，消息ID：{}，消息Keys：{}", messageOutboxDO.getEventName(), sendResult.getSendStatus(), sendResult.getMsgId(), messageOutboxDO.getMessageKeys());
+                        future.complete(Objects.equals(sendResult.getSendStatus(), SendStatus.SEND_OK));
+                    }
+
+                    @Override
+                    public void onException(Throwable ex) {
+                        future.completeExceptionally(ex);
+                    }
+                },
+                messageOutboxDO.getSentTimeout(),
+                Optional.ofNullable(messageOutboxDO.getDelayLevel()).orElse(0)
+        );
+        return future;
+    }
+}
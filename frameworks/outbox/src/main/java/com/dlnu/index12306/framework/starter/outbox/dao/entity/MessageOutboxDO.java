@@ -0,0 +1,98 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dlnu.index12306.framework.starter.outbox.dao.entity;
+
+import com.baomidou.mybatisplus.annotation.TableName;
+import com.dlnu.index12306.framework.starter.database.base.BaseDO;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Date;
+
+/**
+ * 本地消息表实体，按订单号与业务数据分在同一分片，与业务数据在同一事务中写入
+ */
+@Data
+@TableName("t_message_outbox")
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class MessageOutboxDO extends BaseDO {
+
+    /**
+     * id
+     */
+    private Long id;
+
+    /**
+     * 订单号
+     */
+    private String orderSn;
+
+    /**
+     * 事件名称
+     */
+    private String eventName;
+
+    /**
+     * 主题
+     */
+    private String topic;
+
+    /**
+     * 标签
+     */
+    private String tag;
+
+    /**
+     * 消息 Keys
+     */
+    private String messageKeys;
+
+    /**
+     * 序列化后的消息体
+     */
+    private String payload;
+
+    /**
+     * 发送消息超时时间
+     */
+    private Long sentTimeout;
+
+    /**
+     * 延迟消息级别
+     */
+    private Integer delayLevel;
+
+    /**
+     * 消息状态
+     */
+    private Integer status;
+
+    /**
+     * 投递失败次数
+     */
+    private Integer retryCount;
+
+    /**
+     * 下次重新投递时间
+     */
+    private Date nextRetryTime;
+}
@@ -0,0 +1,46 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dlnu.index12306.framework.starter.outbox.enums;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * 本地消息表消息状态枚举
+ */
+@RequiredArgsConstructor
+public enum MessageOutboxStatusEnum {
+
+    /**
+     * 待投递
+     */
+    PENDING(0),
+
+    /**
+     * 已投递
+     */
+    SENT(1),
+
+    /**
+     * 投递失败，超过最大重试次数后不再自动投递，需人工处理
+     */
+    FAILED(2);
+
+    @Getter
+    private final Integer status;
+}
@@ -0,0 +1,144 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.dlnu.index12306.framework.starter.outbox.core;
+
+import com.baomidou.mybatisplus.core.MybatisConfiguration;
+import com.baomidou.mybatisplus.core.metadata.TableInfoHelper;
+import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.dlnu.index12306.framework.starter.outbox.config.MessageOutboxProperties;
+import com.dlnu.index12306.framework.starter.outbox.dao.entity.MessageOutboxDO;
+import com.dlnu.index12306.framework.starter.outbox.dao.mapper.MessageOutboxMapper;
+import com.dlnu.index12306.framework.starter.outbox.enums.MessageOutboxStatusEnum;
+import org.apache.ibatis.builder.MapperBuilderAssistant;
+import org.apache.rocketmq.common.message.MessageConst;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.redisson.api.RLock;
+import org.redisson.api.RedissonClient;
+import org.springframework.messaging.support.MessageBuilder;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 本地消息表中继测试，通过进程内投递组件代替消息队列，持久层与分布式锁通过 Mock 模拟
+ */
+class MessageOutboxRelayTest {
+
+    private final AtomicLong idGenerator = new AtomicLong();
+
+    private MessageOutboxMapper messageOutboxMapper;
+    private RLock lock;
+    private RedissonClient redissonClient;
+    private InProcessOutboxMessageSender outboxMessageSender;
+    private MessageOutboxRelay messageOutboxRelay;
+
+    @BeforeEach
+    void setUp() {
+        // Lambda 条件构造器依赖实体的表信息缓存
+        TableInfoHelper.initTableInfo(new MapperBuilderAssistant(new MybatisConfiguration(), ""), MessageOutboxDO.class);
+        messageOutboxMapper = mock(MessageOutboxMapper.class);
+        when(messageOutboxMapper.insert(any(MessageOutboxDO.class))).thenAnswer(invocation -> {
+            invocation.<MessageOutboxDO>getArgument(0).setId(idGenerator.incrementAndGet());
+            return 1;
+        });
+        lock = mock(RLock.class);
+        when(lock.tryLock()).thenReturn(true);
+        redissonClient = mock(RedissonClient.class);
+        when(redissonClient.getLock(any(String.class))).thenReturn(lock);
+        outboxMessageSender = new InProcessOutboxMessageSender();
+        messageOutboxRelay = new MessageOutboxRelay(messageOutboxMapper, outboxMessageSender, redissonClient, new MessageOutboxProperties(), "index12306-test-service");
+        messageOutboxRelay.afterPropertiesSet();
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        messageOutboxRelay.destroy();
+    }
+
+    @Test
+    void savedMessageIsRelayedAndMarkedSent() {
+        MessageOutboxDO messageOutboxDO = MessageOutboxDO.builder()
+                .orderSn("1683025552364568576")
+                .eventName("延迟关闭订单")
+                .topic("index12306_order-service_delay-close-order_topic")
+                .tag("index12306_order-service_delay-close-order_tag")
+                .sentTimeout(2000L)
+                .build();
+        messageOutboxRelay.save(messageOutboxDO, MessageBuilder
+                .withPayload(Map.of("orderSn", "1683025552364568576"))
+                .setHeader(MessageConst.PROPERTY_KEYS, "delay-close-order-keys")
+                .build());
+
+        verify(messageOutboxMapper).insert(messageOutboxDO);
+        assertEquals(MessageOutboxStatusEnum.PENDING.getStatus(), messageOutboxDO.getStatus());
+        // 不在事务中时直接放入内存队列，由后台线程投递后更新投递状态
+        verify(messageOutboxMapper, timeout(3000)).update(isNull(), any());
+        List<MessageOutboxDO> sentMessages = outboxMessageSender.drainSentMessages();
+        assertEquals(1, sentMessages.size());
+        MessageOutboxDO sentMessage = sentMessages.get(0);
+        assertEquals("delay-close-order-keys", sentMessage.getMessageKeys());
+        assertEquals("{\"orderSn\":\"1683025552364568576\"}", sentMessage.getPayload());
+        assertEquals(0, sentMessage.getDelayLevel());
+    }
+
+    @Test
+    void scanRelaysPendingMessagesInOrder() {
+        List<MessageOutboxDO> pendingMessages = List.of(
+                MessageOutboxDO.builder().id(1L).orderSn("1").messageKeys("keys-1").retryCount(0).build(),
+                MessageOutboxDO.builder().id(2L).orderSn("2").messageKeys("keys-2").retryCount(3).build()
+        );
+        when(messageOutboxMapper.selectPage(any(), any())).thenAnswer(invocation -> {
+            Page<MessageOutboxDO> page = invocation.getArgument(0);
+            page.setRecords(pendingMessages);
+            return page;
+        });
+
+        messageOutboxRelay.scanPendingMessages();
+
+        verify(redissonClient).getLock("index12306-test-service:lock:outbox-relay-scan");
+        verify(lock).unlock();
+        verify(messageOutboxMapper, times(2)).update(isNull(), any());
+        assertEquals(pendingMessages, outboxMessageSender.drainSentMessages());
+    }
+
+    @Test
+    void scanSkippedWhenAnotherInstanceHoldsLock() {
+        when(lock.tryLock()).thenReturn(false);
+
+        messageOutboxRelay.scanPendingMessages();
+
+        verify(messageOutboxMapper, never()).selectPage(any(), any());
+        verify(lock, never()).unlock();
+        assertTrue(outboxMessageSender.drainSentMessages().isEmpty());
+    }
+}
@@ -0,0 +1,709 @@
+-- 支付服务本地消息表，逻辑表 t_message_outbox，按订单号分为 2 库 32 表，库 0 存放表 0~15，库 1 存放表 16~31
+
+USE `12306_pay_0`;
+
+CREATE TABLE `t_pay_outbox_0` (
+  `id` bigint(20) NOT NULL COMMENT 'ID',
+  `order_sn` varchar(64) DEFAULT NULL COMMENT '订单号',
+  `event_name` varchar(64) DEFAULT NULL COMMENT '事件名称',
+  `topic` varchar(128) DEFAULT NULL COMMENT '主题',
+  `tag` varchar(128) DEFAULT NULL COMMENT '标签',
+  `message_keys` varchar(128) DEFAULT NULL COMMENT '消息Keys',
+  `payload` text COMMENT '序列化后的消息体',
+  `sent_timeout` bigint(20) DEFAULT NULL COMMENT '发送消息超时时间',
+  `delay_level` int(3) DEFAULT NULL COMMENT '延迟消息级别',
+  `status` tinyint(1) DEFAULT NULL COMMENT '消息状态 0：待投递 1：已投递 2：投递失败',
+  `retry_count` int(11) DEFAULT NULL COMMENT '投递失败次数',
+  `next_retry_time` datetime DEFAULT NULL COMMENT '下次重新投递时间',
+  `create_time` datetime DEFAULT NULL COMMENT '创建时间',
+  `update_time` datetime DEFAULT NULL COMMENT '修改时间',
+  `del_flag` tinyint(1) DEFAULT NULL COMMENT '删除标识',
+  PRIMARY KEY (`id`),
+  KEY `idx_order_sn` (`order_sn`) USING BTREE,
+  KEY `idx_status_next_retry_time` (`status`,`next_retry_time`) USING BTREE,
+  KEY `idx_status_update_time` (`status`,`update_time`) USING BTREE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='支付本地消息表';
+
+CREATE TABLE `t_pay_outbox_1` (
+  `id` bigint(20) NOT NULL COMMENT 'ID',
+  `order_sn` varchar(64) DEFAULT NULL COMMENT '订单号',
+  `event_name` varchar(64) DEFAULT NULL COMMENT '事件名称',
+  `topic` varchar(128) DEFAULT NULL COMMENT '主题',
+  `tag` varchar(128) DEFAULT NULL COMMENT '标签',
+  `message_keys` varchar(128) DEFAULT NULL COMMENT '消息Keys',
+  `payload` text COMMENT '序列化后的消息体',
+  `sent_timeout` bigint(20) DEFAULT NULL COMMENT '发送消息超时时间',
+  `delay_level` int(3) DEFAULT NULL COMMENT '延迟消息级别',
+  `status` tinyint(1) DEFAULT NULL COMMENT '消息状态 0：待投递 1：已投递 2：投递失败',
+  `retry_count` int(11) DEFAULT NULL COMMENT '投递失败次数',
+  `next_retry_time` datetime DEFAULT NULL COMMENT '下次重新投递时间',
+  `create_time` datetime DEFAULT NULL COMMENT '创建时间',
+  `update_time` datetime DEFAULT NULL COMMENT '修改时间',
+  `del_flag` tinyint(1) DEFAULT NULL COMMENT '删除标识',
+  PRIMARY KEY (`id`),
+  KEY `idx_order_sn` (`order_sn`) USING BTREE,
+  KEY `idx_status_next_retry_time` (`status`,`next_retry_time`) USING BTREE,
+  KEY `idx_status_update_time` (`status`,`update_time`) USING BTREE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='支付本地消息表';
+
+CREATE TABLE `t_pay_outbox_2` (
+  `id` bigint(20) NOT NULL COMMENT 'ID',
+  `order_sn` varchar(64) DEFAULT NULL COMMENT '订单号',
+  `event_name` varchar(64) DEFAULT NULL COMMENT '事件名称',
+  `topic` varchar(128) DEFAULT NULL COMMENT '主题',
+  `tag` varchar(128) DEFAULT NULL COMMENT '标签',
+  `message_keys` varchar(128) DEFAULT NULL COMMENT '消息Keys',
+  `payload` text COMMENT '序列化后的消息体',
+  `sent_timeout` bigint(20) DEFAULT NULL COMMENT '发送消息超时时间',
+  `delay_level` int(3) DEFAULT NULL COMMENT '延迟消息级别',
+  `status` tinyint(1) DEFAULT NULL COMMENT '消息状态 0：待投递 1：已投递 2：投递失败',
+  `retry_count` int(11) DEFAULT NULL COMMENT '投递失败次数',
+  `next_retry_time` datetime DEFAULT NULL COMMENT '下次重新投递时间',
+  `create_time` datetime DEFAULT NULL COMMENT '创建时间',
+  `update_time` datetime DEFAULT NULL COMMENT '修改时间',
+  `del_flag` tinyint(1) DEFAULT NULL COMMENT '删除标识',
+  PRIMARY KEY (`id`),
+  KEY `idx_order_sn` (`order_sn`) USING BTREE,
+  KEY `idx_status_next_retry_time` (`status`,`next_retry_time`) USING BTREE,
+  KEY `idx_status_update_time` (`status`,`update_time`) USING BTREE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='支付本地消息表';
+
+CREATE TABLE `t_pay_outbox_3` (
+  `id` bigint(20) NOT NULL COMMENT 'ID',
+  `order_sn` varchar(64) DEFAULT NULL COMMENT '订单号',
+  `event_name` varchar(64) DEFAULT NULL COMMENT '事件名称',
+  `topic` varchar(128) DEFAULT NULL COMMENT '主题',
+  `tag` varchar(128) DEFAULT NULL COMMENT '标签',
+  `message_keys` varchar(128) DEFAULT NULL COMMENT '消息Keys',
+  `payload` text COMMENT '序列化后的消息体',
+  `sent_timeout` bigint(20) DEFAULT NULL COMMENT '发送消息超时时间',
+  `delay_level` int(3) DEFAULT NULL COMMENT '延迟消息级别',
+  `status` tinyint(1) DEFAULT NULL COMMENT '消息状态 0：待投递 1：已投递 2：投递失败',
+  `retry_count` int(11) DEFAULT NULL COMMENT '投递失败次数',
+  `next_retry_time` datetime DEFAULT NULL COMMENT '下次重新投递时间',
+  `create_time` datetime DEFAULT NULL COMMENT '创建时间',
+  `update_time` datetime DEFAULT NULL COMMENT '修改时间',
+  `del_flag` tinyint(1) DEFAULT NULL COMMENT '删除标识',
+  PRIMARY KEY (`id`),
+  KEY `idx_order_sn` (`order_sn`) USING BTREE,
+  KEY `idx_status_next_retry_time` (`status`,`next_retry_time`) USING BTREE,
+  KEY `idx_status_update_time` (`status`,`update_time`) USING BTREE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='支付本地消息表';
+
+CREATE TABLE `t_pay_outbox_4` (
+  `id` bigint(20) NOT NULL COMMENT 'ID',
+  `order_sn` varchar(64) DEFAULT NULL COMMENT '订单号',
+  `event_name` varchar(64) DEFAULT NULL COMMENT '事件名称',
+  `topic` varchar(128) DEFAULT NULL COMMENT '主题',
+  `tag` varchar(128) DEFAULT NULL COMMENT '标签',
+  `message_keys` varchar(128) DEFAULT NULL COMMENT '消息Keys',
+  `payload` text COMMENT '序列化后的消息体',
+  `sent_timeout` bigint(20) DEFAULT NULL COMMENT '发送消息超时时间',
+  `delay_level` int(3) DEFAULT NULL COMMENT '延迟消息级别',
+  `status` tinyint(1) DEFAULT NULL COMMENT '消息状态 0：待投递 1：已投递 2：投递失败',
+  `retry_count` int(11) DEFAULT NULL COMMENT '投递失败次数',
+  `next_retry_time` datetime DEFAULT NULL COMMENT '下次重新投递时间',
+  `create_time` datetime DEFAULT NULL COMMENT '创建时间',
+  `update_time` datetime DEFAULT NULL COMMENT '修改时间',
+  `del_flag` tinyint(1) DEFAULT NULL COMMENT '删除标识',
+  PRIMARY KEY (`id`),
+  KEY `idx_order_sn` (`order_sn`) USING BTREE,
+  KEY `idx_status_next_retry_time` (`status`,`next_retry_time`) USING BTREE,
+  KEY `idx_status_update_time` (`status`,`update_time`) USING BTREE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='支付本地消息表';
+
+CREATE TABLE `t_pay_outbox_5` (
+  `id` bigint(20) NOT NULL COMMENT 'ID',
+  `order_sn` varchar(64) DEFAULT NULL COMMENT '订单号',
+  `event_name` varchar(64) DEFAULT NULL COMMENT '事件名称',
+  `topic` varchar(128) DEFAULT NULL COMMENT '主题',
+  `tag` varchar(128) DEFAULT NULL COMMENT '标签',
+  `message_keys` varchar(128) DEFAULT NULL COMMENT '消息Keys',
+  `payload` text COMMENT '序列化后的消息体',
+  `sent_timeout` bigint(20) DEFAULT NULL COMMENT '发送消息超时时间',
+  `delay_level` int(3) DEFAULT NULL COMMENT '延迟消息级别',
+  `status` tinyint(1) DEFAULT NULL COMMENT '消息状态 0：待投递 1：已投递 2：投递失败',
+  `retry_count` int(11) DEFAULT NULL COMMENT '投递失败次数',
+  `next_retry_time` datetime DEFAULT NULL COMMENT '下次重新投递时间',
+  `create_time` datetime DEFAULT NULL COMMENT '创建时间',
+  `update_time` datetime DEFAULT NULL COMMENT '修改时间',
+  `del_flag` tinyint(1) DEFAULT NULL COMMENT '删除标识',
+  PRIMARY KEY (`id`),
+  KEY `idx_order_sn` (`order_sn`) USING BTREE,
+  KEY `idx_status_next_retry_time` (`status`,`next_retry_time`) USING BTREE,
+  KEY `idx_status_update_time` (`status`,`update_time`) USING BTREE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='支付本地消息表';
+
+CREATE TABLE `t_pay_outbox_6` (
+  `id` bigint(20) NOT NULL COMMENT 'ID',
+  `order_sn` varchar(64) DEFAULT NULL COMMENT '订单号',
+  `event_name` varchar(64) DEFAULT NULL COMMENT '事件名称',
+  `topic` varchar(128) DEFAULT NULL COMMENT '主题',
+  `tag` varchar(128) DEFAULT NULL COMMENT '标签',
+  `message_keys` varchar(128) DEFAULT NULL COMMENT '消息Keys',
+  `payload` text COMMENT '序列化后的消息体',
+  `sent_timeout` bigint(20) DEFAULT NULL COMMENT '发送消息超时时间',
+  `delay_level` int(3) DEFAULT NULL COMMENT '延迟消息级别',
+  `status` tinyint(1) DEFAULT NULL COMMENT '消息状态 0：待投递 1：已投递 2：投递失败',
+  `retry_count` int(11) DEFAULT NULL COMMENT '投递失败次数',
+  `next_retry_time` datetime DEFAULT NULL COMMENT '下次重新投递时间',
+  `create_time` datetime DEFAULT NULL COMMENT '创建时间',
+  `update_time` datetime DEFAULT NULL COMMENT '修改时间',
+  `del_flag` tinyint(1) DEFAULT NULL COMMENT '删除标识',
+  PRIMARY KEY (`id`),
+  KEY `idx_order_sn` (`order_sn`) USING BTREE,
+  KEY `idx_status_next_retry_time` (`status`,`next_retry_time`) USING BTREE,
+  KEY `idx_status_update_time` (`status`,`update_time`) USING BTREE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='支付本地消息表';
+
+CREATE TABLE `t_pay_outbox_7` (
+  `id` bigint(20) NOT NULL COMMENT 'ID',
+  `order_sn` varchar(64) DEFAULT NULL COMMENT '订单号',
+  `event_name` varchar(64) DEFAULT NULL COMMENT '事件名称',
+  `topic` varchar(128) DEFAULT NULL COMMENT '主题',
+  `tag` varchar(128) DEFAULT NULL COMMENT '标签',
+  `message_keys` varchar(128) DEFAULT NULL COMMENT '消息Keys',
+  `payload` text COMMENT '序列化后的消息体',
+  `sent_timeout` bigint(20) DEFAULT NULL COMMENT '发送消息超时时间',
+  `delay_level` int(3) DEFAULT NULL COMMENT '延迟消息级别',
+  `status` tinyint(1) DEFAULT NULL COMMENT '消息状态 0：待投递 1：已投递 2：投递失败',
+  `retry_count` int(11) DEFAULT NULL COMMENT '投递失败次数',
+  `next_retry_time` datetime DEFAULT NULL COMMENT '下次重新投递时间',
+  `create_time` datetime DEFAULT NULL COMMENT '创建时间',
+  `update_time` datetime DEFAULT NULL COMMENT '修改时间',
+  `del_flag` tinyint(1) DEFAULT NULL COMMENT '删除标识',
+  PRIMARY KEY (`id`),
+  KEY `idx_order_sn` (`order_sn`) USING BTREE,
+  KEY `idx_status_next_retry_time` (`status`,`next_retry_time`) USING BTREE,
+  KEY `idx_status_update_time` (`status`,`update_time`) USING BTREE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='支付本地消息表';
+
+CREATE TABLE `t_pay_outbox_8` (
+  `id` bigint(20) NOT NULL COMMENT 'ID',
+  `order_sn` varchar(64) DEFAULT NULL COMMENT '订单号',
+  `event_name` varchar(64) DEFAULT NULL COMMENT '事件名称',
+  `topic` varchar(128) DEFAULT NULL COMMENT '主题',
+  `tag` varchar(128) DEFAULT NULL COMMENT '标签',
+  `message_keys` varchar(128) DEFAULT NULL COMMENT '消息Keys',
+  `payload` text COMMENT '序列化后的消息体',
+  `sent_timeout` bigint(20) DEFAULT NULL COMMENT '发送消息超时时间',
+  `delay_level` int(3) DEFAULT NULL COMMENT '延迟消息级别',
+  `status` tinyint(1) DEFAULT NULL COMMENT '消息状态 0：待投递 1：已投递 2：投递失败',
+  `retry_count` int(11) DEFAULT NULL COMMENT '投递失败次数',
+  `next_retry_time` datetime DEFAULT NULL COMMENT '下次重新投递时间',
+  `create_time` datetime DEFAULT NULL COMMENT '创建时间',
+  `update_time` datetime DEFAULT NULL COMMENT '修改时间',
+  `del_flag` tinyint(1) DEFAULT NULL COMMENT '删除标识',
+  PRIMARY KEY (`id`),
+  KEY `idx_order_sn` (`order_sn`) USING BTREE,
+  KEY `idx_status_next_retry_time` (`status`,`next_retry_time`) USING BTREE,
+  KEY `idx_status_update_time` (`status`,`update_time`) USING BTREE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='支付本地消息表';
+
+CREATE TABLE `t_pay_outbox_9` (
+  `id` bigint(20) NOT NULL COMMENT 'ID',
+  `order_sn` varchar(64) DEFAULT NULL COMMENT '订单号',
+  `event_name` varchar(64) DEFAULT NULL COMMENT '事件名称',
+  `topic` varchar(128) DEFAULT NULL COMMENT '主题',
+  `tag` varchar(128) DEFAULT NULL COMMENT '标签',
+  `message_keys` varchar(128) DEFAULT NULL COMMENT '消息Keys',
+  `payload` text COMMENT '序列化后的消息体',
+  `sent_timeout` bigint(20) DEFAULT NULL COMMENT '发送消息超时时间',
+  `delay_level` int(3) DEFAULT NULL COMMENT '延迟消息级别',
+  `status` tinyint(1) DEFAULT NULL COMMENT '消息状态 0：待投递 1：已投递 2：投递失败',
+  `retry_count` int(11) DEFAULT NULL COMMENT '投递失败次数',
+  `next_retry_time` datetime DEFAULT NULL COMMENT '下次重新投递时间',
+  `create_time` datetime DEFAULT NULL COMMENT '创建时间',
+  `update_time` datetime DEFAULT NULL COMMENT '修改时间',
+  `del_flag` tinyint(1) DEFAULT NULL COMMENT '删除标识',
+  PRIMARY KEY (`id`),
+  KEY `idx_order_sn` (`order_sn`) USING BTREE,
+  KEY `idx_status_next_retry_time` (`status`,`next_retry_time`) USING BTREE,
+  KEY `idx_status_update_time` (`status`,`update_time`) USING BTREE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='支付本地消息表';
+
+CREATE TABLE `t_pay_outbox_10` (
+  `id` bigint(20) NOT NULL COMMENT 'ID',
+  `order_sn` varchar(64) DEFAULT NULL COMMENT '订单号',
+  `event_name` varchar(64) DEFAULT NULL COMMENT '事件名称',
+  `topic` varchar(128) DEFAULT NULL COMMENT '主题',
+  `tag` varchar(128) DEFAULT NULL COMMENT '标签',
+  `message_keys` varchar(128) DEFAULT NULL COMMENT '消息Keys',
+  `payload` text COMMENT '序列化后的消息体',
+  `sent_timeout` bigint(20) DEFAULT NULL COMMENT '发送消息超时时间',
+  `delay_level` int(3) DEFAULT NULL COMMENT '延迟消息级别',
+  `status` tinyint(1) DEFAULT NULL COMMENT '消息状态 0：待投递 1：已投递 2：投递失败',
+  `retry_count` int(11) DEFAULT NULL COMMENT '投递失败次数',
+  `next_retry_time` datetime DEFAULT NULL COMMENT '下次重新投递时间',
+  `create_time` datetime DEFAULT NULL COMMENT '创建时间',
+  `update_time` datetime DEFAULT NULL COMMENT '修改时间',
+  `del_flag` tinyint(1) DEFAULT NULL COMMENT '删除标识',
+  PRIMARY KEY (`id`),
+  KEY `idx_order_sn` (`order_sn`) USING BTREE,
+  KEY `idx_status_next_retry_time` (`status`,`next_retry_time`) USING BTREE,
+  KEY `idx_status_update_time` (`status`,`update_time`) USING BTREE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='支付本地消息表';
+
+CREATE TABLE `t_pay_outbox_11` (
+  `id` bigint(20) NOT NULL COMMENT 'ID',
+  `order_sn` varchar(64) DEFAULT NULL COMMENT '订单号',
+  `event_name` varchar(64) DEFAULT NULL COMMENT '事件名称',
+  `topic` varchar(128) DEFAULT NULL COMMENT '主题',
+  `tag` varchar(128) DEFAULT NULL COMMENT '标签',
+  `message_keys` varchar(128) DEFAULT NULL COMMENT '消息Keys',
+  `payload` text COMMENT '序列化后的消息体',
+  `sent_timeout` bigint(20) DEFAULT NULL COMMENT '发送消息超时时间',
+  `delay_level` int(3) DEFAULT NULL COMMENT '延迟消息级别',
+  `status` tinyint(1) DEFAULT NULL COMMENT '消息状态 0：待投递 1：已投递 2：投递失败',
+  `retry_count` int(11) DEFAULT NULL COMMENT '投递失败次数',
+  `next_retry_time` datetime DEFAULT NULL COMMENT '下次重新投递时间',
+  `create_time` datetime DEFAULT NULL COMMENT '创建时间',
+  `update_time` datetime DEFAULT NULL COMMENT '修改时间',
+  `del_flag` tinyint(1) DEFAULT NULL COMMENT '删除标识',
+  PRIMARY KEY (`id`),
+  KEY `idx_order_sn` (`order_sn`) USING BTREE,
+  KEY `idx_status_next_retry_time` (`status`,`next_retry_time`) USING BTREE,
+  KEY `idx_status_update_time` (`status`,`update_time`) USING BTREE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='支付本地消息表';
+
+CREATE TABLE `t_pay_outbox_12` (
+  `id` bigint(20) NOT NULL COMMENT 'ID',
+  `order_sn` varchar(64) DEFAULT NULL COMMENT '订单号',
+  `event_name` varchar(64) DEFAULT NULL COMMENT '事件名称',
+  `topic` varchar(128) DEFAULT NULL COMMENT '主题',
+  `tag` varchar(128) DEFAULT NULL COMMENT '标签',
+  `message_keys` varchar(128) DEFAULT NULL COMMENT '消息Keys',
+  `payload` text COMMENT '序列化后的消息体',
+  `sent_timeout` bigint(20) DEFAULT NULL COMMENT '发送消息超时时间',
+  `delay_level` int(3) DEFAULT NULL COMMENT '延迟消息级别',
+  `status` tinyint(1) DEFAULT NULL COMMENT '消息状态 0：待投递 1：已投递 2：投递失败',
+  `retry_count` int(11) DEFAULT NULL COMMENT '投递失败次数',
+  `next_retry_time` datetime DEFAULT NULL COMMENT '下次重新投递时间',
+  `create_time` datetime DEFAULT NULL COMMENT '创建时间',
+  `update_time` datetime DEFAULT NULL COMMENT '修改时间',
+  `del_flag` tinyint(1) DEFAULT NULL COMMENT '删除标识',
+  PRIMARY KEY (`id`),
+  KEY `idx_order_sn` (`order_sn`) USING BTREE,
+  KEY `idx_status_next_retry_time` (`status`,`next_retry_time`) USING BTREE,
+  KEY `idx_status_update_time` (`status`,`update_time`) USING BTREE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='支付本地消息表';
+
+CREATE TABLE `t_pay_outbox_13` (
+  `id` bigint(20) NOT NULL COMMENT 'ID',
+  `order_sn` varchar(64) DEFAULT NULL COMMENT '订单号',
+  `event_name` varchar(64) DEFAULT NULL COMMENT '事件名称',
+  `topic` varchar(128) DEFAULT NULL COMMENT '主题',
+  `tag` varchar(128) DEFAULT NULL COMMENT '标签',
+  `message_keys` varchar(128) DEFAULT NULL COMMENT '消息Keys',
+  `payload` text COMMENT '序列化后的消息体',
+  `sent_timeout` bigint(20) DEFAULT NULL COMMENT '发送消息超时时间',
+  `delay_level` int(3) DEFAULT NULL COMMENT '延迟消息级别',
+  `status` tinyint(1) DEFAULT NULL COMMENT '消息状态 0：待投递 1：已投递 2：投递失败',
+  `retry_count` int(11) DEFAULT NULL COMMENT '投递失败次数',
+  `next_retry_time` datetime DEFAULT NULL COMMENT '下次重新投递时间',
+  `create_time` datetime DEFAULT NULL COMMENT '创建时间',
+  `update_time` datetime DEFAULT NULL COMMENT '修改时间',
+  `del_flag` tinyint(1) DEFAULT NULL COMMENT '删除标识',
+  PRIMARY KEY (`id`),
+  KEY `idx_order_sn` (`order_sn`) USING BTREE,
+  KEY `idx_status_next_retry_time` (`status`,`next_retry_time`) USING BTREE,
+  KEY `idx_status_update_time` (`status`,`update_time`) USING BTREE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='支付本地消息表';
+
+CREATE TABLE `t_pay_outbox_14` (
+  `id` bigint(20) NOT NULL COMMENT 'ID',
+  `order_sn` varchar(64) DEFAULT NULL COMMENT '订单号',
+  `event_name` varchar(64) DEFAULT NULL COMMENT '事件名称',
+  `topic` varchar(128) DEFAULT NULL COMMENT '主题',
+  `tag` varchar(128) DEFAULT NULL COMMENT '标签',
+  `message_keys` varchar(128) DEFAULT NULL COMMENT '消息Keys',
+  `payload` text COMMENT '序列化后的消息体',
+  `sent_timeout` bigint(20) DEFAULT NULL COMMENT '发送消息超时时间',
+  `delay_level` int(3) DEFAULT NULL COMMENT '延迟消息级别',
+  `status` tinyint(1) DEFAULT NULL COMMENT '消息状态 0：待投递 1：已投递 2：投递失败',
+  `retry_count` int(11) DEFAULT NULL COMMENT '投递失败次数',
+  `next_retry_time` datetime DEFAULT NULL COMMENT '下次重新投递时间',
+  `create_time` datetime DEFAULT NULL COMMENT '创建时间',
+  `update_time` datetime DEFAULT NULL COMMENT '修改时间',
+  `del_flag` tinyint(1) DEFAULT NULL COMMENT '删除标识',
+  PRIMARY KEY (`id`),
+  KEY `idx_order_sn` (`order_sn`) USING BTREE,
+  KEY `idx_status_next_retry_time` (`status`,`next_retry_time`) USING BTREE,
+  KEY `idx_status_update_time` (`status`,`update_time`) USING BTREE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='支付本地消息表';
+
+CREATE TABLE `t_pay_outbox_15` (
+  `id` bigint(20) NOT NULL COMMENT 'ID',
+  `order_sn` varchar(64) DEFAULT NULL COMMENT '订单号',
+  `event_name` varchar(64) DEFAULT NULL COMMENT '事件名称',
+  `topic` varchar(128) DEFAULT NULL COMMENT '主题',
+  `tag` varchar(128) DEFAULT NULL COMMENT '标签',
+  `message_keys` varchar(128) DEFAULT NULL COMMENT '消息Keys',
+  `payload` text COMMENT '序列化后的消息体',
+  `sent_timeout` bigint(20) DEFAULT NULL COMMENT '发送消息超时时间',
+  `delay_level` int(3) DEFAULT NULL COMMENT '延迟消息级别',
+  `status` tinyint(1) DEFAULT NULL COMMENT '消息状态 0：待投递 1：已投递 2：投递失败',
+  `retry_count` int(11) DEFAULT NULL COMMENT '投递失败次数',
+  `next_retry_time` datetime DEFAULT NULL COMMENT '下次重新投递时间',
+  `create_time` datetime DEFAULT NULL COMMENT '创建时间',
+  `update_time` datetime DEFAULT NULL COMMENT '修改时间',
+  `del_flag` tinyint(1) DEFAULT NULL COMMENT '删除标识',
+  PRIMARY KEY (`id`),
+  KEY `idx_order_sn` (`order_sn`) USING BTREE,
+  KEY `idx_status_next_retry_time` (`status`,`next_retry_time`) USING BTREE,
+  KEY `idx_status_update_time` (`status`,`update_time`) USING BTREE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='支付本地消息表';
+
+USE `12306_pay_1`;
+
+CREATE TABLE `t_pay_outbox_16` (
+  `id` bigint(20) NOT NULL COMMENT 'ID',
+  `order_sn` varchar(64) DEFAULT NULL COMMENT '订单号',
+  `event_name` varchar(64) DEFAULT NULL COMMENT '事件名称',
+  `topic` varchar(128) DEFAULT NULL COMMENT '主题',
+  `tag` varchar(128) DEFAULT NULL COMMENT '标签',
+  `message_keys` varchar(128) DEFAULT NULL COMMENT '消息Keys',
+  `payload` text COMMENT '序列化后的消息体',
+  `sent_timeout` bigint(20) DEFAULT NULL COMMENT '发送消息超时时间',
+  `delay_level` int(3) DEFAULT NULL COMMENT '延迟消息级别',
+  `status` tinyint(1) DEFAULT NULL COMMENT '消息状态 0：待投递 1：已投递 2：投递失败',
+  `retry_count` int(11) DEFAULT NULL COMMENT '投递失败次数',
+  `next_retry_time` datetime DEFAULT NULL COMMENT '下次重新投递时间',
+  `create_time` datetime DEFAULT NULL COMMENT '创建时间',
+  `update_time` datetime DEFAULT NULL COMMENT '修改时间',
+  `del_flag` tinyint(1) DEFAULT NULL COMMENT '删除标识',
+  PRIMARY KEY (`id`),
+  KEY `idx_order_sn` (`order_sn`) USING BTREE,
+  KEY `idx_status_next_retry_time` (`status`,`next_retry_time`) USING BTREE,
+  KEY `idx_status_update_time` (`status`,`update_time`) USING BTREE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='支付本地消息表';
+
+CREATE TABLE `t_pay_outbox_17` (
+  `id` bigint(20) NOT NULL COMMENT 'ID',
+  `order_sn` varchar(64) DEFAULT NULL COMMENT '订单号',
+  `event_name` varchar(64) DEFAULT NULL COMMENT '事件名称',
+  `topic` varchar(128) DEFAULT NULL COMMENT '主题',
+  `tag` varchar(128) DEFAULT NULL COMMENT '标签',
+  `message_keys` varchar(128) DEFAULT NULL COMMENT '消息Keys',
+  `payload` text COMMENT '序列化后的消息体',
+  `sent_timeout` bigint(20) DEFAULT NULL COMMENT '发送消息超时时间',
+  `delay_level` int(3) DEFAULT NULL COMMENT '延迟消息级别',
+  `status` tinyint(1) DEFAULT NULL COMMENT '消息状态 0：待投递 1：已投递 2：投递失败',
+  `retry_count` int(11) DEFAULT NULL COMMENT '投递失败次数',
+  `next_retry_time` datetime DEFAULT NULL COMMENT '下次重新投递时间',
+  `create_time` datetime DEFAULT NULL COMMENT '创建时间',
+  `update_time` datetime DEFAULT NULL COMMENT '修改时间',
+  `del_flag` tinyint(1) DEFAULT NULL COMMENT '删除标识',
+  PRIMARY KEY (`id`),
+  KEY `idx_order_sn` (`order_sn`) USING BTREE,
+  KEY `idx_status_next_retry_time` (`status`,`next_retry_time`) USING BTREE,
+  KEY `idx_status_update_time` (`status`,`update_time`) USING BTREE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='支付本地消息表';
+
+CREATE TABLE `t_pay_outbox_18` (
+  `id` bigint(20) NOT NULL COMMENT 'ID',
+  `order_sn` varchar(64) DEFAULT NULL COMMENT '订单号',
+  `event_name` varchar(64) DEFAULT NULL COMMENT '事件名称',
+  `topic` varchar(128) DEFAULT NULL COMMENT '主题',
+  `tag` varchar(128) DEFAULT NULL COMMENT '标签',
+  `message_keys` varchar(128) DEFAULT NULL COMMENT '消息Keys',
+  `payload` text COMMENT '序列化后的消息体',
+  `sent_timeout` bigint(20) DEFAULT NULL COMMENT '发送消息超时时间',
+  `delay_level` int(3) DEFAULT NULL COMMENT '延迟消息级别',
+  `status` tinyint(1) DEFAULT NULL COMMENT '消息状态 0：待投递 1：已投递 2：投递失败',
+  `retry_count` int(11) DEFAULT NULL COMMENT '投递失败次数',
+  `next_retry_time` datetime DEFAULT NULL COMMENT '下次重新投递时间',
+  `create_time` datetime DEFAULT NULL COMMENT '创建时间',
+  `update_time` datetime DEFAULT NULL COMMENT '修改时间',
+  `del_flag` tinyint(1) DEFAULT NULL COMMENT '删除标识',
+  PRIMARY KEY (`id`),
+  KEY `idx_order_sn` (`order_sn`) USING BTREE,
+  KEY `idx_status_next_retry_time` (`status`,`next_retry_time`) USING BTREE,
+  KEY `idx_status_update_time` (`status`,`update_time`) USING BTREE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='支付本地消息表';
+
+CREATE TABLE `t_pay_outbox_19` (
+  `id` bigint(20) NOT NULL COMMENT 'ID',
+  `order_sn` varchar(64) DEFAULT NULL COMMENT '订单号',
+  `event_name` varchar(64) DEFAULT NULL COMMENT '事件名称',
+  `topic` varchar(128) DEFAULT NULL COMMENT '主题',
+  `tag` varchar(128) DEFAULT NULL COMMENT '标签',
+  `message_keys` varchar(128) DEFAULT NULL COMMENT '消息Keys',
+  `payload` text COMMENT '序列化后的消息体',
+  `sent_timeout` bigint(20) DEFAULT NULL COMMENT '发送消息超时时间',
+  `delay_level` int(3) DEFAULT NULL COMMENT '延迟消息级别',
+  `status` tinyint(1) DEFAULT NULL COMMENT '消息状态 0：待投递 1：已投递 2：投递失败',
+  `retry_count` int(11) DEFAULT NULL COMMENT '投递失败次数',
+  `next_retry_time` datetime DEFAULT NULL COMMENT '下次重新投递时间',
+  `create_time` datetime DEFAULT NULL COMMENT '创建时间',
+  `update_time` datetime DEFAULT NULL COMMENT '修改时间',
+  `del_flag` tinyint(1) DEFAULT NULL COMMENT '删除标识',
+  PRIMARY KEY (`id`),
+  KEY `idx_order_sn` (`order_sn`) USING BTREE,
+  KEY `idx_status_next_retry_time` (`status`,`next_retry_time`) USING BTREE,
+  KEY `idx_status_update_time` (`status`,`update_time`) USING BTREE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='支付本地消息表';
+
+CREATE TABLE `t_pay_outbox_20` (
+  `id` bigint(20) NOT NULL COMMENT 'ID',
+  `order_sn` varchar(64) DEFAULT NULL COMMENT '订单号',
+  `event_name` varchar(64) DEFAULT NULL COMMENT '事件名称',
+  `topic` varchar(128) DEFAULT NULL COMMENT '主题',
+  `tag` varchar(128) DEFAULT NULL COMMENT '标签',
+  `message_keys` varchar(128) DEFAULT NULL COMMENT '消息Keys',
+  `payload` text COMMENT '序列化后的消息体',
+  `sent_timeout` bigint(20) DEFAULT NULL COMMENT '发送消息超时时间',
+  `delay_level` int(3) DEFAULT NULL COMMENT '延迟消息级别',
+  `status` tinyint(1) DEFAULT NULL COMMENT '消息状态 0：待投递 1：已投递 2：投递失败',
+  `retry_count` int(11) DEFAULT NULL COMMENT '投递失败次数',
+  `next_retry_time` datetime DEFAULT NULL COMMENT '下次重新投递时间',
+  `create_time` datetime DEFAULT NULL COMMENT '创建时间',
+  `update_time` datetime DEFAULT NULL COMMENT '修改时间',
+  `del_flag` tinyint(1) DEFAULT NULL COMMENT '删除标识',
+  PRIMARY KEY (`id`),
+  KEY `idx_order_sn` (`order_sn`) USING BTREE,
+  KEY `idx_status_next_retry_time` (`status`,`next_retry_time`) USING BTREE,
+  KEY `idx_status_update_time` (`status`,`update_time`) USING BTREE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='支付本地消息表';
+
+CREATE TABLE `t_pay_outbox_21` (
+  `id` bigint(20) NOT NULL COMMENT 'ID',
+  `order_sn` varchar(64) DEFAULT NULL COMMENT '订单号',
+  `event_name` varchar(64) DEFAULT NULL COMMENT '事件名称',
+  `topic` varchar(128) DEFAULT NULL COMMENT '主题',
+  `tag` varchar(128) DEFAULT NULL COMMENT '标签',
+  `message_keys` varchar(128) DEFAULT NULL COMMENT '消息Keys',
+  `payload` text COMMENT '序列化后的消息体',
+  `sent_timeout` bigint(20) DEFAULT NULL COMMENT '发送消息超时时间',
+  `delay_level` int(3) DEFAULT NULL COMMENT '延迟消息级别',
+  `status` tinyint(1) DEFAULT NULL COMMENT '消息状态 0：待投递 1：已投递 2：投递失败',
+  `retry_count` int(11) DEFAULT NULL COMMENT '投递失败次数',
+  `next_retry_time` datetime DEFAULT NULL COMMENT '下次重新投递时间',
+  `create_time` datetime DEFAULT NULL COMMENT '创建时间',
+  `update_time` datetime DEFAULT NULL COMMENT '修改时间',
+  `del_flag` tinyint(1) DEFAULT NULL COMMENT '删除标识',
+  PRIMARY KEY (`id`),
+  KEY `idx_order_sn` (`order_sn`) USING BTREE,
+  KEY `idx_status_next_retry_time` (`status`,`next_retry_time`) USING BTREE,
+  KEY `idx_status_update_time` (`status`,`update_time`) USING BTREE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='支付本地消息表';
+
+CREATE TABLE `t_pay_outbox_22` (
+  `id` bigint(20) NOT NULL COMMENT 'ID',
+  `order_sn` varchar(64) DEFAULT NULL COMMENT '订单号',
+  `event_name` varchar(64) DEFAULT NULL COMMENT '事件名称',
+  `topic` varchar(128) DEFAULT NULL COMMENT '主题',
+  `tag` varchar(128) DEFAULT NULL COMMENT '标签',
+  `message_keys` varchar(128) DEFAULT NULL COMMENT '消息Keys',
+  `payload` text COMMENT '序列化后的消息体',
+  `sent_timeout` bigint(20) DEFAULT NULL COMMENT '发送消息超时时间',
+  `delay_level` int(3) DEFAULT NULL COMMENT '延迟消息级别',
+  `status` tinyint(1) DEFAULT NULL COMMENT '消息状态 0：待投递 1：已投递 2：投递失败',
+  `retry_count` int(11) DEFAULT NULL COMMENT '投递失败次数',
+  `next_retry_time` datetime DEFAULT NULL COMMENT '下次重新投递时间',
+  `create_time` datetime DEFAULT NULL COMMENT '创建时间',
+  `update_time` datetime DEFAULT NULL COMMENT '修改时间',
+  `del_flag` tinyint(1) DEFAULT NULL COMMENT '删除标识',
+  PRIMARY KEY (`id`),
+  KEY `idx_order_sn` (`order_sn`) USING BTREE,
+  KEY `idx_status_next_retry_time` (`status`,`next_retry_time`) USING BTREE,
+  KEY `idx_status_update_time` (`status`,`update_time`) USING BTREE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='支付本地消息表';
+
+CREATE TABLE `t_pay_outbox_23` (
+  `id` bigint(20) NOT NULL COMMENT 'ID',
+  `order_sn` varchar(64) DEFAULT NULL COMMENT '订单号',
+  `event_name` varchar(64) DEFAULT NULL COMMENT '事件名称',
+  `topic` varchar(128) DEFAULT NULL COMMENT '主题',
+  `tag` varchar(128) DEFAULT NULL COMMENT '标签',
+  `message_keys` varchar(128) DEFAULT NULL COMMENT '消息Keys',
+  `payload` text COMMENT '序列化后的消息体',
+  `sent_timeout` bigint(20) DEFAULT NULL COMMENT '发送消息超时时间',
+  `delay_level` int(3) DEFAULT NULL COMMENT '延迟消息级别',
+  `status` tinyint(1) DEFAULT NULL COMMENT '消息状态 0：待投递 1：已投递 2：投递失败',
+  `retry_count` int(11) DEFAULT NULL COMMENT '投递失败次数',
+  `next_retry_time` datetime DEFAULT NULL COMMENT '下次重新投递时间',
+  `create_time` datetime DEFAULT NULL COMMENT '创建时间',
+  `update_time` datetime DEFAULT NULL COMMENT '修改时间',
+  `del_flag` tinyint(1) DEFAULT NULL COMMENT '删除标识',
+  PRIMARY KEY (`id`),
+  KEY `idx_order_sn` (`order_sn`) USING BTREE,
+  KEY `idx_status_next_retry_time` (`status`,`next_retry_time`) USING BTREE,
+  KEY `idx_status_update_time` (`status`,`update_time`) USING BTREE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='支付本地消息表';
+
+CREATE TABLE `t_pay_outbox_24` (
+  `id` bigint(20) NOT NULL COMMENT 'ID',
+  `order_sn` varchar(64) DEFAULT NULL COMMENT '订单号',
+  `event_name` varchar(64) DEFAULT NULL COMMENT '事件名称',
+  `topic` varchar(128) DEFAULT NULL COMMENT '主题',
+  `tag` varchar(128) DEFAULT NULL COMMENT '标签',
+  `message_keys` varchar(128) DEFAULT NULL COMMENT '消息Keys',
+  `payload` text COMMENT '序列化后的消息体',
+  `sent_timeout` bigint(20) DEFAULT NULL COMMENT '发送消息超时时间',
+  `delay_level` int(3) DEFAULT NULL COMMENT '延迟消息级别',
+  `status` tinyint(1) DEFAULT NULL COMMENT '消息状态 0：待投递 1：已投递 2：投递失败',
+  `retry_count` int(11) DEFAULT NULL COMMENT '投递失败次数',
+  `next_retry_time` datetime DEFAULT NULL COMMENT '下次重新投递时间',
+  `create_time` datetime DEFAULT NULL COMMENT '创建时间',
+  `update_time` datetime DEFAULT NULL COMMENT '修改时间',
+  `del_flag` tinyint(1) DEFAULT NULL COMMENT '删除标识',
+  PRIMARY KEY (`id`),
+  KEY `idx_order_sn` (`order_sn`) USING BTREE,
+  KEY `idx_status_next_retry_time` (`status`,`next_retry_time`) USING BTREE,
+  KEY `idx_status_update_time` (`status`,`update_time`) USING BTREE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='支付本地消息表';
+
+CREATE TABLE `t_pay_outbox_25` (
+  `id` bigint(20) NOT NULL COMMENT 'ID',
+  `order_sn` varchar(64) DEFAULT NULL COMMENT '订单号',
+  `event_name` varchar(64) DEFAULT NULL COMMENT '事件名称',
+  `topic` varchar(128) DEFAULT NULL COMMENT '主题',
+  `tag` varchar(128) DEFAULT NULL COMMENT '标签',
+  `message_keys` varchar(128) DEFAULT NULL COMMENT '消息Keys',
+  `payload` text COMMENT '序列化后的消息体',
+  `sent_timeout` bigint(20) DEFAULT NULL COMMENT '发送消息超时时间',
+  `delay_level` int(3) DEFAULT NULL COMMENT '延迟消息级别',
+  `status` tinyint(1) DEFAULT NULL COMMENT '消息状态 0：待投递 1：已投递 2：投递失败',
+  `retry_count` int(11) DEFAULT NULL COMMENT '投递失败次数',
+  `next_retry_time` datetime DEFAULT NULL COMMENT '下次重新投递时间',
+  `create_time` datetime DEFAULT NULL COMMENT '创建时间',
+  `update_time` datetime DEFAULT NULL COMMENT '修改时间',
+  `del_flag` tinyint(1) DEFAULT NULL COMMENT '删除标识',
+  PRIMARY KEY (`id`),
+  KEY `idx_order_sn` (`order_sn`) USING BTREE,
+  KEY `idx_status_next_retry_time` (`status`,`next_retry_time`) USING BTREE,
+  KEY `idx_status_update_time` (`status`,`update_time`) USING BTREE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='支付本地消息表';
+
+CREATE TABLE `t_pay_outbox_26` (
+  `id` bigint(20) NOT NULL COMMENT 'ID',
+  `order_sn` varchar(64) DEFAULT NULL COMMENT '订单号',
+  `event_name` varchar(64) DEFAULT NULL COMMENT '事件名称',
+  `topic` varchar(128) DEFAULT NULL COMMENT '主题',
+  `tag` varchar(128) DEFAULT NULL COMMENT '标签',
+  `message_keys` varchar(128) DEFAULT NULL COMMENT '消息Keys',
+  `payload` text COMMENT '序列化后的消息体',
+  `sent_timeout` bigint(20) DEFAULT NULL COMMENT '发送消息超时时间',
+  `delay_level` int(3) DEFAULT NULL COMMENT '延迟消息级别',
+  `status` tinyint(1) DEFAULT NULL COMMENT '消息状态 0：待投递 1：已投递 2：投递失败',
+  `retry_count` int(11) DEFAULT NULL COMMENT '投递失败次数',
+  `next_retry_time` datetime DEFAULT NULL COMMENT '下次重新投递时间',
+  `create_time` datetime DEFAULT NULL COMMENT '创建时间',
+  `update_time` datetime DEFAULT NULL COMMENT '修改时间',
+  `del_flag` tinyint(1) DEFAULT NULL COMMENT '删除标识',
+  PRIMARY KEY (`id`),
+  KEY `idx_order_sn` (`order_sn`) USING BTREE,
+  KEY `idx_status_next_retry_time` (`status`,`next_retry_time`) USING BTREE,
+  KEY `idx_status_update_time` (`status`,`update_time`) USING BTREE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='支付本地消息表';
+
+CREATE TABLE `t_pay_outbox_27` (
+  `id` bigint(20) NOT NULL COMMENT 'ID',
+  `order_sn` varchar(64) DEFAULT NULL COMMENT '订单号',
+  `event_name` varchar(64) DEFAULT NULL COMMENT '事件名称',
+  `topic` varchar(128) DEFAULT NULL COMMENT '主题',
+  `tag` varchar(128) DEFAULT NULL COMMENT '标签',
+  `message_keys` varchar(128) DEFAULT NULL COMMENT '消息Keys',
+  `payload` text COMMENT '序列化后的消息体',
+  `sent_timeout` bigint(20) DEFAULT NULL COMMENT '发送消息超时时间',
+  `delay_level` int(3) DEFAULT NULL COMMENT '延迟消息级别',
+  `status` tinyint(1) DEFAULT NULL COMMENT '消息状态 0：待投递 1：已投递 2：投递失败',
+  `retry_count` int(11) DEFAULT NULL COMMENT '投递失败次数',
+  `next_retry_time` datetime DEFAULT NULL COMMENT '下次重新投递时间',
+  `create_time` datetime DEFAULT NULL COMMENT '创建时间',
+  `update_time` datetime DEFAULT NULL COMMENT '修改时间',
+  `del_flag` tinyint(1) DEFAULT NULL COMMENT '删除标识',
+  PRIMARY KEY (`id`),
+  KEY `idx_order_sn` (`order_sn`) USING BTREE,
+  KEY `idx_status_next_retry_time` (`status`,`next_retry_time`) USING BTREE,
+  KEY `idx_status_update_time` (`status`,`update_time`) USING BTREE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='支付本地消息表';
+
+CREATE TABLE `t_pay_outbox_28` (
+  `id` bigint(20) NOT NULL COMMENT 'ID',
+  `order_sn` varchar(64) DEFAULT NULL COMMENT '订单号',
+  `event_name` varchar(64) DEFAULT NULL COMMENT '事件名称',
+  `topic` varchar(128) DEFAULT NULL COMMENT '主题',
+  `tag` varchar(128) DEFAULT NULL COMMENT '标签',
+  `message_keys` varchar(128) DEFAULT NULL COMMENT '消息Keys',
+  `payload` text COMMENT '序列化后的消息体',
+  `sent_timeout` bigint(20) DEFAULT NULL COMMENT '发送消息超时时间',
+  `delay_level` int(3) DEFAULT NULL COMMENT '延迟消息级别',
+  `status` tinyint(1) DEFAULT NULL COMMENT '消息状态 0：待投递 1：已投递 2：投递失败',
+  `retry_count` int(11) DEFAULT NULL COMMENT '投递失败次数',
+  `next_retry_time` datetime DEFAULT NULL COMMENT '下次重新投递时间',
+  `create_time` datetime DEFAULT NULL COMMENT '创建时间',
+  `update_time` datetime DEFAULT NULL COMMENT '修改时间',
+  `del_flag` tinyint(1) DEFAULT NULL COMMENT '删除标识',
+  PRIMARY KEY (`id`),
+  KEY `idx_order_sn` (`order_sn`) USING BTREE,
+  KEY `idx_status_next_retry_time` (`status`,`next_retry_time`) USING BTREE,
+  KEY `idx_status_update_time` (`status`,`update_time`) USING BTREE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='支付本地消息表';
+
+CREATE TABLE `t_pay_outbox_29` (
+  `id` bigint(20) NOT NULL COMMENT 'ID',
+  `order_sn` varchar(64) DEFAULT NULL COMMENT '订单号',
+  `event_name` varchar(64) DEFAULT NULL COMMENT '事件名称',
+  `topic` varchar(128) DEFAULT NULL COMMENT '主题',
+  `tag` varchar(128) DEFAULT NULL COMMENT '标签',
+  `message_keys` varchar(128) DEFAULT NULL COMMENT '消息Keys',
+  `payload` text COMMENT '序列化后的消息体',
+  `sent_timeout` bigint(20) DEFAULT NULL COMMENT '发送消息超时时间',
+  `delay_level` int(3) DEFAULT NULL COMMENT '延迟消息级别',
+  `status` tinyint(1) DEFAULT NULL COMMENT '消息状态 0：待投递 1：已投递 2：投递失败',
+  `retry_count` int(11) DEFAULT NULL COMMENT '投递失败次数',
+  `next_retry_time` datetime DEFAULT NULL COMMENT '下次重新投递时间',
+  `create_time` datetime DEFAULT NULL COMMENT '创建时间',
+  `update_time` datetime DEFAULT NULL COMMENT '修改时间',
+  `del_flag` tinyint(1) DEFAULT NULL COMMENT '删除标识',
+  PRIMARY KEY (`id`),
+  KEY `idx_order_sn` (`order_sn`) USING BTREE,
+  KEY `idx_status_next_retry_time` (`status`,`next_retry_time`) USING BTREE,
+  KEY `idx_status_update_time` (`status`,`update_time`) USING BTREE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='支付本地消息表';
+
+CREATE TABLE `t_pay_outbox_30` (
+  `id` bigint(20) NOT NULL COMMENT 'ID',
+  `order_sn` varchar(64) DEFAULT NULL COMMENT '订单号',
+  `event_name` varchar(64) DEFAULT NULL COMMENT '事件名称',
+  `topic` varchar(128) DEFAULT NULL COMMENT '主题',
+  `tag` varchar(128) DEFAULT NULL COMMENT '标签',
+  `message_keys` varchar(128) DEFAULT NULL COMMENT '消息Keys',
+  `payload` text COMMENT '序列化后的消息体',
+  `sent_timeout` bigint(20) DEFAULT NULL COMMENT '发送消息超时时间',
+  `delay_level` int(3) DEFAULT NULL COMMENT '延迟消息级别',
+  `status` tinyint(1) DEFAULT NULL COMMENT '消息状态 0：待投递 1：已投递 2：投递失败',
+  `retry_count` int(11) DEFAULT NULL COMMENT '投递失败次数',
+  `next_retry_time` datetime DEFAULT NULL COMMENT '下次重新投递时间',
+  `create_time` datetime DEFAULT NULL COMMENT '创建时间',
+  `update_time` datetime DEFAULT NULL COMMENT '修改时间',
+  `del_flag` tinyint(1) DEFAULT NULL COMMENT '删除标识',
+  PRIMARY KEY (`id`),
+  KEY `idx_order_sn` (`order_sn`) USING BTREE,
+  KEY `idx_status_next_retry_time` (`status`,`next_retry_time`) USING BTREE,
+  KEY `idx_status_update_time` (`status`,`update_time`) USING BTREE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='支付本地消息表';
+
+CREATE TABLE `t_pay_outbox_31` (
+  `id` bigint(20) NOT NULL COMMENT 'ID',
+  `order_sn` varchar(64) DEFAULT NULL COMMENT '订单号',
+  `event_name` varchar(64) DEFAULT NULL COMMENT '事件名称',
+  `topic` varchar(128) DEFAULT NULL COMMENT '主题',
+  `tag` varchar(128) DEFAULT NULL COMMENT '标签',
+  `message_keys` varchar(128) DEFAULT NULL COMMENT '消息Keys',
+  `payload` text COMMENT '序列化后的消息体',
+  `sent_timeout` bigint(20) DEFAULT NULL COMMENT '发送消息超时时间',
+  `delay_level` int(3) DEFAULT NULL COMMENT '延迟消息级别',
+  `status` tinyint(1) DEFAULT NULL COMMENT '消息状态 0：待投递 1：已投递 2：投递失败',
+  `retry_count` int(11) DEFAULT NULL COMMENT '投递失败次数',
+  `next_retry_time` datetime DEFAULT NULL COMMENT '下次重新投递时间',
+  `create_time` datetime DEFAULT NULL COMMENT '创建时间',
+  `update_time` datetime DEFAULT NULL COMMENT '修改时间',
+  `del_flag` tinyint(1) DEFAULT NULL COMMENT '删除标识',
+  PRIMARY KEY (`id`),
+  KEY `idx_order_sn` (`order_sn`) USING BTREE,
+  KEY `idx_status_next_retry_time` (`status`,`next_retry_time`) USING BTREE,
+  KEY `idx_status_update_time` (`status`,`update_time`) USING BTREE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='支付本地消息表';
@@ -17,22 +17,31 @@
 
 package com.dlnu.index12306.biz.gatewayservice.filter;
 
-import com.alibaba.nacos.client.naming.utils.CollectionUtils;
+import com.alibaba.fastjson2.JSON;
 import com.dlnu.index12306.biz.gatewayservice.config.Config;
 import com.dlnu.index12306.biz.gatewayservice.toolkit.JWTUtil;
+import com.dlnu.index12306.biz.gatewayservice.toolkit.PathPrefixTrie;
+import com.dlnu.index12306.biz.gatewayservice.toolkit.RevokedTokenFilter;
 import com.dlnu.index12306.biz.gatewayservice.toolkit.UserInfoDTO;
 import com.dlnu.index12306.framework.starter.bases.constant.UserConstant;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.jsonwebtoken.Claims;
 import org.springframework.cloud.gateway.filter.GatewayFilter;
 import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
 import org.springframework.http.server.reactive.ServerHttpRequest;
 import org.springframework.http.server.reactive.ServerHttpResponse;
 import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import reactor.core.publisher.Mono;
 
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
-import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.TimeUnit;
 
 /**
  * SpringCloud Gateway Token 拦截器
@@ -40,8 +49,19 @@ import java.util.Objects;
 @Component
 public class TokenValidateGatewayFilterFactory extends AbstractGatewayFilterFactory<Config> {
 
-    public TokenValidateGatewayFilterFactory() {
+    private final RevokedTokenFilter revokedTokenFilter;
+
+    /**
+     * Token 解析结果本地缓存，条目在 Token 过期时间与最大缓存时间中较早者失效
+     */
+    private final Cache<String, TokenCacheEntry> tokenCache = Caffeine.newBuilder()
+            .maximumSize(TOKEN_CACHE_MAXIMUM_SIZE)
+            .expireAfter(new TokenExpiry())
+            .build();
+
+    public TokenValidateGatewayFilterFactory(RevokedTokenFilter revokedTokenFilter) {
         super(Config.class);
+        this.revokedTokenFilter = revokedTokenFilter;
     }
 
     /**
@@ -49,15 +69,24 @@ public class TokenValidateGatewayFilterFactory extends AbstractGatewayFilterFact
      */
     public static final String DELETION_PATH = "/api/user-service/deletion";
 
+    /**
+     * 用户退出登录
+     */
+    public static final String LOGOUT_PATH = "/api/user-service/logout";
+
+    private static final long TOKEN_CACHE_MAXIMUM_SIZE = 100000L;
+    private static final long TOKEN_CACHE_MAXIMUM_TTL_NANOS = TimeUnit.MINUTES.toNanos(30);
+
     @Override
     public GatewayFilter apply(Config config) {
+        // 路由配置加载时构建一次前缀字典树
+        PathPrefixTrie blackPathPreTrie = PathPrefixTrie.compile(config.getBlackPathPre());
         return (exchange, chain) -> {
             ServerHttpRequest request = exchange.getRequest();
             String requestPath = request.getPath().toString();
-            if (isPathInBlackPreList(requestPath, config.getBlackPathPre())) {
+            if (blackPathPreTrie.matchesPrefix(requestPath)) {
                 String token = request.getHeaders().getFirst("Authorization");
-                // TODO 需要验证 Token 是否有效，有可能用户注销了账户，但是 Token 有效期还未过
-                UserInfoDTO userInfo = JWTUtil.parseJwtToken(token);
+                UserInfoDTO userInfo = parseToken(token);
                 if (!validateToken(userInfo)) {
                     ServerHttpResponse response = exchange.getResponse();
                     response.setStatusCode(HttpStatus.UNAUTHORIZED);
@@ -72,20 +101,69 @@ public class TokenValidateGatewayFilterFactory extends AbstractGatewayFilterFact
                         httpHeaders.set(UserConstant.USER_TOKEN_KEY, token);
                     }
                 });
-                return chain.filter(exchange.mutate().request(builder.build()).build());
+                Mono<Void> filterResult = chain.filter(exchange.mutate().request(builder.build()).build());
+                if (Objects.equals(requestPath, LOGOUT_PATH) || Objects.equals(requestPath, DELETION_PATH)) {
+                    // 退出登录或注销账户请求处理成功后，Token 有效期可能还未过，需要在本实例内立即失效
+                    return filterResult.then(Mono.fromRunnable(() -> {
+                        HttpStatusCode statusCode = exchange.getResponse().getStatusCode();
+                        if (statusCode != null && statusCode.is2xxSuccessful()) {
+                            revokedTokenFilter.revoke(token);
+                            tokenCache.invalidate(token);
+                        }
+                    }));
+                }
+                return filterResult;
             }
             return chain.filter(exchange);
         };
     }
 
-    private boolean isPathInBlackPreList(String requestPath, List<String> blackPathPre) {
-        if (CollectionUtils.isEmpty(blackPathPre)) {
-            return false;
+    private UserInfoDTO parseToken(String token) {
+        if (!StringUtils.hasText(token)) {
+            return null;
+        }
+        // 用户退出登录或注销账户后 Token 有效期可能还未过，需要先排除已注销 Token
+        if (revokedTokenFilter.isRevoked(token)) {
+            tokenCache.invalidate(token);
+            return null;
+        }
+        TokenCacheEntry cacheEntry = tokenCache.getIfPresent(token);
+        if (cacheEntry != null) {
+            return cacheEntry.userInfo();
         }
-        return blackPathPre.stream().anyMatch(requestPath::startsWith);
+        // 校验失败的 Token 不缓存，避免伪造 Token 挤占缓存
+        Claims claims = JWTUtil.parseValidClaims(token);
+        if (claims == null) {
+            return null;
+        }
+        UserInfoDTO userInfo = JSON.parseObject(claims.getSubject(), UserInfoDTO.class);
+        tokenCache.put(token, new TokenCacheEntry(userInfo, claims.getExpiration().getTime()));
+        return userInfo;
     }
 
     private boolean validateToken(UserInfoDTO userInfo) {
         return userInfo != null;
     }
+
+    private record TokenCacheEntry(UserInfoDTO userInfo, long expirationMillis) {
+    }
+
+    private static class TokenExpiry implements Expiry<String, TokenCacheEntry> {
+
+        @Override
+        public long expireAfterCreate(String key, TokenCacheEntry value, long currentTime) {
+            long remainingNanos = TimeUnit.MILLISECONDS.toNanos(value.expirationMillis() - System.currentTimeMillis());
+            return Math.max(0L, Math.min(remainingNanos, TOKEN_CACHE_MAXIMUM_TTL_NANOS));
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, TokenCacheEntry value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, TokenCacheEntry value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
 }
\ No newline at end of file
@@ -37,7 +37,7 @@ import static com.dlnu.index12306.framework.starter.bases.constant.UserConstant.
 @Slf4j
 public final class JWTUtil {
 
-    private static final long EXPIRATION = 86400L;
+    public static final long EXPIRATION = 86400L;
     public static final String TOKEN_PREFIX = "Bearer ";
     public static final String ISS = "index12306";
     public static final String SECRET = "SecretKey039245678901232039487623456783092349288901402967890140939827";
@@ -70,14 +70,24 @@ public final class JWTUtil {
      * @return 用户信息
      */
     public static UserInfoDTO parseJwtToken(String jwtToken) {
+        Claims claims = parseValidClaims(jwtToken);
+        return claims == null ? null : JSON.parseObject(claims.getSubject(), UserInfoDTO.class);
+    }
+
+    /**
+     * 校验签名与有效期并返回 Token 声明
+     *
+     * @param jwtToken 用户访问 Token
+     * @return Token 声明，校验失败返回 null
+     */
+    public static Claims parseValidClaims(String jwtToken) {
         if (StringUtils.hasText(jwtToken)) {
             String actualJwtToken = jwtToken.replace(TOKEN_PREFIX, "");
             try {
                 Claims claims = Jwts.parser().setSigningKey(SECRET).parseClaimsJws(actualJwtToken).getBody();
                 Date expiration = claims.getExpiration();
                 if (expiration.after(new Date())) {
-                    String subject = claims.getSubject();
-                    return JSON.parseObject(subject, UserInfoDTO.class);
+                    return claims;
                 }
             } catch (ExpiredJwtException ignored) {
             } catch (Exception ex) {
@@ -86,4 +96,4 @@ public final class JWTUtil {
         }
         return null;
     }
-}
\ No newline at end of file
+}
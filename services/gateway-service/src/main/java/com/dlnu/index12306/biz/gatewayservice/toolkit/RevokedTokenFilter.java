@@ -0,0 +1,99 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dlnu.index12306.biz.gatewayservice.toolkit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.google.common.hash.BloomFilter;
+import com.google.common.hash.Funnels;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 已注销 Token 本地过滤器
+ * 布隆过滤器负责绝大多数正常 Token 的快速放行，命中后再由精确集合确认，避免误判拒绝有效 Token
+ * 精确集合中的 Token 到期后会被淘汰，布隆过滤器无法删除元素，因此每隔一个 Token 有效期或写入数量超过容量时用精确集合重建布隆过滤器
+ * 注销状态仅保存在当前网关实例内，其它实例仍需依赖 Token 自身过期或用户服务的登录状态校验
+ */
+@Component
+public class RevokedTokenFilter {
+
+    private static final int EXPECTED_INSERTIONS = 100000;
+    private static final double FALSE_POSITIVE_PROBABILITY = 0.001D;
+    private static final long REBUILD_INTERVAL_MILLIS = TimeUnit.SECONDS.toMillis(JWTUtil.EXPIRATION);
+
+    private volatile BloomFilter<String> revokedTokenBloomFilter = createBloomFilter(EXPECTED_INSERTIONS);
+
+    private long bloomFilterCapacity = EXPECTED_INSERTIONS;
+
+    private long bloomFilterInsertions;
+
+    private long lastRebuildTimeMillis = System.currentTimeMillis();
+
+    /**
+     * 精确集合保留时间与 Token 有效期一致，过期后 Token 本身已无法通过校验
+     * 不设置容量上限，按容量淘汰会让仍在有效期内的已注销 Token 重新通过校验
+     */
+    private final Cache<String, Boolean> revokedTokens = Caffeine.newBuilder()
+            .expireAfterWrite(JWTUtil.EXPIRATION, TimeUnit.SECONDS)
+            .build();
+
+    /**
+     * 标记 Token 已注销，注销请求频率较低，加锁保证重建布隆过滤器时不丢失并发写入的 Token
+     *
+     * @param token 用户访问 Token
+     */
+    public synchronized void revoke(String token) {
+        revokedTokens.put(token, Boolean.TRUE);
+        long now = System.currentTimeMillis();
+        if (now - lastRebuildTimeMillis >= REBUILD_INTERVAL_MILLIS || bloomFilterInsertions >= bloomFilterCapacity) {
+            // 按精确集合中仍有效的 Token 重建，清除已过期 Token 残留的位，避免误判率持续升高
+            rebuildBloomFilter(now);
+            return;
+        }
+        revokedTokenBloomFilter.put(token);
+        bloomFilterInsertions++;
+    }
+
+    /**
+     * 判断 Token 是否已注销
+     *
+     * @param token 用户访问 Token
+     * @return 是否已注销
+     */
+    public boolean isRevoked(String token) {
+        return revokedTokenBloomFilter.mightContain(token) && revokedTokens.getIfPresent(token) != null;
+    }
+
+    private void rebuildBloomFilter(long now) {
+        revokedTokens.cleanUp();
+        long capacity = Math.max(EXPECTED_INSERTIONS, revokedTokens.estimatedSize() * 2);
+        BloomFilter<String> bloomFilter = createBloomFilter(capacity);
+        revokedTokens.asMap().keySet().forEach(bloomFilter::put);
+        revokedTokenBloomFilter = bloomFilter;
+        bloomFilterCapacity = capacity;
+        bloomFilterInsertions = revokedTokens.estimatedSize();
+        lastRebuildTimeMillis = now;
+    }
+
+    private static BloomFilter<String> createBloomFilter(long expectedInsertions) {
+        return BloomFilter.create(Funnels.stringFunnel(StandardCharsets.UTF_8), expectedInsertions, FALSE_POSITIVE_PROBABILITY);
+    }
+}
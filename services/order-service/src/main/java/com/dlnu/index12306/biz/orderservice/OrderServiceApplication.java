@@ -22,6 +22,7 @@ import org.mybatis.spring.annotation.MapperScan;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.cloud.openfeign.EnableFeignClients;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 /**
  * 订单服务应用启动器
@@ -30,6 +31,7 @@ import org.springframework.cloud.openfeign.EnableFeignClients;
 @MapperScan("com.dlnu.index12306.biz.orderservice.dao.mapper")
 @EnableFeignClients("com.dlnu.index12306.biz.orderservice.remote")
 @EnableCrane4j(enumPackages = "com.dlnu.index12306.biz.orderservice.common.enums")
+@EnableScheduling
 public class OrderServiceApplication {
 
     public static void main(String[] args) {
@@ -14,4 +14,4 @@ public class RedisKeyConstant {
      * 车票订单状态反转分布式锁，KeyPrefix + orderSn订单号
      */
     public static final String LOCK_STATUS_REVERSAL = "index12306-order-service:lock:status-reversal:";
-}
\ No newline at end of file
+}
@@ -49,29 +49,14 @@ public class OrderCommonDataBaseComplexAlgorithm implements ComplexKeysShardingA
         Collection<String> result = new LinkedHashSet<>(availableTargetNames.size());
         if (CollUtil.isNotEmpty(columnNameAndShardingValuesMap)) {
             String userId = "user_id";
-            Collection<Comparable<?>> customerUserIdCollection = columnNameAndShardingValuesMap.get(userId);
-            if (CollUtil.isNotEmpty(customerUserIdCollection)) {
-                String dbSuffix;
-                Comparable<?> comparable = customerUserIdCollection.stream().findFirst().get();
-                if (comparable instanceof String) {
-                    String actualUserId = comparable.toString();
-                    dbSuffix = String.valueOf(hashShardingValue(actualUserId.substring(Math.max(actualUserId.length() - 6, 0))) % shardingCount / tableShardingCount);
-                } else {
-                    dbSuffix = String.valueOf(hashShardingValue((Long) comparable % 1000000) % shardingCount / tableShardingCount);
-                }
-                result.add("ds_" + dbSuffix);
-            } else {
+            Collection<Comparable<?>> shardingValues = columnNameAndShardingValuesMap.get(userId);
+            if (CollUtil.isEmpty(shardingValues)) {
                 String orderSn = "order_sn";
-                String dbSuffix;
-                Collection<Comparable<?>> orderSnCollection = columnNameAndShardingValuesMap.get(orderSn);
-                Comparable<?> comparable = orderSnCollection.stream().findFirst().get();
-                if (comparable instanceof String) {
-                    String actualOrderSn = comparable.toString();
-                    dbSuffix = String.valueOf(hashShardingValue(actualOrderSn.substring(Math.max(actualOrderSn.length() - 6, 0))) % shardingCount / tableShardingCount);
-                } else {
-                    dbSuffix = String.valueOf(hashShardingValue((Long) comparable % 1000000) % shardingCount / tableShardingCount);
-                }
-                result.add("ds_" + dbSuffix);
+                shardingValues = columnNameAndShardingValuesMap.get(orderSn);
+            }
+            // IN 查询时每个分片值路由到对应分库，相同分库只保留一次
+            for (Comparable<?> comparable : shardingValues) {
+                result.add("ds_" + getShardingIndex(comparable) / tableShardingCount);
             }
         }
         return result;
@@ -94,6 +79,14 @@ public class OrderCommonDataBaseComplexAlgorithm implements ComplexKeysShardingA
         return Integer.parseInt(props.getProperty(TABLE_SHARDING_COUNT_KEY));
     }
 
+    private long getShardingIndex(final Comparable<?> comparable) {
+        if (comparable instanceof String) {
+            String actualShardingValue = comparable.toString();
+            return hashShardingValue(actualShardingValue.substring(Math.max(actualShardingValue.length() - 6, 0))) % shardingCount;
+        }
+        return hashShardingValue((Long) comparable % 1000000) % shardingCount;
+    }
+
     private long hashShardingValue(final Comparable<?> shardingValue) {
         return Math.abs((long) shardingValue.hashCode());
     }
@@ -46,27 +46,14 @@ public class OrderCommonTableComplexAlgorithm implements ComplexKeysShardingAlgo
         Collection<String> result = new LinkedHashSet<>(availableTargetNames.size());
         if (CollUtil.isNotEmpty(columnNameAndShardingValuesMap)) {
             String userId = "user_id";
-            Collection<Comparable<?>> customerUserIdCollection = columnNameAndShardingValuesMap.get(userId);
-            if (CollUtil.isNotEmpty(customerUserIdCollection)) {
-                Comparable<?> comparable = customerUserIdCollection.stream().findFirst().get();
-                if (comparable instanceof String) {
-                    String actualUserId = comparable.toString();
-                    result.add(shardingValue.getLogicTableName() + "_" + hashShardingValue(actualUserId.substring(Math.max(actualUserId.length() - 6, 0))) % shardingCount);
-                } else {
-                    String dbSuffix = String.valueOf(hashShardingValue((Long) comparable % 1000000) % shardingCount);
-                    result.add(shardingValue.getLogicTableName() + "_" + dbSuffix);
-                }
-            } else {
+            Collection<Comparable<?>> shardingValues = columnNameAndShardingValuesMap.get(userId);
+            if (CollUtil.isEmpty(shardingValues)) {
                 String orderSn = "order_sn";
-                Collection<Comparable<?>> orderSnCollection = columnNameAndShardingValuesMap.get(orderSn);
-                Comparable<?> comparable = orderSnCollection.stream().findFirst().get();
-                if (comparable instanceof String) {
-                    String actualOrderSn = comparable.toString();
-                    result.add(shardingValue.getLogicTableName() + "_" + hashShardingValue(actualOrderSn.substring(Math.max(actualOrderSn.length() - 6, 0))) % shardingCount);
-                } else {
-                    String dbSuffix = String.valueOf(hashShardingValue((Long) comparable % 1000000) % shardingCount);
-                    result.add(shardingValue.getLogicTableName() + "_" + dbSuffix);
-                }
+                shardingValues = columnNameAndShardingValuesMap.get(orderSn);
+            }
+            // IN 查询时每个分片值路由到对应分表，相同分表只保留一次
+            for (Comparable<?> comparable : shardingValues) {
+                result.add(shardingValue.getLogicTableName() + "_" + getShardingIndex(comparable));
             }
         }
         return result;
@@ -83,6 +70,14 @@ public class OrderCommonTableComplexAlgorithm implements ComplexKeysShardingAlgo
         return Integer.parseInt(props.getProperty(SHARDING_COUNT_KEY));
     }
 
+    private long getShardingIndex(final Comparable<?> comparable) {
+        if (comparable instanceof String) {
+            String actualShardingValue = comparable.toString();
+            return hashShardingValue(actualShardingValue.substring(Math.max(actualShardingValue.length() - 6, 0))) % shardingCount;
+        }
+        return hashShardingValue((Long) comparable % 1000000) % shardingCount;
+    }
+
     private long hashShardingValue(final Comparable<?> shardingValue) {
         return Math.abs((long) shardingValue.hashCode());
     }
@@ -19,6 +19,8 @@ package com.dlnu.index12306.biz.orderservice.mq.produce;
 
 import cn.hutool.core.util.StrUtil;
 import com.alibaba.fastjson2.JSON;
+import com.dlnu.index12306.framework.starter.outbox.core.MessageOutboxRelay;
+import com.dlnu.index12306.framework.starter.outbox.dao.entity.MessageOutboxDO;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.rocketmq.client.producer.SendResult;
@@ -35,6 +37,7 @@ import java.util.Optional;
 public abstract class AbstractCommonSendProduceTemplate<T> {
 
     private final RocketMQTemplate rocketMQTemplate;
+    private final MessageOutboxRelay messageOutboxRelay;
 
     /**
      * 构建消息发送事件基础扩充属性实体
@@ -80,4 +83,22 @@ public abstract class AbstractCommonSendProduceTemplate<T> {
         }
         return sendResult;
     }
-}
\ No newline at end of file
+
+    /**
+     * 消息事件写入本地消息表，与当前事务一同提交，提交后异步投递
+     *
+     * @param messageSendEvent 消息发送事件
+     */
+    public void saveMessage(T messageSendEvent) {
+        BaseSendExtendDTO baseSendExtendDTO = buildBaseSendExtendParam(messageSendEvent);
+        MessageOutboxDO messageOutboxDO = MessageOutboxDO.builder()
+                .orderSn(baseSendExtendDTO.getKeys())
+                .eventName(baseSendExtendDTO.getEventName())
+                .topic(baseSendExtendDTO.getTopic())
+                .tag(baseSendExtendDTO.getTag())
+                .sentTimeout(baseSendExtendDTO.getSentTimeout())
+                .delayLevel(baseSendExtendDTO.getDelayLevel())
+                .build();
+        messageOutboxRelay.save(messageOutboxDO, buildMessage(messageSendEvent, baseSendExtendDTO));
+    }
+}
@@ -4,6 +4,7 @@ import cn.hutool.core.util.StrUtil;
 import com.dlnu.index12306.biz.orderservice.common.constant.OrderRocketMQConstant;
 import com.dlnu.index12306.biz.orderservice.mq.domain.MessageWrapper;
 import com.dlnu.index12306.biz.orderservice.mq.event.DelayCloseOrderEvent;
+import com.dlnu.index12306.framework.starter.outbox.core.MessageOutboxRelay;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.rocketmq.common.message.MessageConst;
 import org.apache.rocketmq.spring.core.RocketMQTemplate;
@@ -21,8 +22,8 @@ import java.util.UUID;
 @Component
 public class DelayCloseOrderSendProduce extends AbstractCommonSendProduceTemplate<DelayCloseOrderEvent> {
 
-    public DelayCloseOrderSendProduce(@Autowired RocketMQTemplate rocketMQTemplate) {
-        super(rocketMQTemplate);
+    public DelayCloseOrderSendProduce(@Autowired RocketMQTemplate rocketMQTemplate, @Autowired MessageOutboxRelay messageOutboxRelay) {
+        super(rocketMQTemplate, messageOutboxRelay);
     }
 
     @Override
@@ -23,7 +23,9 @@ import com.dlnu.index12306.biz.orderservice.dto.domain.OrderItemStatusReversalDT
 import com.dlnu.index12306.biz.orderservice.dto.req.TicketOrderItemQueryReqDTO;
 import com.dlnu.index12306.biz.orderservice.dto.resp.TicketOrderPassengerDetailRespDTO;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 /**
  * 订单明细接口层
@@ -43,4 +45,14 @@ public interface OrderItemService extends IService<OrderItemDO> {
      * @param requestParam 请求参数
      */
     List<TicketOrderPassengerDetailRespDTO> queryTicketItemOrderById(TicketOrderItemQueryReqDTO requestParam);
-}
\ No newline at end of file
+
+    /**
+     * 根据订单号集合批量查询订单明细并按订单号分组
+     * 订单号经复合分片算法路由，每张物理分表只执行一次 IN 查询
+     *
+     * @param orderSns 订单号集合
+     * @param idCard   乘车人证件号，为空时查询订单下全部明细
+     * @return 订单号 -> 订单明细集合
+     */
+    Map<String, List<OrderItemDO>> listGroupByOrderSn(Collection<String> orderSns, String idCard);
+}
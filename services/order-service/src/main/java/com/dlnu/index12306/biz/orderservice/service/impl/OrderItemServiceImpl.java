@@ -18,6 +18,7 @@
 package com.dlnu.index12306.biz.orderservice.service.impl;
 
 import cn.hutool.core.collection.CollectionUtil;
+import cn.hutool.core.util.StrUtil;
 import com.alibaba.fastjson2.JSON;
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.core.conditions.update.LambdaUpdateWrapper;
@@ -40,7 +41,11 @@ import org.redisson.api.RLock;
 import org.redisson.api.RedissonClient;
 import org.springframework.stereotype.Service;
 
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 import static com.dlnu.index12306.biz.orderservice.common.constant.RedisKeyConstant.LOCK_STATUS_REVERSAL;
 
@@ -106,4 +111,16 @@ public class OrderItemServiceImpl extends ServiceImpl<OrderItemMapper, OrderItem
         List<OrderItemDO> orderItemDOList = orderItemMapper.selectList(queryWrapper);
         return BeanUtil.convert(orderItemDOList, TicketOrderPassengerDetailRespDTO.class);
     }
-}
\ No newline at end of file
+
+    @Override
+    public Map<String, List<OrderItemDO>> listGroupByOrderSn(Collection<String> orderSns, String idCard) {
+        if (CollectionUtil.isEmpty(orderSns)) {
+            return Collections.emptyMap();
+        }
+        LambdaQueryWrapper<OrderItemDO> queryWrapper = Wrappers.lambdaQuery(OrderItemDO.class)
+                .in(OrderItemDO::getOrderSn, orderSns)
+                .eq(StrUtil.isNotBlank(idCard), OrderItemDO::getIdCard, idCard);
+        return orderItemMapper.selectList(queryWrapper).stream()
+                .collect(Collectors.groupingBy(OrderItemDO::getOrderSn));
+    }
+}
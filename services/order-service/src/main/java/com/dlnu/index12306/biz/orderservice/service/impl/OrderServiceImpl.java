@@ -34,19 +34,22 @@ import com.dlnu.index12306.framework.starter.convention.exception.ServiceExcepti
 import com.dlnu.index12306.framework.starter.convention.page.PageResponse;
 import com.dlnu.index12306.framework.starter.convention.result.Result;
 import com.dlnu.index12306.framework.starter.database.toolkit.PageUtil;
+import com.dlnu.index12306.framework.starter.distributedid.toolkit.SnowflakeIdUtil;
 import com.dlnu.index12306.framework.starter.user.core.UserContext;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.rocketmq.client.producer.SendResult;
-import org.apache.rocketmq.client.producer.SendStatus;
 import org.redisson.api.RLock;
 import org.redisson.api.RedissonClient;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 import static com.dlnu.index12306.biz.orderservice.common.constant.RedisKeyConstant.LOCK_CANCEL_ORDER;
 import static com.dlnu.index12306.biz.orderservice.common.constant.RedisKeyConstant.LOCK_STATUS_REVERSAL;
@@ -88,11 +91,14 @@ public class OrderServiceImpl implements OrderService {
                 .in(OrderDO::getStatus, buildOrderStatusList(requestParam))
                 .orderByDesc(OrderDO::getOrderTime);
         IPage<OrderDO> orderPage = orderMapper.selectPage(PageUtil.convert(requestParam), queryWrapper);
+        // 一次批量查询当前页全部订单明细，避免逐个订单查询
+        Map<String, List<OrderItemDO>> orderItemMap = orderItemService.listGroupByOrderSn(
+                orderPage.getRecords().stream().map(OrderDO::getOrderSn).toList(),
+                null
+        );
         return PageUtil.convert(orderPage, each -> {
             TicketOrderDetailRespDTO result = BeanUtil.convert(each, TicketOrderDetailRespDTO.class);
-            LambdaQueryWrapper<OrderItemDO> orderItemQueryWrapper = Wrappers.lambdaQuery(OrderItemDO.class)
-                    .eq(OrderItemDO::getOrderSn, each.getOrderSn());
-            List<OrderItemDO> orderItemDOList = orderItemMapper.selectList(orderItemQueryWrapper);
+            List<OrderItemDO> orderItemDOList = orderItemMap.getOrDefault(each.getOrderSn(), Collections.emptyList());
             result.setPassengerDetails(BeanUtil.convert(orderItemDOList, TicketOrderPassengerDetailRespDTO.class));
             return result;
         });
@@ -122,8 +128,12 @@ public class OrderServiceImpl implements OrderService {
         List<TicketOrderItemCreateReqDTO> ticketOrderItems = requestParam.getTicketOrderItems();
         List<OrderItemDO> orderItemDOList = new ArrayList<>();
         List<OrderItemPassengerDO> orderPassengerRelationDOList = new ArrayList<>();
-        ticketOrderItems.forEach(each -> {
+        // 一次性预占订单明细与乘车人关系所需的全部 ID，避免逐条生成
+        long[] ids = SnowflakeIdUtil.nextIds(ticketOrderItems.size() * 2);
+        for (int i = 0; i < ticketOrderItems.size(); i++) {
+            TicketOrderItemCreateReqDTO each = ticketOrderItems.get(i);
             OrderItemDO orderItemDO = OrderItemDO.builder()
+                    .id(ids[i * 2])
                     .trainId(requestParam.getTrainId())
                     .seatNumber(each.getSeatNumber())
                     .carriageNumber(each.getCarriageNumber())
@@ -142,31 +152,24 @@ public class OrderServiceImpl implements OrderService {
                     .build();
             orderItemDOList.add(orderItemDO);
             OrderItemPassengerDO orderPassengerRelationDO = OrderItemPassengerDO.builder()
+                    .id(ids[i * 2 + 1])
                     .idType(each.getIdType())
                     .idCard(each.getIdCard())
                     .orderSn(orderSn)
                     .build();
             orderPassengerRelationDOList.add(orderPassengerRelationDO);
-        });
+        }
         orderItemService.saveBatch(orderItemDOList);
         orderPassengerRelationService.saveBatch(orderPassengerRelationDOList);
-        try {
-            // 发送 RocketMQ 延时消息，指定时间后取消订单
-            DelayCloseOrderEvent delayCloseOrderEvent = DelayCloseOrderEvent.builder()
-                    .trainId(String.valueOf(requestParam.getTrainId()))
-                    .departure(requestParam.getDeparture())
-                    .arrival(requestParam.getArrival())
-                    .orderSn(orderSn)
-                    .trainPurchaseTicketResults(requestParam.getTicketOrderItems())
-                    .build();
-            SendResult sendResult = delayCloseOrderSendProduce.sendMessage(delayCloseOrderEvent);
-            if (!Objects.equals(sendResult.getSendStatus(), SendStatus.SEND_OK)) {
-                throw new ServiceException("投递延迟关闭订单消息队列失败");
-            }
-        } catch (Throwable ex) {
-            log.error("延迟关闭订单消息队列发送错误，请求参数：{}", JSON.toJSONString(requestParam), ex);
-            throw ex;
-        }
+        // 延迟关闭订单消息写入本地消息表，随订单一同提交，提交后异步投递 RocketMQ 延时消息，指定时间后取消订单
+        DelayCloseOrderEvent delayCloseOrderEvent = DelayCloseOrderEvent.builder()
+                .trainId(String.valueOf(requestParam.getTrainId()))
+                .departure(requestParam.getDeparture())
+                .arrival(requestParam.getArrival())
+                .orderSn(orderSn)
+                .trainPurchaseTicketResults(requestParam.getTicketOrderItems())
+                .build();
+        delayCloseOrderSendProduce.saveMessage(delayCloseOrderEvent);
         return orderSn;
     }
 
@@ -280,14 +283,18 @@ public class OrderServiceImpl implements OrderService {
                 .eq(OrderItemPassengerDO::getIdCard, userActualResp.getData().getIdCard())
                 .orderByDesc(OrderItemPassengerDO::getCreateTime);
         IPage<OrderItemPassengerDO> orderItemPassengerPage = orderPassengerRelationService.page(PageUtil.convert(requestParam), queryWrapper);
+        // 当前页订单与订单明细各批量查询一次，避免每行两次查询
+        List<String> orderSns = orderItemPassengerPage.getRecords().stream().map(OrderItemPassengerDO::getOrderSn).distinct().toList();
+        Map<String, OrderDO> orderMap = orderSns.isEmpty()
+                ? Collections.emptyMap()
+                : orderMapper.selectList(Wrappers.lambdaQuery(OrderDO.class).in(OrderDO::getOrderSn, orderSns)).stream()
+                .collect(Collectors.toMap(OrderDO::getOrderSn, Function.identity(), (first, second) -> first));
+        Map<String, List<OrderItemDO>> orderItemMap = orderItemService.listGroupByOrderSn(orderSns, userActualResp.getData().getIdCard());
         return PageUtil.convert(orderItemPassengerPage, each -> {
-            LambdaQueryWrapper<OrderDO> orderQueryWrapper = Wrappers.lambdaQuery(OrderDO.class)
-                    .eq(OrderDO::getOrderSn, each.getOrderSn());
-            OrderDO orderDO = orderMapper.selectOne(orderQueryWrapper);
-            LambdaQueryWrapper<OrderItemDO> orderItemQueryWrapper = Wrappers.lambdaQuery(OrderItemDO.class)
-                    .eq(OrderItemDO::getOrderSn, each.getOrderSn())
-                    .eq(OrderItemDO::getIdCard, each.getIdCard());
-            OrderItemDO orderItemDO = orderItemMapper.selectOne(orderItemQueryWrapper);
+            OrderDO orderDO = orderMap.get(each.getOrderSn());
+            OrderItemDO orderItemDO = orderItemMap.getOrDefault(each.getOrderSn(), Collections.emptyList()).stream()
+                    .findFirst()
+                    .orElse(null);
             TicketOrderDetailSelfRespDTO actualResult = BeanUtil.convert(orderDO, TicketOrderDetailSelfRespDTO.class);
             BeanUtil.convertIgnoreNullAndBlank(orderItemDO, actualResult);
             return actualResult;
@@ -1,5 +1,7 @@
 package com.dlnu.index12306.biz.orderservice.service.orderid;
 
+import java.util.concurrent.atomic.AtomicLong;
+
 /**
  * 全局唯一订单号生成器
  */
@@ -17,23 +19,24 @@ public class DistributedIdGenerator {
 
     /**
      * 序列号分配位数
+     * 由 7 位扩展为 12 位，单节点每毫秒可生成 4096 个 ID，扩展后生成的 ID 仍大于历史 ID，不会重复
      */
-    private static final int SEQUENCE_BITS = 7;
+    private static final int SEQUENCE_BITS = 12;
 
     /**
-     * 节点ID
+     * 序列号最大值
      */
-    private final long nodeID;
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
 
     /**
-     * 上一次生成ID的时间
+     * 节点ID
      */
-    private long lastTimestamp = -1L;
+    private final long nodeID;
 
     /**
-     * 上一次生成ID的序列号
+     * 上一次生成ID的时间与序列号 打包为 (lastTimestamp << SEQUENCE_BITS) | sequence 通过 CAS 一起推进
      */
-    private long sequence = 0L;
+    private final AtomicLong lastTimestampAndSequence = new AtomicLong(-1L << SEQUENCE_BITS);
 
     public DistributedIdGenerator(long nodeID) {
         this.nodeID = nodeID;
@@ -42,30 +45,34 @@ public class DistributedIdGenerator {
     /**
      * 生成分布式ID
      */
-    public synchronized long generateId() {
-        // 计算当前时间与基点时间的差值
-        long timestamp = System.currentTimeMillis() - EPOCH;
-        // 如果当前时间小于上次记录的时间戳 抛出异常 因为时钟回拨会导致 ID 重复
-        if (timestamp < lastTimestamp) {
-            throw new RuntimeException("Clock moved backwards. Refusing to generate ID.");
-        }
-        // 如果当前时间与上次记录的时间是同一毫秒内 需要在序列号上做增加 以保证同一毫秒内生成的 ID 是唯一的
-        if (timestamp == lastTimestamp) {
-            // (sequence + 1) & 127 得到序列号能取得的最大值 如果超过 2 的 7 次方序列号会绕回 0
-            sequence = (sequence + 1) & ((1 << SEQUENCE_BITS) - 1);
-            // 如果绕回 则证明当前毫秒内的序列号已经用完 需要等待直到下一个毫秒
-            if (sequence == 0) {
-                timestamp = tilNextMillis(lastTimestamp);
+    public long generateId() {
+        while (true) {
+            long current = lastTimestampAndSequence.get();
+            long lastTimestamp = current >> SEQUENCE_BITS;
+            // 计算当前时间与基点时间的差值
+            long timestamp = System.currentTimeMillis() - EPOCH;
+            // 如果当前时间小于上次记录的时间戳 抛出异常 因为时钟回拨会导致 ID 重复
+            if (timestamp < lastTimestamp) {
+                throw new RuntimeException("Clock moved backwards. Refusing to generate ID.");
+            }
+            long sequence = 0L;
+            // 如果当前时间与上次记录的时间是同一毫秒内 需要在序列号上做增加 以保证同一毫秒内生成的 ID 是唯一的
+            if (timestamp == lastTimestamp) {
+                sequence = (current & SEQUENCE_MASK) + 1;
+                // 如果超出序列号最大值 则证明当前毫秒内的序列号已经用完 等待下一个毫秒后重新竞争
+                if (sequence > SEQUENCE_MASK) {
+                    tilNextMillis(lastTimestamp);
+                    continue;
+                }
+            }
+            // CAS 失败说明其他线程已抢先推进 重新读取后再试
+            if (lastTimestampAndSequence.compareAndSet(current, (timestamp << SEQUENCE_BITS) | sequence)) {
+                // 1. timestamp << (NODE_BITS + SEQUENCE_BITS): 时间戳左移 5 + 12 位 留出空间放置节点 ID 和序列号
+                // 2. nodeID << SEQUENCE_BITS: nodeID 左移 12 位
+                // 3. 使用 ｜ 将 timestamp、nodeID 和 sequence 合并
+                return (timestamp << (NODE_BITS + SEQUENCE_BITS)) | (nodeID << SEQUENCE_BITS) | sequence;
             }
-        } else {
-            // 新的毫秒内 序列号重置
-            sequence = 0L;
         }
-        lastTimestamp = timestamp;
-        // 1. timestamp << (NODE_BITS + SEQUENCE_BITS): 时间戳左移 5 + 7 位 留出空间放置节点 ID 和序列号
-        // 2. nodeID << SEQUENCE_BITS: nodeID 左移 7 位
-        // 3. 使用 ｜ 将 timestamp、nodeID 和 sequence 合并
-        return (timestamp << (NODE_BITS + SEQUENCE_BITS)) | (nodeID << SEQUENCE_BITS) | sequence;
     }
 
     /**
@@ -74,8 +81,9 @@ public class DistributedIdGenerator {
     private long tilNextMillis(long lastTimestamp) {
         long timestamp = System.currentTimeMillis() - EPOCH;
         while (timestamp <= lastTimestamp) {
+            Thread.onSpinWait();
             timestamp = System.currentTimeMillis() - EPOCH;
         }
         return timestamp;
     }
-}
\ No newline at end of file
+}
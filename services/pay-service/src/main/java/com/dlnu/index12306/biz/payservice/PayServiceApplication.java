@@ -22,6 +22,7 @@ import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.cloud.openfeign.EnableFeignClients;
 import org.springframework.retry.annotation.EnableRetry;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 /**
  * 支付服务应用启动器
@@ -30,6 +31,7 @@ import org.springframework.retry.annotation.EnableRetry;
 @MapperScan("com.dlnu.index12306.biz.payservice.dao.mapper")
 @EnableFeignClients("com.dlnu.index12306.biz.payservice.remote")
 @EnableRetry
+@EnableScheduling
 public class PayServiceApplication {
 
     public static void main(String[] args) {
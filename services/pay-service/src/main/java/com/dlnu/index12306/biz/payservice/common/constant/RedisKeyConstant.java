@@ -26,4 +26,4 @@ public final class RedisKeyConstant {
      * 订单未支付临时存储信息
      */
     public static final String ORDER_PAY_RESULT_INFO = "index12306-pay-service:order_pay_result:";
-}
\ No newline at end of file
+}
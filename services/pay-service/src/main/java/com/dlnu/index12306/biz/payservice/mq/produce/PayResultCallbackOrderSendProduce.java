@@ -21,6 +21,7 @@ import cn.hutool.core.util.StrUtil;
 import com.dlnu.index12306.biz.payservice.common.constant.PayRocketMQConstant;
 import com.dlnu.index12306.biz.payservice.mq.domain.MessageWrapper;
 import com.dlnu.index12306.biz.payservice.mq.event.PayResultCallbackOrderEvent;
+import com.dlnu.index12306.framework.starter.outbox.core.MessageOutboxRelay;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.rocketmq.common.message.MessageConst;
 import org.apache.rocketmq.spring.core.RocketMQTemplate;
@@ -38,8 +39,8 @@ import java.util.UUID;
 @Component
 public class PayResultCallbackOrderSendProduce extends AbstractCommonSendProduceTemplate<PayResultCallbackOrderEvent> {
 
-    public PayResultCallbackOrderSendProduce(@Autowired RocketMQTemplate rocketMQTemplate) {
-        super(rocketMQTemplate);
+    public PayResultCallbackOrderSendProduce(@Autowired RocketMQTemplate rocketMQTemplate, @Autowired MessageOutboxRelay messageOutboxRelay) {
+        super(rocketMQTemplate, messageOutboxRelay);
     }
 
     @Override
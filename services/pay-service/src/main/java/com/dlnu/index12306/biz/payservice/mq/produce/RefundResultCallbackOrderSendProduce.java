@@ -20,6 +20,7 @@ package com.dlnu.index12306.biz.payservice.mq.produce;
 import cn.hutool.core.util.StrUtil;
 import com.dlnu.index12306.biz.payservice.mq.domain.MessageWrapper;
 import com.dlnu.index12306.biz.payservice.mq.event.RefundResultCallbackOrderEvent;
+import com.dlnu.index12306.framework.starter.outbox.core.MessageOutboxRelay;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.rocketmq.common.message.MessageConst;
 import org.apache.rocketmq.spring.core.RocketMQTemplate;
@@ -42,8 +43,8 @@ import static com.dlnu.index12306.biz.payservice.common.constant.PayRocketMQCons
 public class RefundResultCallbackOrderSendProduce extends AbstractCommonSendProduceTemplate<RefundResultCallbackOrderEvent> {
 
 
-    public RefundResultCallbackOrderSendProduce(@Autowired RocketMQTemplate rocketMQTemplate, @Autowired ConfigurableEnvironment environment) {
-        super(rocketMQTemplate);
+    public RefundResultCallbackOrderSendProduce(@Autowired RocketMQTemplate rocketMQTemplate, @Autowired MessageOutboxRelay messageOutboxRelay, @Autowired ConfigurableEnvironment environment) {
+        super(rocketMQTemplate, messageOutboxRelay);
     }
 
     @Override
@@ -94,7 +94,7 @@ public class PayServiceImpl implements PayService {
         }
         // 交易成功，回调订单服务告知支付结果，修改订单流转状态
         if (Objects.equals(requestParam.getStatus(), TradeStatusEnum.TRADE_SUCCESS.tradeCode())) {
-            payResultCallbackOrderSendProduce.sendMessage(BeanUtil.convert(payDO, PayResultCallbackOrderEvent.class));
+            payResultCallbackOrderSendProduce.saveMessage(BeanUtil.convert(payDO, PayResultCallbackOrderEvent.class));
         }
     }
 
@@ -94,7 +94,7 @@ public class RefundServiceImpl implements RefundService {
                     .refundTypeEnum(requestParam.getRefundTypeEnum())
                     .partialRefundTicketDetailList(requestParam.getRefundDetailReqDTOList())
                     .build();
-            refundResultCallbackOrderSendProduce.sendMessage(refundResultCallbackOrderEvent);
+            refundResultCallbackOrderSendProduce.saveMessage(refundResultCallbackOrderEvent);
         }
         //TODO 暂时返回空实体
         return refundRespDTO;
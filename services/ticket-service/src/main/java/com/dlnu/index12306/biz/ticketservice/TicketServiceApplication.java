@@ -22,11 +22,13 @@ import org.mybatis.spring.annotation.MapperScan;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.cloud.openfeign.EnableFeignClients;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 /**
  * 购票服务应用启动器
  */
 @SpringBootApplication
+@EnableScheduling
 @EnableDynamicThreadPool
 @MapperScan("com.dlnu.index12306.biz.ticketservice.dao.mapper")
 @EnableFeignClients("com.dlnu.index12306.biz.ticketservice.remote")
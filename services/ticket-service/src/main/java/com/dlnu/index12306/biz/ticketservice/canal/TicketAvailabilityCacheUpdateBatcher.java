@@ -0,0 +1,185 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dlnu.index12306.biz.ticketservice.canal;
+
+import com.dlnu.index12306.biz.ticketservice.service.cache.TicketQueryReadModel;
+import com.dlnu.index12306.framework.starter.bases.Singleton;
+import com.dlnu.index12306.framework.starter.cache.DistributedCache;
+import com.dlnu.index12306.framework.starter.common.threadpool.build.ThreadFactoryBuilder;
+import com.dlnu.index12306.framework.starter.convention.exception.ServiceException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.scripting.support.ResourceScriptSource;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 列车余票缓存增量合并写入组件
+ * 同一时间窗口内多条 Canal 消息的余票增量合并后通过一次 Lua 脚本原子写入 Redis，消费线程等待所在批次写入完成后返回，保证消息确认前增量已生效
+ * 一次脚本调用涉及多个站点区间的余票 Key，要求余票缓存部署在单节点 Redis（或主从/哨兵），Redis Cluster 下会因 CROSSSLOT 拒绝执行
+ */
+@Component
+@RequiredArgsConstructor
+public class TicketAvailabilityCacheUpdateBatcher implements DisposableBean {
+
+    private static final String LUA_TICKET_AVAILABILITY_CACHE_INCREMENT_PATH = "lua/ticket_availability_cache_increment.lua";
+
+    private final DistributedCache distributedCache;
+    private final TicketQueryReadModel ticketQueryReadModel;
+
+    private final ScheduledExecutorService flushExecutor = Executors.newSingleThreadScheduledExecutor(
+            ThreadFactoryBuilder.builder().prefix("ticket-availability-cache-flush").daemon(true).build()
+    );
+
+    /**
+     * 合并时间窗口，小于等于 0 时每条消息单独通过 Lua 脚本写入
+     */
+    @Value("${ticket.availability.cache-update.batch-window-millis:20}")
+    private long batchWindowMillis;
+
+    /**
+     * 等待批次写入的超时时间，应大于 Redis 命令超时时间，超时后消息消费失败由 MQ 重试投递
+     */
+    @Value("${ticket.availability.cache-update.flush-timeout-millis:5000}")
+    private long flushTimeoutMillis;
+
+    private PendingBatch currentBatch;
+
+    /**
+     * 写入余票增量，返回时增量已写入 Redis
+     *
+     * @param cacheChangeKeyMap 余票缓存 Key -> 座位类型 -> 增量
+     */
+    public void increment(Map<String, Map<Integer, Integer>> cacheChangeKeyMap) {
+        if (batchWindowMillis <= 0) {
+            incrementAtomically(cacheChangeKeyMap);
+            return;
+        }
+        PendingBatch batch;
+        synchronized (this) {
+            if (currentBatch == null) {
+                PendingBatch newBatch = new PendingBatch();
+                flushExecutor.schedule(() -> flush(newBatch), batchWindowMillis, TimeUnit.MILLISECONDS);
+                currentBatch = newBatch;
+            }
+            batch = currentBatch;
+            batch.merge(cacheChangeKeyMap);
+        }
+        // 批次写入失败或超时时抛出异常，由 MQ 重试投递
+        awaitFlush(batch);
+    }
+
+    private void awaitFlush(PendingBatch batch) {
+        try {
+            batch.future.get(flushTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException ex) {
+            throw ex.getCause() instanceof RuntimeException runtimeException ? runtimeException : new ServiceException("列车余票缓存更新失败");
+        } catch (TimeoutException ex) {
+            // 批次尚未开始写入时直接作废，避免重试投递后增量被重复累加
+            if (batch.started.compareAndSet(false, true)) {
+                batch.future.completeExceptionally(new ServiceException("列车余票缓存更新超时"));
+            }
+            throw new ServiceException("列车余票缓存更新超时");
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            if (batch.started.compareAndSet(false, true)) {
+                batch.future.completeExceptionally(new ServiceException("列车余票缓存更新中断"));
+            }
+            throw new ServiceException("列车余票缓存更新中断");
+        }
+    }
+
+    private void flush(PendingBatch batch) {
+        synchronized (this) {
+            if (currentBatch == batch) {
+                currentBatch = null;
+            }
+        }
+        if (!batch.started.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            incrementAtomically(batch.cacheChangeKeyMap);
+            batch.future.complete(null);
+        } catch (Throwable ex) {
+            batch.future.completeExceptionally(ex);
+        }
+    }
+
+    private void incrementAtomically(Map<String, Map<Integer, Integer>> cacheChangeKeyMap) {
+        List<String> keys = new ArrayList<>();
+        List<String> args = new ArrayList<>();
+        cacheChangeKeyMap.forEach((cacheKey, cacheVal) -> cacheVal.forEach((seatType, num) -> {
+            if (num != 0) {
+                keys.add(cacheKey);
+                args.add(String.valueOf(seatType));
+                args.add(String.valueOf(num));
+            }
+        }));
+        if (!keys.isEmpty()) {
+            DefaultRedisScript<Long> actual = Singleton.get(LUA_TICKET_AVAILABILITY_CACHE_INCREMENT_PATH, () -> {
+                DefaultRedisScript<Long> redisScript = new DefaultRedisScript<>();
+                redisScript.setScriptSource(new ResourceScriptSource(new ClassPathResource(LUA_TICKET_AVAILABILITY_CACHE_INCREMENT_PATH)));
+                redisScript.setResultType(Long.class);
+                return redisScript;
+            });
+            StringRedisTemplate stringRedisTemplate = (StringRedisTemplate) distributedCache.getInstance();
+            stringRedisTemplate.execute(actual, keys, args.toArray());
+        }
+        ticketQueryReadModel.publishRemainingTicketDeltas(cacheChangeKeyMap);
+    }
+
+    @Override
+    public void destroy() {
+        flushExecutor.shutdown();
+    }
+
+    private static class PendingBatch {
+
+        private final Map<String, Map<Integer, Integer>> cacheChangeKeyMap = new HashMap<>();
+
+        private final CompletableFuture<Void> future = new CompletableFuture<>();
+
+        /**
+         * 批次是否已开始写入或已被超时的消费线程作废
+         */
+        private final AtomicBoolean started = new AtomicBoolean(false);
+
+        private void merge(Map<String, Map<Integer, Integer>> changes) {
+            changes.forEach((cacheKey, cacheVal) -> {
+                Map<Integer, Integer> seatTypeMap = cacheChangeKeyMap.computeIfAbsent(cacheKey, key -> new HashMap<>());
+                cacheVal.forEach((seatType, num) -> seatTypeMap.merge(seatType, num, Integer::sum));
+            });
+        }
+    }
+}
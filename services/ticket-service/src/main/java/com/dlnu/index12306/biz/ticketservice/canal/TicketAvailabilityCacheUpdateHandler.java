@@ -22,10 +22,9 @@ import cn.hutool.core.util.StrUtil;
 import com.dlnu.index12306.biz.ticketservice.common.enums.CanalExecuteStrategyMarkEnum;
 import com.dlnu.index12306.biz.ticketservice.common.enums.SeatStatusEnum;
 import com.dlnu.index12306.biz.ticketservice.mq.event.CanalBinlogEvent;
-import com.dlnu.index12306.framework.starter.cache.DistributedCache;
+import com.dlnu.index12306.biz.ticketservice.service.handler.ticket.tokenbucket.TicketAvailabilityTokenBucketReconciler;
 import com.dlnu.index12306.framework.starter.designpattern.strategy.AbstractExecuteStrategy;
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.stereotype.Component;
 
 import java.util.*;
@@ -40,7 +39,8 @@ import static com.dlnu.index12306.biz.ticketservice.common.constant.RedisKeyCons
 @RequiredArgsConstructor
 public class TicketAvailabilityCacheUpdateHandler implements AbstractExecuteStrategy<CanalBinlogEvent, Void> {
 
-    private final DistributedCache distributedCache;
+    private final TicketAvailabilityCacheUpdateBatcher ticketAvailabilityCacheUpdateBatcher;
+    private final TicketAvailabilityTokenBucketReconciler ticketAvailabilityTokenBucketReconciler;
 
     @Override
     public void execute(CanalBinlogEvent message) {
@@ -76,8 +76,10 @@ public class TicketAvailabilityCacheUpdateHandler implements AbstractExecuteStra
             seatTypeMap.put(seatType, num == null ? increment : num + increment);
             cacheChangeKeyMap.put(hashCacheKey, seatTypeMap);
         }
-        StringRedisTemplate instance = (StringRedisTemplate) distributedCache.getInstance();
-        cacheChangeKeyMap.forEach((cacheKey, cacheVal) -> cacheVal.forEach((seatType, num) -> instance.opsForHash().increment(cacheKey, String.valueOf(seatType), num)));
+        // 合并同一时间窗口内的增量后通过一次 Lua 脚本原子写入，避免逐个 HINCRBY 往返
+        ticketAvailabilityCacheUpdateBatcher.increment(cacheChangeKeyMap);
+        // 余票缓存已生效，按本次变更的站点区间和座位类型校准令牌不足的列车
+        ticketAvailabilityTokenBucketReconciler.reconcile(cacheChangeKeyMap);
     }
 
     @Override
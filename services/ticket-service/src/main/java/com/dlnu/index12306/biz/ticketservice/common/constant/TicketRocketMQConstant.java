@@ -47,6 +47,11 @@ public final class TicketRocketMQConstant {
      */
     public static final String CANAL_COMMON_SYNC_CG_KEY = "index12306_canal_ticket-service_common-sync_cg";
 
+    /**
+     * Canal 监听数据库变更同步本地缓存消费者组 Key，广播模式消费
+     */
+    public static final String CANAL_LOCAL_CACHE_SYNC_CG_KEY = "index12306_canal_ticket-service_local-cache-sync_cg";
+
     /**
      * 支付服务相关业务 Topic Key
      */
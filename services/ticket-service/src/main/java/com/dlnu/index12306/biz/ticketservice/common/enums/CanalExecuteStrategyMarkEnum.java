@@ -19,7 +19,6 @@ package com.dlnu.index12306.biz.ticketservice.common.enums;
 
 import cn.hutool.core.util.StrUtil;
 import lombok.Getter;
-import lombok.RequiredArgsConstructor;
 
 import java.util.Arrays;
 import java.util.Objects;
@@ -28,7 +27,6 @@ import java.util.regex.Pattern;
 /**
  * Canal 执行策略标记枚举
  */
-@RequiredArgsConstructor
 public enum CanalExecuteStrategyMarkEnum {
 
     /**
@@ -36,20 +34,42 @@ public enum CanalExecuteStrategyMarkEnum {
      */
     T_SEAT("t_seat", null),
 
+    /**
+     * 列车站点表
+     */
+    T_TRAIN_STATION("t_train_station", null),
+
     /**
      * 订单表
      */
     T_ORDER("t_order", "^t_order_([0-9]+|1[0-6])");
 
+    private static final CanalExecuteStrategyMarkEnum[] VALUES = values();
+
     @Getter
     private final String actualTable;
 
     @Getter
     private final String patternMatchTable;
 
+    /**
+     * 预编译的范匹配表名正则，没有范匹配表名时为空
+     */
+    private final Pattern patternMatchTablePattern;
+
+    CanalExecuteStrategyMarkEnum(String actualTable, String patternMatchTable) {
+        this.actualTable = actualTable;
+        this.patternMatchTable = patternMatchTable;
+        this.patternMatchTablePattern = StrUtil.isNotBlank(patternMatchTable) ? Pattern.compile(patternMatchTable) : null;
+    }
+
     public static boolean isPatternMatch(String tableName) {
-        return Arrays.stream(CanalExecuteStrategyMarkEnum.values())
-                .anyMatch(each -> StrUtil.isNotBlank(each.getPatternMatchTable()) && Pattern.compile(each.getPatternMatchTable()).matcher(tableName).matches());
+        for (CanalExecuteStrategyMarkEnum each : VALUES) {
+            if (each.patternMatchTablePattern != null && each.patternMatchTablePattern.matcher(tableName).matches()) {
+                return true;
+            }
+        }
+        return false;
     }
 
     public static String getPatternMatch(String tableName) {
@@ -0,0 +1,114 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dlnu.index12306.biz.ticketservice.common.enums;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * 车厢座位布局
+ * 座位号格式为 两位排号 + 列字母，例如 01A
+ */
+@RequiredArgsConstructor
+public enum CarriageSeatLayoutEnum {
+
+    /**
+     * 复兴号-商务座 2排3列
+     */
+    BUSINESS_CLASS(VehicleSeatTypeEnum.BUSINESS_CLASS.getCode(), 2, "ACF"),
+
+    /**
+     * 复兴号-一等座 7排4列
+     */
+    FIRST_CLASS(VehicleSeatTypeEnum.FIRST_CLASS.getCode(), 7, "ACDF"),
+
+    /**
+     * 复兴号-二等座 18排5列
+     */
+    SECOND_CLASS(VehicleSeatTypeEnum.SECOND_CLASS.getCode(), 18, "ABCDF");
+
+    @Getter
+    private final Integer seatType;
+
+    @Getter
+    private final int rows;
+
+    /**
+     * 每一列对应的座位字母
+     */
+    private final String columnLetters;
+
+    public int getColumns() {
+        return columnLetters.length();
+    }
+
+    /**
+     * 车厢座位总数
+     */
+    public int getSeatCount() {
+        return rows * getColumns();
+    }
+
+    /**
+     * 将座位号转换为车厢内座位下标，下标 = (排 - 1) * 列数 + 列
+     *
+     * @param seatNumber 座位号，例如 01A
+     * @return 座位下标，无法识别返回 -1
+     */
+    public int seatIndex(String seatNumber) {
+        if (seatNumber == null || seatNumber.length() < 2) {
+            return -1;
+        }
+        int column = columnLetters.indexOf(seatNumber.charAt(seatNumber.length() - 1));
+        int row;
+        try {
+            row = Integer.parseInt(seatNumber.substring(0, seatNumber.length() - 1));
+        } catch (NumberFormatException ignored) {
+            return -1;
+        }
+        if (column < 0 || row < 1 || row > rows) {
+            return -1;
+        }
+        return (row - 1) * getColumns() + column;
+    }
+
+    /**
+     * 将座位下标转换为座位号
+     *
+     * @param seatIndex 座位下标
+     * @return 座位号，例如 01A
+     */
+    public String seatNumber(int seatIndex) {
+        int row = seatIndex / getColumns() + 1;
+        char column = columnLetters.charAt(seatIndex % getColumns());
+        return (row < 10 ? "0" + row : String.valueOf(row)) + column;
+    }
+
+    /**
+     * 根据座位类型查找车厢座位布局
+     */
+    public static CarriageSeatLayoutEnum findBySeatType(Integer seatType) {
+        return Arrays.stream(CarriageSeatLayoutEnum.values())
+                .filter(each -> Objects.equals(each.getSeatType(), seatType))
+                .findFirst()
+                .orElse(null);
+    }
+}
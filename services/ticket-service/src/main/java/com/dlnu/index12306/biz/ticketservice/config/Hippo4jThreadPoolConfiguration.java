@@ -20,9 +20,15 @@ package com.dlnu.index12306.biz.ticketservice.config;
 import cn.hippo4j.common.executor.support.BlockingQueueTypeEnum;
 import cn.hippo4j.core.executor.DynamicThreadPool;
 import cn.hippo4j.core.executor.support.ThreadPoolBuilder;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.util.concurrent.RejectedExecutionHandler;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 
@@ -33,23 +39,40 @@ import java.util.concurrent.TimeUnit;
 @Configuration
 public class Hippo4jThreadPoolConfiguration {
 
+    private static final String SELECT_SEAT_THREAD_POOL_ID = "select-seat-thread-pool-executor";
+
     /**
      * 分配一个用户购买不同类型车票的线程池
      */
     @Bean
     @DynamicThreadPool
-    public ThreadPoolExecutor selectSeatThreadPoolExecutor() {
-        String threadPoolId = "select-seat-thread-pool-executor";
+    public ThreadPoolExecutor selectSeatThreadPoolExecutor(MeterRegistry meterRegistry) {
+        // 拒绝时由调用线程执行，同时统计拒绝次数
+        Counter rejectedCounter = Counter.builder("executor.rejected")
+                .tag("name", SELECT_SEAT_THREAD_POOL_ID)
+                .register(meterRegistry);
+        RejectedExecutionHandler callerRunsPolicy = new ThreadPoolExecutor.CallerRunsPolicy();
         return ThreadPoolBuilder.builder()
-                .threadPoolId(threadPoolId)
-                .threadFactory(threadPoolId)
+                .threadPoolId(SELECT_SEAT_THREAD_POOL_ID)
+                .threadFactory(SELECT_SEAT_THREAD_POOL_ID)
                 .workQueue(BlockingQueueTypeEnum.SYNCHRONOUS_QUEUE)
                 .corePoolSize(24)
                 .maximumPoolSize(36)
                 .allowCoreThreadTimeOut(true)
                 .keepAliveTime(60, TimeUnit.MINUTES)
-                .rejected(new ThreadPoolExecutor.CallerRunsPolicy())
+                .rejected((runnable, executor) -> {
+                    rejectedCounter.increment();
+                    callerRunsPolicy.rejectedExecution(runnable, executor);
+                })
                 .dynamicPool()
                 .build();
     }
+
+    /**
+     * 选座线程池的线程数、队列长度及任务完成数指标
+     */
+    @Bean
+    public MeterBinder selectSeatThreadPoolMetrics(ThreadPoolExecutor selectSeatThreadPoolExecutor) {
+        return new ExecutorServiceMetrics(selectSeatThreadPoolExecutor, SELECT_SEAT_THREAD_POOL_ID, Tags.empty());
+    }
 }
\ No newline at end of file
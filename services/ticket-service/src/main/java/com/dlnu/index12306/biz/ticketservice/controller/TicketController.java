@@ -49,7 +49,7 @@ public class TicketController {
      */
     @GetMapping("/api/ticket-service/ticket/query")
     public Result<TicketPageQueryRespDTO> pageListTicketQuery(TicketPageQueryReqDTO requestParam) {
-        return Results.success(ticketService.pageListTicketQueryV1(requestParam));
+        return Results.success(ticketService.pageListTicketQueryV2(requestParam));
     }
 
     /**
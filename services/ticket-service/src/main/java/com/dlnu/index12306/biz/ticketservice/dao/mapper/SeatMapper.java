@@ -19,6 +19,8 @@ package com.dlnu.index12306.biz.ticketservice.dao.mapper;
 
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.dlnu.index12306.biz.ticketservice.dao.entity.SeatDO;
+import com.dlnu.index12306.biz.ticketservice.dto.domain.RouteDTO;
+import com.dlnu.index12306.biz.ticketservice.dto.domain.RouteSeatTypeCountDTO;
 import com.dlnu.index12306.biz.ticketservice.dto.domain.SeatTypeCountDTO;
 import org.apache.ibatis.annotations.Param;
 
@@ -38,4 +40,23 @@ public interface SeatMapper extends BaseMapper<SeatDO> {
      * 获取列车 startStation 到 endStation 区间可用座位集合
      */
     List<SeatTypeCountDTO> listSeatTypeCount(@Param("trainId") Long trainId, @Param("startStation") String startStation, @Param("endStation") String endStation, @Param("seatTypes") List<Integer> seatTypes);
+
+    /**
+     * 一次聚合获取列车全部站点区间各座位类型的可用座位数量
+     */
+    List<RouteSeatTypeCountDTO> listRouteSeatTypeCount(@Param("trainId") Long trainId, @Param("seatTypes") List<Integer> seatTypes);
+
+    /**
+     * 获取列车相邻站点区间的座位状态集合
+     */
+    List<SeatDO> listSeatSegmentStatus(@Param("trainId") Long trainId, @Param("routes") List<RouteDTO> routes);
+
+    /**
+     * 批量修改座位在多个站点区间的状态，expectSeatStatus 不为空时仅修改处于该状态的记录
+     */
+    int updateSeatStatusBatch(@Param("trainId") Long trainId,
+                              @Param("seats") List<SeatDO> seats,
+                              @Param("routes") List<RouteDTO> routes,
+                              @Param("seatStatus") Integer seatStatus,
+                              @Param("expectSeatStatus") Integer expectSeatStatus);
 }
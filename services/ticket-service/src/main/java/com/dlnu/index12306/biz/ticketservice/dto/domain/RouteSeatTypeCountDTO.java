@@ -0,0 +1,51 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dlnu.index12306.biz.ticketservice.dto.domain;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 站点区间座位类型和可用座位数量实体
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RouteSeatTypeCountDTO {
+
+    /**
+     * 开始站点
+     */
+    private String startStation;
+
+    /**
+     * 结束站点
+     */
+    private String endStation;
+
+    /**
+     * 座位类型
+     */
+    private Integer seatType;
+
+    /**
+     * 座位类型 - 对应可用数量
+     */
+    private Integer seatCount;
+}
@@ -0,0 +1,114 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dlnu.index12306.biz.ticketservice.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 购票服务耗时指标，覆盖本地锁等待时间、分布式锁等待与持有时间以及令牌桶 Lua 脚本执行时间
+ * 指标在启动时注册，调用方通过 {@link System#nanoTime()} 记录起始时间，记录时不产生额外对象分配
+ */
+@Component
+public class TicketServiceMetrics {
+
+    private static final String LOCK_WAIT = "ticket.lock.wait";
+    private static final String LOCK_HOLD = "ticket.lock.hold";
+    private static final String TOKEN_BUCKET_SCRIPT = "ticket.token.bucket.script";
+
+    private final Timer purchaseLocalLockWait;
+    private final Timer purchaseLockWait;
+    private final Timer purchaseLockHold;
+    private final Timer seatMarginLockWait;
+    private final Timer seatMarginLockHold;
+    private final Timer takeTokenScript;
+    private final Timer rollbackTokenScript;
+
+    public TicketServiceMetrics(MeterRegistry meterRegistry) {
+        this.purchaseLocalLockWait = buildTimer(meterRegistry, LOCK_WAIT, "lock", "purchase_tickets_v2_local");
+        this.purchaseLockWait = buildTimer(meterRegistry, LOCK_WAIT, "lock", "purchase_tickets_v2");
+        this.purchaseLockHold = buildTimer(meterRegistry, LOCK_HOLD, "lock", "purchase_tickets_v2");
+        this.seatMarginLockWait = buildTimer(meterRegistry, LOCK_WAIT, "lock", "seat_margin_load");
+        this.seatMarginLockHold = buildTimer(meterRegistry, LOCK_HOLD, "lock", "seat_margin_load");
+        this.takeTokenScript = buildTimer(meterRegistry, TOKEN_BUCKET_SCRIPT, "script", "take");
+        this.rollbackTokenScript = buildTimer(meterRegistry, TOKEN_BUCKET_SCRIPT, "script", "rollback");
+    }
+
+    /**
+     * 记录 V2 购票本地分段锁等待时间
+     */
+    public void recordPurchaseLocalLockWait(long startNanos) {
+        record(purchaseLocalLockWait, startNanos);
+    }
+
+    /**
+     * 记录 V2 购票分布式锁等待时间
+     */
+    public void recordPurchaseLockWait(long startNanos) {
+        record(purchaseLockWait, startNanos);
+    }
+
+    /**
+     * 记录 V2 购票分布式锁持有时间
+     */
+    public void recordPurchaseLockHold(long startNanos) {
+        record(purchaseLockHold, startNanos);
+    }
+
+    /**
+     * 记录座位余量缓存加载分布式锁等待时间
+     */
+    public void recordSeatMarginLockWait(long startNanos) {
+        record(seatMarginLockWait, startNanos);
+    }
+
+    /**
+     * 记录座位余量缓存加载分布式锁持有时间
+     */
+    public void recordSeatMarginLockHold(long startNanos) {
+        record(seatMarginLockHold, startNanos);
+    }
+
+    /**
+     * 记录令牌桶扣减 Lua 脚本执行时间
+     */
+    public void recordTakeTokenScript(long startNanos) {
+        record(takeTokenScript, startNanos);
+    }
+
+    /**
+     * 记录令牌桶回滚 Lua 脚本执行时间
+     */
+    public void recordRollbackTokenScript(long startNanos) {
+        record(rollbackTokenScript, startNanos);
+    }
+
+    private static void record(Timer timer, long startNanos) {
+        timer.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    private static Timer buildTimer(MeterRegistry meterRegistry, String name, String tagKey, String tagValue) {
+        return Timer.builder(name)
+                .tag(tagKey, tagValue)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+}
@@ -67,10 +67,15 @@ public class CanalCommonSyncBinlogConsumer implements RocketMQListener<CanalBinl
                 || !StrUtil.equals(ticketAvailabilityCacheUpdateType, "binlog")) {
             return;
         }
+        boolean patternMatch = CanalExecuteStrategyMarkEnum.isPatternMatch(message.getTable());
+        // 列车站点表等仅由本地缓存同步消费者处理的表没有注册策略，直接跳过，避免抛出异常导致消息反复重试
+        if (!abstractStrategyChoose.contains(message.getTable(), patternMatch)) {
+            return;
+        }
         abstractStrategyChoose.chooseAndExecute(
                 message.getTable(),
                 message,
-                CanalExecuteStrategyMarkEnum.isPatternMatch(message.getTable())
+                patternMatch
         );
     }
 }
\ No newline at end of file
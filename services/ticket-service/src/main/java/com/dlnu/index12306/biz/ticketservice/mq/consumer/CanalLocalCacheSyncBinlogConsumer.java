@@ -0,0 +1,102 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dlnu.index12306.biz.ticketservice.mq.consumer;
+
+import cn.hutool.core.collection.CollUtil;
+import cn.hutool.core.util.StrUtil;
+import com.dlnu.index12306.biz.ticketservice.common.constant.TicketRocketMQConstant;
+import com.dlnu.index12306.biz.ticketservice.common.enums.CanalExecuteStrategyMarkEnum;
+import com.dlnu.index12306.biz.ticketservice.dao.entity.SeatDO;
+import com.dlnu.index12306.biz.ticketservice.mq.event.CanalBinlogEvent;
+import com.dlnu.index12306.biz.ticketservice.service.TrainStationService;
+import com.dlnu.index12306.biz.ticketservice.service.handler.ticket.inventory.SeatInventoryManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.rocketmq.spring.annotation.MessageModel;
+import org.apache.rocketmq.spring.annotation.RocketMQMessageListener;
+import org.apache.rocketmq.spring.core.RocketMQListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Canal Binlog 同步本地缓存消费者
+ * 本地缓存存在于每个购票服务实例中，所以采用广播模式消费，保证每个实例都能收到变更
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@RocketMQMessageListener(
+        topic = TicketRocketMQConstant.CANAL_COMMON_SYNC_TOPIC_KEY,
+        consumerGroup = TicketRocketMQConstant.CANAL_LOCAL_CACHE_SYNC_CG_KEY,
+        messageModel = MessageModel.BROADCASTING
+)
+public class CanalLocalCacheSyncBinlogConsumer implements RocketMQListener<CanalBinlogEvent> {
+
+    private final TrainStationService trainStationService;
+    private final SeatInventoryManager seatInventoryManager;
+
+    @Override
+    public void onMessage(CanalBinlogEvent message) {
+        // 本地缓存与余票缓存更新方式无关，无论是否采用 Binlog 更新余票缓存都需要同步
+        if (message.getIsDdl() || CollUtil.isEmpty(message.getData())) {
+            return;
+        }
+        if (Objects.equals(message.getTable(), CanalExecuteStrategyMarkEnum.T_TRAIN_STATION.getActualTable())) {
+            // 列车站点发生变更，站点路线表以及依赖站点顺序的座位库存都需要重新加载
+            message.getData().stream()
+                    .map(each -> each.get("train_id"))
+                    .filter(Objects::nonNull)
+                    .map(Object::toString)
+                    .distinct()
+                    .forEach(trainId -> {
+                        trainStationService.invalidateTrainStationRouteTable(trainId);
+                        seatInventoryManager.invalidate(trainId);
+                    });
+        } else if (Objects.equals(message.getTable(), CanalExecuteStrategyMarkEnum.T_SEAT.getActualTable())
+                && Objects.equals("UPDATE", message.getType())
+                && CollUtil.isNotEmpty(message.getOld())) {
+            refreshSeatStatus(message.getData(), message.getOld());
+        }
+    }
+
+    private void refreshSeatStatus(List<Map<String, Object>> dataList, List<Map<String, Object>> oldList) {
+        List<SeatDO> seatDOList = new ArrayList<>(oldList.size());
+        for (int i = 0; i < oldList.size(); i++) {
+            Map<String, Object> oldDataMap = oldList.get(i);
+            if (oldDataMap.get("seat_status") == null || StrUtil.isBlank(oldDataMap.get("seat_status").toString())) {
+                continue;
+            }
+            Map<String, Object> each = dataList.get(i);
+            seatDOList.add(SeatDO.builder()
+                    .trainId(Long.parseLong(each.get("train_id").toString()))
+                    .carriageNumber(each.get("carriage_number").toString())
+                    .seatNumber(each.get("seat_number").toString())
+                    .startStation(each.get("start_station").toString())
+                    .endStation(each.get("end_station").toString())
+                    .seatStatus(Integer.parseInt(each.get("seat_status").toString()))
+                    .build());
+        }
+        if (!seatDOList.isEmpty()) {
+            seatInventoryManager.refreshSeatStatus(seatDOList);
+        }
+    }
+}
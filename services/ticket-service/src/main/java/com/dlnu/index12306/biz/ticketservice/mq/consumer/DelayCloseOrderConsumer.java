@@ -29,6 +29,7 @@ import com.dlnu.index12306.biz.ticketservice.remote.dto.TicketOrderDetailRespDTO
 import com.dlnu.index12306.biz.ticketservice.remote.dto.TicketOrderPassengerDetailRespDTO;
 import com.dlnu.index12306.biz.ticketservice.service.SeatService;
 import com.dlnu.index12306.biz.ticketservice.service.TrainStationService;
+import com.dlnu.index12306.biz.ticketservice.service.cache.TicketQueryReadModel;
 import com.dlnu.index12306.biz.ticketservice.service.handler.ticket.dto.TrainPurchaseTicketRespDTO;
 import com.dlnu.index12306.biz.ticketservice.service.handler.ticket.tokenbucket.TicketAvailabilityTokenBucket;
 import com.dlnu.index12306.framework.starter.cache.DistributedCache;
@@ -45,6 +46,7 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.stereotype.Component;
 
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
@@ -70,6 +72,7 @@ public class DelayCloseOrderConsumer implements RocketMQListener<MessageWrapper<
     private final TrainStationService trainStationService;
     private final DistributedCache distributedCache;
     private final TicketAvailabilityTokenBucket ticketAvailabilityTokenBucket;
+    private final TicketQueryReadModel ticketQueryReadModel;
 
     @Value("${ticket.availability.cache-update.type:}")
     private String ticketAvailabilityCacheUpdateType;
@@ -116,13 +119,17 @@ public class DelayCloseOrderConsumer implements RocketMQListener<MessageWrapper<
                         .collect(Collectors.groupingBy(TrainPurchaseTicketRespDTO::getSeatType));
                 // 恢复缓存车票余量
                 List<RouteDTO> routeDTOList = trainStationService.listTakeoutTrainStationRoute(trainId, departure, arrival);
+                Map<String, Map<Integer, Integer>> remainingTicketDeltaMap = new HashMap<>(routeDTOList.size());
                 routeDTOList.forEach(each -> {
                     String keySuffix = StrUtil.join(StrUtil.UNDERLINE, trainId, each.getStartStation(), each.getEndStation());
+                    Map<Integer, Integer> seatTypeDeltaMap = remainingTicketDeltaMap.computeIfAbsent(TRAIN_STATION_REMAINING_TICKET + keySuffix, key -> new HashMap<>());
                     seatTypeMap.forEach((seatType, trainPurchaseTicketRespDTOList) -> {
                         stringRedisTemplate.opsForHash()
                                 .increment(TRAIN_STATION_REMAINING_TICKET + keySuffix, String.valueOf(seatType), trainPurchaseTicketRespDTOList.size());
+                        seatTypeDeltaMap.put(seatType, trainPurchaseTicketRespDTOList.size());
                     });
                 });
+                ticketQueryReadModel.publishRemainingTicketDeltas(remainingTicketDeltaMap);
                 // 回滚令牌桶余量
                 TicketOrderDetailRespDTO ticketOrderDetail = BeanUtil.convert(delayCloseOrderEvent, TicketOrderDetailRespDTO.class);
                 ticketOrderDetail.setPassengerDetails(BeanUtil.convert(delayCloseOrderEvent.getTrainPurchaseTicketResults(), TicketOrderPassengerDetailRespDTO.class));
@@ -17,17 +17,15 @@
 
 package com.dlnu.index12306.biz.ticketservice.mq.consumer;
 
-import com.baomidou.mybatisplus.core.conditions.update.LambdaUpdateWrapper;
-import com.baomidou.mybatisplus.core.toolkit.Wrappers;
 import com.dlnu.index12306.biz.ticketservice.common.constant.TicketRocketMQConstant;
 import com.dlnu.index12306.biz.ticketservice.common.enums.SeatStatusEnum;
 import com.dlnu.index12306.biz.ticketservice.dao.entity.SeatDO;
 import com.dlnu.index12306.biz.ticketservice.dao.mapper.SeatMapper;
+import com.dlnu.index12306.biz.ticketservice.dto.domain.RouteDTO;
 import com.dlnu.index12306.biz.ticketservice.mq.domain.MessageWrapper;
 import com.dlnu.index12306.biz.ticketservice.mq.event.PayResultCallbackTicketEvent;
 import com.dlnu.index12306.biz.ticketservice.remote.TicketOrderRemoteService;
 import com.dlnu.index12306.biz.ticketservice.remote.dto.TicketOrderDetailRespDTO;
-import com.dlnu.index12306.biz.ticketservice.remote.dto.TicketOrderPassengerDetailRespDTO;
 import com.dlnu.index12306.framework.starter.convention.exception.ServiceException;
 import com.dlnu.index12306.framework.starter.convention.result.Result;
 import com.dlnu.index12306.framework.starter.idempotent.annotation.Idempotent;
@@ -40,7 +38,10 @@ import org.apache.rocketmq.spring.core.RocketMQListener;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collections;
+import java.util.List;
 import java.util.Objects;
+import java.util.stream.Collectors;
 
 /**
  * 支付结果回调购票消费者
@@ -79,17 +80,18 @@ public class PayResultCallbackTicketConsumer implements RocketMQListener<Message
             throw ex;
         }
         TicketOrderDetailRespDTO ticketOrderDetail = ticketOrderDetailResult.getData();
-        for (TicketOrderPassengerDetailRespDTO each : ticketOrderDetail.getPassengerDetails()) {
-            LambdaUpdateWrapper<SeatDO> updateWrapper = Wrappers.lambdaUpdate(SeatDO.class)
-                    .eq(SeatDO::getTrainId, ticketOrderDetail.getTrainId())
-                    .eq(SeatDO::getCarriageNumber, each.getCarriageNumber())
-                    .eq(SeatDO::getSeatNumber, each.getSeatNumber())
-                    .eq(SeatDO::getSeatType, each.getSeatType())
-                    .eq(SeatDO::getStartStation, ticketOrderDetail.getDeparture())
-                    .eq(SeatDO::getEndStation, ticketOrderDetail.getArrival());
-            SeatDO updateSeatDO = new SeatDO();
-            updateSeatDO.setSeatStatus(SeatStatusEnum.SOLD.getCode());
-            seatMapper.update(updateSeatDO, updateWrapper);
-        }
+        List<SeatDO> seats = ticketOrderDetail.getPassengerDetails().stream()
+                .map(each -> SeatDO.builder()
+                        .carriageNumber(each.getCarriageNumber())
+                        .seatNumber(each.getSeatNumber())
+                        .build())
+                .collect(Collectors.toList());
+        // 一条语句将乘车人出发站到到达站的座位全部修改为已售
+        seatMapper.updateSeatStatusBatch(
+                ticketOrderDetail.getTrainId(),
+                seats,
+                Collections.singletonList(new RouteDTO(ticketOrderDetail.getDeparture(), ticketOrderDetail.getArrival())),
+                SeatStatusEnum.SOLD.getCode(),
+                null);
     }
-}
\ No newline at end of file
+}
@@ -19,6 +19,7 @@ package com.dlnu.index12306.biz.ticketservice.service;
 
 import com.dlnu.index12306.biz.ticketservice.dto.domain.RouteDTO;
 import com.dlnu.index12306.biz.ticketservice.dto.resp.TrainStationQueryRespDTO;
+import com.dlnu.index12306.biz.ticketservice.toolkit.TrainStationRouteTable;
 
 import java.util.List;
 
@@ -56,4 +57,19 @@ public interface TrainStationService {
      * @return 需扣减列车站点路线关系信息
      */
     List<RouteDTO> listTakeoutTrainStationRoute(String trainId, String departure, String arrival);
+
+    /**
+     * 获取列车站点路线表，首次访问从数据库加载并缓存到本地
+     *
+     * @param trainId 列车 ID
+     * @return 列车站点路线表
+     */
+    TrainStationRouteTable getTrainStationRouteTable(String trainId);
+
+    /**
+     * 删除本地缓存的列车站点路线表，一般在列车站点变更时触发
+     *
+     * @param trainId 列车 ID
+     */
+    void invalidateTrainStationRouteTable(String trainId);
 }
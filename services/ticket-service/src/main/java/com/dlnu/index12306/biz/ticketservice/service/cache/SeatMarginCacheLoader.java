@@ -18,24 +18,28 @@
 package com.dlnu.index12306.biz.ticketservice.service.cache;
 
 import cn.hutool.core.collection.CollUtil;
-import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
-import com.baomidou.mybatisplus.core.toolkit.Wrappers;
-import com.dlnu.index12306.biz.ticketservice.common.enums.SeatStatusEnum;
 import com.dlnu.index12306.biz.ticketservice.common.enums.VehicleTypeEnum;
-import com.dlnu.index12306.biz.ticketservice.dao.entity.SeatDO;
 import com.dlnu.index12306.biz.ticketservice.dao.entity.TrainDO;
 import com.dlnu.index12306.biz.ticketservice.dao.mapper.SeatMapper;
 import com.dlnu.index12306.biz.ticketservice.dao.mapper.TrainMapper;
 import com.dlnu.index12306.biz.ticketservice.dto.domain.RouteDTO;
+import com.dlnu.index12306.biz.ticketservice.dto.domain.RouteSeatTypeCountDTO;
+import com.dlnu.index12306.biz.ticketservice.metrics.TicketServiceMetrics;
 import com.dlnu.index12306.biz.ticketservice.service.TrainStationService;
+import com.dlnu.index12306.framework.starter.bases.Singleton;
 import com.dlnu.index12306.framework.starter.cache.DistributedCache;
 import com.dlnu.index12306.framework.starter.cache.toolkit.CacheUtil;
 import lombok.RequiredArgsConstructor;
 import org.redisson.api.RLock;
 import org.redisson.api.RedissonClient;
+import org.springframework.core.io.ClassPathResource;
 import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.scripting.support.ResourceScriptSource;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
@@ -44,113 +48,137 @@ import java.util.concurrent.TimeUnit;
 
 import static com.dlnu.index12306.biz.ticketservice.common.constant.Index12306Constant.ADVANCE_TICKET_DAY;
 import static com.dlnu.index12306.biz.ticketservice.common.constant.RedisKeyConstant.*;
-import static com.dlnu.index12306.biz.ticketservice.common.enums.VehicleSeatTypeEnum.*;
 
 /**
  * 座位余量缓存加载
+ * 列车全部站点区间与座位类型的余量通过一次 GROUP BY 聚合查询计算，并通过一次 Lua 脚本调用写入缓存
  */
 @Component
 @RequiredArgsConstructor
 public class SeatMarginCacheLoader {
 
+    private static final String LUA_SEAT_MARGIN_BULK_LOAD_PATH = "lua/seat_margin_bulk_load.lua";
+
     private final TrainMapper trainMapper;
     private final SeatMapper seatMapper;
     private final DistributedCache distributedCache;
     private final RedissonClient redissonClient;
     private final TrainStationService trainStationService;
+    private final TicketServiceMetrics ticketServiceMetrics;
 
     public Map<String, String> load(String trainId, String seatType, String departure, String arrival) {
         Map<String, Map<String, String>> trainStationRemainingTicketMaps = new LinkedHashMap<>();
         String keySuffix = CacheUtil.buildKey(trainId, departure, arrival);
         RLock lock = redissonClient.getLock(String.format(LOCK_SAFE_LOAD_SEAT_MARGIN_GET, keySuffix));
+        long lockWaitStartNanos = System.nanoTime();
         lock.lock();
+        long lockHoldStartNanos = System.nanoTime();
+        ticketServiceMetrics.recordSeatMarginLockWait(lockWaitStartNanos);
         try {
             StringRedisTemplate stringRedisTemplate = (StringRedisTemplate) distributedCache.getInstance();
             Object quantityObj = stringRedisTemplate.opsForHash().get(TRAIN_STATION_REMAINING_TICKET + keySuffix, seatType);
             if (CacheUtil.isNullOrBlank(quantityObj)) {
-                // 获取列车基本信息
-                TrainDO trainDO = distributedCache.safeGet(
-                        TRAIN_INFO + trainId,
-                        TrainDO.class,
-                        () -> trainMapper.selectById(trainId),
-                        ADVANCE_TICKET_DAY,
-                        TimeUnit.DAYS
-                );
-                // 获取开始站点和目的站点及中间站点信息
-                List<RouteDTO> routeDTOList = trainStationService.listTrainStationRoute(trainId, trainDO.getStartStation(), trainDO.getEndStation());
-                if (CollUtil.isNotEmpty(routeDTOList)) {
-                    // 根据列车类型获取列车类型对应席别的数量
-                    switch (trainDO.getTrainType()) {
-                        // 高铁
-                        case 0 -> {
-                            for (RouteDTO each : routeDTOList) {
-                                Map<String, String> trainStationRemainingTicket = new LinkedHashMap<>();
-                                trainStationRemainingTicket.put(String.valueOf(BUSINESS_CLASS.getCode()), selectSeatMargin(trainId, BUSINESS_CLASS.getCode(), each.getStartStation(), each.getEndStation()));
-                                trainStationRemainingTicket.put(String.valueOf(FIRST_CLASS.getCode()), selectSeatMargin(trainId, FIRST_CLASS.getCode(), each.getStartStation(), each.getEndStation()));
-                                trainStationRemainingTicket.put(String.valueOf(SECOND_CLASS.getCode()), selectSeatMargin(trainId, SECOND_CLASS.getCode(), each.getStartStation(), each.getEndStation()));
-                                String actualKeySuffix = CacheUtil.buildKey(trainId, each.getStartStation(), each.getEndStation());
-                                trainStationRemainingTicketMaps.put(TRAIN_STATION_REMAINING_TICKET + actualKeySuffix, trainStationRemainingTicket);
-                            }
-                        }
-                        // 动车
-                        case 1 -> {
-                            for (RouteDTO each : routeDTOList) {
-                                Map<String, String> trainStationRemainingTicket = new LinkedHashMap<>();
-                                trainStationRemainingTicket.put(String.valueOf(SECOND_CLASS_CABIN_SEAT.getCode()), selectSeatMargin(trainId, SECOND_CLASS_CABIN_SEAT.getCode(), each.getStartStation(), each.getEndStation()));
-                                trainStationRemainingTicket.put(String.valueOf(FIRST_SLEEPER.getCode()), selectSeatMargin(trainId, FIRST_SLEEPER.getCode(), each.getStartStation(), each.getEndStation()));
-                                trainStationRemainingTicket.put(String.valueOf(SECOND_SLEEPER.getCode()), selectSeatMargin(trainId, SECOND_SLEEPER.getCode(), each.getStartStation(), each.getEndStation()));
-                                trainStationRemainingTicket.put(String.valueOf(NO_SEAT_SLEEPER.getCode()), selectSeatMargin(trainId, NO_SEAT_SLEEPER.getCode(), each.getStartStation(), each.getEndStation()));
-                                String actualKeySuffix = CacheUtil.buildKey(trainId, each.getStartStation(), each.getEndStation());
-                                trainStationRemainingTicketMaps.put(TRAIN_STATION_REMAINING_TICKET + actualKeySuffix, trainStationRemainingTicket);
-                            }
-                        }
-                        // 普通火车
-                        case 2 -> {
-                            for (RouteDTO each : routeDTOList) {
-                                Map<String, String> trainStationRemainingTicket = new LinkedHashMap<>();
-                                trainStationRemainingTicket.put(String.valueOf(SOFT_SLEEPER.getCode()), selectSeatMargin(trainId, SOFT_SLEEPER.getCode(), each.getStartStation(), each.getEndStation()));
-                                trainStationRemainingTicket.put(String.valueOf(HARD_SLEEPER.getCode()), selectSeatMargin(trainId, HARD_SLEEPER.getCode(), each.getStartStation(), each.getEndStation()));
-                                trainStationRemainingTicket.put(String.valueOf(HARD_SEAT.getCode()), selectSeatMargin(trainId, HARD_SEAT.getCode(), each.getStartStation(), each.getEndStation()));
-                                trainStationRemainingTicket.put(String.valueOf(NO_SEAT_SLEEPER.getCode()), selectSeatMargin(trainId, NO_SEAT_SLEEPER.getCode(), each.getStartStation(), each.getEndStation()));
-                                String actualKeySuffix = CacheUtil.buildKey(trainId, each.getStartStation(), each.getEndStation());
-                                trainStationRemainingTicketMaps.put(TRAIN_STATION_REMAINING_TICKET + actualKeySuffix, trainStationRemainingTicket);
-                            }
-                        }
-                    }
-                } else {
-                    Map<String, String> trainStationRemainingTicket = new LinkedHashMap<>();
-                    VehicleTypeEnum.findSeatTypesByCode(trainDO.getTrainType())
-                            .forEach(each -> trainStationRemainingTicket.put(String.valueOf(each), "0"));
-                    trainStationRemainingTicketMaps.put(TRAIN_STATION_REMAINING_TICKET + keySuffix, trainStationRemainingTicket);
-                }
-                // TODO LUA 脚本执行
-                trainStationRemainingTicketMaps.forEach((cacheKey, cacheMap) -> stringRedisTemplate.opsForHash().putAll(cacheKey, cacheMap));
+                trainStationRemainingTicketMaps = loadTrainStationRemainingTicketMaps(trainId, getTrain(trainId), keySuffix);
             }
         } finally {
             lock.unlock();
+            ticketServiceMetrics.recordSeatMarginLockHold(lockHoldStartNanos);
         }
         return Optional.ofNullable(trainStationRemainingTicketMaps.get(TRAIN_STATION_REMAINING_TICKET + keySuffix))
                 .orElse(new LinkedHashMap<>());
     }
 
     /**
-     * 查询数据库中的余票数量
+     * 预热列车全部站点区间的座位余量，缓存已存在或其他实例正在加载时跳过
      *
-     * @param trainId   车次ID
-     * @param type      列车类型
-     * @param departure 出发地
-     * @param arrival   目的地
-     * @return 余票数量
+     * @param trainId 车次ID
+     * @return 是否执行了加载
+     */
+    public boolean preload(String trainId) {
+        TrainDO trainDO = getTrain(trainId);
+        if (trainDO == null) {
+            return false;
+        }
+        String keySuffix = CacheUtil.buildKey(trainId, trainDO.getStartStation(), trainDO.getEndStation());
+        StringRedisTemplate stringRedisTemplate = (StringRedisTemplate) distributedCache.getInstance();
+        if (Boolean.TRUE.equals(stringRedisTemplate.hasKey(TRAIN_STATION_REMAINING_TICKET + keySuffix))) {
+            return false;
+        }
+        RLock lock = redissonClient.getLock(String.format(LOCK_SAFE_LOAD_SEAT_MARGIN_GET, keySuffix));
+        if (!lock.tryLock()) {
+            return false;
+        }
+        try {
+            if (Boolean.TRUE.equals(stringRedisTemplate.hasKey(TRAIN_STATION_REMAINING_TICKET + keySuffix))) {
+                return false;
+            }
+            loadTrainStationRemainingTicketMaps(trainId, trainDO, keySuffix);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private TrainDO getTrain(String trainId) {
+        // 获取列车基本信息
+        return distributedCache.safeGet(
+                TRAIN_INFO + trainId,
+                TrainDO.class,
+                () -> trainMapper.selectById(trainId),
+                ADVANCE_TICKET_DAY,
+                TimeUnit.DAYS
+        );
+    }
+
+    private Map<String, Map<String, String>> loadTrainStationRemainingTicketMaps(String trainId, TrainDO trainDO, String keySuffix) {
+        Map<String, Map<String, String>> trainStationRemainingTicketMaps = new LinkedHashMap<>();
+        // 根据列车类型获取列车类型对应席别
+        List<Integer> seatTypes = VehicleTypeEnum.findSeatTypesByCode(trainDO.getTrainType());
+        if (CollUtil.isEmpty(seatTypes)) {
+            return trainStationRemainingTicketMaps;
+        }
+        // 获取开始站点和目的站点及中间站点信息
+        List<RouteDTO> routeDTOList = trainStationService.listTrainStationRoute(trainId, trainDO.getStartStation(), trainDO.getEndStation());
+        if (CollUtil.isNotEmpty(routeDTOList)) {
+            // 一次聚合查询全部站点区间各座位类型的余量，替代逐个区间逐个席别的 COUNT 查询
+            Map<String, Integer> seatMarginMap = new HashMap<>();
+            seatMapper.listRouteSeatTypeCount(Long.parseLong(trainId), seatTypes)
+                    .forEach(each -> seatMarginMap.put(CacheUtil.buildKey(each.getStartStation(), each.getEndStation(), String.valueOf(each.getSeatType())), each.getSeatCount()));
+            for (RouteDTO each : routeDTOList) {
+                Map<String, String> trainStationRemainingTicket = new LinkedHashMap<>();
+                seatTypes.forEach(seatType -> trainStationRemainingTicket.put(
+                        String.valueOf(seatType),
+                        String.valueOf(seatMarginMap.getOrDefault(CacheUtil.buildKey(each.getStartStation(), each.getEndStation(), String.valueOf(seatType)), 0))
+                ));
+                String actualKeySuffix = CacheUtil.buildKey(trainId, each.getStartStation(), each.getEndStation());
+                trainStationRemainingTicketMaps.put(TRAIN_STATION_REMAINING_TICKET + actualKeySuffix, trainStationRemainingTicket);
+            }
+        } else {
+            Map<String, String> trainStationRemainingTicket = new LinkedHashMap<>();
+            seatTypes.forEach(each -> trainStationRemainingTicket.put(String.valueOf(each), "0"));
+            trainStationRemainingTicketMaps.put(TRAIN_STATION_REMAINING_TICKET + keySuffix, trainStationRemainingTicket);
+        }
+        putAllInLua(seatTypes, trainStationRemainingTicketMaps);
+        return trainStationRemainingTicketMaps;
+    }
+
+    /**
+     * 通过一次 Lua 脚本调用写入全部站点区间的余票缓存
      */
-    private String selectSeatMargin(String trainId, Integer type, String departure, String arrival) {
-        LambdaQueryWrapper<SeatDO> queryWrapper = Wrappers.lambdaQuery(SeatDO.class)
-                .eq(SeatDO::getTrainId, trainId)
-                .eq(SeatDO::getSeatType, type)
-                .eq(SeatDO::getSeatStatus, SeatStatusEnum.AVAILABLE.getCode())
-                .eq(SeatDO::getStartStation, departure)
-                .eq(SeatDO::getEndStation, arrival);
-        return Optional.ofNullable(seatMapper.selectCount(queryWrapper))
-                .map(String::valueOf)
-                .orElse("0");
+    private void putAllInLua(List<Integer> seatTypes, Map<String, Map<String, String>> trainStationRemainingTicketMaps) {
+        DefaultRedisScript<Long> actual = Singleton.get(LUA_SEAT_MARGIN_BULK_LOAD_PATH, () -> {
+            DefaultRedisScript<Long> redisScript = new DefaultRedisScript<>();
+            redisScript.setScriptSource(new ResourceScriptSource(new ClassPathResource(LUA_SEAT_MARGIN_BULK_LOAD_PATH)));
+            redisScript.setResultType(Long.class);
+            return redisScript;
+        });
+        List<String> keys = new ArrayList<>(trainStationRemainingTicketMaps.keySet());
+        List<String> args = new ArrayList<>(1 + seatTypes.size() * (keys.size() + 1));
+        args.add(String.valueOf(seatTypes.size()));
+        seatTypes.forEach(each -> args.add(String.valueOf(each)));
+        trainStationRemainingTicketMaps.values()
+                .forEach(cacheMap -> seatTypes.forEach(each -> args.add(cacheMap.get(String.valueOf(each)))));
+        StringRedisTemplate stringRedisTemplate = (StringRedisTemplate) distributedCache.getInstance();
+        stringRedisTemplate.execute(actual, keys, args.toArray());
     }
 }
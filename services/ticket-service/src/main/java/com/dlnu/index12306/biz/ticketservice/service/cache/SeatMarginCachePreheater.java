@@ -0,0 +1,78 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dlnu.index12306.biz.ticketservice.service.cache;
+
+import cn.hutool.core.date.DateUtil;
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.core.toolkit.Wrappers;
+import com.dlnu.index12306.biz.ticketservice.dao.entity.TrainDO;
+import com.dlnu.index12306.biz.ticketservice.dao.mapper.TrainMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Date;
+import java.util.List;
+
+/**
+ * 座位余量缓存预热
+ * 定时加载即将开售及在售列车的全部站点区间余量，避免开售瞬间缓存未命中落在购票链路上
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "ticket.seat-margin.preheat.enabled", havingValue = "true", matchIfMissing = true)
+public class SeatMarginCachePreheater {
+
+    private final TrainMapper trainMapper;
+    private final SeatMarginCacheLoader seatMarginCacheLoader;
+
+    /**
+     * 提前预热的时间窗口，开售时间在该窗口内的列车会被预热
+     */
+    @Value("${ticket.seat-margin.preheat.lookahead-minutes:30}")
+    private int lookaheadMinutes;
+
+    @Scheduled(
+            initialDelayString = "${ticket.seat-margin.preheat.initial-delay-millis:30000}",
+            fixedDelayString = "${ticket.seat-margin.preheat.interval-millis:60000}"
+    )
+    public void preheat() {
+        Date now = new Date();
+        LambdaQueryWrapper<TrainDO> queryWrapper = Wrappers.lambdaQuery(TrainDO.class)
+                .le(TrainDO::getSaleTime, DateUtil.offsetMinute(now, lookaheadMinutes))
+                .gt(TrainDO::getDepartureTime, now);
+        List<TrainDO> trainDOList = trainMapper.selectList(queryWrapper);
+        int preloadCount = 0;
+        for (TrainDO each : trainDOList) {
+            try {
+                if (seatMarginCacheLoader.preload(String.valueOf(each.getId()))) {
+                    preloadCount++;
+                }
+            } catch (Throwable ex) {
+                log.error("预热列车座位余量缓存失败，列车ID：{}", each.getId(), ex);
+            }
+        }
+        if (preloadCount > 0) {
+            log.info("预热列车座位余量缓存完成，预热列车数量：{}", preloadCount);
+        }
+    }
+}
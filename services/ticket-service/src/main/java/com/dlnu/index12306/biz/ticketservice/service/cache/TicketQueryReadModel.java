@@ -0,0 +1,398 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dlnu.index12306.biz.ticketservice.service.cache;
+
+import cn.hutool.core.util.StrUtil;
+import com.alibaba.fastjson2.JSON;
+import com.dlnu.index12306.biz.ticketservice.dao.entity.TrainStationPriceDO;
+import com.dlnu.index12306.biz.ticketservice.dto.domain.SeatClassDTO;
+import com.dlnu.index12306.biz.ticketservice.dto.domain.TicketListDTO;
+import com.dlnu.index12306.biz.ticketservice.dto.resp.TicketPageQueryRespDTO;
+import com.dlnu.index12306.framework.starter.cache.DistributedCache;
+import com.dlnu.index12306.framework.starter.cache.MultistageCache;
+import com.dlnu.index12306.framework.starter.common.threadpool.build.ThreadFactoryBuilder;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RTopic;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.StringCodec;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.dlnu.index12306.biz.ticketservice.common.constant.Index12306Constant.ADVANCE_TICKET_DAY;
+import static com.dlnu.index12306.biz.ticketservice.common.constant.RedisKeyConstant.TRAIN_STATION_PRICE;
+import static com.dlnu.index12306.biz.ticketservice.common.constant.RedisKeyConstant.TRAIN_STATION_REMAINING_TICKET;
+
+/**
+ * 车票查询读模型
+ * 按城市区间预先计算出发分钟数、换算后的席别价格以及筛选项，余票保存在本地计数器中，
+ * 由余票增量通知实时修正，并按固定间隔批量从 Redis 校准
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TicketQueryReadModel implements InitializingBean, DisposableBean {
+
+    private static final String REMAINING_TICKET_DELTA_TOPIC = "index12306-ticket-service:remaining_ticket_delta";
+    private static final char MESSAGE_SEPARATOR = '|';
+    private static final char ENTRY_SEPARATOR = ';';
+    private static final char FIELD_SEPARATOR = ',';
+    private static final BigDecimal PRICE_SCALE = new BigDecimal("100");
+
+    private final DistributedCache distributedCache;
+    private final MultistageCache multistageCache;
+    private final RedissonClient redissonClient;
+    private final TrainStationPriceCacheLoader trainStationPriceCacheLoader;
+    private final SeatMarginCacheLoader seatMarginCacheLoader;
+
+    /**
+     * 当前实例标识，用于忽略自己发出的余票增量通知
+     */
+    private final String instanceId = UUID.randomUUID().toString().replace("-", "");
+
+    /**
+     * 城市区间读模型，Key 为城市区间列车信息缓存 Key
+     */
+    private final Cache<String, RouteTicketView> routeViewCache = Caffeine.newBuilder()
+            .maximumSize(10000)
+            .expireAfterAccess(30, TimeUnit.MINUTES)
+            .build();
+
+    /**
+     * 列车区间席别余票计数器
+     */
+    private final Cache<RemainingTicketKey, AtomicInteger> remainingTicketCache = Caffeine.newBuilder()
+            .maximumSize(500000)
+            .expireAfterAccess(30, TimeUnit.MINUTES)
+            .build();
+
+    private final ExecutorService refreshExecutor = Executors.newSingleThreadExecutor(
+            ThreadFactoryBuilder.builder().prefix("ticket-query-read-model-refresh").daemon(true).build()
+    );
+
+    /**
+     * 余票计数器从 Redis 校准的间隔，用于兜底丢失的增量通知
+     */
+    @Value("${ticket.query.read-model.remaining-refresh-millis:2000}")
+    private long remainingRefreshMillis;
+
+    private RTopic deltaTopic;
+    private int listenerId;
+
+    @Override
+    public void afterPropertiesSet() {
+        deltaTopic = redissonClient.getTopic(REMAINING_TICKET_DELTA_TOPIC, StringCodec.INSTANCE);
+        listenerId = deltaTopic.addListener(String.class, (channel, message) -> {
+            int separatorIndex = message.indexOf(MESSAGE_SEPARATOR);
+            if (separatorIndex < 0 || Objects.equals(instanceId, message.substring(0, separatorIndex))) {
+                return;
+            }
+            applyRemainingTicketDeltas(message.substring(separatorIndex + 1));
+        });
+    }
+
+    @Override
+    public void destroy() {
+        if (deltaTopic != null) {
+            deltaTopic.removeListener(listenerId);
+        }
+        refreshExecutor.shutdown();
+    }
+
+    /**
+     * 查询城市区间车票，读模型在列车信息本地缓存刷新后重建
+     *
+     * @param regionTrainStationHashKey 城市区间列车信息缓存 Key
+     * @param trainList                 本地缓存中按出发时间排序的列车信息
+     * @return 车票分页查询结果
+     */
+    public TicketPageQueryRespDTO query(String regionTrainStationHashKey, List<TicketListDTO> trainList) {
+        RouteTicketView view = routeViewCache.getIfPresent(regionTrainStationHashKey);
+        if (view == null || view.source != trainList) {
+            view = buildRouteView(trainList);
+            routeViewCache.put(regionTrainStationHashKey, view);
+        }
+        List<RemainingTicketKey> missKeys = view.remainingTicketKeys.stream()
+                .filter(each -> remainingTicketCache.getIfPresent(each) == null)
+                .toList();
+        if (!missKeys.isEmpty()) {
+            loadRemainingTickets(missKeys);
+            view.lastRefreshTime = System.currentTimeMillis();
+        } else if (System.currentTimeMillis() - view.lastRefreshTime > remainingRefreshMillis && view.refreshing.compareAndSet(false, true)) {
+            RouteTicketView refreshView = view;
+            refreshExecutor.execute(() -> refreshRemainingTickets(refreshView));
+        }
+        List<TicketListDTO> resultTrainList = new ArrayList<>(view.trains.size());
+        for (TrainEntry each : view.trains) {
+            List<SeatClassDTO> seatClassList = new ArrayList<>(each.seats.size());
+            for (SeatEntry item : each.seats) {
+                AtomicInteger remainingTicket = remainingTicketCache.getIfPresent(item.remainingTicketKey);
+                seatClassList.add(new SeatClassDTO(item.seatType, remainingTicket == null ? 0 : remainingTicket.get(), item.price, false));
+            }
+            resultTrainList.add(each.template.toBuilder().seatClassList(seatClassList).build());
+        }
+        return TicketPageQueryRespDTO.builder()
+                .trainList(resultTrainList)
+                .departureStationList(view.departureStationList)
+                .arrivalStationList(view.arrivalStationList)
+                .trainBrandList(view.trainBrandList)
+                .seatClassTypeList(view.seatClassTypeList)
+                .build();
+    }
+
+    /**
+     * 修正本地余票计数器并通知其它实例，调用方需保证增量已写入 Redis
+     *
+     * @param remainingTicketDeltaMap 余票缓存 Key -> 座位类型 -> 增量
+     */
+    public void publishRemainingTicketDeltas(Map<String, Map<Integer, Integer>> remainingTicketDeltaMap) {
+        StringBuilder message = new StringBuilder(instanceId).append(MESSAGE_SEPARATOR);
+        int entryCount = 0;
+        for (Map.Entry<String, Map<Integer, Integer>> entry : remainingTicketDeltaMap.entrySet()) {
+            for (Map.Entry<Integer, Integer> item : entry.getValue().entrySet()) {
+                if (item.getValue() == null || item.getValue() == 0) {
+                    continue;
+                }
+                String seatType = String.valueOf(item.getKey());
+                applyRemainingTicketDelta(new RemainingTicketKey(entry.getKey(), seatType), item.getValue());
+                if (entryCount++ > 0) {
+                    message.append(ENTRY_SEPARATOR);
+                }
+                message.append(entry.getKey()).append(FIELD_SEPARATOR).append(seatType).append(FIELD_SEPARATOR).append(item.getValue());
+            }
+        }
+        if (entryCount > 0) {
+            deltaTopic.publishAsync(message.toString());
+        }
+    }
+
+    private void applyRemainingTicketDeltas(String entries) {
+        for (String entry : StrUtil.split(entries, ENTRY_SEPARATOR)) {
+            List<String> fields = StrUtil.split(entry, FIELD_SEPARATOR);
+            if (fields.size() != 3) {
+                continue;
+            }
+            applyRemainingTicketDelta(new RemainingTicketKey(fields.get(0), fields.get(1)), Integer.parseInt(fields.get(2)));
+        }
+    }
+
+    private void applyRemainingTicketDelta(RemainingTicketKey remainingTicketKey, int delta) {
+        // 只修正已加载的计数器，未加载的计数器在下次查询时从 Redis 读取
+        AtomicInteger remainingTicket = remainingTicketCache.getIfPresent(remainingTicketKey);
+        if (remainingTicket != null) {
+            remainingTicket.addAndGet(delta);
+        }
+    }
+
+    private RouteTicketView buildRouteView(List<TicketListDTO> trainList) {
+        Map<String, List<TrainStationPriceDO>> trainStationPriceMap = listTrainStationPrice(trainList);
+        List<TrainEntry> trains = new ArrayList<>(trainList.size());
+        Set<RemainingTicketKey> remainingTicketKeys = new LinkedHashSet<>();
+        Set<String> departureStations = new LinkedHashSet<>();
+        Set<String> arrivalStations = new LinkedHashSet<>();
+        Set<Integer> trainBrands = new TreeSet<>();
+        Set<Integer> seatClassTypes = new TreeSet<>();
+        for (TicketListDTO each : trainList) {
+            List<TrainStationPriceDO> trainStationPriceDOList = trainStationPriceMap.getOrDefault(
+                    String.format(TRAIN_STATION_PRICE, each.getTrainId(), each.getDeparture(), each.getArrival()),
+                    Collections.emptyList()
+            );
+            List<SeatEntry> seats = new ArrayList<>(trainStationPriceDOList.size());
+            for (TrainStationPriceDO item : trainStationPriceDOList) {
+                RemainingTicketKey remainingTicketKey = new RemainingTicketKey(
+                        TRAIN_STATION_REMAINING_TICKET + StrUtil.join(StrUtil.UNDERLINE, each.getTrainId(), item.getDeparture(), item.getArrival()),
+                        String.valueOf(item.getSeatType())
+                );
+                seats.add(new SeatEntry(item.getSeatType(), new BigDecimal(item.getPrice()).divide(PRICE_SCALE, 1, RoundingMode.HALF_UP), remainingTicketKey));
+                remainingTicketKeys.add(remainingTicketKey);
+                seatClassTypes.add(item.getSeatType());
+            }
+            trains.add(new TrainEntry(each.toBuilder().seatClassList(null).build(), toDepartureMinute(each.getDepartureTime()), List.copyOf(seats)));
+            departureStations.add(each.getDeparture());
+            arrivalStations.add(each.getArrival());
+            if (StrUtil.isNotBlank(each.getTrainBrand())) {
+                StrUtil.split(each.getTrainBrand(), StrUtil.COMMA).forEach(item -> trainBrands.add(Integer.parseInt(item)));
+            }
+        }
+        trains.sort(Comparator.comparingInt(TrainEntry::departureMinute));
+        return new RouteTicketView(
+                trainList,
+                List.copyOf(trains),
+                List.copyOf(remainingTicketKeys),
+                List.copyOf(departureStations),
+                List.copyOf(arrivalStations),
+                List.copyOf(trainBrands),
+                List.copyOf(seatClassTypes)
+        );
+    }
+
+    /**
+     * 批量查询列车区间席别价格，本地缓存未命中时批量读取 Redis，Redis 未命中时查询数据库
+     */
+    private Map<String, List<TrainStationPriceDO>> listTrainStationPrice(List<TicketListDTO> trainList) {
+        Map<String, TicketListDTO> trainStationPriceKeyMap = new LinkedHashMap<>();
+        trainList.forEach(each -> trainStationPriceKeyMap.put(String.format(TRAIN_STATION_PRICE, each.getTrainId(), each.getDeparture(), each.getArrival()), each));
+        return multistageCache.getAll(trainStationPriceKeyMap.keySet(), missKeys -> {
+            Map<String, String> trainStationPriceStrMap = distributedCache.multiSafeGet(
+                    missKeys,
+                    String.class,
+                    loadKeys -> trainStationPriceCacheLoader.load(loadKeys, trainStationPriceKeyMap),
+                    ADVANCE_TICKET_DAY,
+                    TimeUnit.DAYS
+            );
+            Map<String, List<TrainStationPriceDO>> result = new HashMap<>(trainStationPriceStrMap.size());
+            trainStationPriceStrMap.forEach((key, value) -> result.put(key, JSON.parseArray(value, TrainStationPriceDO.class)));
+            return result;
+        });
+    }
+
+    /**
+     * 首次查询时同步加载余票计数器，Redis 中不存在的余票通过座位余量加载器回源
+     */
+    private void loadRemainingTickets(List<RemainingTicketKey> remainingTicketKeys) {
+        List<Object> remainingTicketObjs = hashGetInPipeline(remainingTicketKeys);
+        for (int i = 0; i < remainingTicketKeys.size(); i++) {
+            RemainingTicketKey remainingTicketKey = remainingTicketKeys.get(i);
+            Object remainingTicketObj = remainingTicketObjs.get(i);
+            int remainingTicket;
+            if (remainingTicketObj != null) {
+                remainingTicket = Integer.parseInt(remainingTicketObj.toString());
+            } else {
+                List<String> keySuffix = StrUtil.split(remainingTicketKey.cacheKey.substring(TRAIN_STATION_REMAINING_TICKET.length()), StrUtil.C_UNDERLINE, 3);
+                Map<String, String> seatMarginMap = seatMarginCacheLoader.load(keySuffix.get(0), remainingTicketKey.seatType, keySuffix.get(1), keySuffix.get(2));
+                remainingTicket = seatMarginMap.get(remainingTicketKey.seatType) == null ? 0 : Integer.parseInt(seatMarginMap.get(remainingTicketKey.seatType));
+            }
+            remainingTicketCache.asMap().putIfAbsent(remainingTicketKey, new AtomicInteger(remainingTicket));
+        }
+    }
+
+    /**
+     * 在后台线程中通过一次管道请求校准读模型内全部余票计数器
+     */
+    private void refreshRemainingTickets(RouteTicketView view) {
+        try {
+            List<Object> remainingTicketObjs = hashGetInPipeline(view.remainingTicketKeys);
+            for (int i = 0; i < view.remainingTicketKeys.size(); i++) {
+                Object remainingTicketObj = remainingTicketObjs.get(i);
+                if (remainingTicketObj == null) {
+                    continue;
+                }
+                int remainingTicket = Integer.parseInt(remainingTicketObj.toString());
+                remainingTicketCache.asMap().compute(view.remainingTicketKeys.get(i), (key, value) -> {
+                    if (value == null) {
+                        return new AtomicInteger(remainingTicket);
+                    }
+                    value.set(remainingTicket);
+                    return value;
+                });
+            }
+            view.lastRefreshTime = System.currentTimeMillis();
+        } catch (Throwable ex) {
+            log.error("校准车票查询读模型余票失败", ex);
+        } finally {
+            view.refreshing.set(false);
+        }
+    }
+
+    private List<Object> hashGetInPipeline(Collection<RemainingTicketKey> remainingTicketKeys) {
+        StringRedisTemplate stringRedisTemplate = (StringRedisTemplate) distributedCache.getInstance();
+        return stringRedisTemplate.executePipelined(new SessionCallback<Object>() {
+
+            @Override
+            public <K, V> Object execute(RedisOperations<K, V> operations) {
+                HashOperations<String, String, String> hashOperations = (HashOperations<String, String, String>) operations.<String, String>opsForHash();
+                remainingTicketKeys.forEach(each -> hashOperations.get(each.cacheKey, each.seatType));
+                return null;
+            }
+        });
+    }
+
+    private static int toDepartureMinute(String departureTime) {
+        if (departureTime == null || departureTime.length() < 5) {
+            return Integer.MAX_VALUE;
+        }
+        return Integer.parseInt(departureTime, 0, 2, 10) * 60 + Integer.parseInt(departureTime, 3, 5, 10);
+    }
+
+    /**
+     * 余票计数器 Key
+     *
+     * @param cacheKey 余票缓存 Key
+     * @param seatType 座位类型
+     */
+    private record RemainingTicketKey(String cacheKey, String seatType) {
+    }
+
+    /**
+     * 席别信息，价格已换算为元
+     */
+    private record SeatEntry(Integer seatType, BigDecimal price, RemainingTicketKey remainingTicketKey) {
+    }
+
+    /**
+     * 列车信息，出发时间换算为当天分钟数用于排序
+     */
+    private record TrainEntry(TicketListDTO template, int departureMinute, List<SeatEntry> seats) {
+    }
+
+    /**
+     * 城市区间读模型
+     */
+    @RequiredArgsConstructor
+    private static class RouteTicketView {
+
+        private final List<TicketListDTO> source;
+        private final List<TrainEntry> trains;
+        private final List<RemainingTicketKey> remainingTicketKeys;
+        private final List<String> departureStationList;
+        private final List<String> arrivalStationList;
+        private final List<Integer> trainBrandList;
+        private final List<Integer> seatClassTypeList;
+        private final AtomicBoolean refreshing = new AtomicBoolean(false);
+        private volatile long lastRefreshTime = System.currentTimeMillis();
+    }
+}
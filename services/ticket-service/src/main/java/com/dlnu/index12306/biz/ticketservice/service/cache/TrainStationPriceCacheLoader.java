@@ -0,0 +1,85 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dlnu.index12306.biz.ticketservice.service.cache;
+
+import com.alibaba.fastjson2.JSON;
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.core.toolkit.Wrappers;
+import com.dlnu.index12306.biz.ticketservice.dao.entity.TrainStationPriceDO;
+import com.dlnu.index12306.biz.ticketservice.dao.mapper.TrainStationPriceMapper;
+import com.dlnu.index12306.biz.ticketservice.dto.domain.TicketListDTO;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static com.dlnu.index12306.biz.ticketservice.common.constant.RedisKeyConstant.TRAIN_STATION_PRICE;
+
+/**
+ * 列车区间席别价格缓存加载
+ * 多个列车区间的价格通过一次 IN 查询读取，再按缓存 Key 分组
+ */
+@Component
+@RequiredArgsConstructor
+public class TrainStationPriceCacheLoader {
+
+    private final TrainStationPriceMapper trainStationPriceMapper;
+
+    /**
+     * 批量加载列车区间席别价格
+     *
+     * @param loadKeys                待加载的价格缓存 Key
+     * @param trainStationPriceKeyMap 价格缓存 Key 与列车区间的映射
+     * @return 价格缓存 Key 与价格集合 JSON 的映射，数据库中不存在的区间返回空集合
+     */
+    public Map<String, String> load(Collection<String> loadKeys, Map<String, TicketListDTO> trainStationPriceKeyMap) {
+        Set<String> trainIds = new LinkedHashSet<>();
+        Set<String> departures = new LinkedHashSet<>();
+        Set<String> arrivals = new LinkedHashSet<>();
+        loadKeys.forEach(key -> {
+            TicketListDTO each = trainStationPriceKeyMap.get(key);
+            trainIds.add(each.getTrainId());
+            departures.add(each.getDeparture());
+            arrivals.add(each.getArrival());
+        });
+        Map<String, List<TrainStationPriceDO>> trainStationPriceMap = new HashMap<>(loadKeys.size());
+        loadKeys.forEach(key -> trainStationPriceMap.put(key, new ArrayList<>()));
+        LambdaQueryWrapper<TrainStationPriceDO> queryWrapper = Wrappers.lambdaQuery(TrainStationPriceDO.class)
+                .in(TrainStationPriceDO::getTrainId, trainIds)
+                .in(TrainStationPriceDO::getDeparture, departures)
+                .in(TrainStationPriceDO::getArrival, arrivals);
+        // IN 条件的笛卡尔积可能包含未请求的区间，仅保留待加载的 Key
+        trainStationPriceMapper.selectList(queryWrapper).forEach(each -> {
+            List<TrainStationPriceDO> trainStationPrices = trainStationPriceMap.get(
+                    String.format(TRAIN_STATION_PRICE, each.getTrainId(), each.getDeparture(), each.getArrival())
+            );
+            if (trainStationPrices != null) {
+                trainStationPrices.add(each);
+            }
+        });
+        Map<String, String> result = new HashMap<>(trainStationPriceMap.size());
+        trainStationPriceMap.forEach((key, value) -> result.put(key, JSON.toJSONString(value)));
+        return result;
+    }
+}
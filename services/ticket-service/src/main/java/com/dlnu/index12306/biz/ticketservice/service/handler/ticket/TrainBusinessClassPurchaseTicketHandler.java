@@ -8,12 +8,12 @@ import com.dlnu.index12306.biz.ticketservice.common.enums.VehicleSeatTypeEnum;
 import com.dlnu.index12306.biz.ticketservice.common.enums.VehicleTypeEnum;
 import com.dlnu.index12306.biz.ticketservice.dto.domain.PurchaseTicketPassengerDetailDTO;
 import com.dlnu.index12306.biz.ticketservice.dto.domain.TrainSeatBaseDTO;
-import com.dlnu.index12306.biz.ticketservice.service.SeatService;
 import com.dlnu.index12306.biz.ticketservice.service.handler.ticket.base.AbstractTrainPurchaseTicketTemplate;
 import com.dlnu.index12306.biz.ticketservice.service.handler.ticket.base.BitMapCheckSeat;
 import com.dlnu.index12306.biz.ticketservice.service.handler.ticket.base.BitMapCheckSeatStatusFactory;
 import com.dlnu.index12306.biz.ticketservice.service.handler.ticket.dto.SelectSeatDTO;
 import com.dlnu.index12306.biz.ticketservice.service.handler.ticket.dto.TrainPurchaseTicketRespDTO;
+import com.dlnu.index12306.biz.ticketservice.service.handler.ticket.inventory.SeatInventoryManager;
 import com.dlnu.index12306.biz.ticketservice.service.handler.ticket.select.SeatSelection;
 import com.dlnu.index12306.biz.ticketservice.toolkit.CarriageVacantSeatCalculateUtil;
 import com.dlnu.index12306.biz.ticketservice.toolkit.SeatNumberUtil;
@@ -34,7 +34,7 @@ import static com.dlnu.index12306.biz.ticketservice.service.handler.ticket.base.
 @RequiredArgsConstructor
 public class TrainBusinessClassPurchaseTicketHandler extends AbstractTrainPurchaseTicketTemplate {
 
-    private final SeatService seatService;
+    private final SeatInventoryManager seatInventoryManager;
     private static final Map<Character, Integer> SEAT_Y_INT = Map.of('A', 0, 'C', 1, 'F', 2);
 
     @Override
@@ -50,9 +50,10 @@ public class TrainBusinessClassPurchaseTicketHandler extends AbstractTrainPurcha
         Integer seatType = requestParam.getSeatType();
         List<PurchaseTicketPassengerDetailDTO> passengerSeatDetails = requestParam.getPassengerSeatDetails();
         // 检索出有余票的车厢
-        List<String> trainCarriageList = seatService.listUsableCarriageNumber(trainId, seatType, departure, arrival);
+        Map<String, Integer> carriageRemainingTicketMap = seatInventoryManager.listCarriageRemainingTicket(trainId, seatType, departure, arrival);
+        List<String> trainCarriageList = new ArrayList<>(carriageRemainingTicketMap.keySet());
         // 计算有余票的车厢剩余票量
-        List<Integer> trainStationCarriageRemainingTicket = seatService.listSeatRemainingTicket(trainId, departure, arrival, trainCarriageList);
+        List<Integer> trainStationCarriageRemainingTicket = new ArrayList<>(carriageRemainingTicketMap.values());
         int remainingTicketSum = trainStationCarriageRemainingTicket.stream().mapToInt(Integer::intValue).sum();
         if (remainingTicketSum < passengerSeatDetails.size()) {
             throw new ServiceException("站点余票不足，请尝试更换座位类型或选择其它站点");
@@ -88,14 +89,11 @@ public class TrainBusinessClassPurchaseTicketHandler extends AbstractTrainPurcha
         for (int i = 0; i < trainStationCarriageRemainingTicket.size(); i++) {
             String carriagesNumber = trainCarriageList.get(i);
             // 获取列车车厢中可售的座位集合
-            List<String> listAvailableSeat = seatService.listAvailableSeat(trainSeatBaseDTO.getTrainId(), carriagesNumber, requestParam.getSeatType(), trainSeatBaseDTO.getDeparture(), trainSeatBaseDTO.getArrival());
             // 商务座只有5个座位 两排三列 第一排第二列座位不可售
-            int[][] actualSeats = new int[2][3];
-            for (int j = 1; j < 3; j++) {
-                for (int k = 1; k < 4; k++) {
-                    // 如果可售的座位集合中包含（例如01A），则将表示座位的数组置为“1”（可售）
-                    actualSeats[j - 1][k - 1] = listAvailableSeat.contains("0" + j + SeatNumberUtil.convert(0, k)) ? 0 : 1;
-                }
+            int[][] actualSeats = seatInventoryManager.getCarriageSeatLayout(trainSeatBaseDTO.getTrainId(), carriagesNumber, trainSeatBaseDTO.getDeparture(), trainSeatBaseDTO.getArrival());
+            if (actualSeats == null) {
+                // 车厢不在库存中或站点顺序异常，跳过该车厢
+                continue;
             }
             List<Pair<Integer, Integer>> vacantSeatList = CarriageVacantSeatCalculateUtil.buildCarriageVacantSeatList2(actualSeats, 2, 3);
             boolean isExist = instance.checkChooseSeat(trainSeatBaseDTO.getChooseSeatList(), actualSeats, SEAT_Y_INT);
@@ -292,12 +290,10 @@ public class TrainBusinessClassPurchaseTicketHandler extends AbstractTrainPurcha
         for (int i = 0; i < trainStationCarriageRemainingTicket.size(); i++) {
             carriagesNumber = trainCarriageList.get(i);
             // 获取当前车厢所有可售状态的座位
-            List<String> listAvailableSeat = seatService.listAvailableSeat(trainId, carriagesNumber, seatType, departure, arrival);
-            int[][] actualSeats = new int[2][3];
-            for (int j = 1; j < 3; j++) {
-                for (int k = 1; k < 4; k++) {
-                    actualSeats[j - 1][k - 1] = listAvailableSeat.contains("0" + j + SeatNumberUtil.convert(0, k)) ? 0 : 1;
-                }
+            int[][] actualSeats = seatInventoryManager.getCarriageSeatLayout(trainId, carriagesNumber, departure, arrival);
+            if (actualSeats == null) {
+                // 车厢不在库存中或站点顺序异常，跳过该车厢
+                continue;
             }
             // 尝试获取相邻的座位
             int[][] select = SeatSelection.adjacent(passengerSeatDetails.size(), actualSeats);
@@ -395,12 +391,10 @@ public class TrainBusinessClassPurchaseTicketHandler extends AbstractTrainPurcha
         String carriagesNumber;
         for (int i = 0; i < trainCarriageList.size(); i++) {
             carriagesNumber = trainCarriageList.get(i);
-            List<String> listAvailableSeat = seatService.listAvailableSeat(trainId, carriagesNumber, seatType, departure, arrival);
-            int[][] actualSeats = new int[2][3];
-            for (int j = 1; j < 3; j++) {
-                for (int k = 1; k < 4; k++) {
-                    actualSeats[j - 1][k - 1] = listAvailableSeat.contains("0" + j + SeatNumberUtil.convert(0, k)) ? 0 : 1;
-                }
+            int[][] actualSeats = seatInventoryManager.getCarriageSeatLayout(trainId, carriagesNumber, departure, arrival);
+            if (actualSeats == null) {
+                // 车厢不在库存中或站点顺序异常，跳过该车厢
+                continue;
             }
             // 对座位矩阵进行深拷贝 备用
             int[][] actualSeatsTranscript = deepCopy(actualSeats);
@@ -7,10 +7,10 @@ import com.dlnu.index12306.biz.ticketservice.common.enums.VehicleSeatTypeEnum;
 import com.dlnu.index12306.biz.ticketservice.common.enums.VehicleTypeEnum;
 import com.dlnu.index12306.biz.ticketservice.dto.domain.PurchaseTicketPassengerDetailDTO;
 import com.dlnu.index12306.biz.ticketservice.dto.domain.TrainSeatBaseDTO;
-import com.dlnu.index12306.biz.ticketservice.service.SeatService;
 import com.dlnu.index12306.biz.ticketservice.service.handler.ticket.base.AbstractTrainPurchaseTicketTemplate;
 import com.dlnu.index12306.biz.ticketservice.service.handler.ticket.dto.SelectSeatDTO;
 import com.dlnu.index12306.biz.ticketservice.service.handler.ticket.dto.TrainPurchaseTicketRespDTO;
+import com.dlnu.index12306.biz.ticketservice.service.handler.ticket.inventory.SeatInventoryManager;
 import com.dlnu.index12306.biz.ticketservice.service.handler.ticket.select.SeatSelection;
 import com.dlnu.index12306.biz.ticketservice.toolkit.SeatNumberUtil;
 import com.dlnu.index12306.framework.starter.convention.exception.ServiceException;
@@ -28,7 +28,7 @@ import java.util.concurrent.atomic.AtomicInteger;
 @RequiredArgsConstructor
 public class TrainFirstClassPurchaseTicketHandler extends AbstractTrainPurchaseTicketTemplate {
 
-    private final SeatService seatService;
+    private final SeatInventoryManager seatInventoryManager;
 
     private static final Map<Character, Integer> SEAT_Y_INT = Map.of('A', 0, 'C', 1, 'D', 2, 'F', 3);
 
@@ -44,8 +44,9 @@ public class TrainFirstClassPurchaseTicketHandler extends AbstractTrainPurchaseT
         String arrival = requestParam.getPurchaseTicketParam().getArrival();
         Integer seatType = requestParam.getSeatType();
         List<PurchaseTicketPassengerDetailDTO> passengerSeatDetails = requestParam.getPassengerSeatDetails();
-        List<String> trainCarriageList = seatService.listUsableCarriageNumber(trainId, seatType, departure, arrival);
-        List<Integer> trainStationCarriageRemainingTicket = seatService.listSeatRemainingTicket(trainId, departure, arrival, trainCarriageList);
+        Map<String, Integer> carriageRemainingTicketMap = seatInventoryManager.listCarriageRemainingTicket(trainId, seatType, departure, arrival);
+        List<String> trainCarriageList = new ArrayList<>(carriageRemainingTicketMap.keySet());
+        List<Integer> trainStationCarriageRemainingTicket = new ArrayList<>(carriageRemainingTicketMap.values());
         int remainingTicketSum = trainStationCarriageRemainingTicket.stream().mapToInt(Integer::intValue).sum();
         if (remainingTicketSum < passengerSeatDetails.size()) {
             throw new ServiceException("站点余票不足，请尝试更换座位类型或选择其它站点");
@@ -126,15 +127,17 @@ public class TrainFirstClassPurchaseTicketHandler extends AbstractTrainPurchaseT
         int passengersCount = trainSeatBaseDTO.getPassengerSeatDetails().size();
         for (int i = 0; i < trainStationCarriageRemainingTicket.size(); i++) {
             String carriagesNumber = trainCarriageList.get(i);
-            List<String> listAvailableSeat = seatService.listAvailableSeat(trainSeatBaseDTO.getTrainId(), carriagesNumber, requestParam.getSeatType(), trainSeatBaseDTO.getDeparture(), trainSeatBaseDTO.getArrival());
             // 一等座每个车厢7排4列
-            int[][] actualSeats = new int[7][4];
+            int[][] actualSeats = seatInventoryManager.getCarriageSeatLayout(trainSeatBaseDTO.getTrainId(), carriagesNumber, trainSeatBaseDTO.getDeparture(), trainSeatBaseDTO.getArrival());
+            if (actualSeats == null) {
+                // 车厢不在库存中或站点顺序异常，跳过该车厢
+                continue;
+            }
             List<Pair<Integer, Integer>> carriagesVacantSeat = new ArrayList<>();
-            for (int j = 1; j < 8; j++) {
-                for (int k = 1; k < 5; k++) {
-                    actualSeats[j - 1][k - 1] = listAvailableSeat.contains("0" + j + SeatNumberUtil.convert(1, k)) ? 0 : 1;
-                    if (actualSeats[j - 1][k - 1] == 0) {
-                        carriagesVacantSeat.add(new Pair<>(j - 1, k - 1));
+            for (int j = 0; j < actualSeats.length; j++) {
+                for (int k = 0; k < actualSeats[j].length; k++) {
+                    if (actualSeats[j][k] == 0) {
+                        carriagesVacantSeat.add(new Pair<>(j, k));
                     }
                 }
             }
@@ -260,13 +263,10 @@ public class TrainFirstClassPurchaseTicketHandler extends AbstractTrainPurchaseT
         String carriagesNumber;
         for (int i = 0; i < trainStationCarriageRemainingTicket.size(); i++) {
             carriagesNumber = trainCarriageList.get(i);
-            List<String> listAvailableSeat = seatService.listAvailableSeat(trainId, carriagesNumber, requestParam.getSeatType(), departure, arrival);
-            int[][] actualSeats = new int[7][4];
-            for (int j = 1; j < 8; j++) {
-                for (int k = 1; k < 5; k++) {
-                    // 当前默认按照复兴号商务座排序，后续这里需要按照简单工厂对车类型进行获取 y 轴
-                    actualSeats[j - 1][k - 1] = listAvailableSeat.contains("0" + j + SeatNumberUtil.convert(1, k)) ? 0 : 1;
-                }
+            int[][] actualSeats = seatInventoryManager.getCarriageSeatLayout(trainId, carriagesNumber, departure, arrival);
+            if (actualSeats == null) {
+                // 车厢不在库存中或站点顺序异常，跳过该车厢
+                continue;
             }
             int[][] select = SeatSelection.adjacent(passengerSeatDetails.size(), actualSeats);
             if (select != null) {
@@ -349,12 +349,10 @@ public class TrainFirstClassPurchaseTicketHandler extends AbstractTrainPurchaseT
         // 多人分配同一车厢邻座
         for (int i = 0; i < trainStationCarriageRemainingTicket.size(); i++) {
             carriagesNumber = trainCarriageList.get(i);
-            List<String> listAvailableSeat = seatService.listAvailableSeat(trainId, carriagesNumber, requestParam.getSeatType(), departure, arrival);
-            int[][] actualSeats = new int[7][4];
-            for (int j = 1; j < 8; j++) {
-                for (int k = 1; k < 5; k++) {
-                    actualSeats[j - 1][k - 1] = listAvailableSeat.contains("0" + j + SeatNumberUtil.convert(1, k)) ? 0 : 1;
-                }
+            int[][] actualSeats = seatInventoryManager.getCarriageSeatLayout(trainId, carriagesNumber, departure, arrival);
+            if (actualSeats == null) {
+                // 车厢不在库存中或站点顺序异常，跳过该车厢
+                continue;
             }
             int[][] actualSeatsTranscript = deepCopy(actualSeats);
             List<int[][]> actualSelects = new ArrayList<>();
@@ -7,10 +7,10 @@ import com.dlnu.index12306.biz.ticketservice.common.enums.VehicleSeatTypeEnum;
 import com.dlnu.index12306.biz.ticketservice.common.enums.VehicleTypeEnum;
 import com.dlnu.index12306.biz.ticketservice.dto.domain.PurchaseTicketPassengerDetailDTO;
 import com.dlnu.index12306.biz.ticketservice.dto.domain.TrainSeatBaseDTO;
-import com.dlnu.index12306.biz.ticketservice.service.SeatService;
 import com.dlnu.index12306.biz.ticketservice.service.handler.ticket.base.AbstractTrainPurchaseTicketTemplate;
 import com.dlnu.index12306.biz.ticketservice.service.handler.ticket.dto.SelectSeatDTO;
 import com.dlnu.index12306.biz.ticketservice.service.handler.ticket.dto.TrainPurchaseTicketRespDTO;
+import com.dlnu.index12306.biz.ticketservice.service.handler.ticket.inventory.SeatInventoryManager;
 import com.dlnu.index12306.biz.ticketservice.service.handler.ticket.select.SeatSelection;
 import com.dlnu.index12306.biz.ticketservice.toolkit.SeatNumberUtil;
 import com.dlnu.index12306.framework.starter.convention.exception.ServiceException;
@@ -28,7 +28,7 @@ import java.util.concurrent.atomic.AtomicInteger;
 @RequiredArgsConstructor
 public class TrainSecondClassPurchaseTicketHandler extends AbstractTrainPurchaseTicketTemplate {
 
-    private final SeatService seatService;
+    private final SeatInventoryManager seatInventoryManager;
 
     private static final Map<Character, Integer> SEAT_Y_INT = Map.of('A', 0, 'B', 1, 'C', 2, 'D', 3, 'F', 4);
 
@@ -43,8 +43,9 @@ public class TrainSecondClassPurchaseTicketHandler extends AbstractTrainPurchase
         String departure = requestParam.getPurchaseTicketParam().getDeparture();
         String arrival = requestParam.getPurchaseTicketParam().getArrival();
         List<PurchaseTicketPassengerDetailDTO> passengerSeatDetails = requestParam.getPassengerSeatDetails();
-        List<String> trainCarriageList = seatService.listUsableCarriageNumber(trainId, requestParam.getSeatType(), departure, arrival);
-        List<Integer> trainStationCarriageRemainingTicket = seatService.listSeatRemainingTicket(trainId, departure, arrival, trainCarriageList);
+        Map<String, Integer> carriageRemainingTicketMap = seatInventoryManager.listCarriageRemainingTicket(trainId, requestParam.getSeatType(), departure, arrival);
+        List<String> trainCarriageList = new ArrayList<>(carriageRemainingTicketMap.keySet());
+        List<Integer> trainStationCarriageRemainingTicket = new ArrayList<>(carriageRemainingTicketMap.values());
         int remainingTicketSum = trainStationCarriageRemainingTicket.stream().mapToInt(Integer::intValue).sum();
         if (remainingTicketSum < passengerSeatDetails.size()) {
             throw new ServiceException("站点余票不足，请尝试更换座位类型或选择其它站点");
@@ -109,18 +110,16 @@ public class TrainSecondClassPurchaseTicketHandler extends AbstractTrainPurchase
         int passengersNumber = trainSeatBaseDTO.getPassengerSeatDetails().size();
         for (int i = 0; i < trainStationCarriageRemainingTicket.size(); i++) {
             String carriagesNumber = trainCarriageList.get(i);
-            List<String> listAvailableSeat = seatService.listAvailableSeat(trainSeatBaseDTO.getTrainId(), carriagesNumber, requestParam.getSeatType(), trainSeatBaseDTO.getDeparture(), trainSeatBaseDTO.getArrival());
-            int[][] actualSeats = new int[18][5];
+            int[][] actualSeats = seatInventoryManager.getCarriageSeatLayout(trainSeatBaseDTO.getTrainId(), carriagesNumber, trainSeatBaseDTO.getDeparture(), trainSeatBaseDTO.getArrival());
+            if (actualSeats == null) {
+                // 车厢不在库存中或站点顺序异常，跳过该车厢
+                continue;
+            }
             List<Pair<Integer, Integer>> carriagesVacantSeat = new ArrayList<>();
-            for (int j = 1; j < 19; j++) {
-                for (int k = 1; k < 6; k++) {
-                    if (j <= 9) {
-                        actualSeats[j - 1][k - 1] = listAvailableSeat.contains("0" + j + SeatNumberUtil.convert(2, k)) ? 0 : 1;
-                    } else {
-                        actualSeats[j - 1][k - 1] = listAvailableSeat.contains("" + j + SeatNumberUtil.convert(2, k)) ? 0 : 1;
-                    }
-                    if (actualSeats[j - 1][k - 1] == 0) {
-                        carriagesVacantSeat.add(new Pair<>(j - 1, k - 1));
+            for (int j = 0; j < actualSeats.length; j++) {
+                for (int k = 0; k < actualSeats[j].length; k++) {
+                    if (actualSeats[j][k] == 0) {
+                        carriagesVacantSeat.add(new Pair<>(j, k));
                     }
                 }
             }
@@ -262,17 +261,10 @@ public class TrainSecondClassPurchaseTicketHandler extends AbstractTrainPurchase
         String carriagesNumber;
         for (int i = 0; i < trainStationCarriageRemainingTicket.size(); i++) {
             carriagesNumber = trainCarriageList.get(i);
-            List<String> listAvailableSeat = seatService.listAvailableSeat(trainId, carriagesNumber, requestParam.getSeatType(), departure, arrival);
-            int[][] actualSeats = new int[18][5];
-            for (int j = 1; j < 19; j++) {
-                for (int k = 1; k < 6; k++) {
-                    // 当前默认按照复兴号商务座排序，后续这里需要按照简单工厂对车类型进行获取 y 轴
-                    if (j <= 9) {
-                        actualSeats[j - 1][k - 1] = listAvailableSeat.contains("0" + j + SeatNumberUtil.convert(2, k)) ? 0 : 1;
-                    } else {
-                        actualSeats[j - 1][k - 1] = listAvailableSeat.contains("" + j + SeatNumberUtil.convert(2, k)) ? 0 : 1;
-                    }
-                }
+            int[][] actualSeats = seatInventoryManager.getCarriageSeatLayout(trainId, carriagesNumber, departure, arrival);
+            if (actualSeats == null) {
+                // 车厢不在库存中或站点顺序异常，跳过该车厢
+                continue;
             }
             int[][] select = SeatSelection.adjacent(passengerSeatDetails.size(), actualSeats);
             if (select != null) {
@@ -359,17 +351,10 @@ public class TrainSecondClassPurchaseTicketHandler extends AbstractTrainPurchase
         // 多人分配同一车厢邻座
         for (int i = 0; i < trainStationCarriageRemainingTicket.size(); i++) {
             carriagesNumber = trainCarriageList.get(i);
-            List<String> listAvailableSeat = seatService.listAvailableSeat(trainId, carriagesNumber, requestParam.getSeatType(), departure, arrival);
-            int[][] actualSeats = new int[18][5];
-            for (int j = 1; j < 19; j++) {
-                for (int k = 1; k < 6; k++) {
-                    // 当前默认按照复兴号商务座排序，后续这里需要按照简单工厂对车类型进行获取 y 轴
-                    if (j <= 9) {
-                        actualSeats[j - 1][k - 1] = listAvailableSeat.contains("0" + j + SeatNumberUtil.convert(2, k)) ? 0 : 1;
-                    } else {
-                        actualSeats[j - 1][k - 1] = listAvailableSeat.contains("" + j + SeatNumberUtil.convert(2, k)) ? 0 : 1;
-                    }
-                }
+            int[][] actualSeats = seatInventoryManager.getCarriageSeatLayout(trainId, carriagesNumber, departure, arrival);
+            if (actualSeats == null) {
+                // 车厢不在库存中或站点顺序异常，跳过该车厢
+                continue;
             }
             int[][] actualSeatsTranscript = deepCopy(actualSeats);
             List<int[][]> actualSelects = new ArrayList<>();
@@ -0,0 +1,107 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dlnu.index12306.biz.ticketservice.service.handler.ticket.base;
+
+import com.dlnu.index12306.biz.ticketservice.common.enums.CarriageSeatLayoutEnum;
+import com.dlnu.index12306.framework.starter.cache.DistributedCache;
+import lombok.RequiredArgsConstructor;
+
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 高铁验证座位抽象实现
+ * 一次读取整个车厢的座位状态位图后在本地计算，不再按座位逐位访问 Redis
+ */
+@RequiredArgsConstructor
+public abstract class AbstractTrainBitMapCheckSeat implements TrainBitMapCheckSeat {
+
+    private final CarriageSeatLayoutEnum layout;
+
+    /**
+     * 检查车厢每一列的可售座位数量是否满足需求
+     *
+     * @param key              缓存Key
+     * @param convert          列下标 -> 需要的座位数量
+     * @param distributedCache 分布式缓存接口
+     * @return 判断座位是否存在 true or false
+     */
+    @Override
+    public boolean checkSeat(String key, HashMap<Integer, Integer> convert, DistributedCache distributedCache) {
+        BitSet vacantSeats = BitMapSeatStatusStore.get(key, distributedCache);
+        int columns = layout.getColumns();
+        for (Map.Entry<Integer, Integer> entry : convert.entrySet()) {
+            int column = entry.getKey();
+            if (column < 0 || column >= columns) {
+                return false;
+            }
+            int vacantCount = 0;
+            for (int row = 0; row < layout.getRows() && vacantCount < entry.getValue(); row++) {
+                if (vacantSeats.get(column + row * columns)) {
+                    vacantCount++;
+                }
+            }
+            if (vacantCount < entry.getValue()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 选座中的排号为相对排号，检查车厢内是否存在一组排满足全部选座
+     *
+     * @param chooseSeatList 选择座位，例如 A1、C2
+     * @param actualSeats    座位状态数组，0 为可售
+     * @param SEAT_Y_INT     坐标转换 Map
+     * @return 选座是否可满足
+     */
+    @Override
+    public boolean checkChooseSeat(List<String> chooseSeatList, int[][] actualSeats, Map<Character, Integer> SEAT_Y_INT) {
+        int size = chooseSeatList.size();
+        int[] seatXs = new int[size];
+        int[] seatYs = new int[size];
+        int minSeatX = Integer.MAX_VALUE;
+        int maxSeatX = Integer.MIN_VALUE;
+        for (int i = 0; i < size; i++) {
+            String chooseSeat = chooseSeatList.get(i);
+            Integer seatY = SEAT_Y_INT.get(chooseSeat.charAt(0));
+            if (seatY == null) {
+                return false;
+            }
+            seatXs[i] = Integer.parseInt(chooseSeat.substring(1));
+            seatYs[i] = seatY;
+            minSeatX = Math.min(minSeatX, seatXs[i]);
+            maxSeatX = Math.max(maxSeatX, seatXs[i]);
+        }
+        for (int offset = 0; offset + maxSeatX - minSeatX < actualSeats.length; offset++) {
+            boolean match = true;
+            for (int i = 0; i < size && match; i++) {
+                int[] rowSeats = actualSeats[offset + seatXs[i] - minSeatX];
+                // 座位列号超出该排的座位数量时视为不可选
+                match = seatYs[i] < rowSeats.length && rowSeats[seatYs[i]] == 0;
+            }
+            if (match) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -22,6 +22,7 @@ import cn.hutool.core.util.StrUtil;
 import com.dlnu.index12306.biz.ticketservice.dto.domain.RouteDTO;
 import com.dlnu.index12306.biz.ticketservice.dto.domain.TrainSeatBaseDTO;
 import com.dlnu.index12306.biz.ticketservice.service.TrainStationService;
+import com.dlnu.index12306.biz.ticketservice.service.cache.TicketQueryReadModel;
 import com.dlnu.index12306.biz.ticketservice.service.handler.ticket.dto.SelectSeatDTO;
 import com.dlnu.index12306.biz.ticketservice.service.handler.ticket.dto.TrainPurchaseTicketRespDTO;
 import com.dlnu.index12306.framework.starter.bases.ApplicationContextHolder;
@@ -31,7 +32,9 @@ import org.springframework.boot.CommandLineRunner;
 import org.springframework.core.env.ConfigurableEnvironment;
 import org.springframework.data.redis.core.StringRedisTemplate;
 
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import static com.dlnu.index12306.biz.ticketservice.common.constant.RedisKeyConstant.TRAIN_STATION_REMAINING_TICKET;
 
@@ -43,6 +46,7 @@ public abstract class AbstractTrainPurchaseTicketTemplate implements IPurchaseTi
     private DistributedCache distributedCache;
     private String ticketAvailabilityCacheUpdateType;
     private TrainStationService trainStationService;
+    private TicketQueryReadModel ticketQueryReadModel;
 
     /**
      * 选择座位
@@ -78,10 +82,13 @@ public abstract class AbstractTrainPurchaseTicketTemplate implements IPurchaseTi
             // 计算需要扣减的站点
             List<RouteDTO> routeDTOList = trainStationService.listTakeoutTrainStationRoute(trainId, departure, arrival);
             // 扣减余票
+            Map<String, Map<Integer, Integer>> remainingTicketDeltaMap = new HashMap<>(routeDTOList.size());
             routeDTOList.forEach(each -> {
                 String keySuffix = StrUtil.join("_", trainId, each.getStartStation(), each.getEndStation());
                 stringRedisTemplate.opsForHash().increment(TRAIN_STATION_REMAINING_TICKET + keySuffix, String.valueOf(requestParam.getSeatType()), -actualResult.size());
+                remainingTicketDeltaMap.put(TRAIN_STATION_REMAINING_TICKET + keySuffix, Map.of(requestParam.getSeatType(), -actualResult.size()));
             });
+            ticketQueryReadModel.publishRemainingTicketDeltas(remainingTicketDeltaMap);
         }
         return actualResult;
     }
@@ -90,6 +97,7 @@ public abstract class AbstractTrainPurchaseTicketTemplate implements IPurchaseTi
     public void run(String... args) throws Exception {
         distributedCache = ApplicationContextHolder.getBean(DistributedCache.class);
         trainStationService = ApplicationContextHolder.getBean(TrainStationService.class);
+        ticketQueryReadModel = ApplicationContextHolder.getBean(TicketQueryReadModel.class);
         ConfigurableEnvironment configurableEnvironment = ApplicationContextHolder.getBean(ConfigurableEnvironment.class);
         ticketAvailabilityCacheUpdateType = configurableEnvironment.getProperty("ticket.availability.cache-update.type", "");
     }
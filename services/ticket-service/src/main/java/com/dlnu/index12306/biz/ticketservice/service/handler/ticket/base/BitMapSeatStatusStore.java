@@ -0,0 +1,119 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dlnu.index12306.biz.ticketservice.service.handler.ticket.base;
+
+import cn.hutool.core.util.StrUtil;
+import com.dlnu.index12306.framework.starter.cache.DistributedCache;
+import org.springframework.data.redis.connection.RedisStringCommands;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.types.Expiration;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.util.BitSet;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static com.dlnu.index12306.biz.ticketservice.common.constant.RedisKeyConstant.TRAIN_CARRIAGE_SEAT_STATUS;
+
+/**
+ * 车厢座位状态位图存储
+ * 位下标为车厢内座位下标，置位代表座位可售；整个车厢的位图通过一次 GET / SET 读写原始字节，
+ * 与 Redis GETBIT / SETBIT 的位序保持一致（每个字节高位在前）
+ */
+public final class BitMapSeatStatusStore {
+
+    private BitMapSeatStatusStore() {
+    }
+
+    /**
+     * 构建车厢座位状态缓存 Key
+     */
+    public static String buildKey(String trainId, String departure, String arrival, String carriageNumber) {
+        return TRAIN_CARRIAGE_SEAT_STATUS + StrUtil.join(StrUtil.UNDERLINE, trainId, departure, arrival, carriageNumber);
+    }
+
+    /**
+     * 一次读取车厢座位状态位图
+     *
+     * @param key              缓存Key
+     * @param distributedCache 分布式缓存接口
+     * @return 可售座位位图，Key 不存在时返回空位图
+     */
+    public static BitSet get(String key, DistributedCache distributedCache) {
+        StringRedisTemplate stringRedisTemplate = (StringRedisTemplate) distributedCache.getInstance();
+        byte[] rawKey = rawKey(stringRedisTemplate, key);
+        byte[] value = stringRedisTemplate.execute((RedisCallback<byte[]>) connection -> connection.stringCommands().get(rawKey));
+        return value == null ? new BitSet() : BitSet.valueOf(reverseBitOrder(value));
+    }
+
+    /**
+     * 一次写入车厢座位状态位图
+     *
+     * @param key              缓存Key
+     * @param vacantSeats      可售座位位图
+     * @param distributedCache 分布式缓存接口
+     * @param timeout          过期时间
+     * @param timeUnit         时间单位
+     */
+    public static void put(String key, BitSet vacantSeats, DistributedCache distributedCache, long timeout, TimeUnit timeUnit) {
+        StringRedisTemplate stringRedisTemplate = (StringRedisTemplate) distributedCache.getInstance();
+        byte[] rawKey = rawKey(stringRedisTemplate, key);
+        byte[] value = reverseBitOrder(vacantSeats.toByteArray());
+        stringRedisTemplate.execute((RedisCallback<Boolean>) connection -> connection.stringCommands()
+                .set(rawKey, value, Expiration.from(timeout, timeUnit), RedisStringCommands.SetOption.upsert()));
+    }
+
+    /**
+     * 通过一次管道请求写入多个车厢座位状态位图
+     *
+     * @param vacantSeatsMap   缓存Key -> 可售座位位图
+     * @param distributedCache 分布式缓存接口
+     * @param timeout          过期时间
+     * @param timeUnit         时间单位
+     */
+    public static void putAll(Map<String, BitSet> vacantSeatsMap, DistributedCache distributedCache, long timeout, TimeUnit timeUnit) {
+        if (vacantSeatsMap.isEmpty()) {
+            return;
+        }
+        StringRedisTemplate stringRedisTemplate = (StringRedisTemplate) distributedCache.getInstance();
+        Expiration expiration = Expiration.from(timeout, timeUnit);
+        stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            vacantSeatsMap.forEach((key, vacantSeats) -> connection.stringCommands()
+                    .set(rawKey(stringRedisTemplate, key), reverseBitOrder(vacantSeats.toByteArray()), expiration, RedisStringCommands.SetOption.upsert()));
+            return null;
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private static byte[] rawKey(StringRedisTemplate stringRedisTemplate, String key) {
+        // 使用模板的 Key 序列化器，保留统一的缓存 Key 前缀
+        return ((RedisSerializer<String>) stringRedisTemplate.getKeySerializer()).serialize(key);
+    }
+
+    /**
+     * {@link BitSet} 字节内低位在前，Redis 位图字节内高位在前，两者互相转换时翻转每个字节的位序
+     */
+    private static byte[] reverseBitOrder(byte[] bytes) {
+        byte[] result = new byte[bytes.length];
+        for (int i = 0; i < bytes.length; i++) {
+            result[i] = (byte) (Integer.reverse(bytes[i] & 0xFF) >>> 24);
+        }
+        return result;
+    }
+}
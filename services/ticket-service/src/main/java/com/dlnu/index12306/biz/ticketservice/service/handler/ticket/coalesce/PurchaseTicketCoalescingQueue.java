@@ -0,0 +1,306 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dlnu.index12306.biz.ticketservice.service.handler.ticket.coalesce;
+
+import cn.hutool.core.util.StrUtil;
+import com.dlnu.index12306.biz.ticketservice.dto.domain.PurchaseTicketPassengerDetailDTO;
+import com.dlnu.index12306.biz.ticketservice.dto.req.PurchaseTicketReqDTO;
+import com.dlnu.index12306.biz.ticketservice.dto.resp.TicketPurchaseRespDTO;
+import com.dlnu.index12306.biz.ticketservice.metrics.TicketServiceMetrics;
+import com.dlnu.index12306.biz.ticketservice.service.TicketService;
+import com.dlnu.index12306.biz.ticketservice.service.handler.ticket.lock.PurchaseTicketLockRegistry;
+import com.dlnu.index12306.biz.ticketservice.service.handler.ticket.tokenbucket.TicketAvailabilityTokenBucket;
+import com.dlnu.index12306.framework.starter.bases.ApplicationContextHolder;
+import com.dlnu.index12306.framework.starter.common.threadpool.build.ThreadFactoryBuilder;
+import com.dlnu.index12306.framework.starter.convention.exception.ServiceException;
+import com.dlnu.index12306.framework.starter.user.core.UserContext;
+import com.dlnu.index12306.framework.starter.user.core.UserInfoDTO;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RLock;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 购票请求合并队列
+ * 同一列车相同座位类型组合的购票请求进入同一队列，由单个线程按批次取出，一个批次只获取一次座位类型分布式锁，
+ * 批次内请求依次在各自事务中选座、保存车票并创建订单，单个请求失败不影响同批次其它请求
+ * 每个队列同一时间最多占用一个工作线程且每次只执行一个批次，队列容量、分布式锁等待与请求等待时间均有上限，避免热点车次阻塞其它车次
+ * 请求在进入队列前已取出令牌，未能完成选座下单的请求由认领其执行权的一方归还令牌，保证每个请求最多归还一次
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PurchaseTicketCoalescingQueue implements InitializingBean, DisposableBean {
+
+    private final PurchaseTicketLockRegistry purchaseTicketLockRegistry;
+    private final TicketServiceMetrics ticketServiceMetrics;
+    private final TicketAvailabilityTokenBucket ticketAvailabilityTokenBucket;
+
+    /**
+     * 购票队列，Key 为列车ID_排序后的座位类型，一天未访问后过期
+     */
+    private final Cache<String, PurchaseLane> purchaseLaneMap = Caffeine.newBuilder()
+            .expireAfterAccess(1, TimeUnit.DAYS)
+            .build();
+
+    /**
+     * 单个批次最多合并的购票请求数量
+     */
+    @Value("${ticket.purchase.coalescing.max-batch-size:50}")
+    private int maxBatchSize;
+
+    /**
+     * 队列从空闲状态收到第一个请求后等待合并的时间窗口
+     */
+    @Value("${ticket.purchase.coalescing.batch-window-millis:5}")
+    private long batchWindowMillis;
+
+    @Value("${ticket.purchase.coalescing.worker-threads:8}")
+    private int workerThreads;
+
+    /**
+     * 单个队列最多等待执行的购票请求数量，超过后直接拒绝
+     */
+    @Value("${ticket.purchase.coalescing.max-queue-size:500}")
+    private int maxQueueSize;
+
+    /**
+     * 批次获取座位类型分布式锁的最长等待时间
+     */
+    @Value("${ticket.purchase.coalescing.lock-wait-millis:3000}")
+    private long lockWaitMillis;
+
+    /**
+     * 座位类型分布式锁租期，需要大于单个批次的执行时间
+     */
+    @Value("${ticket.purchase.coalescing.lock-lease-millis:30000}")
+    private long lockLeaseMillis;
+
+    /**
+     * 请求等待所在批次开始执行的最长时间，超时后请求不再执行
+     */
+    @Value("${ticket.purchase.coalescing.request-timeout-millis:10000}")
+    private long requestTimeoutMillis;
+
+    private ScheduledThreadPoolExecutor drainExecutor;
+
+    @Override
+    public void afterPropertiesSet() {
+        drainExecutor = new ScheduledThreadPoolExecutor(
+                workerThreads,
+                ThreadFactoryBuilder.builder().prefix("purchase-ticket-coalescing").daemon(true).build()
+        );
+    }
+
+    @Override
+    public void destroy() {
+        drainExecutor.shutdown();
+    }
+
+    /**
+     * 提交购票请求并等待所在批次执行完成
+     *
+     * @param requestParam 购票请求入参
+     * @return 购票结果
+     */
+    public TicketPurchaseRespDTO submit(PurchaseTicketReqDTO requestParam) {
+        List<Integer> seatTypes = requestParam.getPassengers().stream()
+                .map(PurchaseTicketPassengerDetailDTO::getSeatType)
+                .distinct()
+                .sorted()
+                .toList();
+        String laneKey = requestParam.getTrainId() + StrUtil.UNDERLINE + StrUtil.join(StrUtil.UNDERLINE, seatTypes);
+        PurchaseLane lane = purchaseLaneMap.get(laneKey, key -> new PurchaseLane(requestParam.getTrainId(), seatTypes, new LinkedBlockingQueue<>(maxQueueSize)));
+        UserInfoDTO userInfo = UserInfoDTO.builder()
+                .userId(UserContext.getUserId())
+                .username(UserContext.getUsername())
+                .realName(UserContext.getRealName())
+                .token(UserContext.getToken())
+                .build();
+        PurchaseRequest purchaseRequest = new PurchaseRequest(requestParam, userInfo, new CompletableFuture<>(), new AtomicBoolean(false));
+        if (!lane.queue.offer(purchaseRequest)) {
+            ticketAvailabilityTokenBucket.rollbackInBucket(requestParam);
+            throw new ServiceException("当前车次购票人数过多，请稍后再试");
+        }
+        if (lane.draining.compareAndSet(false, true)) {
+            scheduleDrain(lane, batchWindowMillis);
+        }
+        try {
+            return awaitResult(purchaseRequest);
+        } catch (CompletionException | ExecutionException ex) {
+            throw ex.getCause() instanceof RuntimeException runtimeException ? runtimeException : new ServiceException("购票异常，请稍后再试");
+        }
+    }
+
+    private TicketPurchaseRespDTO awaitResult(PurchaseRequest purchaseRequest) throws ExecutionException {
+        try {
+            return purchaseRequest.future.get(requestTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException ex) {
+            // 请求尚未开始执行时直接取消并归还令牌，已经开始执行时需要等待事务结束，避免购票成功但返回失败
+            if (purchaseRequest.started.compareAndSet(false, true)) {
+                ticketAvailabilityTokenBucket.rollbackInBucket(purchaseRequest.requestParam);
+                throw new ServiceException("当前车次购票人数过多，请稍后再试");
+            }
+            return awaitStartedResult(purchaseRequest);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            if (purchaseRequest.started.compareAndSet(false, true)) {
+                ticketAvailabilityTokenBucket.rollbackInBucket(purchaseRequest.requestParam);
+                throw new ServiceException("购票异常，请稍后再试");
+            }
+            throw new ServiceException("购票结果处理中，请稍后在订单中查看");
+        }
+    }
+
+    private TicketPurchaseRespDTO awaitStartedResult(PurchaseRequest purchaseRequest) throws ExecutionException {
+        try {
+            // 已开始执行的请求最多再等待一个分布式锁等待时长，令牌由执行方在失败时归还
+            return purchaseRequest.future.get(lockWaitMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException ex) {
+            throw new ServiceException("购票结果处理中，请稍后在订单中查看");
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new ServiceException("购票结果处理中，请稍后在订单中查看");
+        }
+    }
+
+    private void scheduleDrain(PurchaseLane lane, long delayMillis) {
+        try {
+            drainExecutor.schedule(() -> drain(lane), delayMillis, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException ex) {
+            PurchaseRequest each;
+            while ((each = lane.queue.poll()) != null) {
+                failUnstarted(each, new ServiceException("购票服务正在关闭，请稍后重试"));
+            }
+            lane.draining.set(false);
+        }
+    }
+
+    private void drain(PurchaseLane lane) {
+        List<PurchaseRequest> batch = new ArrayList<>(maxBatchSize);
+        PurchaseRequest each;
+        while (batch.size() < maxBatchSize && (each = lane.queue.poll()) != null) {
+            batch.add(each);
+        }
+        try {
+            if (!batch.isEmpty()) {
+                executeBatch(lane, batch);
+            }
+        } finally {
+            lane.draining.set(false);
+            // 释放执行权后再次检查，避免与并发入队的请求互相错过
+            if (!lane.queue.isEmpty() && lane.draining.compareAndSet(false, true)) {
+                scheduleDrain(lane, 0L);
+            }
+        }
+    }
+
+    private void executeBatch(PurchaseLane lane, List<PurchaseRequest> batch) {
+        List<RLock> acquiredLockList = new ArrayList<>(lane.seatTypes.size());
+        long lockWaitStartNanos = System.nanoTime();
+        long lockHoldStartNanos = 0L;
+        try {
+            // 与 v2 购票使用相同的座位类型分布式锁，按座位类型顺序加锁，等待超时后整个批次失败
+            long lockDeadlineNanos = lockWaitStartNanos + TimeUnit.MILLISECONDS.toNanos(lockWaitMillis);
+            for (Integer seatType : lane.seatTypes) {
+                RLock distributedLock = purchaseTicketLockRegistry.getDistributedLock(lane.trainId, seatType);
+                long waitMillis = Math.max(0L, TimeUnit.NANOSECONDS.toMillis(lockDeadlineNanos - System.nanoTime()));
+                if (!distributedLock.tryLock(waitMillis, lockLeaseMillis, TimeUnit.MILLISECONDS)) {
+                    throw new ServiceException("当前车次购票人数过多，请稍后再试");
+                }
+                acquiredLockList.add(distributedLock);
+            }
+            lockHoldStartNanos = System.nanoTime();
+            ticketServiceMetrics.recordPurchaseLockWait(lockWaitStartNanos);
+            TicketService ticketService = ApplicationContextHolder.getBean(TicketService.class);
+            for (PurchaseRequest each : batch) {
+                // 等待超时的请求已经返回失败，不再执行
+                if (!each.started.compareAndSet(false, true)) {
+                    continue;
+                }
+                UserContext.setUser(each.userInfo);
+                try {
+                    each.future.complete(ticketService.executePurchaseTickets(each.requestParam));
+                } catch (Throwable ex) {
+                    // 选座下单事务已回滚，归还本次取出的令牌
+                    ticketAvailabilityTokenBucket.rollbackInBucket(each.requestParam);
+                    each.future.completeExceptionally(ex);
+                } finally {
+                    UserContext.removeUser();
+                }
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            batch.forEach(each -> failUnstarted(each, new ServiceException("购票服务正在关闭，请稍后重试")));
+        } catch (Throwable ex) {
+            log.error("合并购票批次执行失败，列车ID：{}，请求数量：{}", lane.trainId, batch.size(), ex);
+            batch.forEach(each -> failUnstarted(each, ex));
+        } finally {
+            acquiredLockList.forEach(distributedLock -> {
+                try {
+                    distributedLock.unlock();
+                } catch (Throwable ignored) {
+                }
+            });
+            if (lockHoldStartNanos != 0L) {
+                ticketServiceMetrics.recordPurchaseLockHold(lockHoldStartNanos);
+            }
+        }
+    }
+
+    /**
+     * 请求返回失败，认领到尚未开始执行的请求时归还其已取出的令牌，已被认领的请求由认领方归还
+     */
+    private void failUnstarted(PurchaseRequest purchaseRequest, Throwable ex) {
+        if (purchaseRequest.started.compareAndSet(false, true)) {
+            ticketAvailabilityTokenBucket.rollbackInBucket(purchaseRequest.requestParam);
+        }
+        purchaseRequest.future.completeExceptionally(ex);
+    }
+
+    @RequiredArgsConstructor
+    private static class PurchaseLane {
+
+        private final String trainId;
+        private final List<Integer> seatTypes;
+        private final Queue<PurchaseRequest> queue;
+        private final AtomicBoolean draining = new AtomicBoolean(false);
+    }
+
+    private record PurchaseRequest(PurchaseTicketReqDTO requestParam, UserInfoDTO userInfo, CompletableFuture<TicketPurchaseRespDTO> future,
+                                   AtomicBoolean started) {
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dlnu.index12306.biz.ticketservice.service.handler.ticket.inventory;
+
+import com.dlnu.index12306.biz.ticketservice.common.enums.CarriageSeatLayoutEnum;
+import lombok.Getter;
+
+import java.util.BitSet;
+
+/**
+ * 车厢座位库存
+ * 按照列车相邻站点区间（第 i 站到第 i + 1 站）维护一组 BitSet，位下标为车厢内座位下标，置位代表该区间座位可售
+ * 出发站到到达站之间的可售座位 = 途经区间 BitSet 按位与
+ */
+public class CarriageSeatInventory {
+
+    @Getter
+    private final String carriageNumber;
+
+    @Getter
+    private final CarriageSeatLayoutEnum layout;
+
+    /**
+     * 下标为区间序号，区间 i 代表第 i 站到第 i + 1 站
+     */
+    private final BitSet[] segmentVacantSeats;
+
+    public CarriageSeatInventory(String carriageNumber, CarriageSeatLayoutEnum layout, int segmentCount) {
+        this.carriageNumber = carriageNumber;
+        this.layout = layout;
+        this.segmentVacantSeats = new BitSet[segmentCount];
+        for (int i = 0; i < segmentCount; i++) {
+            segmentVacantSeats[i] = new BitSet(layout.getSeatCount());
+        }
+    }
+
+    /**
+     * 获取出发站到到达站之间全程可售的座位
+     *
+     * @param startOrdinal 出发站序号
+     * @param endOrdinal   到达站序号
+     * @return 可售座位位图
+     */
+    public synchronized BitSet vacantSeats(int startOrdinal, int endOrdinal) {
+        BitSet result = (BitSet) segmentVacantSeats[startOrdinal].clone();
+        for (int i = startOrdinal + 1; i < endOrdinal; i++) {
+            result.and(segmentVacantSeats[i]);
+        }
+        return result;
+    }
+
+    /**
+     * 获取出发站到到达站之间可售座位数量
+     */
+    public int vacantSeatCount(int startOrdinal, int endOrdinal) {
+        return vacantSeats(startOrdinal, endOrdinal).cardinality();
+    }
+
+    /**
+     * 获取车厢座位布局，0 为可售 1 为不可售，与 {@link com.dlnu.index12306.biz.ticketservice.service.handler.ticket.select.SeatSelection} 保持一致
+     *
+     * @param startOrdinal 出发站序号
+     * @param endOrdinal   到达站序号
+     * @return 车厢座位布局
+     */
+    public int[][] seatLayout(int startOrdinal, int endOrdinal) {
+        BitSet vacantSeats = vacantSeats(startOrdinal, endOrdinal);
+        int columns = layout.getColumns();
+        int[][] actualSeats = new int[layout.getRows()][columns];
+        for (int i = 0; i < layout.getRows(); i++) {
+            for (int j = 0; j < columns; j++) {
+                actualSeats[i][j] = vacantSeats.get(i * columns + j) ? 0 : 1;
+            }
+        }
+        return actualSeats;
+    }
+
+    /**
+     * 更新座位在出发站到到达站之间所有区间的可售状态
+     *
+     * @param seatNumber   座位号
+     * @param startOrdinal 出发站序号
+     * @param endOrdinal   到达站序号
+     * @param vacant       是否可售
+     */
+    public synchronized void update(String seatNumber, int startOrdinal, int endOrdinal, boolean vacant) {
+        int seatIndex = layout.seatIndex(seatNumber);
+        if (seatIndex < 0) {
+            return;
+        }
+        for (int i = startOrdinal; i < endOrdinal; i++) {
+            segmentVacantSeats[i].set(seatIndex, vacant);
+        }
+    }
+}
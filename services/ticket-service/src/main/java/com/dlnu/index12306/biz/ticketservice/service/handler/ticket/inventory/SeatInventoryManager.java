@@ -0,0 +1,273 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dlnu.index12306.biz.ticketservice.service.handler.ticket.inventory;
+
+import cn.hutool.core.collection.CollUtil;
+import com.dlnu.index12306.biz.ticketservice.common.enums.CarriageSeatLayoutEnum;
+import com.dlnu.index12306.biz.ticketservice.common.enums.SeatStatusEnum;
+import com.dlnu.index12306.biz.ticketservice.dao.entity.SeatDO;
+import com.dlnu.index12306.biz.ticketservice.dao.mapper.SeatMapper;
+import com.dlnu.index12306.biz.ticketservice.dto.domain.RouteDTO;
+import com.dlnu.index12306.biz.ticketservice.service.TrainStationService;
+import com.dlnu.index12306.biz.ticketservice.service.handler.ticket.base.BitMapSeatStatusStore;
+import com.dlnu.index12306.biz.ticketservice.service.handler.ticket.dto.TrainPurchaseTicketRespDTO;
+import com.dlnu.index12306.framework.starter.cache.DistributedCache;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static com.dlnu.index12306.biz.ticketservice.common.constant.Index12306Constant.ADVANCE_TICKET_DAY;
+
+/**
+ * 列车座位内存库存管理
+ * 以 t_seat 相邻站点区间的座位状态为准加载到内存，选座时不再逐车厢查询数据库
+ * 本实例锁座、解锁在事务提交后同步更新，其它实例的变更通过 t_seat Binlog 同步
+ * 库存加载以及座位状态变更后，受影响站点区间的车厢可售座位同步写入座位状态位图，供选座前一次读取整个车厢判断
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SeatInventoryManager {
+
+    private final SeatMapper seatMapper;
+    private final TrainStationService trainStationService;
+    private final DistributedCache distributedCache;
+
+    /**
+     * 列车座位库存容器，过期后从数据库重新加载，兜底多实例间的状态差异
+     */
+    private final Cache<String, TrainSeatInventory> trainSeatInventoryCache = Caffeine.newBuilder()
+            .expireAfterWrite(10, TimeUnit.MINUTES)
+            .build();
+
+    /**
+     * 获取列车座位库存，不存在则从数据库加载
+     *
+     * @param trainId 列车 ID
+     * @return 列车座位库存
+     */
+    public TrainSeatInventory getInventory(String trainId) {
+        return trainSeatInventoryCache.get(trainId, this::loadInventory);
+    }
+
+    /**
+     * 获取出发站到到达站之间有余票的车厢以及车厢余票数量
+     *
+     * @param trainId   列车 ID
+     * @param seatType  座位类型
+     * @param departure 出发站
+     * @param arrival   到达站
+     * @return 车厢号与余票数量映射，按照车厢号排序
+     */
+    public Map<String, Integer> listCarriageRemainingTicket(String trainId, Integer seatType, String departure, String arrival) {
+        Map<String, Integer> result = new LinkedHashMap<>();
+        TrainSeatInventory inventory = getInventory(trainId);
+        int startOrdinal = inventory.stationOrdinal(departure);
+        int endOrdinal = inventory.stationOrdinal(arrival);
+        if (startOrdinal < 0 || endOrdinal <= startOrdinal) {
+            return result;
+        }
+        for (CarriageSeatInventory each : inventory.listCarriage(seatType)) {
+            int vacantSeatCount = each.vacantSeatCount(startOrdinal, endOrdinal);
+            if (vacantSeatCount > 0) {
+                result.put(each.getCarriageNumber(), vacantSeatCount);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 获取车厢在出发站到到达站之间的座位布局，0 为可售 1 为不可售
+     *
+     * @param trainId        列车 ID
+     * @param carriageNumber 车厢号
+     * @param departure      出发站
+     * @param arrival        到达站
+     * @return 车厢座位布局，车厢不存在或站点顺序异常时返回 null，调用方需跳过该车厢
+     */
+    public int[][] getCarriageSeatLayout(String trainId, String carriageNumber, String departure, String arrival) {
+        TrainSeatInventory inventory = getInventory(trainId);
+        CarriageSeatInventory carriage = inventory.getCarriage(carriageNumber);
+        int startOrdinal = inventory.stationOrdinal(departure);
+        int endOrdinal = inventory.stationOrdinal(arrival);
+        if (carriage == null || startOrdinal < 0 || endOrdinal <= startOrdinal) {
+            return null;
+        }
+        return carriage.seatLayout(startOrdinal, endOrdinal);
+    }
+
+    /**
+     * 标记座位不可售，存在事务时在事务提交后执行
+     */
+    public void occupy(String trainId, String departure, String arrival, List<TrainPurchaseTicketRespDTO> seats) {
+        afterCommit(() -> updateSeats(trainId, departure, arrival, seats, false));
+    }
+
+    /**
+     * 标记座位可售，存在事务时在事务提交后执行
+     */
+    public void release(String trainId, String departure, String arrival, List<TrainPurchaseTicketRespDTO> seats) {
+        afterCommit(() -> updateSeats(trainId, departure, arrival, seats, true));
+    }
+
+    /**
+     * 根据 t_seat 的变更记录刷新座位状态，仅处理相邻站点区间的记录，未加载的列车忽略
+     * 同一列车的变更全部刷新后，按变更涉及的车厢与站点范围一次写入座位状态位图
+     *
+     * @param seatDOList 座位变更记录，包含列车 ID、车厢号、座位号、起始站、终点站以及座位状态
+     */
+    public void refreshSeatStatus(List<SeatDO> seatDOList) {
+        Map<Long, List<SeatDO>> trainSeatMap = seatDOList.stream().collect(Collectors.groupingBy(SeatDO::getTrainId));
+        trainSeatMap.forEach((trainId, trainSeats) -> {
+            TrainSeatInventory inventory = trainSeatInventoryCache.getIfPresent(String.valueOf(trainId));
+            if (inventory == null) {
+                return;
+            }
+            Map<String, CarriageSeatInventory> changedCarriageMap = new LinkedHashMap<>();
+            int minStartOrdinal = Integer.MAX_VALUE;
+            int maxEndOrdinal = Integer.MIN_VALUE;
+            for (SeatDO each : trainSeats) {
+                CarriageSeatInventory carriage = inventory.getCarriage(each.getCarriageNumber());
+                int startOrdinal = inventory.stationOrdinal(each.getStartStation());
+                int endOrdinal = inventory.stationOrdinal(each.getEndStation());
+                if (carriage == null || startOrdinal < 0 || endOrdinal != startOrdinal + 1) {
+                    continue;
+                }
+                carriage.update(each.getSeatNumber(), startOrdinal, endOrdinal, Objects.equals(each.getSeatStatus(), SeatStatusEnum.AVAILABLE.getCode()));
+                changedCarriageMap.put(carriage.getCarriageNumber(), carriage);
+                minStartOrdinal = Math.min(minStartOrdinal, startOrdinal);
+                maxEndOrdinal = Math.max(maxEndOrdinal, endOrdinal);
+            }
+            writeSeatStatusBitMap(inventory, changedCarriageMap.values(), minStartOrdinal, maxEndOrdinal);
+        });
+    }
+
+    /**
+     * 删除列车座位库存，下次访问时从数据库重新加载
+     */
+    public void invalidate(String trainId) {
+        trainSeatInventoryCache.invalidate(trainId);
+    }
+
+    private void updateSeats(String trainId, String departure, String arrival, List<TrainPurchaseTicketRespDTO> seats, boolean vacant) {
+        TrainSeatInventory inventory = trainSeatInventoryCache.getIfPresent(trainId);
+        if (inventory == null) {
+            return;
+        }
+        int startOrdinal = inventory.stationOrdinal(departure);
+        int endOrdinal = inventory.stationOrdinal(arrival);
+        if (startOrdinal < 0 || endOrdinal <= startOrdinal) {
+            return;
+        }
+        Map<String, CarriageSeatInventory> changedCarriageMap = new LinkedHashMap<>();
+        for (TrainPurchaseTicketRespDTO each : seats) {
+            CarriageSeatInventory carriage = inventory.getCarriage(each.getCarriageNumber());
+            if (carriage != null) {
+                carriage.update(each.getSeatNumber(), startOrdinal, endOrdinal, vacant);
+                changedCarriageMap.put(carriage.getCarriageNumber(), carriage);
+            }
+        }
+        writeSeatStatusBitMap(inventory, changedCarriageMap.values(), startOrdinal, endOrdinal);
+    }
+
+    private TrainSeatInventory loadInventory(String trainId) {
+        List<String> stations = trainStationService.getTrainStationRouteTable(trainId).getStations();
+        TrainSeatInventory inventory = new TrainSeatInventory(trainId, stations);
+        if (inventory.segmentCount() == 0) {
+            return inventory;
+        }
+        List<RouteDTO> segmentRoutes = new ArrayList<>(inventory.segmentCount());
+        for (int i = 0; i < stations.size() - 1; i++) {
+            segmentRoutes.add(new RouteDTO(stations.get(i), stations.get(i + 1)));
+        }
+        List<SeatDO> seatDOList = seatMapper.listSeatSegmentStatus(Long.parseLong(trainId), segmentRoutes);
+        if (CollUtil.isEmpty(seatDOList)) {
+            return inventory;
+        }
+        for (SeatDO each : seatDOList) {
+            CarriageSeatLayoutEnum layout = CarriageSeatLayoutEnum.findBySeatType(each.getSeatType());
+            int startOrdinal = inventory.stationOrdinal(each.getStartStation());
+            if (layout == null || startOrdinal < 0) {
+                continue;
+            }
+            CarriageSeatInventory carriage = inventory.getCarriage(each.getCarriageNumber());
+            if (carriage == null) {
+                carriage = new CarriageSeatInventory(each.getCarriageNumber(), layout, inventory.segmentCount());
+                inventory.putCarriage(carriage);
+            }
+            if (Objects.equals(each.getSeatStatus(), SeatStatusEnum.AVAILABLE.getCode())) {
+                carriage.update(each.getSeatNumber(), startOrdinal, startOrdinal + 1, true);
+            }
+        }
+        log.info("加载列车座位库存，列车ID：{}，区间数量：{}，座位记录数：{}", trainId, inventory.segmentCount(), seatDOList.size());
+        writeSeatStatusBitMap(inventory, inventory.listCarriage(), 0, inventory.segmentCount());
+        return inventory;
+    }
+
+    /**
+     * 写入车厢在受影响站点区间的座位状态位图，出发站序号小于 endOrdinal 且到达站序号大于 startOrdinal 的区间均受影响
+     */
+    private void writeSeatStatusBitMap(TrainSeatInventory inventory, Collection<CarriageSeatInventory> carriages, int startOrdinal, int endOrdinal) {
+        if (carriages.isEmpty() || endOrdinal <= startOrdinal) {
+            return;
+        }
+        List<String> stations = inventory.getStations();
+        Map<String, BitSet> vacantSeatsMap = new HashMap<>();
+        for (int i = 0; i < endOrdinal; i++) {
+            for (int j = Math.max(i, startOrdinal) + 1; j < stations.size(); j++) {
+                for (CarriageSeatInventory each : carriages) {
+                    vacantSeatsMap.put(BitMapSeatStatusStore.buildKey(inventory.getTrainId(), stations.get(i), stations.get(j), each.getCarriageNumber()), each.vacantSeats(i, j));
+                }
+            }
+        }
+        try {
+            BitMapSeatStatusStore.putAll(vacantSeatsMap, distributedCache, ADVANCE_TICKET_DAY, TimeUnit.DAYS);
+        } catch (Throwable ex) {
+            // 位图仅用于选座前的快速判断，写入失败不影响内存库存与购票，下次变更或重新加载时覆盖
+            log.error("写入车厢座位状态位图失败，列车ID：{}", inventory.getTrainId(), ex);
+        }
+    }
+
+    private void afterCommit(Runnable runnable) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    runnable.run();
+                }
+            });
+            return;
+        }
+        runnable.run();
+    }
+}
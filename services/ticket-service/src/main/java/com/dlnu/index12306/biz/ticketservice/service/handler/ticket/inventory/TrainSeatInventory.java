@@ -0,0 +1,98 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dlnu.index12306.biz.ticketservice.service.handler.ticket.inventory;
+
+import lombok.Getter;
+
+import java.util.*;
+
+/**
+ * 列车座位库存
+ */
+public class TrainSeatInventory {
+
+    @Getter
+    private final String trainId;
+
+    /**
+     * 按照停靠顺序排列的站点名称
+     */
+    @Getter
+    private final List<String> stations;
+
+    /**
+     * 站点名称与站点序号映射
+     */
+    private final Map<String, Integer> stationOrdinalMap;
+
+    /**
+     * 车厢号与车厢座位库存映射，按照车厢号排序
+     */
+    private final Map<String, CarriageSeatInventory> carriageInventoryMap = new TreeMap<>();
+
+    public TrainSeatInventory(String trainId, List<String> stations) {
+        this.trainId = trainId;
+        this.stations = List.copyOf(stations);
+        this.stationOrdinalMap = new HashMap<>(stations.size() * 2);
+        for (int i = 0; i < stations.size(); i++) {
+            stationOrdinalMap.putIfAbsent(stations.get(i), i);
+        }
+    }
+
+    /**
+     * 获取站点序号，不存在返回 -1
+     */
+    public int stationOrdinal(String station) {
+        return stationOrdinalMap.getOrDefault(station, -1);
+    }
+
+    /**
+     * 相邻站点区间数量
+     */
+    public int segmentCount() {
+        return Math.max(stationOrdinalMap.size() - 1, 0);
+    }
+
+    public CarriageSeatInventory getCarriage(String carriageNumber) {
+        return carriageInventoryMap.get(carriageNumber);
+    }
+
+    void putCarriage(CarriageSeatInventory carriageSeatInventory) {
+        carriageInventoryMap.put(carriageSeatInventory.getCarriageNumber(), carriageSeatInventory);
+    }
+
+    /**
+     * 获取全部车厢，按照车厢号排序
+     */
+    public Collection<CarriageSeatInventory> listCarriage() {
+        return carriageInventoryMap.values();
+    }
+
+    /**
+     * 获取座位类型对应的车厢集合
+     */
+    public List<CarriageSeatInventory> listCarriage(Integer seatType) {
+        List<CarriageSeatInventory> result = new ArrayList<>();
+        for (CarriageSeatInventory each : carriageInventoryMap.values()) {
+            if (Objects.equals(each.getLayout().getSeatType(), seatType)) {
+                result.add(each);
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,145 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dlnu.index12306.biz.ticketservice.service.handler.ticket.lock;
+
+import com.dlnu.index12306.biz.ticketservice.metrics.TicketServiceMetrics;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.RequiredArgsConstructor;
+import org.redisson.api.RLock;
+import org.redisson.api.RedissonClient;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static com.dlnu.index12306.biz.ticketservice.common.constant.RedisKeyConstant.LOCK_PURCHASE_TICKETS_V2;
+
+/**
+ * 购票锁注册中心，按列车和座位类型提供本地锁以及分布式锁
+ * 本地锁为固定数量的分段锁，列车和座位类型通过哈希映射到分段，不再按 Key 创建锁对象，也不需要全局同步块
+ */
+@Component
+@RequiredArgsConstructor
+public class PurchaseTicketLockRegistry implements InitializingBean {
+
+    private final RedissonClient redissonClient;
+    private final TicketServiceMetrics ticketServiceMetrics;
+
+    /**
+     * 本地分段锁数量，向上取整为 2 的幂
+     */
+    @Value("${ticket.purchase.lock.local-stripes:256}")
+    private int localStripes;
+
+    /**
+     * 本地分段锁是否使用公平锁，高并发下公平锁交接开销较大，默认非公平
+     */
+    @Value("${ticket.purchase.lock.local-fair:false}")
+    private boolean localFair;
+
+    /**
+     * 分布式锁是否使用公平锁
+     */
+    @Value("${ticket.purchase.lock.distributed-fair:true}")
+    private boolean distributedFair;
+
+    private ReentrantLock[] localLocks;
+    private int localLockMask;
+
+    /**
+     * 分布式锁对象缓存，Redisson 锁对象可跨线程复用，每趟列车的锁对象一天过期
+     */
+    private final Cache<String, RLock> distributedLockCache = Caffeine.newBuilder()
+            .expireAfterAccess(1, TimeUnit.DAYS)
+            .build();
+
+    @Override
+    public void afterPropertiesSet() {
+        int stripes = Integer.highestOneBit(Math.max(1, localStripes - 1)) << 1;
+        localLocks = new ReentrantLock[stripes];
+        for (int i = 0; i < stripes; i++) {
+            localLocks[i] = new ReentrantLock(localFair);
+        }
+        localLockMask = stripes - 1;
+    }
+
+    /**
+     * 按分段下标顺序获取列车各座位类型对应的本地锁，不同列车映射到相同分段时也不会因加锁顺序不一致死锁
+     *
+     * @param trainId   列车ID
+     * @param seatTypes 座位类型集合
+     * @return 已获取的本地锁，需通过 {@link #unlockLocal(List)} 释放
+     */
+    public List<ReentrantLock> lockLocal(String trainId, Collection<Integer> seatTypes) {
+        TreeSet<Integer> stripeIndexes = new TreeSet<>();
+        seatTypes.forEach(each -> stripeIndexes.add(stripeIndex(trainId, each)));
+        List<ReentrantLock> acquiredLocks = new ArrayList<>(stripeIndexes.size());
+        long lockWaitStartNanos = System.nanoTime();
+        try {
+            for (Integer each : stripeIndexes) {
+                ReentrantLock localLock = localLocks[each];
+                localLock.lock();
+                acquiredLocks.add(localLock);
+            }
+        } catch (Throwable ex) {
+            unlockLocal(acquiredLocks);
+            throw ex;
+        }
+        ticketServiceMetrics.recordPurchaseLocalLockWait(lockWaitStartNanos);
+        return acquiredLocks;
+    }
+
+    /**
+     * 按加锁相反顺序释放本地锁
+     *
+     * @param acquiredLocks 已获取的本地锁
+     */
+    public void unlockLocal(List<ReentrantLock> acquiredLocks) {
+        for (int i = acquiredLocks.size() - 1; i >= 0; i--) {
+            try {
+                acquiredLocks.get(i).unlock();
+            } catch (Throwable ignored) {
+            }
+        }
+    }
+
+    /**
+     * 获取列车座位类型对应的分布式锁
+     *
+     * @param trainId  列车ID
+     * @param seatType 座位类型
+     * @return 分布式锁
+     */
+    public RLock getDistributedLock(String trainId, Integer seatType) {
+        return distributedLockCache.get(String.format(LOCK_PURCHASE_TICKETS_V2, trainId, seatType),
+                each -> distributedFair ? redissonClient.getFairLock(each) : redissonClient.getLock(each));
+    }
+
+    private int stripeIndex(String trainId, Integer seatType) {
+        int hash = 31 * trainId.hashCode() + seatType;
+        // 高位参与运算，避免相邻列车ID集中在少数分段
+        return (hash ^ (hash >>> 16)) & localLockMask;
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dlnu.index12306.biz.ticketservice.service.handler.ticket.select;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.function.BiFunction;
+
+/**
+ * 多座位类型选座结果汇聚
+ * 座位类型数量达到阈值且线程池未饱和时，除最后一种座位类型外提交到线程池执行，最后一种由调用线程执行，
+ * 通过 {@link CompletableFuture#allOf} 等待后写入预分配容量的结果集合；否则全部在调用线程顺序执行，避免线程切换开销
+ */
+public final class SeatTypeFanIn {
+
+    private SeatTypeFanIn() {
+    }
+
+    /**
+     * 按座位类型执行选座并汇聚结果
+     *
+     * @param seatTypeMap       座位类型 -> 对应乘车人
+     * @param action            单个座位类型的选座逻辑
+     * @param executor          选座线程池
+     * @param parallelThreshold 使用线程池的最小座位类型数量
+     * @param expectedSize      结果数量，用于预分配集合容量
+     * @return 全部座位类型的选座结果
+     */
+    public static <K, V, R> List<R> execute(Map<K, V> seatTypeMap,
+                                           BiFunction<K, V, List<R>> action,
+                                           ThreadPoolExecutor executor,
+                                           int parallelThreshold,
+                                           int expectedSize) {
+        List<R> result = new ArrayList<>(expectedSize);
+        int size = seatTypeMap.size();
+        if (size < Math.max(2, parallelThreshold) || isSaturated(executor, size - 1)) {
+            seatTypeMap.forEach((key, value) -> result.addAll(action.apply(key, value)));
+            return result;
+        }
+        @SuppressWarnings("unchecked")
+        CompletableFuture<List<R>>[] futures = new CompletableFuture[size - 1];
+        List<R> callerResult = null;
+        int index = 0;
+        for (Map.Entry<K, V> entry : seatTypeMap.entrySet()) {
+            K key = entry.getKey();
+            V value = entry.getValue();
+            if (index < size - 1) {
+                futures[index++] = CompletableFuture.supplyAsync(() -> action.apply(key, value), executor);
+            } else {
+                callerResult = action.apply(key, value);
+            }
+        }
+        // 调用线程执行失败时异常直接抛出，线程池中的任务仍会执行完成
+        CompletableFuture.allOf(futures).join();
+        for (CompletableFuture<List<R>> each : futures) {
+            result.addAll(each.join());
+        }
+        result.addAll(callerResult);
+        return result;
+    }
+
+    private static boolean isSaturated(ThreadPoolExecutor executor, int required) {
+        // 同步队列没有缓冲，空闲线程不足时任务会由调用线程执行，此时直接在调用线程顺序执行
+        return executor.getMaximumPoolSize() - executor.getActiveCount() < required;
+    }
+}
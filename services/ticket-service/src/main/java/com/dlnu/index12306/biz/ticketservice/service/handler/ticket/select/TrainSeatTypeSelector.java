@@ -21,14 +21,12 @@ import com.dlnu.index12306.framework.starter.designpattern.strategy.AbstractStra
 import com.dlnu.index12306.framework.starter.user.core.UserContext;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
-import java.util.concurrent.CopyOnWriteArrayList;
-import java.util.concurrent.Future;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.stream.Collectors;
 
@@ -43,33 +41,33 @@ public class TrainSeatTypeSelector {
     private final TrainStationPriceMapper trainStationPriceMapper;
     private final SeatService seatService;
 
+    /**
+     * 使用选座线程池的最小座位类型数量，选座基于内存座位库存完成，
+     * 基准测试中 1~3 种座位类型在调用线程顺序执行均快于提交到线程池，因此默认不使用线程池
+     */
+    @Value("${ticket.select-seat.parallel-seat-type-threshold:4}")
+    private int parallelSeatTypeThreshold;
 
     public List<TrainPurchaseTicketRespDTO> select(Integer trainType, PurchaseTicketReqDTO requestParam) {
         List<PurchaseTicketPassengerDetailDTO> passengers = requestParam.getPassengers();
         // 按照座位类型进行分组
         Map<Integer, List<PurchaseTicketPassengerDetailDTO>> seatTypeMap = passengers.stream()
                 .collect(Collectors.groupingBy(PurchaseTicketPassengerDetailDTO::getSeatType));
-        List<TrainPurchaseTicketRespDTO> actualResult = new CopyOnWriteArrayList<>();
-        // 如果订单中的座位类型不止一种
-        if (seatTypeMap.size() > 1) {
-            List<Future<List<TrainPurchaseTicketRespDTO>>> futureResult = new ArrayList<>();
-            seatTypeMap.forEach((seatType, passengerSeatDetails) -> {
-                Future<List<TrainPurchaseTicketRespDTO>> completableFuture = selectSeatThreadPoolExecutor
-                        .submit(() -> distributeSeats(trainType, seatType, requestParam, passengerSeatDetails));
-                futureResult.add(completableFuture);
-            });
-            futureResult.parallelStream().forEach(completableFuture -> {
-                try {
-                    actualResult.addAll(completableFuture.get());
-                } catch (Exception e) {
-                    throw new ServiceException("站点余票不足，请尝试更换座位类型或选择其它站点");
-                }
-            });
-        } else {
-            seatTypeMap.forEach((seatType, passengerSeatDetails) -> {
-                List<TrainPurchaseTicketRespDTO> aggregationResult = distributeSeats(trainType, seatType, requestParam, passengerSeatDetails);
-                actualResult.addAll(aggregationResult);
-            });
+        List<TrainPurchaseTicketRespDTO> actualResult;
+        try {
+            // 座位类型数量达到阈值且线程池有空闲线程时并行选座，否则在当前线程顺序选座
+            actualResult = SeatTypeFanIn.execute(
+                    seatTypeMap,
+                    (seatType, passengerSeatDetails) -> distributeSeats(trainType, seatType, requestParam, passengerSeatDetails),
+                    selectSeatThreadPoolExecutor,
+                    parallelSeatTypeThreshold,
+                    passengers.size()
+            );
+        } catch (Exception ex) {
+            if (seatTypeMap.size() == 1) {
+                throw ex;
+            }
+            throw new ServiceException("站点余票不足，请尝试更换座位类型或选择其它站点");
         }
         if (CollUtil.isEmpty(actualResult) || !Objects.equals(actualResult.size(), passengers.size())) {
             throw new ServiceException("站点余票不足，请尝试更换座位类型或选择其它站点");
@@ -1,26 +1,25 @@
 package com.dlnu.index12306.biz.ticketservice.service.handler.ticket.tokenbucket;
 
+import cn.hutool.core.collection.CollUtil;
 import cn.hutool.core.util.StrUtil;
 import com.alibaba.fastjson2.JSON;
-import com.alibaba.fastjson2.JSONArray;
-import com.alibaba.fastjson2.JSONObject;
 import com.dlnu.index12306.biz.ticketservice.common.enums.VehicleTypeEnum;
 import com.dlnu.index12306.biz.ticketservice.dao.entity.TrainDO;
+import com.dlnu.index12306.biz.ticketservice.dao.mapper.SeatMapper;
 import com.dlnu.index12306.biz.ticketservice.dao.mapper.TrainMapper;
 import com.dlnu.index12306.biz.ticketservice.dto.domain.PurchaseTicketPassengerDetailDTO;
 import com.dlnu.index12306.biz.ticketservice.dto.domain.RouteDTO;
-import com.dlnu.index12306.biz.ticketservice.dto.domain.SeatTypeCountDTO;
+import com.dlnu.index12306.biz.ticketservice.dto.domain.RouteSeatTypeCountDTO;
 import com.dlnu.index12306.biz.ticketservice.dto.req.PurchaseTicketReqDTO;
+import com.dlnu.index12306.biz.ticketservice.metrics.TicketServiceMetrics;
 import com.dlnu.index12306.biz.ticketservice.remote.dto.TicketOrderDetailRespDTO;
 import com.dlnu.index12306.biz.ticketservice.remote.dto.TicketOrderPassengerDetailRespDTO;
-import com.dlnu.index12306.biz.ticketservice.service.SeatService;
 import com.dlnu.index12306.biz.ticketservice.service.TrainStationService;
 import com.dlnu.index12306.biz.ticketservice.service.handler.ticket.dto.TokenResultDTO;
 import com.dlnu.index12306.framework.starter.bases.Singleton;
 import com.dlnu.index12306.framework.starter.cache.DistributedCache;
 import com.dlnu.index12306.framework.starter.common.toolkit.Assert;
 import com.dlnu.index12306.framework.starter.convention.exception.ServiceException;
-import com.google.common.collect.Lists;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.redisson.api.RLock;
@@ -31,10 +30,14 @@ import org.springframework.data.redis.core.script.DefaultRedisScript;
 import org.springframework.scripting.support.ResourceScriptSource;
 import org.springframework.stereotype.Component;
 
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
@@ -53,7 +56,8 @@ public class TicketAvailabilityTokenBucket {
     private final TrainMapper trainMapper;
     private final TrainStationService trainStationService;
     private final RedissonClient redissonClient;
-    private final SeatService seatService;
+    private final SeatMapper seatMapper;
+    private final TicketServiceMetrics ticketServiceMetrics;
 
     private static final String LUA_TICKET_AVAILABILITY_TOKEN_BUCKET_PATH = "lua/ticket_availability_token_bucket.lua";
     private static final String LUA_TICKET_AVAILABILITY_ROLLBACK_TOKEN_BUCKET_PATH = "lua/ticket_availability_rollback_token_bucket.lua";
@@ -74,13 +78,11 @@ public class TicketAvailabilityTokenBucket {
                 () -> trainMapper.selectById(requestParam.getTrainId()),
                 ADVANCE_TICKET_DAY,
                 TimeUnit.DAYS);
-        // 获取列车站点扣减路线关系
-        List<RouteDTO> routeDTOList = trainStationService.listTakeoutTrainStationRoute(requestParam.getTrainId(), trainDO.getStartStation(), trainDO.getEndStation());
         StringRedisTemplate stringRedisTemplate = (StringRedisTemplate) distributedCache.getInstance();
         // 构建令牌桶的 Key
         String tokenBucketHashKey = TICKET_AVAILABILITY_TOKEN_BUCKET + requestParam.getTrainId();
         Boolean hasKey = distributedCache.hasKey(tokenBucketHashKey);
-        // 双检加锁 判断令牌桶是否存在
+        // 双检加锁 判断令牌桶是否存在，正常情况下令牌桶已在开售前由定时任务初始化
         if (!hasKey) {
             RLock lock = redissonClient.getLock(LOCK_TICKET_AVAILABILITY_TOKEN_BUCKET + requestParam.getTrainId());
             if (!lock.tryLock()) {
@@ -90,58 +92,33 @@ public class TicketAvailabilityTokenBucket {
                 Boolean hasKeyTwo = distributedCache.hasKey(tokenBucketHashKey);
                 if (!hasKeyTwo) {
                     // 令牌桶不存在 创建令牌桶
-                    List<Integer> seatTypes = VehicleTypeEnum.findSeatTypesByCode(trainDO.getTrainType());
-                    Map<String, String> ticketAvailabilityTokenMap = new HashMap<>();
-                    for (RouteDTO each : routeDTOList) {
-                        // 获取每一躺需要扣减余票的站点之间可用的座位数量
-                        List<SeatTypeCountDTO> seatTypeCountDTOList = seatService.listSeatTypeCount(Long.parseLong(requestParam.getTrainId()), each.getStartStation(), each.getEndStation(), seatTypes);
-                        for (SeatTypeCountDTO eachSeatTypeCountDTO : seatTypeCountDTOList) {
-                            // 构建 始发站_终点站_座位类型 的 Key，Value 为 座位数量
-                            String buildCacheKey = StrUtil.join(StrUtil.UNDERLINE, each.getStartStation(), each.getEndStation(), eachSeatTypeCountDTO.getSeatType());
-                            ticketAvailabilityTokenMap.put(buildCacheKey, String.valueOf(eachSeatTypeCountDTO.getSeatCount()));
-                        }
-                    }
-                    stringRedisTemplate.opsForHash().putAll(TICKET_AVAILABILITY_TOKEN_BUCKET + requestParam.getTrainId(), ticketAvailabilityTokenMap);
+                    putTokenInBucket(requestParam.getTrainId(), trainDO);
                 }
             } finally {
                 lock.unlock();
             }
         }
         // 获取到 Redis 执行的 Lua 脚本 进行令牌余量扣减
-        DefaultRedisScript<String> actual = Singleton.get(LUA_TICKET_AVAILABILITY_TOKEN_BUCKET_PATH, () -> {
-            DefaultRedisScript<String> redisScript = new DefaultRedisScript<>();
+        DefaultRedisScript<Long> actual = Singleton.get(LUA_TICKET_AVAILABILITY_TOKEN_BUCKET_PATH, () -> {
+            DefaultRedisScript<Long> redisScript = new DefaultRedisScript<>();
             redisScript.setScriptSource(new ResourceScriptSource(new ClassPathResource(LUA_TICKET_AVAILABILITY_TOKEN_BUCKET_PATH)));
-            redisScript.setResultType(String.class);
+            redisScript.setResultType(Long.class);
             return redisScript;
         });
         Assert.notNull(actual);
-        // 按照座位类型进行分组 并统计每个座位类型的购票数量
-        Map<Integer, Long> seatTypeCountMap = requestParam.getPassengers().stream()
-                .collect(Collectors.groupingBy(PurchaseTicketPassengerDetailDTO::getSeatType, Collectors.counting()));
-        // 封装为 JSON 数组 作为 lua 脚本中执行扣减逻辑的参数
-        JSONArray seatTypeCountArray = seatTypeCountMap.entrySet().stream()
-                .map(entry -> {
-                    JSONObject jsonObject = new JSONObject();
-                    jsonObject.put("seatType", String.valueOf(entry.getKey()));
-                    jsonObject.put("count", String.valueOf(entry.getValue()));
-                    return jsonObject;
-                })
-                .collect(Collectors.toCollection(JSONArray::new));
+        // 按照座位类型进行分组 并统计每个座位类型的购票数量，座位类型有序以便解析返回的位掩码
+        SortedMap<Integer, Long> seatTypeCountMap = requestParam.getPassengers().stream()
+                .collect(Collectors.groupingBy(PurchaseTicketPassengerDetailDTO::getSeatType, TreeMap::new, Collectors.counting()));
         // 获取列车站点扣减路线关系 同样作为 lua 脚本中执行扣减逻辑的参数
         List<RouteDTO> takeoutRouteDTOList = trainStationService
                 .listTakeoutTrainStationRoute(requestParam.getTrainId(),
                         requestParam.getDeparture(),
                         requestParam.getArrival());
-        // 因为令牌桶的结构是 Hash 所以还要构建 Hash Key
-        String luaScriptKey = StrUtil.join(StrUtil.UNDERLINE, requestParam.getDeparture(), requestParam.getArrival());
-        String resultStr = stringRedisTemplate.execute(actual,
-                Lists.newArrayList(tokenBucketHashKey, luaScriptKey),
-                JSON.toJSONString(seatTypeCountArray),
-                JSON.toJSONString(takeoutRouteDTOList));
-        TokenResultDTO result = JSON.parseObject(resultStr, TokenResultDTO.class);
-        return result == null
-                ? TokenResultDTO.builder().tokenIsNull(Boolean.TRUE).build()
-                : result;
+        Object[] takeTokenArgs = TokenBucketScriptArgs.takeTokenArgs(seatTypeCountMap, requestParam.getDeparture(), requestParam.getArrival(), takeoutRouteDTOList);
+        long scriptStartNanos = System.nanoTime();
+        Long tokenIsNullMask = stringRedisTemplate.execute(actual, Collections.singletonList(tokenBucketHashKey), takeTokenArgs);
+        ticketServiceMetrics.recordTakeTokenScript(scriptStartNanos);
+        return TokenBucketScriptArgs.parseTakeTokenResult(tokenIsNullMask, seatTypeCountMap);
     }
 
     /**
@@ -150,41 +127,32 @@ public class TicketAvailabilityTokenBucket {
      * @param requestParam 回滚列车余量令牌入参
      */
     public void rollbackInBucket(TicketOrderDetailRespDTO requestParam) {
-        DefaultRedisScript<Long> actual = Singleton.get(LUA_TICKET_AVAILABILITY_ROLLBACK_TOKEN_BUCKET_PATH, () -> {
-            DefaultRedisScript<Long> redisScript = new DefaultRedisScript<>();
-            redisScript.setScriptSource(new ResourceScriptSource(new ClassPathResource(LUA_TICKET_AVAILABILITY_ROLLBACK_TOKEN_BUCKET_PATH)));
-            redisScript.setResultType(Long.class);
-            return redisScript;
-        });
-        Assert.notNull(actual);
-        List<TicketOrderPassengerDetailRespDTO> passengerDetails = requestParam.getPassengerDetails();
-        Map<Integer, Long> seatTypeCountMap = passengerDetails.stream()
-                .collect(Collectors.groupingBy(TicketOrderPassengerDetailRespDTO::getSeatType, Collectors.counting()));
-        JSONArray seatTypeCountArray = seatTypeCountMap.entrySet().stream()
-                .map(entry -> {
-                    JSONObject jsonObject = new JSONObject();
-                    jsonObject.put("seatType", String.valueOf(entry.getKey()));
-                    jsonObject.put("count", String.valueOf(entry.getValue()));
-                    return jsonObject;
-                })
-                .collect(Collectors.toCollection(JSONArray::new));
-        StringRedisTemplate stringRedisTemplate = (StringRedisTemplate) distributedCache.getInstance();
-        String actualHashKey = TICKET_AVAILABILITY_TOKEN_BUCKET + requestParam.getTrainId();
-        String luaScriptKey = StrUtil.join(StrUtil.UNDERLINE, requestParam.getDeparture(), requestParam.getArrival());
-        List<RouteDTO> takeoutRouteDTOList = trainStationService.
-                listTakeoutTrainStationRoute(String.valueOf(requestParam.getTrainId()),
-                        requestParam.getDeparture(),
-                        requestParam.getArrival());
-        Long result = stringRedisTemplate.execute(actual,
-                Lists.newArrayList(actualHashKey, luaScriptKey),
-                JSON.toJSONString(seatTypeCountArray),
-                JSON.toJSONString(takeoutRouteDTOList));
-        if (result == null || !Objects.equals(result, 0L)) {
+        SortedMap<Integer, Long> seatTypeCountMap = requestParam.getPassengerDetails().stream()
+                .collect(Collectors.groupingBy(TicketOrderPassengerDetailRespDTO::getSeatType, TreeMap::new, Collectors.counting()));
+        if (!rollbackTokens(String.valueOf(requestParam.getTrainId()), requestParam.getDeparture(), requestParam.getArrival(), seatTypeCountMap)) {
             log.error("回滚列车余票令牌失败，订单信息：{}", JSON.toJSONString(requestParam));
             throw new ServiceException("回滚列车余票令牌失败");
         }
     }
 
+    /**
+     * 回滚购票请求已取出的列车余量令牌，购票请求未能完成选座下单时触发
+     * 调用方处于异常处理流程，回滚失败只记录日志不抛出异常，避免覆盖原始异常
+     *
+     * @param requestParam 购票请求参数入参
+     */
+    public void rollbackInBucket(PurchaseTicketReqDTO requestParam) {
+        try {
+            SortedMap<Integer, Long> seatTypeCountMap = requestParam.getPassengers().stream()
+                    .collect(Collectors.groupingBy(PurchaseTicketPassengerDetailDTO::getSeatType, TreeMap::new, Collectors.counting()));
+            if (!rollbackTokens(requestParam.getTrainId(), requestParam.getDeparture(), requestParam.getArrival(), seatTypeCountMap)) {
+                log.error("回滚列车余票令牌失败，购票信息：{}", JSON.toJSONString(requestParam));
+            }
+        } catch (Throwable ex) {
+            log.error("回滚列车余票令牌失败，购票信息：{}", JSON.toJSONString(requestParam), ex);
+        }
+    }
+
     /**
      * 删除令牌，一般在令牌与数据库不一致情况下触发
      *
@@ -196,11 +164,74 @@ public class TicketAvailabilityTokenBucket {
         stringRedisTemplate.delete(tokenBucketHashKey);
     }
 
-    public void putTokenInBucket() {
-
+    /**
+     * 初始化列车令牌桶，令牌桶已存在或其它实例正在初始化时跳过
+     * 一般在列车开售前由定时任务触发，避免开售后首批购票请求承担令牌桶构建开销
+     *
+     * @param trainDO 列车信息
+     * @return 是否执行了初始化
+     */
+    public boolean initializeTokens(TrainDO trainDO) {
+        String trainId = String.valueOf(trainDO.getId());
+        String tokenBucketHashKey = TICKET_AVAILABILITY_TOKEN_BUCKET + trainId;
+        RLock lock = redissonClient.getLock(LOCK_TICKET_AVAILABILITY_TOKEN_BUCKET + trainId);
+        if (!lock.tryLock()) {
+            return false;
+        }
+        try {
+            if (distributedCache.hasKey(tokenBucketHashKey)) {
+                return false;
+            }
+            putTokenInBucket(trainId, trainDO);
+            return true;
+        } finally {
+            lock.unlock();
+        }
     }
 
-    public void initializeTokens() {
+    private boolean rollbackTokens(String trainId, String departure, String arrival, SortedMap<Integer, Long> seatTypeCountMap) {
+        DefaultRedisScript<Long> actual = Singleton.get(LUA_TICKET_AVAILABILITY_ROLLBACK_TOKEN_BUCKET_PATH, () -> {
+            DefaultRedisScript<Long> redisScript = new DefaultRedisScript<>();
+            redisScript.setScriptSource(new ResourceScriptSource(new ClassPathResource(LUA_TICKET_AVAILABILITY_ROLLBACK_TOKEN_BUCKET_PATH)));
+            redisScript.setResultType(Long.class);
+            return redisScript;
+        });
+        Assert.notNull(actual);
+        StringRedisTemplate stringRedisTemplate = (StringRedisTemplate) distributedCache.getInstance();
+        String actualHashKey = TICKET_AVAILABILITY_TOKEN_BUCKET + trainId;
+        List<RouteDTO> takeoutRouteDTOList = trainStationService.listTakeoutTrainStationRoute(trainId, departure, arrival);
+        Object[] rollbackTokenArgs = TokenBucketScriptArgs.rollbackTokenArgs(seatTypeCountMap, takeoutRouteDTOList);
+        long scriptStartNanos = System.nanoTime();
+        Long result = stringRedisTemplate.execute(actual, Collections.singletonList(actualHashKey), rollbackTokenArgs);
+        ticketServiceMetrics.recordRollbackTokenScript(scriptStartNanos);
+        return result != null && Objects.equals(result, 0L);
+    }
 
+    /**
+     * 构建列车令牌桶，调用方需持有令牌桶加载锁
+     * 全部站点区间与座位类型的余量通过一次 GROUP BY 聚合查询计算，并通过一次 HSET 写入令牌桶
+     */
+    private void putTokenInBucket(String trainId, TrainDO trainDO) {
+        List<Integer> seatTypes = VehicleTypeEnum.findSeatTypesByCode(trainDO.getTrainType());
+        if (CollUtil.isEmpty(seatTypes)) {
+            return;
+        }
+        // 获取列车站点扣减路线关系
+        Set<String> routeKeys = trainStationService.listTakeoutTrainStationRoute(trainId, trainDO.getStartStation(), trainDO.getEndStation()).stream()
+                .map(each -> StrUtil.join(StrUtil.UNDERLINE, each.getStartStation(), each.getEndStation()))
+                .collect(Collectors.toSet());
+        Map<String, String> ticketAvailabilityTokenMap = new HashMap<>();
+        for (RouteSeatTypeCountDTO each : seatMapper.listRouteSeatTypeCount(Long.parseLong(trainId), seatTypes)) {
+            if (each.getSeatCount() > 0 && routeKeys.contains(StrUtil.join(StrUtil.UNDERLINE, each.getStartStation(), each.getEndStation()))) {
+                // 构建 始发站_终点站_座位类型 的 Key，Value 为 座位数量
+                String buildCacheKey = StrUtil.join(StrUtil.UNDERLINE, each.getStartStation(), each.getEndStation(), each.getSeatType());
+                ticketAvailabilityTokenMap.put(buildCacheKey, String.valueOf(each.getSeatCount()));
+            }
+        }
+        if (CollUtil.isEmpty(ticketAvailabilityTokenMap)) {
+            return;
+        }
+        StringRedisTemplate stringRedisTemplate = (StringRedisTemplate) distributedCache.getInstance();
+        stringRedisTemplate.opsForHash().putAll(TICKET_AVAILABILITY_TOKEN_BUCKET + trainId, ticketAvailabilityTokenMap);
     }
 }
\ No newline at end of file
@@ -0,0 +1,108 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dlnu.index12306.biz.ticketservice.service.handler.ticket.tokenbucket;
+
+import cn.hutool.core.collection.CollUtil;
+import cn.hutool.core.date.DateUtil;
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.core.toolkit.Wrappers;
+import com.dlnu.index12306.biz.ticketservice.dao.entity.TrainDO;
+import com.dlnu.index12306.biz.ticketservice.dao.mapper.TrainMapper;
+import com.dlnu.index12306.framework.starter.cache.DistributedCache;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Date;
+import java.util.List;
+
+import static com.dlnu.index12306.biz.ticketservice.common.constant.RedisKeyConstant.TICKET_AVAILABILITY_TOKEN_BUCKET;
+
+/**
+ * 列车车票余量令牌桶初始化
+ * 定时为即将开售及在售的列车构建令牌桶，使开售后的首批购票请求直接命中已初始化的令牌桶
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "ticket.token-bucket.initialize.enabled", havingValue = "true", matchIfMissing = true)
+public class TicketAvailabilityTokenBucketInitializer {
+
+    private final TrainMapper trainMapper;
+    private final DistributedCache distributedCache;
+    private final TicketAvailabilityTokenBucket ticketAvailabilityTokenBucket;
+
+    /**
+     * 提前初始化的时间窗口，开售时间在该窗口内的列车会初始化令牌桶
+     */
+    @Value("${ticket.token-bucket.initialize.lookahead-minutes:30}")
+    private int lookaheadMinutes;
+
+    @Scheduled(
+            initialDelayString = "${ticket.token-bucket.initialize.initial-delay-millis:30000}",
+            fixedDelayString = "${ticket.token-bucket.initialize.interval-millis:60000}"
+    )
+    public void initialize() {
+        Date now = new Date();
+        LambdaQueryWrapper<TrainDO> queryWrapper = Wrappers.lambdaQuery(TrainDO.class)
+                .le(TrainDO::getSaleTime, DateUtil.offsetMinute(now, lookaheadMinutes))
+                .gt(TrainDO::getDepartureTime, now);
+        List<TrainDO> trainDOList = trainMapper.selectList(queryWrapper);
+        if (CollUtil.isEmpty(trainDOList)) {
+            return;
+        }
+        // 一次管道批量判断令牌桶是否存在，已初始化的列车不再加锁
+        List<Object> hasKeyResults = hasTokenBucketInPipeline(trainDOList);
+        int initializeCount = 0;
+        for (int i = 0; i < trainDOList.size(); i++) {
+            if (Boolean.TRUE.equals(hasKeyResults.get(i))) {
+                continue;
+            }
+            TrainDO each = trainDOList.get(i);
+            try {
+                if (ticketAvailabilityTokenBucket.initializeTokens(each)) {
+                    initializeCount++;
+                }
+            } catch (Throwable ex) {
+                log.error("初始化列车余量令牌桶失败，列车ID：{}", each.getId(), ex);
+            }
+        }
+        if (initializeCount > 0) {
+            log.info("初始化列车余量令牌桶完成，初始化列车数量：{}", initializeCount);
+        }
+    }
+
+    private List<Object> hasTokenBucketInPipeline(List<TrainDO> trainDOList) {
+        StringRedisTemplate stringRedisTemplate = (StringRedisTemplate) distributedCache.getInstance();
+        return stringRedisTemplate.executePipelined(new SessionCallback<Object>() {
+
+            @Override
+            public <K, V> Object execute(RedisOperations<K, V> operations) {
+                RedisOperations<String, String> redisOperations = (RedisOperations<String, String>) operations;
+                trainDOList.forEach(each -> redisOperations.hasKey(TICKET_AVAILABILITY_TOKEN_BUCKET + each.getId()));
+                return null;
+            }
+        });
+    }
+}
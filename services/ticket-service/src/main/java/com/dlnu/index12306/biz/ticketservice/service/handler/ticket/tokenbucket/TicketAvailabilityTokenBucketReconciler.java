@@ -0,0 +1,136 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dlnu.index12306.biz.ticketservice.service.handler.ticket.tokenbucket;
+
+import cn.hutool.core.collection.CollUtil;
+import cn.hutool.core.util.StrUtil;
+import com.dlnu.index12306.framework.starter.bases.Singleton;
+import com.dlnu.index12306.framework.starter.cache.DistributedCache;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.scripting.support.ResourceScriptSource;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static com.dlnu.index12306.biz.ticketservice.common.constant.RedisKeyConstant.TICKET_AVAILABILITY_TOKEN_BUCKET;
+import static com.dlnu.index12306.biz.ticketservice.common.constant.RedisKeyConstant.TRAIN_STATION_REMAINING_TICKET;
+
+/**
+ * 列车车票余量令牌桶校准组件
+ * 令牌不足的列车被标记为待校准，之后由 Canal 座位状态变更消息驱动，按站点区间和座位类型将令牌余量增量校准到余票数量
+ * 校准仅在余票缓存由 binlog 更新时生效；购票失败取出的令牌由购票流程直接归还，未开启 binlog 时不再依赖延迟全量重算
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TicketAvailabilityTokenBucketReconciler implements InitializingBean {
+
+    private static final String LUA_TICKET_AVAILABILITY_RECONCILE_TOKEN_BUCKET_PATH = "lua/ticket_availability_reconcile_token_bucket.lua";
+
+    private final DistributedCache distributedCache;
+
+    /**
+     * 待校准列车的标记时长，超过该时长没有座位状态变更的列车不再校准
+     */
+    @Value("${ticket.token-bucket.reconcile.suspect-expire-minutes:10}")
+    private long suspectExpireMinutes;
+
+    private Cache<String, Boolean> suspectTrains;
+
+    @Override
+    public void afterPropertiesSet() {
+        suspectTrains = Caffeine.newBuilder()
+                .expireAfterWrite(suspectExpireMinutes, TimeUnit.MINUTES)
+                .build();
+    }
+
+    /**
+     * 标记列车令牌不足，令牌可能因购票失败等原因少于实际余票，等待座位状态变更时校准
+     *
+     * @param trainId 列车ID
+     */
+    public void markTokenIsNull(String trainId) {
+        suspectTrains.put(trainId, Boolean.TRUE);
+    }
+
+    /**
+     * 根据座位状态变更涉及的站点区间和座位类型校准待校准列车的令牌余量，调用时余票缓存需已写入本次变更
+     *
+     * @param cacheChangeKeyMap 余票缓存 Key -> 座位类型 -> 增量
+     */
+    public void reconcile(Map<String, Map<Integer, Integer>> cacheChangeKeyMap) {
+        Map<String, List<String>> trainRemainingKeys = new HashMap<>();
+        Map<String, List<String>> trainArgs = new HashMap<>();
+        cacheChangeKeyMap.forEach((cacheKey, seatTypeMap) -> {
+            // 余票缓存 Key 为 前缀 + 列车ID_出发站点_到达站点，令牌 Field 为 出发站点_到达站点_座位类型
+            String keySuffix = StrUtil.removePrefix(cacheKey, TRAIN_STATION_REMAINING_TICKET);
+            int separatorIndex = keySuffix.indexOf(StrUtil.UNDERLINE);
+            if (separatorIndex < 0) {
+                return;
+            }
+            String trainId = keySuffix.substring(0, separatorIndex);
+            if (suspectTrains.getIfPresent(trainId) == null) {
+                return;
+            }
+            String routeFieldPrefix = keySuffix.substring(separatorIndex + 1) + StrUtil.UNDERLINE;
+            List<String> remainingKeys = trainRemainingKeys.computeIfAbsent(trainId, key -> new ArrayList<>());
+            List<String> args = trainArgs.computeIfAbsent(trainId, key -> new ArrayList<>());
+            seatTypeMap.keySet().forEach(seatType -> {
+                remainingKeys.add(cacheKey);
+                args.add(routeFieldPrefix + seatType);
+                args.add(String.valueOf(seatType));
+            });
+        });
+        if (CollUtil.isEmpty(trainRemainingKeys)) {
+            return;
+        }
+        DefaultRedisScript<Long> actual = Singleton.get(LUA_TICKET_AVAILABILITY_RECONCILE_TOKEN_BUCKET_PATH, () -> {
+            DefaultRedisScript<Long> redisScript = new DefaultRedisScript<>();
+            redisScript.setScriptSource(new ResourceScriptSource(new ClassPathResource(LUA_TICKET_AVAILABILITY_RECONCILE_TOKEN_BUCKET_PATH)));
+            redisScript.setResultType(Long.class);
+            return redisScript;
+        });
+        StringRedisTemplate stringRedisTemplate = (StringRedisTemplate) distributedCache.getInstance();
+        trainRemainingKeys.forEach((trainId, remainingKeys) -> {
+            List<String> keys = new ArrayList<>(remainingKeys.size() + 1);
+            keys.add(TICKET_AVAILABILITY_TOKEN_BUCKET + trainId);
+            keys.addAll(remainingKeys);
+            try {
+                Long raised = stringRedisTemplate.execute(actual, keys, trainArgs.get(trainId).toArray());
+                if (raised != null && raised > 0) {
+                    log.info("校准列车余量令牌桶，列车ID：{}，补充令牌数量：{}", trainId, raised);
+                }
+            } catch (Throwable ex) {
+                // 校准失败不影响余票缓存更新，等待下一次座位状态变更重新校准
+                log.error("校准列车余量令牌桶失败，列车ID：{}", trainId, ex);
+            }
+        });
+    }
+}
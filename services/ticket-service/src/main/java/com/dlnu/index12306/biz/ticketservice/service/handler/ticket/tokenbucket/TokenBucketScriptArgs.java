@@ -0,0 +1,112 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dlnu.index12306.biz.ticketservice.service.handler.ticket.tokenbucket;
+
+import cn.hutool.core.util.StrUtil;
+import com.dlnu.index12306.biz.ticketservice.dto.domain.RouteDTO;
+import com.dlnu.index12306.biz.ticketservice.service.handler.ticket.dto.TokenResultDTO;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+
+/**
+ * 列车车票余量令牌桶 Lua 脚本位置参数构建工具
+ * 令牌 Hash Field 统一在应用侧拼接完成，Redis 执行脚本时只需按下标读取参数
+ */
+public final class TokenBucketScriptArgs {
+
+    private TokenBucketScriptArgs() {
+    }
+
+    /**
+     * 构建扣减令牌脚本参数
+     *
+     * @param seatTypeCountMap 座位类型以及对应购票数量，按座位类型有序，返回位掩码的下标与之一致
+     * @param departure        出发站点
+     * @param arrival          到达站点
+     * @param takeoutRoutes    需要扣减的路线
+     * @return 扣减令牌脚本参数
+     */
+    public static Object[] takeTokenArgs(SortedMap<Integer, Long> seatTypeCountMap, String departure, String arrival, List<RouteDTO> takeoutRoutes) {
+        int seatTypeSize = seatTypeCountMap.size();
+        List<String> args = new ArrayList<>(1 + 2 * seatTypeSize + seatTypeSize * takeoutRoutes.size());
+        args.add(String.valueOf(seatTypeSize));
+        seatTypeCountMap.values().forEach(each -> args.add(String.valueOf(each)));
+        String routeFieldPrefix = routeFieldPrefix(departure, arrival);
+        seatTypeCountMap.keySet().forEach(each -> args.add(routeFieldPrefix + each));
+        appendTakeoutRouteFields(args, seatTypeCountMap, takeoutRoutes);
+        return args.toArray();
+    }
+
+    /**
+     * 构建回滚令牌脚本参数
+     *
+     * @param seatTypeCountMap 座位类型以及对应回滚数量
+     * @param takeoutRoutes    需要回滚的路线
+     * @return 回滚令牌脚本参数
+     */
+    public static Object[] rollbackTokenArgs(SortedMap<Integer, Long> seatTypeCountMap, List<RouteDTO> takeoutRoutes) {
+        int seatTypeSize = seatTypeCountMap.size();
+        List<String> args = new ArrayList<>(1 + seatTypeSize + seatTypeSize * takeoutRoutes.size());
+        args.add(String.valueOf(seatTypeSize));
+        seatTypeCountMap.values().forEach(each -> args.add(String.valueOf(each)));
+        appendTakeoutRouteFields(args, seatTypeCountMap, takeoutRoutes);
+        return args.toArray();
+    }
+
+    /**
+     * 解析扣减令牌脚本返回的位掩码，第 i 位为 1 代表第 i 种座位类型令牌不足
+     *
+     * @param tokenIsNullMask  脚本返回的位掩码
+     * @param seatTypeCountMap 构建参数时使用的座位类型以及对应购票数量
+     * @return 令牌扣减返回参数
+     */
+    public static TokenResultDTO parseTakeTokenResult(Long tokenIsNullMask, SortedMap<Integer, Long> seatTypeCountMap) {
+        if (tokenIsNullMask == null) {
+            return TokenResultDTO.builder().tokenIsNull(Boolean.TRUE).build();
+        }
+        if (tokenIsNullMask == 0L) {
+            return TokenResultDTO.builder().tokenIsNull(Boolean.FALSE).build();
+        }
+        List<String> tokenIsNullSeatTypeCounts = new ArrayList<>();
+        int index = 0;
+        for (Map.Entry<Integer, Long> entry : seatTypeCountMap.entrySet()) {
+            if ((tokenIsNullMask & (1L << index++)) != 0) {
+                tokenIsNullSeatTypeCounts.add(entry.getKey() + StrUtil.UNDERLINE + entry.getValue());
+            }
+        }
+        return TokenResultDTO.builder()
+                .tokenIsNull(Boolean.TRUE)
+                .tokenIsNullSeatTypeCounts(tokenIsNullSeatTypeCounts)
+                .build();
+    }
+
+    private static void appendTakeoutRouteFields(List<String> args, SortedMap<Integer, Long> seatTypeCountMap, List<RouteDTO> takeoutRoutes) {
+        List<String> routeFieldPrefixes = new ArrayList<>(takeoutRoutes.size());
+        takeoutRoutes.forEach(each -> routeFieldPrefixes.add(routeFieldPrefix(each.getStartStation(), each.getEndStation())));
+        for (Integer seatType : seatTypeCountMap.keySet()) {
+            routeFieldPrefixes.forEach(each -> args.add(each + seatType));
+        }
+    }
+
+    private static String routeFieldPrefix(String startStation, String endStation) {
+        return startStation + StrUtil.UNDERLINE + endStation + StrUtil.UNDERLINE;
+    }
+}
@@ -3,7 +3,6 @@ package com.dlnu.index12306.biz.ticketservice.service.impl;
 import cn.hutool.core.collection.CollUtil;
 import cn.hutool.core.util.StrUtil;
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
-import com.baomidou.mybatisplus.core.conditions.update.LambdaUpdateWrapper;
 import com.baomidou.mybatisplus.core.toolkit.Wrappers;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
 import com.dlnu.index12306.biz.ticketservice.common.enums.SeatStatusEnum;
@@ -14,12 +13,15 @@ import com.dlnu.index12306.biz.ticketservice.dto.domain.SeatTypeCountDTO;
 import com.dlnu.index12306.biz.ticketservice.service.SeatService;
 import com.dlnu.index12306.biz.ticketservice.service.TrainStationService;
 import com.dlnu.index12306.biz.ticketservice.service.handler.ticket.dto.TrainPurchaseTicketRespDTO;
+import com.dlnu.index12306.biz.ticketservice.service.handler.ticket.inventory.SeatInventoryManager;
 import com.dlnu.index12306.framework.starter.cache.DistributedCache;
+import com.dlnu.index12306.framework.starter.convention.exception.ServiceException;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.stereotype.Service;
 
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -35,6 +37,7 @@ public class SeatServiceImpl extends ServiceImpl<SeatMapper, SeatDO> implements
     private final SeatMapper seatMapper;
     private final TrainStationService trainStationService;
     private final DistributedCache distributedCache;
+    private final SeatInventoryManager seatInventoryManager;
 
     @Override
     public List<String> listAvailableSeat(String trainId, String carriageNumber, Integer seatType, String departure, String arrival) {
@@ -93,40 +96,49 @@ public class SeatServiceImpl extends ServiceImpl<SeatMapper, SeatDO> implements
 
     @Override
     public void lockSeat(String trainId, String departure, String arrival, List<TrainPurchaseTicketRespDTO> trainPurchaseTicketRespList) {
-        // 查询需要扣减的路线
-        List<RouteDTO> routeList = trainStationService.listTakeoutTrainStationRoute(trainId, departure, arrival);
-        // 锁定扣减路线上的每一段票的状态
-        trainPurchaseTicketRespList.forEach(each -> routeList.forEach(item -> {
-            LambdaUpdateWrapper<SeatDO> updateWrapper = Wrappers.lambdaUpdate(SeatDO.class)
-                    .eq(SeatDO::getTrainId, trainId)
-                    .eq(SeatDO::getCarriageNumber, each.getCarriageNumber())
-                    .eq(SeatDO::getStartStation, item.getStartStation())
-                    .eq(SeatDO::getEndStation, item.getEndStation())
-                    .eq(SeatDO::getSeatNumber, each.getSeatNumber());
-            SeatDO seatDO = SeatDO.builder()
-                    .seatStatus(SeatStatusEnum.LOCKED.getCode())
-                    .build();
-            seatMapper.update(seatDO, updateWrapper);
-        }));
-
+        Long actualTrainId = Long.parseLong(trainId);
+        List<SeatDO> seats = toSeatList(trainPurchaseTicketRespList);
+        // 出发站到到达站的座位必须仍为可售，避免内存库存与数据库不一致导致重复售票
+        int updated = seatMapper.updateSeatStatusBatch(
+                actualTrainId,
+                seats,
+                Collections.singletonList(new RouteDTO(departure, arrival)),
+                SeatStatusEnum.LOCKED.getCode(),
+                SeatStatusEnum.AVAILABLE.getCode());
+        if (updated != seats.size()) {
+            seatInventoryManager.invalidate(trainId);
+            throw new ServiceException("座位已被占用，请重新购票");
+        }
+        // 查询需要扣减的路线，一条语句锁定扣减路线上其余区间的票的状态
+        List<RouteDTO> otherRouteList = trainStationService.listTakeoutTrainStationRoute(trainId, departure, arrival).stream()
+                .filter(each -> !(StrUtil.equals(each.getStartStation(), departure) && StrUtil.equals(each.getEndStation(), arrival)))
+                .toList();
+        if (CollUtil.isNotEmpty(otherRouteList)) {
+            seatMapper.updateSeatStatusBatch(actualTrainId, seats, otherRouteList, SeatStatusEnum.LOCKED.getCode(), null);
+        }
+        seatInventoryManager.occupy(trainId, departure, arrival, trainPurchaseTicketRespList);
     }
 
     @Override
     public void unlock(String trainId, String departure, String arrival, List<TrainPurchaseTicketRespDTO> trainPurchaseTicketResults) {
         // 查询需要扣减的路线
         List<RouteDTO> routeList = trainStationService.listTakeoutTrainStationRoute(trainId, departure, arrival);
-        // 锁定扣减路线上的每一段票的状态
-        trainPurchaseTicketResults.forEach(each -> routeList.forEach(item -> {
-            LambdaUpdateWrapper<SeatDO> updateWrapper = Wrappers.lambdaUpdate(SeatDO.class)
-                    .eq(SeatDO::getTrainId, trainId)
-                    .eq(SeatDO::getCarriageNumber, each.getCarriageNumber())
-                    .eq(SeatDO::getStartStation, item.getStartStation())
-                    .eq(SeatDO::getEndStation, item.getEndStation())
-                    .eq(SeatDO::getSeatNumber, each.getSeatNumber());
-            SeatDO updateSeatDO = SeatDO.builder()
-                    .seatStatus(SeatStatusEnum.AVAILABLE.getCode())
-                    .build();
-            seatMapper.update(updateSeatDO, updateWrapper);
-        }));
+        // 一条语句解锁扣减路线上每一段票的状态
+        seatMapper.updateSeatStatusBatch(
+                Long.parseLong(trainId),
+                toSeatList(trainPurchaseTicketResults),
+                routeList,
+                SeatStatusEnum.AVAILABLE.getCode(),
+                null);
+        seatInventoryManager.release(trainId, departure, arrival, trainPurchaseTicketResults);
+    }
+
+    private List<SeatDO> toSeatList(List<TrainPurchaseTicketRespDTO> trainPurchaseTicketResults) {
+        return trainPurchaseTicketResults.stream()
+                .map(each -> SeatDO.builder()
+                        .carriageNumber(each.getCarriageNumber())
+                        .seatNumber(each.getSeatNumber())
+                        .build())
+                .collect(Collectors.toList());
     }
-}
\ No newline at end of file
+}
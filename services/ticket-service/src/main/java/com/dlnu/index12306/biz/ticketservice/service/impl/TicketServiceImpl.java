@@ -20,6 +20,7 @@ import com.dlnu.index12306.biz.ticketservice.dto.resp.RefundTicketRespDTO;
 import com.dlnu.index12306.biz.ticketservice.dto.resp.TicketOrderDetailRespDTO;
 import com.dlnu.index12306.biz.ticketservice.dto.resp.TicketPageQueryRespDTO;
 import com.dlnu.index12306.biz.ticketservice.dto.resp.TicketPurchaseRespDTO;
+import com.dlnu.index12306.biz.ticketservice.metrics.TicketServiceMetrics;
 import com.dlnu.index12306.biz.ticketservice.remote.PayRemoteService;
 import com.dlnu.index12306.biz.ticketservice.remote.TicketOrderRemoteService;
 import com.dlnu.index12306.biz.ticketservice.remote.dto.*;
@@ -27,22 +28,27 @@ import com.dlnu.index12306.biz.ticketservice.service.SeatService;
 import com.dlnu.index12306.biz.ticketservice.service.TicketService;
 import com.dlnu.index12306.biz.ticketservice.service.TrainStationService;
 import com.dlnu.index12306.biz.ticketservice.service.cache.SeatMarginCacheLoader;
+import com.dlnu.index12306.biz.ticketservice.service.cache.TicketQueryReadModel;
+import com.dlnu.index12306.biz.ticketservice.service.cache.TrainStationPriceCacheLoader;
+import com.dlnu.index12306.biz.ticketservice.service.handler.ticket.coalesce.PurchaseTicketCoalescingQueue;
 import com.dlnu.index12306.biz.ticketservice.service.handler.ticket.dto.TokenResultDTO;
 import com.dlnu.index12306.biz.ticketservice.service.handler.ticket.dto.TrainPurchaseTicketRespDTO;
+import com.dlnu.index12306.biz.ticketservice.service.handler.ticket.lock.PurchaseTicketLockRegistry;
 import com.dlnu.index12306.biz.ticketservice.service.handler.ticket.select.TrainSeatTypeSelector;
 import com.dlnu.index12306.biz.ticketservice.service.handler.ticket.tokenbucket.TicketAvailabilityTokenBucket;
+import com.dlnu.index12306.biz.ticketservice.service.handler.ticket.tokenbucket.TicketAvailabilityTokenBucketReconciler;
 import com.dlnu.index12306.biz.ticketservice.toolkit.DateUtil;
 import com.dlnu.index12306.biz.ticketservice.toolkit.TimeStringComparator;
 import com.dlnu.index12306.framework.starter.bases.ApplicationContextHolder;
 import com.dlnu.index12306.framework.starter.cache.DistributedCache;
+import com.dlnu.index12306.framework.starter.cache.MultistageCache;
 import com.dlnu.index12306.framework.starter.cache.toolkit.CacheUtil;
 import com.dlnu.index12306.framework.starter.common.toolkit.BeanUtil;
 import com.dlnu.index12306.framework.starter.convention.exception.ServiceException;
 import com.dlnu.index12306.framework.starter.convention.result.Result;
 import com.dlnu.index12306.framework.starter.designpattern.chain.AbstractChainContext;
+import com.dlnu.index12306.framework.starter.distributedid.toolkit.SnowflakeIdUtil;
 import com.dlnu.index12306.framework.starter.user.core.UserContext;
-import com.github.benmanes.caffeine.cache.Cache;
-import com.github.benmanes.caffeine.cache.Caffeine;
 import com.google.common.collect.Lists;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -50,7 +56,6 @@ import org.redisson.api.RLock;
 import org.redisson.api.RedissonClient;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.CommandLineRunner;
-import org.springframework.data.redis.core.RedisCallback;
 import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -58,11 +63,10 @@ import org.springframework.transaction.annotation.Transactional;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.util.*;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import static com.dlnu.index12306.biz.ticketservice.common.constant.Index12306Constant.ADVANCE_TICKET_DAY;
 import static com.dlnu.index12306.biz.ticketservice.common.constant.RedisKeyConstant.*;
@@ -75,8 +79,9 @@ public class TicketServiceImpl extends ServiceImpl<TicketMapper, TicketDO> imple
     private final StationMapper stationMapper;
     private final TrainStationRelationMapper trainStationRelationMapper;
     private final TrainMapper trainMapper;
-    private final TrainStationPriceMapper trainStationPriceMapper;
+    private final TrainStationPriceCacheLoader trainStationPriceCacheLoader;
     private final DistributedCache distributedCache;
+    private final MultistageCache multistageCache;
     private final TicketOrderRemoteService ticketOrderRemoteService;
     private final SeatMarginCacheLoader seatMarginCacheLoader;
     private final TrainSeatTypeSelector trainSeatTypeSelector;
@@ -88,132 +93,54 @@ public class TicketServiceImpl extends ServiceImpl<TicketMapper, TicketDO> imple
     private final SeatService seatService;
     private final TrainStationService trainStationService;
     private final PayRemoteService payRemoteService;
+    private final TicketServiceMetrics ticketServiceMetrics;
+    private final TicketQueryReadModel ticketQueryReadModel;
+    private final PurchaseTicketCoalescingQueue purchaseTicketCoalescingQueue;
+    private final PurchaseTicketLockRegistry purchaseTicketLockRegistry;
+    private final TicketAvailabilityTokenBucketReconciler ticketAvailabilityTokenBucketReconciler;
 
     private TicketService ticketService;
 
-    private final ScheduledExecutorService tokenIsNullRefreshExecutor = Executors.newScheduledThreadPool(1);
-    /**
-     * 本地安全锁容器 每躺列车的安全锁容器一天过期
-     */
-    private final Cache<String, ReentrantLock> localLockMap = Caffeine.newBuilder()
-            .expireAfterWrite(1, TimeUnit.DAYS)
-            .build();
-    /**
-     * 避免大量的用户同一时间访问刷新 Token 的容器 每10分钟刷新
-     */
-    private final Cache<String, Object> tokenTicketsRefreshMap = Caffeine.newBuilder()
-            .expireAfterWrite(10, TimeUnit.MINUTES)
-            .build();
-
     @Value("${ticket.availability.cache-update.type:}")
     private String ticketAvailabilityCacheUpdateType;
-    @Value("${framework.cache.redis.prefix:}")
-    private String cacheRedisPrefix;
+    @Value("${ticket.purchase.coalescing.enabled:false}")
+    private boolean purchaseCoalescingEnabled;
 
 
     @Override
     public TicketPageQueryRespDTO pageListTicketQueryV1(TicketPageQueryReqDTO requestParam) {
         // 责任链模式，验证城市名称是否存在，不存在加载缓存；验证出发日期不能小于当前日期等
         ticketPageQueryAbstractChainContext.handler(TicketChainMarkEnum.TRAIN_QUERY_FILTER.name(), requestParam);
-        StringRedisTemplate stringRedisTemplate = (StringRedisTemplate) distributedCache.getInstance();
         // 查询缓存中是否有城市Code码与城市名称的映射，没有就从数据库中加载
-        List<Object> stationDetails = stringRedisTemplate.opsForHash()
-                .multiGet(REGION_TRAIN_STATION_MAPPING, Lists.newArrayList(requestParam.getFromStation(), requestParam.getToStation()));
-        long count = stationDetails.stream().filter(ObjectUtil::isNull).count();
-        if (count > 0) {
-            // 避免缓存击穿，分布式锁 + 双重检查
-            RLock lock = redissonClient.getLock(LOCK_REGION_TRAIN_STATION_MAPPING);
-            lock.lock();
-            try {
-                stationDetails = stringRedisTemplate.opsForHash()
-                        .multiGet(REGION_TRAIN_STATION_MAPPING, Lists.newArrayList(requestParam.getFromStation(), requestParam.getToStation()));
-                count = stationDetails.stream().filter(Objects::isNull).count();
-                if (count > 0) {
-                    List<StationDO> stationDOList = stationMapper.selectList(Wrappers.emptyWrapper());
-                    Map<String, String> regionTrainStationMap = new HashMap<>();
-                    stationDOList.forEach(each -> regionTrainStationMap.put(each.getCode(), each.getRegionName()));
-                    stringRedisTemplate.opsForHash().putAll(REGION_TRAIN_STATION_MAPPING, regionTrainStationMap);
-                    stationDetails = new ArrayList<>();
-                    stationDetails.add(regionTrainStationMap.get(requestParam.getFromStation()));
-                    stationDetails.add(regionTrainStationMap.get(requestParam.getToStation()));
-                }
-            } finally {
-                lock.unlock();
-            }
-        }
-        List<TicketListDTO> seatResults = new ArrayList<>();
-        // 查询车站站点
+        List<Object> stationDetails = loadRegionTrainStationMapping(requestParam.getFromStation(), requestParam.getToStation());
+        // 查询车站站点，本地缓存中的列车信息已排序
         String buildRegionTrainStationHashKey = String.format(REGION_TRAIN_STATION, stationDetails.get(0), stationDetails.get(1));
-        Map<Object, Object> regionTrainStationAllMap = stringRedisTemplate.opsForHash().entries(buildRegionTrainStationHashKey);
-        if (MapUtil.isEmpty(regionTrainStationAllMap)) {
-            RLock lock = redissonClient.getLock(LOCK_REGION_TRAIN_STATION);
-            lock.lock();
-            try {
-                regionTrainStationAllMap = stringRedisTemplate.opsForHash().entries(buildRegionTrainStationHashKey);
-                if (MapUtil.isEmpty(regionTrainStationAllMap)) {
-                    // 加载数据库列车相关信息，并构建出每一趟列车的详细记录
-                    LambdaQueryWrapper<TrainStationRelationDO> queryWrapper = Wrappers.lambdaQuery(TrainStationRelationDO.class)
-                            .eq(TrainStationRelationDO::getStartRegion, stationDetails.get(0))
-                            .eq(TrainStationRelationDO::getEndRegion, stationDetails.get(1));
-                    List<TrainStationRelationDO> trainStationRelationList = trainStationRelationMapper.selectList(queryWrapper);
-                    for (TrainStationRelationDO each : trainStationRelationList) {
-                        TrainDO trainDO = distributedCache.safeGet(
-                                TRAIN_INFO + each.getTrainId(),
-                                TrainDO.class,
-                                () -> trainMapper.selectById(each.getTrainId()),
-                                ADVANCE_TICKET_DAY,
-                                TimeUnit.DAYS);
-                        TicketListDTO result = new TicketListDTO();
-                        result.setTrainId(String.valueOf(trainDO.getId()));
-                        result.setTrainNumber(trainDO.getTrainNumber());
-                        result.setDepartureTime(DateUtil.convertDateToLocalTime(each.getDepartureTime(), "HH:mm"));
-                        result.setArrivalTime(DateUtil.convertDateToLocalTime(each.getArrivalTime(), "HH:mm"));
-                        result.setDuration(DateUtil.calculateHourDifference(each.getDepartureTime(), each.getArrivalTime()));
-                        result.setDeparture(each.getDeparture());
-                        result.setArrival(each.getArrival());
-                        result.setDepartureFlag(each.getDepartureFlag());
-                        result.setArrivalFlag(each.getArrivalFlag());
-                        result.setTrainType(trainDO.getTrainType());
-                        result.setTrainBrand(trainDO.getTrainBrand());
-                        if (StrUtil.isNotBlank(trainDO.getTrainTag())) {
-                            result.setTrainTags(StrUtil.split(trainDO.getTrainTag(), StrUtil.COMMA));
-                        }
-                        long betweenDay = cn.hutool.core.date.DateUtil.betweenDay(each.getDepartureTime(), each.getArrivalTime(), false);
-                        result.setDaysArrived((int) betweenDay);
-                        result.setSaleStatus(new Date().after(trainDO.getSaleTime()) ? 0 : 1);
-                        result.setSaleTime(DateUtil.convertDateToLocalTime(trainDO.getSaleTime(), "MM-dd HH:mm"));
-                        seatResults.add(result);
-                        regionTrainStationAllMap.put(CacheUtil.buildKey(String.valueOf(each.getTrainId()), each.getDeparture(), each.getArrival()), JSON.toJSONString(result));
-                    }
-                    // 全部加载完，批量保存到 Redis Hash 结构中
-                    stringRedisTemplate.opsForHash().putAll(buildRegionTrainStationHashKey, regionTrainStationAllMap);
-                }
-            } finally {
-                lock.unlock();
-            }
+        List<TicketListDTO> seatResults = listRegionTrainStation(buildRegionTrainStationHashKey);
+        if (CollUtil.isEmpty(seatResults)) {
+            seatResults = loadRegionTrainStation(stationDetails, buildRegionTrainStationHashKey);
         }
-        seatResults = CollUtil.isEmpty(seatResults)
-                ? regionTrainStationAllMap.values().stream().map(each -> JSON.parseObject(each.toString(), TicketListDTO.class)).toList()
-                : seatResults;
-        // 按照出发时间进行排序
-        seatResults = seatResults.stream().sorted(new TimeStringComparator()).toList();
-        // 查询列车余票信息并填充到基本信息中
-        for (TicketListDTO each : seatResults) {
-            // 查询缓存中每一趟列车的每一个席别的价格，如果不存在就查询数据库再添加到缓存中
-            String trainStationPriceStr = distributedCache.safeGet(
-                    String.format(TRAIN_STATION_PRICE, each.getTrainId(), each.getDeparture(), each.getArrival()),
+        StringRedisTemplate stringRedisTemplate = (StringRedisTemplate) distributedCache.getInstance();
+        // 本地缓存中的列车信息在实例内共享，填充余票前复制一份
+        seatResults = seatResults.stream().map(each -> each.toBuilder().build()).toList();
+        // 批量查询缓存中每一趟列车的每一个席别的价格，如果不存在就查询数据库再添加到缓存中
+        Map<String, TicketListDTO> trainStationPriceKeyMap = new LinkedHashMap<>();
+        seatResults.forEach(each -> trainStationPriceKeyMap.put(String.format(TRAIN_STATION_PRICE, each.getTrainId(), each.getDeparture(), each.getArrival()), each));
+        Map<String, List<TrainStationPriceDO>> trainStationPriceMap = multistageCache.getAll(trainStationPriceKeyMap.keySet(), missKeys -> {
+            Map<String, String> trainStationPriceStrMap = distributedCache.multiSafeGet(
+                    missKeys,
                     String.class,
-                    () -> {
-                        LambdaQueryWrapper<TrainStationPriceDO> trainStationPriceQueryWrapper = Wrappers.lambdaQuery(TrainStationPriceDO.class)
-                                .eq(TrainStationPriceDO::getDeparture, each.getDeparture())
-                                .eq(TrainStationPriceDO::getArrival, each.getArrival())
-                                .eq(TrainStationPriceDO::getTrainId, each.getTrainId());
-                        return JSON.toJSONString(trainStationPriceMapper.selectList(trainStationPriceQueryWrapper));
-                    },
+                    loadKeys -> trainStationPriceCacheLoader.load(loadKeys, trainStationPriceKeyMap),
                     ADVANCE_TICKET_DAY,
                     TimeUnit.DAYS
             );
-            List<TrainStationPriceDO> trainStationPriceDOList = JSON.parseArray(trainStationPriceStr, TrainStationPriceDO.class);
+            Map<String, List<TrainStationPriceDO>> result = new HashMap<>(trainStationPriceStrMap.size());
+            trainStationPriceStrMap.forEach((key, value) -> result.put(key, JSON.parseArray(value, TrainStationPriceDO.class)));
+            return result;
+        });
+        // 查询列车余票信息并填充到基本信息中
+        for (TicketListDTO each : seatResults) {
+            String trainStationPriceKey = String.format(TRAIN_STATION_PRICE, each.getTrainId(), each.getDeparture(), each.getArrival());
+            List<TrainStationPriceDO> trainStationPriceDOList = trainStationPriceMap.getOrDefault(trainStationPriceKey, Collections.emptyList());
             List<SeatClassDTO> seatClassList = new ArrayList<>();
             // 循环遍历座位价格数据，获取到座位对应的余票，并最终放入到列车基本信息中
             trainStationPriceDOList.forEach(item -> {
@@ -249,77 +176,23 @@ public class TicketServiceImpl extends ServiceImpl<TicketMapper, TicketDO> imple
 
     /**
      * v1 版本交互 Redis 过多，导致性能深渊
-     * v2 版本更符合企业级高并发真实场景解决方案，完美解决了 v1 版本性能深渊问题。
-     * 通过 Jmeter 压测聚合报告得知，性能提升在 300% - 500%+
+     * v2 版本基于本地读模型查询，城市区间的列车信息、席别价格以及筛选项预先计算，余票由增量通知实时修正，
+     * 查询路径上不再访问 Redis，仅在读模型首次构建以及定时校准余票时批量读取
      */
     @Override
     public TicketPageQueryRespDTO pageListTicketQueryV2(TicketPageQueryReqDTO requestParam) {
         // 责任链模式，验证城市名称是否存在，不存在加载缓存；验证出发日期不能小于当前日期等
         ticketPageQueryAbstractChainContext.handler(TicketChainMarkEnum.TRAIN_QUERY_FILTER.name(), requestParam);
-        StringRedisTemplate stringRedisTemplate = (StringRedisTemplate) distributedCache.getInstance();
-        // 查询缓存中城市Code码与城市名称的映射
-        List<Object> stationDetails = stringRedisTemplate.opsForHash()
-                .multiGet(REGION_TRAIN_STATION_MAPPING, Lists.newArrayList(requestParam.getFromStation(), requestParam.getToStation()));
+        // 查询缓存中城市Code码与城市名称的映射，没有就从数据库中加载
+        List<Object> stationDetails = loadRegionTrainStationMapping(requestParam.getFromStation(), requestParam.getToStation());
         String buildRegionTrainStationHashKey = String.format(REGION_TRAIN_STATION, stationDetails.get(0), stationDetails.get(1));
-        Map<Object, Object> regionTrainStationAllMap = stringRedisTemplate.opsForHash().entries(buildRegionTrainStationHashKey);
-        // 查询车站站点
-        List<TicketListDTO> seatResults = regionTrainStationAllMap.values().stream()
-                .map(each -> JSON.parseObject(each.toString(), TicketListDTO.class))
-                .sorted(new TimeStringComparator())
-                .toList();
-        // 构建查询车票价格的Key: KeyPrefix + trainId + 始发站 + 终点站
-        List<String> trainStationPriceKeys = seatResults.stream()
-                .map(each -> String.format(cacheRedisPrefix + TRAIN_STATION_PRICE, each.getTrainId(), each.getDeparture(), each.getArrival()))
-                .toList();
-        // 利用 Redis 管道在一次网络请求中执行多个Redis命令，明显地减少了网络开销
-        List<Object> trainStationPriceObjs = stringRedisTemplate.executePipelined((RedisCallback<String>) connection -> {
-            trainStationPriceKeys.forEach(each -> connection.stringCommands().get(each.getBytes()));
-            return null;
-        });
-        List<TrainStationPriceDO> trainStationPriceDOList = new ArrayList<>();
-        List<String> trainStationRemainingKeyList = new ArrayList<>();
-        for (Object each : trainStationPriceObjs) {
-            List<TrainStationPriceDO> trainStationPriceList = JSON.parseArray(each.toString(), TrainStationPriceDO.class);
-            trainStationPriceDOList.addAll(trainStationPriceList);
-            // 构建查询每一趟列车的每一个席别的价格的Key: KeyPrefix + trainId_始发站_终点站
-            for (TrainStationPriceDO item : trainStationPriceList) {
-                String trainStationRemainingKey = cacheRedisPrefix + TRAIN_STATION_REMAINING_TICKET + StrUtil.join("_", item.getTrainId(), item.getDeparture(), item.getArrival());
-                trainStationRemainingKeyList.add(trainStationRemainingKey);
-            }
+        // 读模型以本地缓存中的列车信息为数据源，数据源刷新后读模型随之重建
+        List<TicketListDTO> seatResults = listRegionTrainStation(buildRegionTrainStationHashKey);
+        if (CollUtil.isEmpty(seatResults)) {
+            loadRegionTrainStation(stationDetails, buildRegionTrainStationHashKey);
+            seatResults = Optional.ofNullable(listRegionTrainStation(buildRegionTrainStationHashKey)).orElse(Collections.emptyList());
         }
-        List<Object> TrainStationRemainingObjs = stringRedisTemplate.executePipelined((RedisCallback<String>) connection -> {
-            for (int i = 0; i < trainStationRemainingKeyList.size(); i++) {
-                connection.hashCommands().hGet(trainStationRemainingKeyList.get(i).getBytes(), trainStationPriceDOList.get(i).getSeatType().toString().getBytes());
-            }
-            return null;
-        });
-        // 查询列车余票信息并填充到基本信息中
-        for (TicketListDTO each : seatResults) {
-            List<Integer> seatTypesByCode = VehicleTypeEnum.findSeatTypesByCode(each.getTrainType());
-            List<Object> remainingTicket = new ArrayList<>(TrainStationRemainingObjs.subList(0, seatTypesByCode.size()));
-            List<TrainStationPriceDO> trainStationPriceDOSub = new ArrayList<>(trainStationPriceDOList.subList(0, seatTypesByCode.size()));
-            TrainStationRemainingObjs.subList(0, seatTypesByCode.size()).clear();
-            trainStationPriceDOList.subList(0, seatTypesByCode.size()).clear();
-            List<SeatClassDTO> seatClassList = new ArrayList<>();
-            for (int i = 0; i < trainStationPriceDOSub.size(); i++) {
-                TrainStationPriceDO trainStationPriceDO = trainStationPriceDOSub.get(i);
-                SeatClassDTO seatClassDTO = SeatClassDTO.builder()
-                        .type(trainStationPriceDO.getSeatType())
-                        .quantity(Integer.parseInt(remainingTicket.get(i).toString()))
-                        .price(new BigDecimal(trainStationPriceDO.getPrice()).divide(new BigDecimal("100"), 1, RoundingMode.HALF_UP))
-                        .candidate(false)
-                        .build();
-                seatClassList.add(seatClassDTO);
-            }
-            each.setSeatClassList(seatClassList);
-        }
-        return TicketPageQueryRespDTO.builder()
-                .trainList(seatResults)
-                .departureStationList(buildDepartureStationList(seatResults))
-                .arrivalStationList(buildArrivalStationList(seatResults))
-                .trainBrandList(buildTrainBrandList(seatResults))
-                .seatClassTypeList(buildSeatClassList(seatResults))
-                .build();
+        return ticketQueryReadModel.query(buildRegionTrainStationHashKey, seatResults);
     }
 
     @Override
@@ -346,65 +219,49 @@ public class TicketServiceImpl extends ServiceImpl<TicketMapper, TicketDO> imple
         TokenResultDTO tokenResult = ticketAvailabilityTokenBucket.takeTokenFromBucket(requestParam);
         // 如果获取令牌产生错误
         if (tokenResult.getTokenIsNull()) {
-            Object ifPresentObj = tokenTicketsRefreshMap.getIfPresent(requestParam.getTrainId());
-            if (ifPresentObj == null) {
-                synchronized (TicketServiceImpl.class) {
-                    if (tokenTicketsRefreshMap.getIfPresent(requestParam.getTrainId()) == null) {
-                        ifPresentObj = new Object();
-                        tokenTicketsRefreshMap.put(requestParam.getTrainId(), ifPresentObj);
-                        // 二次检查车票是否正常，如果不正常，则刷新令牌容器
-                        tokenIsNullRefreshToken(requestParam, tokenResult);
-                    }
-                }
-            }
+            // 标记列车待校准，由座位状态变更消息驱动校准令牌余量
+            ticketAvailabilityTokenBucketReconciler.markTokenIsNull(requestParam.getTrainId());
             throw new ServiceException("列车站点已无余票");
         }
-        List<ReentrantLock> localLockList = new ArrayList<>();
-        List<RLock> distributedLockList = new ArrayList<>();
-        // 按照购票的座位类型进行分组
-        Map<Integer, List<PurchaseTicketPassengerDetailDTO>> seatTypeMap = requestParam.getPassengers().stream()
-                .collect(Collectors.groupingBy(PurchaseTicketPassengerDetailDTO::getSeatType));
-        // 以座位类型的粒度进行加锁
-        seatTypeMap.forEach((searType, count) -> {
-            String lockKey = String.format(LOCK_PURCHASE_TICKETS_V2, requestParam.getTrainId(), searType);
-            // 先获取本地锁 再获取分布式锁 通过 Caffeine 创建本地安全锁容器
-            // 注意：如果使用 ConcurrentHashMap 会导致容器中被无限存放 Key 导致内存溢出
-            ReentrantLock localLock = localLockMap.getIfPresent(lockKey);
-            if (localLock == null) {
-                // Caffeine 没有并发读写安全控制 这里需要手动控制 采用双检加锁的方式
-                synchronized (TicketService.class) {
-                    if ((localLock = localLockMap.getIfPresent(lockKey)) == null) {
-                        // 创建本地安全锁 放入本地安全锁容器中
-                        localLock = new ReentrantLock(true);
-                        localLockMap.put(lockKey, localLock);
-                    }
-                }
-            }
-            // 因为是按照座位类型粒度加的锁 所以需要将本地安全锁和分布式锁都加入到对应的 List
-            localLockList.add(localLock);
-            // 这里改进使用公平锁
-            RLock distributedLock = redissonClient.getFairLock(lockKey);
-            distributedLockList.add(distributedLock);
-        });
+        if (purchaseCoalescingEnabled) {
+            // 同一列车相同座位类型的购票请求合并为批次执行，一个批次只加一次锁
+            return purchaseTicketCoalescingQueue.submit(requestParam);
+        }
+        // 按照购票的座位类型进行分组，座位类型有序保证同一列车的分布式锁加锁顺序一致
+        Set<Integer> seatTypes = requestParam.getPassengers().stream()
+                .map(PurchaseTicketPassengerDetailDTO::getSeatType)
+                .collect(Collectors.toCollection(TreeSet::new));
+        // 以座位类型的粒度进行加锁 先获取本地分段锁 再获取分布式锁
+        List<RLock> distributedLockList = new ArrayList<>(seatTypes.size());
+        seatTypes.forEach(each -> distributedLockList.add(purchaseTicketLockRegistry.getDistributedLock(requestParam.getTrainId(), each)));
+        List<ReentrantLock> localLockList = purchaseTicketLockRegistry.lockLocal(requestParam.getTrainId(), seatTypes);
+        List<RLock> acquiredLockList = new ArrayList<>(distributedLockList.size());
+        long lockHoldStartNanos = 0L;
         try {
-            // 遍历各座位类型的锁 加锁 执行购票逻辑
-            localLockList.forEach(ReentrantLock::lock);
-            distributedLockList.forEach(RLock::lock);
+            long lockWaitStartNanos = System.nanoTime();
+            for (RLock distributedLock : distributedLockList) {
+                distributedLock.lock();
+                acquiredLockList.add(distributedLock);
+            }
+            lockHoldStartNanos = System.nanoTime();
+            ticketServiceMetrics.recordPurchaseLockWait(lockWaitStartNanos);
             return ticketService.executePurchaseTickets(requestParam);
+        } catch (Throwable ex) {
+            // 选座下单事务已回滚，归还本次取出的令牌，避免令牌少于实际余票
+            ticketAvailabilityTokenBucket.rollbackInBucket(requestParam);
+            throw ex;
         } finally {
-            // 解锁
-            localLockList.forEach(localLock -> {
-                try {
-                    localLock.unlock();
-                } catch (Throwable ignored) {
-                }
-            });
-            distributedLockList.forEach(distributedLock -> {
+            // 先释放分布式锁 再释放本地锁
+            acquiredLockList.forEach(distributedLock -> {
                 try {
                     distributedLock.unlock();
                 } catch (Throwable ignored) {
                 }
             });
+            purchaseTicketLockRegistry.unlockLocal(localLockList);
+            if (lockHoldStartNanos != 0L) {
+                ticketServiceMetrics.recordPurchaseLockHold(lockHoldStartNanos);
+            }
         }
     }
 
@@ -420,15 +277,21 @@ public class TicketServiceImpl extends ServiceImpl<TicketMapper, TicketDO> imple
                 ADVANCE_TICKET_DAY,
                 TimeUnit.DAYS);
         List<TrainPurchaseTicketRespDTO> trainPurchaseTicketResults = trainSeatTypeSelector.select(trainDO.getTrainType(), requestParam);
-        List<TicketDO> ticketDOList = trainPurchaseTicketResults.stream()
-                .map(each -> TicketDO.builder()
-                        .username(UserContext.getUsername())
-                        .trainId(Long.parseLong(requestParam.getTrainId()))
-                        .carriageNumber(each.getCarriageNumber())
-                        .seatNumber(each.getSeatNumber())
-                        .passengerId(each.getPassengerId())
-                        .ticketStatus(TicketStatusEnum.UNPAID.getCode())
-                        .build())
+        // 一次性预占本次购票所有车票记录的 ID
+        long[] ticketIds = SnowflakeIdUtil.nextIds(trainPurchaseTicketResults.size());
+        List<TicketDO> ticketDOList = IntStream.range(0, trainPurchaseTicketResults.size())
+                .mapToObj(i -> {
+                    TrainPurchaseTicketRespDTO each = trainPurchaseTicketResults.get(i);
+                    return TicketDO.builder()
+                            .id(ticketIds[i])
+                            .username(UserContext.getUsername())
+                            .trainId(Long.parseLong(requestParam.getTrainId()))
+                            .carriageNumber(each.getCarriageNumber())
+                            .seatNumber(each.getSeatNumber())
+                            .passengerId(each.getPassengerId())
+                            .ticketStatus(TicketStatusEnum.UNPAID.getCode())
+                            .build();
+                })
                 .toList();
         saveBatch(ticketDOList);
         Result<String> ticketOrderResult;
@@ -516,13 +379,17 @@ public class TicketServiceImpl extends ServiceImpl<TicketMapper, TicketDO> imple
                         .collect(Collectors.groupingBy(TicketOrderPassengerDetailRespDTO::getSeatType));
                 List<RouteDTO> routeDTOList = trainStationService.listTakeoutTrainStationRoute(trainId, departure, arrival);
                 // 增加列车余票缓存数量
+                Map<String, Map<Integer, Integer>> remainingTicketDeltaMap = new HashMap<>(routeDTOList.size());
                 routeDTOList.forEach(each -> {
                     String keySuffix = StrUtil.join(StrUtil.UNDERLINE, trainId, each.getStartStation(), each.getEndStation());
+                    Map<Integer, Integer> seatTypeDeltaMap = remainingTicketDeltaMap.computeIfAbsent(TRAIN_STATION_REMAINING_TICKET + keySuffix, key -> new HashMap<>());
                     seatTypeMap.forEach((seatType, ticketOrderPassengerDetailRespDTOList) -> {
                         stringRedisTemplate.opsForHash()
                                 .increment(TRAIN_STATION_REMAINING_TICKET + keySuffix, String.valueOf(seatType), ticketOrderPassengerDetailRespDTOList.size());
+                        seatTypeDeltaMap.put(seatType, ticketOrderPassengerDetailRespDTOList.size());
                     });
                 });
+                ticketQueryReadModel.publishRemainingTicketDeltas(remainingTicketDeltaMap);
             } catch (Throwable ex) {
                 log.error("[取消关闭订单] 订单号：{} 回滚列车Cache余票失败", requestParam.getOrderSn(), ex);
                 throw ex;
@@ -581,42 +448,125 @@ public class TicketServiceImpl extends ServiceImpl<TicketMapper, TicketDO> imple
         return null;
     }
 
-    private void tokenIsNullRefreshToken(PurchaseTicketReqDTO requestParam, TokenResultDTO tokenResult) {
-        RLock lock = redissonClient.getLock(String.format(LOCK_TOKEN_BUCKET_ISNULL, requestParam.getTrainId()));
-        // 尝试获取分布式锁，如果不成功则直接返回即可
-        if (!lock.tryLock()) {
-            return;
-        }
-        // 延迟更新的原因：一辆列车突发将列车票售空，可能数据库还没有扣减完，所以有个 10 秒缓冲时间
-        tokenIsNullRefreshExecutor.schedule(() -> {
+    /**
+     * 获取出发站点和到达站点对应的城市名称，缓存中不存在时加载全部站点映射
+     */
+    private List<Object> loadRegionTrainStationMapping(String fromStation, String toStation) {
+        List<Object> stationDetails = listRegionTrainStationMapping(fromStation, toStation);
+        long count = stationDetails.stream().filter(ObjectUtil::isNull).count();
+        if (count > 0) {
+            StringRedisTemplate stringRedisTemplate = (StringRedisTemplate) distributedCache.getInstance();
+            // 避免缓存击穿，分布式锁 + 双重检查
+            RLock lock = redissonClient.getLock(LOCK_REGION_TRAIN_STATION_MAPPING);
+            lock.lock();
             try {
-                // 组装出座位类型以及每个座位类型下的购票人数
-                List<Integer> seatTypes = new ArrayList<>();
-                Map<Integer, Integer> tokenCountMap = new HashMap<>();
-                tokenResult.getTokenIsNullSeatTypeCounts().stream()
-                        .map(each -> each.split(StrUtil.UNDERLINE))
-                        .forEach(split -> {
-                            int seatType = Integer.parseInt(split[0]);
-                            seatTypes.add(seatType);
-                            tokenCountMap.put(seatType, Integer.parseInt(split[1]));
-                        });
-                // 获取数据库中座位类型对应的余票数量
-                List<SeatTypeCountDTO> seatTypeCountDTOList = seatService.listSeatTypeCount(Long.parseLong(requestParam.getTrainId()),
-                        requestParam.getDeparture(),
-                        requestParam.getArrival(),
-                        seatTypes);
-                for (SeatTypeCountDTO each : seatTypeCountDTOList) {
-                    Integer tokenCount = tokenCountMap.get(each.getSeatType());
-                    // 如果判断数据库余票数大于扣减不成功的数量
-                    if (tokenCount < each.getSeatCount()) {
-                        ticketAvailabilityTokenBucket.delTokenInBucket(requestParam);
-                        break;
-                    }
+                stationDetails = stringRedisTemplate.opsForHash()
+                        .multiGet(REGION_TRAIN_STATION_MAPPING, Lists.newArrayList(fromStation, toStation));
+                count = stationDetails.stream().filter(Objects::isNull).count();
+                if (count > 0) {
+                    List<StationDO> stationDOList = stationMapper.selectList(Wrappers.emptyWrapper());
+                    Map<String, String> regionTrainStationMap = new HashMap<>();
+                    stationDOList.forEach(each -> regionTrainStationMap.put(each.getCode(), each.getRegionName()));
+                    stringRedisTemplate.opsForHash().putAll(REGION_TRAIN_STATION_MAPPING, regionTrainStationMap);
+                    stationDetails = new ArrayList<>();
+                    stationDetails.add(regionTrainStationMap.get(fromStation));
+                    stationDetails.add(regionTrainStationMap.get(toStation));
+                    multistageCache.invalidate(REGION_TRAIN_STATION_MAPPING);
                 }
             } finally {
                 lock.unlock();
             }
-        }, 10, TimeUnit.SECONDS);
+        }
+        return stationDetails;
+    }
+
+    /**
+     * 从数据库加载两个城市之间的列车信息并保存到缓存中，返回按出发时间排序的列车信息
+     */
+    private List<TicketListDTO> loadRegionTrainStation(List<Object> stationDetails, String buildRegionTrainStationHashKey) {
+        StringRedisTemplate stringRedisTemplate = (StringRedisTemplate) distributedCache.getInstance();
+        List<TicketListDTO> seatResults = new ArrayList<>();
+        Map<Object, Object> regionTrainStationAllMap = new HashMap<>();
+        RLock lock = redissonClient.getLock(LOCK_REGION_TRAIN_STATION);
+        lock.lock();
+        try {
+            if (!stringRedisTemplate.hasKey(buildRegionTrainStationHashKey)) {
+                // 加载数据库列车相关信息，并构建出每一趟列车的详细记录
+                LambdaQueryWrapper<TrainStationRelationDO> queryWrapper = Wrappers.lambdaQuery(TrainStationRelationDO.class)
+                        .eq(TrainStationRelationDO::getStartRegion, stationDetails.get(0))
+                        .eq(TrainStationRelationDO::getEndRegion, stationDetails.get(1));
+                List<TrainStationRelationDO> trainStationRelationList = trainStationRelationMapper.selectList(queryWrapper);
+                for (TrainStationRelationDO each : trainStationRelationList) {
+                    TrainDO trainDO = multistageCache.get(TRAIN_INFO + each.getTrainId(), () -> distributedCache.safeGet(
+                            TRAIN_INFO + each.getTrainId(),
+                            TrainDO.class,
+                            () -> trainMapper.selectById(each.getTrainId()),
+                            ADVANCE_TICKET_DAY,
+                            TimeUnit.DAYS));
+                    TicketListDTO result = new TicketListDTO();
+                    result.setTrainId(String.valueOf(trainDO.getId()));
+                    result.setTrainNumber(trainDO.getTrainNumber());
+                    result.setDepartureTime(DateUtil.convertDateToLocalTime(each.getDepartureTime(), "HH:mm"));
+                    result.setArrivalTime(DateUtil.convertDateToLocalTime(each.getArrivalTime(), "HH:mm"));
+                    result.setDuration(DateUtil.calculateHourDifference(each.getDepartureTime(), each.getArrivalTime()));
+                    result.setDeparture(each.getDeparture());
+                    result.setArrival(each.getArrival());
+                    result.setDepartureFlag(each.getDepartureFlag());
+                    result.setArrivalFlag(each.getArrivalFlag());
+                    result.setTrainType(trainDO.getTrainType());
+                    result.setTrainBrand(trainDO.getTrainBrand());
+                    if (StrUtil.isNotBlank(trainDO.getTrainTag())) {
+                        result.setTrainTags(StrUtil.split(trainDO.getTrainTag(), StrUtil.COMMA));
+                    }
+                    long betweenDay = cn.hutool.core.date.DateUtil.betweenDay(each.getDepartureTime(), each.getArrivalTime(), false);
+                    result.setDaysArrived((int) betweenDay);
+                    result.setSaleStatus(new Date().after(trainDO.getSaleTime()) ? 0 : 1);
+                    result.setSaleTime(DateUtil.convertDateToLocalTime(trainDO.getSaleTime(), "MM-dd HH:mm"));
+                    seatResults.add(result);
+                    regionTrainStationAllMap.put(CacheUtil.buildKey(String.valueOf(each.getTrainId()), each.getDeparture(), each.getArrival()), JSON.toJSONString(result));
+                }
+                // 全部加载完，批量保存到 Redis Hash 结构中
+                stringRedisTemplate.opsForHash().putAll(buildRegionTrainStationHashKey, regionTrainStationAllMap);
+                multistageCache.invalidate(buildRegionTrainStationHashKey);
+            }
+        } finally {
+            lock.unlock();
+        }
+        return CollUtil.isEmpty(seatResults)
+                ? Optional.ofNullable(listRegionTrainStation(buildRegionTrainStationHashKey)).orElse(Collections.emptyList())
+                : seatResults.stream().sorted(new TimeStringComparator()).toList();
+    }
+
+    /**
+     * 获取出发站点和到达站点对应的城市名称，城市Code码与城市名称的映射保存在本地缓存中
+     */
+    private List<Object> listRegionTrainStationMapping(String fromStation, String toStation) {
+        Map<Object, Object> regionTrainStationMapping = multistageCache.get(REGION_TRAIN_STATION_MAPPING, () -> {
+            StringRedisTemplate stringRedisTemplate = (StringRedisTemplate) distributedCache.getInstance();
+            Map<Object, Object> entries = stringRedisTemplate.opsForHash().entries(REGION_TRAIN_STATION_MAPPING);
+            return MapUtil.isEmpty(entries) ? null : entries;
+        });
+        if (regionTrainStationMapping == null) {
+            return Lists.newArrayList(null, null);
+        }
+        return Lists.newArrayList(regionTrainStationMapping.get(fromStation), regionTrainStationMapping.get(toStation));
+    }
+
+    /**
+     * 获取两个城市之间按出发时间排序的列车信息，反序列化后保存在本地缓存中，返回对象不允许修改
+     */
+    private List<TicketListDTO> listRegionTrainStation(String regionTrainStationHashKey) {
+        return multistageCache.get(regionTrainStationHashKey, () -> {
+            StringRedisTemplate stringRedisTemplate = (StringRedisTemplate) distributedCache.getInstance();
+            Map<Object, Object> regionTrainStationAllMap = stringRedisTemplate.opsForHash().entries(regionTrainStationHashKey);
+            if (MapUtil.isEmpty(regionTrainStationAllMap)) {
+                return null;
+            }
+            return regionTrainStationAllMap.values().stream()
+                    .map(each -> JSON.parseObject(each.toString(), TicketListDTO.class))
+                    .sorted(new TimeStringComparator())
+                    .toList();
+        });
     }
 
     private List<String> buildDepartureStationList(List<TicketListDTO> seatResults) {
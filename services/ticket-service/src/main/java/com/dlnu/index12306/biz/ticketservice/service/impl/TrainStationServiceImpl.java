@@ -7,14 +7,19 @@ import com.dlnu.index12306.biz.ticketservice.dao.mapper.TrainStationMapper;
 import com.dlnu.index12306.biz.ticketservice.dto.domain.RouteDTO;
 import com.dlnu.index12306.biz.ticketservice.dto.resp.TrainStationQueryRespDTO;
 import com.dlnu.index12306.biz.ticketservice.service.TrainStationService;
-import com.dlnu.index12306.biz.ticketservice.toolkit.StationCalculateUtil;
+import com.dlnu.index12306.biz.ticketservice.toolkit.TrainStationRouteTable;
 import com.dlnu.index12306.framework.starter.common.toolkit.BeanUtil;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
+import static com.dlnu.index12306.biz.ticketservice.common.constant.Index12306Constant.ADVANCE_TICKET_DAY;
+
 /**
  * 列车站点接口实现层
  */
@@ -24,6 +29,13 @@ public class TrainStationServiceImpl implements TrainStationService {
 
     private final TrainStationMapper trainStationMapper;
 
+    /**
+     * 列车站点路线表容器，站点变更时通过 Canal Binlog 失效，过期时间兜底
+     */
+    private final Cache<String, TrainStationRouteTable> trainStationRouteTableCache = Caffeine.newBuilder()
+            .expireAfterWrite(ADVANCE_TICKET_DAY, TimeUnit.DAYS)
+            .build();
+
     @Override
     public List<TrainStationQueryRespDTO> listTrainStationQuery(String trainId) {
         LambdaQueryWrapper<TrainStationDO> queryWrapper = Wrappers.lambdaQuery(TrainStationDO.class)
@@ -34,21 +46,28 @@ public class TrainStationServiceImpl implements TrainStationService {
 
     @Override
     public List<RouteDTO> listTrainStationRoute(String trainId, String departure, String arrival) {
-        LambdaQueryWrapper<TrainStationDO> queryWrapper = Wrappers.lambdaQuery(TrainStationDO.class)
-                .eq(TrainStationDO::getTrainId, trainId)
-                .select(TrainStationDO::getDeparture);
-        List<TrainStationDO> trainStationDOList = trainStationMapper.selectList(queryWrapper);
-        List<String> trainStationAllList = trainStationDOList.stream().map(TrainStationDO::getDeparture).collect(Collectors.toList());
-        return StationCalculateUtil.throughStation(trainStationAllList, departure, arrival);
+        return getTrainStationRouteTable(trainId).throughRoutes(departure, arrival);
     }
 
     @Override
     public List<RouteDTO> listTakeoutTrainStationRoute(String trainId, String departure, String arrival) {
-        LambdaQueryWrapper<TrainStationDO> queryWrapper = Wrappers.lambdaQuery(TrainStationDO.class)
-                .eq(TrainStationDO::getTrainId, trainId)
-                .select(TrainStationDO::getDeparture);
-        List<TrainStationDO> trainStationDOList = trainStationMapper.selectList(queryWrapper);
-        List<String> trainStationAllList = trainStationDOList.stream().map(TrainStationDO::getDeparture).collect(Collectors.toList());
-        return StationCalculateUtil.takeoutStation(trainStationAllList, departure, arrival);
+        return getTrainStationRouteTable(trainId).takeoutRoutes(departure, arrival);
+    }
+
+    @Override
+    public TrainStationRouteTable getTrainStationRouteTable(String trainId) {
+        return trainStationRouteTableCache.get(trainId, each -> {
+            LambdaQueryWrapper<TrainStationDO> queryWrapper = Wrappers.lambdaQuery(TrainStationDO.class)
+                    .eq(TrainStationDO::getTrainId, each)
+                    .select(TrainStationDO::getDeparture);
+            List<TrainStationDO> trainStationDOList = trainStationMapper.selectList(queryWrapper);
+            List<String> trainStationAllList = trainStationDOList.stream().map(TrainStationDO::getDeparture).collect(Collectors.toList());
+            return new TrainStationRouteTable(trainStationAllList);
+        });
+    }
+
+    @Override
+    public void invalidateTrainStationRouteTable(String trainId) {
+        trainStationRouteTableCache.invalidate(trainId);
     }
 }
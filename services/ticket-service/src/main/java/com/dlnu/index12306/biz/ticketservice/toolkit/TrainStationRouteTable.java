@@ -0,0 +1,149 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dlnu.index12306.biz.ticketservice.toolkit;
+
+import com.dlnu.index12306.biz.ticketservice.dto.domain.RouteDTO;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * 列车站点路线表
+ * 按照站点序号预先构建全部站点路线，路线集合首次计算后按照 出发站序号 * 站点数 + 到达站序号 缓存，重复查询不再分配对象
+ * 返回的路线集合与路线实体均为共享对象，调用方不允许修改
+ */
+public final class TrainStationRouteTable {
+
+    /**
+     * 站点名称集合，按照列车经停顺序排列
+     */
+    private final List<String> stations;
+
+    /**
+     * 站点名称与站点序号映射
+     */
+    private final Map<String, Integer> stationOrdinalMap;
+
+    /**
+     * 站点路线，routes[i][j] 代表第 i 站到第 j 站，仅 i < j 有效
+     */
+    private final RouteDTO[][] routes;
+
+    /**
+     * 出发站和终点站中间的站点路线缓存
+     */
+    private final AtomicReferenceArray<List<RouteDTO>> throughRoutesCache;
+
+    /**
+     * 出发站和终点站需要扣减余票的站点路线缓存
+     */
+    private final AtomicReferenceArray<List<RouteDTO>> takeoutRoutesCache;
+
+    public TrainStationRouteTable(List<String> stations) {
+        int size = stations.size();
+        this.stations = List.copyOf(stations);
+        this.stationOrdinalMap = new HashMap<>(size * 2);
+        for (int i = 0; i < size; i++) {
+            stationOrdinalMap.putIfAbsent(stations.get(i), i);
+        }
+        this.routes = new RouteDTO[size][size];
+        for (int i = 0; i < size; i++) {
+            for (int j = i + 1; j < size; j++) {
+                routes[i][j] = new RouteDTO(stations.get(i), stations.get(j));
+            }
+        }
+        this.throughRoutesCache = new AtomicReferenceArray<>(size * size);
+        this.takeoutRoutesCache = new AtomicReferenceArray<>(size * size);
+    }
+
+    /**
+     * 站点名称集合，按照列车经停顺序排列
+     */
+    public List<String> getStations() {
+        return stations;
+    }
+
+    /**
+     * 获取站点序号，不存在返回 -1
+     */
+    public int ordinal(String station) {
+        return stationOrdinalMap.getOrDefault(station, -1);
+    }
+
+    /**
+     * 计算出发站和终点站中间的站点（包含出发站和终点站）
+     *
+     * @param startStation 出发站
+     * @param endStation   终点站
+     * @return 出发站和终点站中间的站点（包含出发站和终点站）
+     */
+    public List<RouteDTO> throughRoutes(String startStation, String endStation) {
+        int startIndex = ordinal(startStation);
+        int endIndex = ordinal(endStation);
+        if (startIndex < 0 || endIndex < 0 || startIndex >= endIndex) {
+            return Collections.emptyList();
+        }
+        int cacheIndex = startIndex * stations.size() + endIndex;
+        List<RouteDTO> result = throughRoutesCache.get(cacheIndex);
+        if (result == null) {
+            List<RouteDTO> actualResult = new ArrayList<>((endIndex - startIndex) * (endIndex - startIndex + 1) / 2);
+            for (int i = startIndex; i < endIndex; i++) {
+                for (int j = i + 1; j <= endIndex; j++) {
+                    actualResult.add(routes[i][j]);
+                }
+            }
+            result = Collections.unmodifiableList(actualResult);
+            throughRoutesCache.set(cacheIndex, result);
+        }
+        return result;
+    }
+
+    /**
+     * 计算出发站和终点站需要扣减余票的站点（包含出发站和终点站）
+     *
+     * @param startStation 出发站
+     * @param endStation   终点站
+     * @return 出发站和终点站需要扣减余票的站点（包含出发站和终点站）
+     */
+    public List<RouteDTO> takeoutRoutes(String startStation, String endStation) {
+        int startIndex = ordinal(startStation);
+        int endIndex = ordinal(endStation);
+        if (startIndex < 0 || endIndex < 0 || startIndex >= endIndex) {
+            return Collections.emptyList();
+        }
+        int size = stations.size();
+        int cacheIndex = startIndex * size + endIndex;
+        List<RouteDTO> result = takeoutRoutesCache.get(cacheIndex);
+        if (result == null) {
+            List<RouteDTO> actualResult = new ArrayList<>();
+            for (int i = 0; i < startIndex; i++) {
+                for (int j = startIndex + 1; j < size; j++) {
+                    actualResult.add(routes[i][j]);
+                }
+            }
+            for (int i = startIndex; i < endIndex; i++) {
+                for (int j = i + 1; j < size; j++) {
+                    actualResult.add(routes[i][j]);
+                }
+            }
+            result = Collections.unmodifiableList(actualResult);
+            takeoutRoutesCache.set(cacheIndex, result);
+        }
+        return result;
+    }
+}
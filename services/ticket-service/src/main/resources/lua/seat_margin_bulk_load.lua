@@ -0,0 +1,16 @@
+-- KEYS[1 .. m] 是列车各站点区间的余票 Hash Key
+-- ARGV 采用位置参数协议，所有 Hash Field 由调用方预先拼接
+-- ARGV[1] 是座位类型数量 n
+-- ARGV[2 .. n+1] 是座位类型 Field
+-- ARGV[n+2 ..] 是每个 Key 各座位类型的余票数量，按 Key 分组依次排列，每组 n 个
+local seatTypeSize = tonumber(ARGV[1])
+local marginStart = seatTypeSize + 2
+
+for i = 1, #KEYS do
+    local offset = marginStart + (i - 1) * seatTypeSize
+    for j = 1, seatTypeSize do
+        redis.call('hset', KEYS[i], ARGV[1 + j], ARGV[offset + j - 1])
+    end
+end
+
+return #KEYS
@@ -0,0 +1,9 @@
+-- KEYS[i] 是第 i 个余票增量对应的站点区间余票 Hash Key，可以重复
+-- ARGV[2i-1] 是第 i 个余票增量的座位类型 Field
+-- ARGV[2i] 是第 i 个余票增量，可以为负数
+-- 同一批次的全部增量在一次脚本调用中执行，要么全部生效要么全部不生效，避免 MQ 重试投递时部分增量被重复累加
+-- KEYS 跨多个站点区间且没有 Hash Tag，仅支持单节点 Redis，Redis Cluster 下会返回 CROSSSLOT 错误
+for i = 1, #KEYS do
+    redis.call('hincrby', KEYS[i], ARGV[2 * i - 1], ARGV[2 * i])
+end
+return #KEYS
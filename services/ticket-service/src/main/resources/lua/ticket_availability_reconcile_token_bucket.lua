@@ -0,0 +1,17 @@
+-- KEYS[1] 是列车令牌桶 Hash Key
+-- KEYS[2 .. m+1] 是每个待校准令牌对应站点区间的余票 Hash Key，可以重复
+-- ARGV 采用位置参数协议，所有 Hash Field 由调用方预先拼接
+-- ARGV[2i-1] 是第 i 个待校准的令牌 Field，比如北京南_南京南_0
+-- ARGV[2i] 是第 i 个待校准令牌对应的座位类型 Field
+-- 令牌余量只会向上校准到余票数量，令牌多于余票时由数据库选座兜底，避免并发购票中尚未落库的扣减被重复计算
+local raised = 0
+for i = 2, #KEYS do
+    local tokenField = ARGV[2 * (i - 1) - 1]
+    local tokenValue = tonumber(redis.call('hget', KEYS[1], tokenField))
+    local remainingValue = tonumber(redis.call('hget', KEYS[i], ARGV[2 * (i - 1)]))
+    if tokenValue ~= nil and remainingValue ~= nil and remainingValue > tokenValue then
+        redis.call('hincrby', KEYS[1], tokenField, remainingValue - tokenValue)
+        raised = raised + remainingValue - tokenValue
+    end
+end
+return raised
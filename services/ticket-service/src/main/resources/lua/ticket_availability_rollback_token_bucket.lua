@@ -1,36 +1,22 @@
--- 处理inputString得到actualKey
-local inputString = KEYS[2]
-local actualKey = inputString
--- 找到 ":" 的索引位置
-local colonIndex = string.find(actualKey, ":")
--- 如果在 Key 中确实找到了 ":" 则将actualKey设置为冒号之后的字符串部分
-if colonIndex ~= nil then
-    actualKey = string.sub(actualKey, colonIndex + 1)
-end
-
--- 解析JSON字符串为Lua表
-local jsonArrayStr = ARGV[1]
-local jsonArray = cjson.decode(jsonArrayStr)
-local alongJsonArrayStr = ARGV[2]
-local alongJsonArray = cjson.decode(alongJsonArrayStr)
+-- KEYS[1] 是列车令牌桶 Hash Key
+-- ARGV 采用位置参数协议，所有 Hash Field 由调用方预先拼接，脚本中不做 JSON 解析和字符串拼接
+-- ARGV[1] 是回滚涉及的座位类型数量 n
+-- ARGV[2 .. n+1] 是每种座位类型的回滚数量
+-- ARGV[n+2 ..] 是每种座位类型需要回滚的路线令牌 Field，按座位类型分组依次排列，每组数量相同
+local seatTypeSize = tonumber(ARGV[1])
+local routeFieldStart = seatTypeSize + 2
+local routeSize = (#ARGV - routeFieldStart + 1) / seatTypeSize
 
--- 遍历和操作
-for index, jsonObj in ipairs(jsonArray) do
-    -- 对jsonArray进行遍历，每轮循环处理一个 jsonObj。从中获取座位类型和座位数量。
-    local seatType = tonumber(jsonObj.seatType)
-    local count = tonumber(jsonObj.count)
-    for indexTwo, alongJsonObj in ipairs(alongJsonArray) do
-        -- 对alongJsonArray进行遍历，每次处理一个 alongJsonObj。从中获取始发站和终点站。
-        local startStation = tostring(alongJsonObj.startStation)
-        local endStation = tostring(alongJsonObj.endStation)
-        -- 使用始发站、终点站和座位类型构造一个哈希键，格式为：“始发站_终点站_座位类型”。
-        local actualInnerHashKey = startStation .. "_" .. endStation .. "_" .. seatType
-        -- 获取剩余座位数量
-        local ticketSeatAvailabilityTokenValue = tonumber(redis.call('hget', KEYS[1], tostring(actualInnerHashKey)))
-        if ticketSeatAvailabilityTokenValue >= 0 then
-            redis.call('hincrby', KEYS[1], tostring(actualInnerHashKey), count)
+for i = 1, seatTypeSize do
+    local count = tonumber(ARGV[1 + i])
+    local offset = routeFieldStart + (i - 1) * routeSize
+    for j = offset, offset + routeSize - 1 do
+        -- 令牌桶已被删除或过期的路线无需回滚，等待下次重建
+        local ticketSeatAvailabilityTokenValue = tonumber(redis.call('hget', KEYS[1], ARGV[j]))
+        if ticketSeatAvailabilityTokenValue ~= nil and ticketSeatAvailabilityTokenValue >= 0 then
+            redis.call('hincrby', KEYS[1], ARGV[j], count)
         end
     end
 end
 
-return 0
\ No newline at end of file
+return 0
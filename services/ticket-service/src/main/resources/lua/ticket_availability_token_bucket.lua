@@ -1,66 +1,39 @@
--- KEYS[2] 就是咱们用户购买的出发站点和到达站点，比如北京南_南京南
-local inputString = KEYS[2]
-local actualKey = inputString
--- 因为 Redis Key 序列化器的问题，会把 unique_name: 给加上
--- 所以这里需要把 unique_name: 给删除，仅保留北京南_南京南
--- actualKey 就是北京南_南京南
-local colonIndex = string.find(actualKey, ":")
-if colonIndex ~= nil then
-    actualKey = string.sub(actualKey, colonIndex + 1)
-end
-
--- ARGV[1] 是需要扣减的座位类型以及对应数量
-local jsonArrayStr = ARGV[1]
--- 因为传递过来是 JSON 字符串，所以这里再序列化成对象
-local jsonArray = cjson.decode(jsonArrayStr)
+-- KEYS[1] 是列车令牌桶 Hash Key
+-- ARGV 采用位置参数协议，所有 Hash Field 由调用方预先拼接，脚本中不做 JSON 解析和字符串拼接
+-- ARGV[1] 是购票涉及的座位类型数量 n
+-- ARGV[2 .. n+1] 是每种座位类型的购票数量
+-- ARGV[n+2 .. 2n+1] 是每种座位类型在出发站点和到达站点之间的令牌 Field，比如北京南_南京南_0
+-- ARGV[2n+2 ..] 是每种座位类型需要扣减的路线令牌 Field，按座位类型分组依次排列，每组数量相同
+local seatTypeSize = tonumber(ARGV[1])
+local routeFieldStart = 2 * seatTypeSize + 2
+local routeSize = (#ARGV - routeFieldStart + 1) / seatTypeSize
 
--- 返回的 JSON 对象字符串
-local result = {}
--- 返回 JSON 对象字符串中的是否请求成功字段
-local tokenIsNull = false
--- 如果请求失败，返回 JSON 对象字符串中的请求失败座位类型和数量
-local tokenIsNullSeatTypeCounts = {}
-
--- 简单的 for 循环
-for index, jsonObj in ipairs(jsonArray) do
-    local seatType = tonumber(jsonObj.seatType)
-    local count = tonumber(jsonObj.count)
-    local actualInnerHashKey = actualKey .. "_" .. seatType
+-- 令牌不足的座位类型位掩码，第 i 位为 1 代表第 i 种座位类型令牌不足
+local tokenIsNullMask = 0
+local bit = 1
+for i = 1, seatTypeSize do
+    local count = tonumber(ARGV[1 + i])
     -- 判断指定座位 Token 余量是否超过购买人数
-    local ticketSeatAvailabilityTokenValue = tonumber(redis.call('hget', KEYS[1], tostring(actualInnerHashKey)))
-    -- 如果超过那么设置 TOKEN 获取失败，以及记录失败座位类型和获取数量
-    if ticketSeatAvailabilityTokenValue < count then
-        tokenIsNull = true
-        table.insert(tokenIsNullSeatTypeCounts, seatType .. "_" .. count)
+    local ticketSeatAvailabilityTokenValue = tonumber(redis.call('hget', KEYS[1], ARGV[seatTypeSize + 1 + i]))
+    if ticketSeatAvailabilityTokenValue == nil or ticketSeatAvailabilityTokenValue < count then
+        tokenIsNullMask = tokenIsNullMask + bit
     end
+    bit = bit * 2
 end
 
-result['tokenIsNull'] = tokenIsNull
--- 如果令牌不足则直接返回失败
-if tokenIsNull then
-    result['tokenIsNullSeatTypeCounts'] = tokenIsNullSeatTypeCounts
-    -- 序列化成 JSON 字符串
-    return cjson.encode(result)
+-- 如果令牌不足则直接返回失败座位类型位掩码
+if tokenIsNullMask ~= 0 then
+    return tokenIsNullMask
 end
 
--- 通过上面的判断，已经知道令牌容器中对应的出发站点和到达站点对应的座位类型余票充足，开始进行扣减
-local alongJsonArrayStr = ARGV[2]
--- 因为传递过来是 JSON 字符串，所以这里再序列化成对象
-local alongJsonArray = cjson.decode(alongJsonArrayStr)
-
--- 双层 for 循环
-for index, jsonObj in ipairs(jsonArray) do
-    local seatType = tonumber(jsonObj.seatType)
-    local count = tonumber(jsonObj.count)
-    for indexTwo, alongJsonObj in ipairs(alongJsonArray) do
-        local startStation = tostring(alongJsonObj.startStation)
-        local endStation = tostring(alongJsonObj.endStation)
-        -- 开始扣减出发站点和到达站点相关的车站令牌余量
-        local actualInnerHashKey = startStation .. "_" .. endStation .. "_" .. seatType
-        -- 扣减命令通过 hash 结构的自增命令 hincrby，因为是要扣减，所以 count 前面加了个负号
-        redis.call('hincrby', KEYS[1], tostring(actualInnerHashKey), -count)
+-- 通过上面的判断，已经知道出发站点和到达站点对应的座位类型余票充足，开始扣减相关路线的令牌余量
+for i = 1, seatTypeSize do
+    local decrement = -tonumber(ARGV[1 + i])
+    local offset = routeFieldStart + (i - 1) * routeSize
+    for j = offset, offset + routeSize - 1 do
+        redis.call('hincrby', KEYS[1], ARGV[j], decrement)
     end
 end
 
 -- 全部扣减完成没有异常
-return cjson.encode(result)
\ No newline at end of file
+return 0
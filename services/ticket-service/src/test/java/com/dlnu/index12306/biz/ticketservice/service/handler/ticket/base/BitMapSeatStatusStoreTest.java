@@ -0,0 +1,120 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dlnu.index12306.biz.ticketservice.service.handler.ticket.base;
+
+import com.dlnu.index12306.biz.ticketservice.common.enums.CarriageSeatLayoutEnum;
+import com.dlnu.index12306.framework.starter.cache.DistributedCache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisStringCommands;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.nio.charset.StandardCharsets;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * 车厢座位状态位图读写测试，Redis 通过内存 Map 模拟
+ */
+class BitMapSeatStatusStoreTest {
+
+    private final Map<String, byte[]> redis = new HashMap<>();
+
+    private DistributedCache distributedCache;
+
+    @BeforeEach
+    void setUp() {
+        RedisStringCommands stringCommands = mock(RedisStringCommands.class);
+        when(stringCommands.get(any())).thenAnswer(invocation -> redis.get(new String(invocation.<byte[]>getArgument(0), StandardCharsets.UTF_8)));
+        when(stringCommands.set(any(), any(), any(), any())).thenAnswer(invocation -> {
+            redis.put(new String(invocation.<byte[]>getArgument(0), StandardCharsets.UTF_8), invocation.getArgument(1));
+            return Boolean.TRUE;
+        });
+        RedisConnection connection = mock(RedisConnection.class);
+        when(connection.stringCommands()).thenReturn(stringCommands);
+        StringRedisTemplate stringRedisTemplate = mock(StringRedisTemplate.class);
+        when(stringRedisTemplate.getKeySerializer()).thenAnswer(invocation -> RedisSerializer.string());
+        when(stringRedisTemplate.execute(any(RedisCallback.class))).thenAnswer(invocation -> invocation.<RedisCallback<?>>getArgument(0).doInRedis(connection));
+        when(stringRedisTemplate.executePipelined(any(RedisCallback.class))).thenAnswer(invocation -> {
+            invocation.<RedisCallback<?>>getArgument(0).doInRedis(connection);
+            return List.of();
+        });
+        distributedCache = mock(DistributedCache.class);
+        when(distributedCache.getInstance()).thenReturn(stringRedisTemplate);
+    }
+
+    @Test
+    void putAndGetRoundTrip() {
+        String key = BitMapSeatStatusStore.buildKey("1", "北京南", "南京南", "03");
+        BitSet vacantSeats = new BitSet();
+        vacantSeats.set(0);
+        vacantSeats.set(9);
+        vacantSeats.set(89);
+        BitMapSeatStatusStore.put(key, vacantSeats, distributedCache, 1, TimeUnit.DAYS);
+        assertEquals(vacantSeats, BitMapSeatStatusStore.get(key, distributedCache));
+        // 与 Redis SETBIT 位序一致，下标 0 为第一个字节的最高位
+        byte[] raw = redis.get(key);
+        assertEquals((byte) 0x80, raw[0]);
+        assertEquals((byte) 0x40, raw[1]);
+    }
+
+    @Test
+    void getMissingKeyReturnsEmpty() {
+        assertTrue(BitMapSeatStatusStore.get("missing", distributedCache).isEmpty());
+    }
+
+    @Test
+    void putAllThenCheckSeat() {
+        CarriageSeatLayoutEnum layout = CarriageSeatLayoutEnum.SECOND_CLASS;
+        String key = BitMapSeatStatusStore.buildKey("1", "北京南", "南京南", "03");
+        BitSet vacantSeats = new BitSet();
+        // 01A、02A、05F 可售
+        vacantSeats.set(layout.seatIndex("01A"));
+        vacantSeats.set(layout.seatIndex("02A"));
+        vacantSeats.set(layout.seatIndex("05F"));
+        BitMapSeatStatusStore.putAll(Map.of(key, vacantSeats), distributedCache, 1, TimeUnit.DAYS);
+        TrainSecondCheckSeat checkSeat = new TrainSecondCheckSeat();
+        assertTrue(checkSeat.checkSeat(key, new HashMap<>(Map.of(0, 2, 4, 1)), distributedCache));
+        assertFalse(checkSeat.checkSeat(key, new HashMap<>(Map.of(0, 3)), distributedCache));
+        assertFalse(checkSeat.checkSeat(key, new HashMap<>(Map.of(1, 1)), distributedCache));
+        assertFalse(checkSeat.checkSeat(key, new HashMap<>(Map.of(layout.getColumns(), 1)), distributedCache));
+        assertArrayEquals(vacantSeats.toLongArray(), BitMapSeatStatusStore.get(key, distributedCache).toLongArray());
+    }
+
+    @Test
+    void checkChooseSeatRejectsColumnOutOfRow() {
+        int[][] actualSeats = new int[2][2];
+        TrainFirstCheckSeat checkSeat = new TrainFirstCheckSeat();
+        assertTrue(checkSeat.checkChooseSeat(List.of("A1", "C2"), actualSeats, Map.of('A', 0, 'C', 1, 'F', 3)));
+        assertFalse(checkSeat.checkChooseSeat(List.of("F1"), actualSeats, Map.of('A', 0, 'C', 1, 'F', 3)));
+    }
+}